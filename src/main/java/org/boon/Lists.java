@@ -31,7 +31,9 @@ package org.boon;
 
 import org.boon.collections.DoubleList;
 import org.boon.collections.FloatList;
+import org.boon.collections.IntHashSet;
 import org.boon.collections.IntList;
+import org.boon.collections.LongHashSet;
 import org.boon.collections.LongList;
 import org.boon.core.Conversions;
 import org.boon.core.Predicate;
@@ -123,7 +125,7 @@ public class Lists {
         List<V> list = new ArrayList<>(collection.size());
 
         for (V v : collection) {
-            list.add( BeanUtils.copy( v ));
+            list.add( ObjectCopier.copy( v ));
         }
         return list;
     }
@@ -131,7 +133,7 @@ public class Lists {
     public static <V> List<V> deepCopyToList( Collection<V> src,  List<V> dst) {
 
         for (V v : src) {
-            dst.add( BeanUtils.copy( v ));
+            dst.add( ObjectCopier.copy( v ));
         }
         return  dst;
     }
@@ -141,7 +143,11 @@ public class Lists {
         List<T> list = new ArrayList<>(src.size());
 
         for (V v : src) {
-            list.add( BeanUtils.createFromSrc( v, dest ));
+            if ( v != null && v.getClass() == dest ) {
+                list.add( ( T ) ObjectCopier.copy( v ) );
+            } else {
+                list.add( BeanUtils.createFromSrc( v, dest ));
+            }
         }
         return list;
     }
@@ -235,6 +241,12 @@ public class Lists {
     }
 
 
+    public static IntHashSet toIntSet( List<?> inputList, String propertyPath ) {
+
+        return IntHashSet.toIntSet(inputList, propertyPath);
+    }
+
+
     public static FloatList toFloatList( List<?> inputList, String propertyPath ) {
 
         return FloatList.toFloatList(inputList, propertyPath);
@@ -252,6 +264,12 @@ public class Lists {
         return LongList.toLongList(inputList, propertyPath);
     }
 
+
+    public static LongHashSet toLongSet( List<?> inputList, String propertyPath ) {
+
+        return LongHashSet.toLongSet(inputList, propertyPath);
+    }
+
     public static List<?> toList( List<?> inputList, String propertyPath ) {
         List<Object> outputList = new ArrayList<>();
 
@@ -186,6 +186,28 @@ public class MBeans {
         }
     }
 
+    public static void unregisterMBean( final String prefix, final String name, final Object mbean ) {
+
+        Exceptions.requireNonNull( prefix, "prefix can't be null" );
+        Exceptions.requireNonNull( name, "name can't be null" );
+        Exceptions.requireNonNull( mbean, "mbean can't be null" );
+
+        String nameOfBean = String.format( "%s.%s:type=%s",
+                prefix, mbean.getClass().getSimpleName(),
+                name );
+
+        try {
+
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean( new ObjectName( nameOfBean ) );
+
+        } catch ( final Exception ex ) {
+            Exceptions.handle( String.format(
+                    "unregisterMBean %s %s %s %s", prefix, name, mbean, nameOfBean
+            ), ex );
+
+        }
+    }
+
     public static void registerMBean( final String prefix, final String name, final Object mbean ) {
 
         Exceptions.requireNonNull( prefix, "prefix can't be null" );
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+package org.boon.cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Intrusive doubly linked list of cache nodes, eldest first, plus lossy read buffers.
+ *
+ * Shared by ConcurrentLruCache and the LRU/FIFO stripes of SimpleConcurrentCache.
+ * A read drops the node into a small ring buffer picked by thread, and every so often
+ * the reader that gets the tryLock applies the buffered reads to the list in one batch.
+ * A full buffer overwrites old reads, so under very heavy reads the order is approximate.
+ *
+ * The owner holds the lock for everything but recordRead.
+ *
+ * @param <K> key
+ * @param <V> value
+ */
+final class AccessOrderList<K, V> {
+
+    /** Slots per read buffer, power of 2. */
+    private static final int BUFFER_SIZE = 32;
+    private static final int BUFFER_MASK = BUFFER_SIZE - 1;
+
+    /** Try to drain every this many reads into one buffer, power of 2. */
+    private static final int DRAIN_MASK = 16 - 1;
+
+    private final ReentrantLock lock;
+
+    private final ReadBuffer[] readBuffers;
+    private final int readBufferMask;
+
+    /** Eldest first, guarded by lock. */
+    private Node<K, V> head;
+    private Node<K, V> tail;
+
+    /**
+     * @param lock the owner's lock
+     * @param readBuffers how many read buffers, power of 2
+     */
+    AccessOrderList( ReentrantLock lock, int readBuffers ) {
+        this.lock = lock;
+        this.readBuffers = new ReadBuffer[ readBuffers ];
+        for ( int index = 0; index < readBuffers; index++ ) {
+            this.readBuffers[ index ] = new ReadBuffer();
+        }
+        this.readBufferMask = readBuffers - 1;
+    }
+
+    /** Drop the hit in this thread's buffer, drain now and then if nobody else is. No lock needed. */
+    void recordRead( Node<K, V> node ) {
+        ReadBuffer buffer = readBuffers[ ( int ) Thread.currentThread().getId() & readBufferMask ];
+        int index = buffer.writes.getAndIncrement();
+        buffer.slots.lazySet( index & BUFFER_MASK, node );
+
+        if ( ( index & DRAIN_MASK ) == DRAIN_MASK && lock.tryLock() ) {
+            try {
+                drainReads();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /** Apply buffered reads to the order. Lock held. */
+    @SuppressWarnings( "unchecked" )
+    void drainReads() {
+        for ( ReadBuffer buffer : readBuffers ) {
+            for ( int index = 0; index < BUFFER_SIZE; index++ ) {
+                Node<K, V> node = ( Node<K, V> ) buffer.slots.getAndSet( index, null );
+                if ( node != null && node.linked ) {
+                    moveToTail( node );
+                }
+            }
+        }
+    }
+
+    /** Least recently used (or first in), null when empty. Lock held. */
+    Node<K, V> eldest() {
+        return head;
+    }
+
+    void linkLast( Node<K, V> node ) {
+        node.prev = tail;
+        node.next = null;
+        if ( tail == null ) {
+            head = node;
+        } else {
+            tail.next = node;
+        }
+        tail = node;
+        node.linked = true;
+    }
+
+    void unlink( Node<K, V> node ) {
+        if ( !node.linked ) {
+            return;
+        }
+        if ( node.prev == null ) {
+            head = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if ( node.next == null ) {
+            tail = node.prev;
+        } else {
+            node.next.prev = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+        node.linked = false;
+    }
+
+    void moveToTail( Node<K, V> node ) {
+        if ( tail != node ) {
+            unlink( node );
+            linkLast( node );
+        }
+    }
+
+
+    /** Map value and list node in one. Links are guarded by the owner's lock. */
+    static final class Node<K, V> {
+        final K key;
+        volatile V value;
+        int weight;
+        Node<K, V> prev;
+        Node<K, V> next;
+        boolean linked;
+
+        Node( K key, V value, int weight ) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+
+        public String toString() {
+            return String.valueOf( value );
+        }
+    }
+
+    /** Lossy ring of recent hits. */
+    private static final class ReadBuffer {
+        final AtomicInteger writes = new AtomicInteger();
+        final AtomicReferenceArray<Object> slots = new AtomicReferenceArray<>( BUFFER_SIZE );
+    }
+}
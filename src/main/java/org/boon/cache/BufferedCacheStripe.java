@@ -0,0 +1,206 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.cache;
+
+import org.boon.cache.AccessOrderList.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One stripe of SimpleConcurrentCache (LRU or FIFO).
+ *
+ * Reads come straight out of a ConcurrentHashMap without a lock. For LRU a read
+ * is buffered in an AccessOrderList and applied to the order in a batch, and
+ * always before a write evicts.
+ *
+ * Bounded by entry count, or by total weight when there is a Weigher.
+ *
+ * @param <K> key
+ * @param <V> value
+ */
+final class BufferedCacheStripe<K, V> implements Cache<K, V> {
+
+    private final ConcurrentHashMap<K, Node<K, V>> map = new ConcurrentHashMap<>();
+    private final ReentrantLock lock;
+    private final boolean lru;
+
+    private final int limit;
+    private final Weigher<K, V> weigher;
+    private final long maxWeight;
+    private volatile long weight;
+
+    /** Eldest first, guarded by lock. */
+    private final AccessOrderList<K, V> order;
+
+    /** Optional, see SimpleConcurrentCache.recordStats. */
+    volatile CacheStats stats;
+
+    /** Optional, see SimpleConcurrentCache.evictionListener. */
+    volatile EvictionListener<K, V> listener;
+
+    BufferedCacheStripe( int limit, CacheType type, boolean fair ) {
+        this( limit, Long.MAX_VALUE, type, fair, null );
+    }
+
+    BufferedCacheStripe( long maxWeight, CacheType type, boolean fair, Weigher<K, V> weigher ) {
+        this( Integer.MAX_VALUE, maxWeight, type, fair, weigher );
+    }
+
+    private BufferedCacheStripe( int limit, long maxWeight, CacheType type, boolean fair, Weigher<K, V> weigher ) {
+        this.limit = limit;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.lru = type == CacheType.LRU;
+        this.lock = new ReentrantLock( fair );
+        this.order = new AccessOrderList<>( lock, 1 );
+    }
+
+    @Override
+    public V get( K key ) {
+        Node<K, V> node = map.get( key );
+        if ( node == null ) {
+            return null;
+        }
+        if ( lru ) {
+            order.recordRead( node );
+        }
+        return node.value;
+    }
+
+    @Override
+    public V getSilent( K key ) {
+        Node<K, V> node = map.get( key );
+        return node == null ? null : node.value;
+    }
+
+    @Override
+    public void put( K key, V value ) {
+        EvictionListener<K, V> listener = this.listener;
+        List<Node<K, V>> evicted = null;
+
+        lock();
+        try {
+            drainReads();
+
+            Node<K, V> node = map.get( key );
+            int newWeight = weigh( key, value );
+            if ( node != null ) {
+                weight += newWeight - node.weight;
+                node.weight = newWeight;
+                node.value = value;
+                if ( lru ) {
+                    order.moveToTail( node );
+                }
+            } else {
+                node = new Node<>( key, value, newWeight );
+                map.put( key, node );
+                order.linkLast( node );
+                weight += newWeight;
+            }
+
+            Node<K, V> eldest;
+            while ( ( map.size() > limit || weight > maxWeight ) && ( eldest = order.eldest() ) != null ) {
+                order.unlink( eldest );
+                map.remove( eldest.key );
+                weight -= eldest.weight;
+                CacheStats stats = this.stats;
+                if ( stats != null ) {
+                    stats.recordEviction();
+                }
+                if ( listener != null ) {
+                    if ( evicted == null ) {
+                        evicted = new ArrayList<>( 2 );
+                    }
+                    evicted.add( eldest );
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if ( evicted != null ) {
+            for ( Node<K, V> node : evicted ) {
+                listener.evicted( node.key, node.value );
+            }
+        }
+    }
+
+    @Override
+    public void remove( K key ) {
+        lock();
+        try {
+            Node<K, V> node = map.remove( key );
+            if ( node != null ) {
+                order.unlink( node );
+                weight -= node.weight;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    /** Total weight, or the entry count when there is no Weigher. */
+    long weight() {
+        return weigher == null ? map.size() : weight;
+    }
+
+    /** Take the lock, counting it as contention if we had to wait. */
+    private void lock() {
+        if ( !lock.tryLock() ) {
+            CacheStats stats = this.stats;
+            if ( stats != null ) {
+                stats.recordContention();
+            }
+            lock.lock();
+        }
+    }
+
+    private int weigh( K key, V value ) {
+        return weigher == null ? 1 : weigher.weigh( key, value );
+    }
+
+    /** Apply buffered reads to the order. Lock held. */
+    private void drainReads() {
+        if ( lru ) {
+            order.drainReads();
+        }
+    }
+
+    public String toString() {
+        return map.toString();
+    }
+}
@@ -28,6 +28,8 @@
 
 package org.boon.cache;
 
+import org.boon.collections.SampledEvictionList;
+
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.boon.Exceptions.die;
@@ -37,7 +39,7 @@ import static org.boon.Exceptions.die;
  * @param <KEY> the key for the cache entry
  * @param <VALUE> the value
  */
-class CacheEntry<KEY, VALUE> implements Comparable<CacheEntry> {
+class CacheEntry<KEY, VALUE> implements Comparable<CacheEntry>, SampledEvictionList.SortKeys {
 
     /** Keep track of the read count. */
     final AtomicInteger readCount = new AtomicInteger();
@@ -57,6 +59,12 @@ class CacheEntry<KEY, VALUE> implements Comparable<CacheEntry> {
     /** The time the entry was added. */
     final long time;
 
+    /** Weight from the cache's Weigher, 1 if there is none. Written holding the entry. */
+    volatile int weight = 1;
+
+    /** Set once the entry left the map, guarded by the entry. */
+    boolean removed;
+
 
     /** Creates a cache entry.
      *
@@ -75,6 +83,28 @@ class CacheEntry<KEY, VALUE> implements Comparable<CacheEntry> {
 
     }
 
+    /** Same order as compareTo, with the read count read once. */
+    @Override
+    public int sortKeys( long[] keys ) {
+        switch ( type ) {
+            case LFU:
+                keys[ 0 ] = readCount.get();
+                keys[ 1 ] = time;
+                keys[ 2 ] = order;
+                return 3;
+            case LRU:
+                keys[ 0 ] = time;
+                keys[ 1 ] = order;
+                keys[ 2 ] = readCount.get();
+                return 3;
+            default:
+                keys[ 0 ] = order;
+                keys[ 1 ] = time;
+                keys[ 2 ] = readCount.get();
+                return 3;
+        }
+    }
+
     /**
      * Comparison of entries this determines what we will order the cache by
      * which determines which type of cache it is.
@@ -92,7 +122,7 @@ class CacheEntry<KEY, VALUE> implements Comparable<CacheEntry> {
             case FIFO:
                 return compareToFIFO( other );
             default:
-                die();
+                die( "cache type not supported by this cache", type );
                 return 0;
 
         }
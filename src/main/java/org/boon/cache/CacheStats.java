@@ -0,0 +1,178 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.cache;
+
+import org.boon.MBeans;
+import org.boon.core.StripedCounter;
+
+/**
+ * Hit, miss, put, eviction, load and lock contention counts for a cache.
+ *
+ * Counters are striped so recording from many threads does not contend.
+ * Hand one to SimpleConcurrentCache.recordStats, LoadingCache.recordStats or
+ * wrap any Cache in StatsCache.
+ *
+ * register(name) publishes it as an MBean through MBeans.registerMBean. Do that for
+ * long lived caches only, and call unregister() when the cache goes away.
+ */
+public class CacheStats implements CacheStatsMBean {
+
+    private final StripedCounter hits = new StripedCounter();
+    private final StripedCounter misses = new StripedCounter();
+    private final StripedCounter puts = new StripedCounter();
+    private final StripedCounter evictions = new StripedCounter();
+    private final StripedCounter loads = new StripedCounter();
+    private final StripedCounter loadFailures = new StripedCounter();
+    private final StripedCounter loadNanos = new StripedCounter();
+    private final StripedCounter contention = new StripedCounter();
+
+    /** Name we are registered under, null if we are not. */
+    private volatile String registeredAs;
+
+    /** Register as org.boon.cache.CacheStats:type=name. */
+    public CacheStats register( String name ) {
+        MBeans.registerMBean( "org.boon.cache", name, this );
+        registeredAs = name;
+        return this;
+    }
+
+    /** Take the MBean down again, does nothing if it was not registered. */
+    public void unregister() {
+        String name = registeredAs;
+        if ( name != null ) {
+            registeredAs = null;
+            MBeans.unregisterMBean( "org.boon.cache", name, this );
+        }
+    }
+
+    public void recordHit() {
+        hits.increment();
+    }
+
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    public void recordPut() {
+        puts.increment();
+    }
+
+    public void recordEviction() {
+        evictions.increment();
+    }
+
+    public void recordLoad( long nanos ) {
+        loads.increment();
+        loadNanos.add( nanos );
+    }
+
+    public void recordLoadFailure( long nanos ) {
+        loadFailures.increment();
+        loadNanos.add( nanos );
+    }
+
+    /** A lock was busy and we had to wait for it. */
+    public void recordContention() {
+        contention.increment();
+    }
+
+    @Override
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    @Override
+    public double getHitRatio() {
+        long hits = getHitCount();
+        long requests = hits + getMissCount();
+        return requests == 0 ? 1.0 : ( double ) hits / requests;
+    }
+
+    @Override
+    public long getPutCount() {
+        return puts.sum();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    @Override
+    public long getLoadCount() {
+        return loads.sum();
+    }
+
+    @Override
+    public long getLoadFailureCount() {
+        return loadFailures.sum();
+    }
+
+    @Override
+    public double getAverageLoadMillis() {
+        long count = getLoadCount() + getLoadFailureCount();
+        return count == 0 ? 0.0 : loadNanos.sum() / 1_000_000.0 / count;
+    }
+
+    @Override
+    public long getContentionCount() {
+        return contention.sum();
+    }
+
+    @Override
+    public void reset() {
+        hits.reset();
+        misses.reset();
+        puts.reset();
+        evictions.reset();
+        loads.reset();
+        loadFailures.reset();
+        loadNanos.reset();
+        contention.reset();
+    }
+
+    public String toString() {
+        return "CacheStats{" +
+                "hits=" + getHitCount() +
+                ", misses=" + getMissCount() +
+                ", hitRatio=" + getHitRatio() +
+                ", puts=" + getPutCount() +
+                ", evictions=" + getEvictionCount() +
+                ", loads=" + getLoadCount() +
+                ", loadFailures=" + getLoadFailureCount() +
+                ", averageLoadMillis=" + getAverageLoadMillis() +
+                ", contention=" + getContentionCount() +
+                '}';
+    }
+}
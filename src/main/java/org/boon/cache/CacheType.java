@@ -32,5 +32,7 @@ public enum CacheType {
 
     LRU,
     LFU,
-    FIFO
+    FIFO,
+    /** Admission window plus segmented LRU, guarded by an aging frequency sketch. See TinyLfuCache. */
+    TINY_LFU
 }
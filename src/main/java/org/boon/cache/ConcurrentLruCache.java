@@ -28,32 +28,40 @@
 
 package org.boon.cache;
 
-import java.util.Deque;
-import java.util.LinkedList;
-import java.util.Map;
+import org.boon.cache.AccessOrderList.Node;
+
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.locks.ReentrantLock;
 
+import static org.boon.primitive.Int.roundUpToPowerOf2;
+
 /**
  * ConcurrentLruCache cache.
- * This has the limitation of using a single lock to update live status of key.
+ *
+ * Reads do not lock. A hit is recorded in a small lossy ring buffer picked by thread,
+ * and the buffers are drained in batches into an intrusive doubly linked list
+ * under tryLock, see AccessOrderList. Writes take the lock, drain the buffers and
+ * then evict the eldest.
+ * Every step is O(1) so the cache does not slow down as it grows.
+ *
+ * If a read buffer is full, old entries get overwritten, so recency is approximate
+ * under heavy read load.
  *
  * @param <KEY> the key
  * @param <VALUE> the value
  */
 public class ConcurrentLruCache<KEY, VALUE> implements Cache<KEY, VALUE> {
 
-
-
     /**
      * Map to hold the cache values
      */
-    private final Map<KEY, VALUE> map = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<KEY, Node<KEY, VALUE>> map = new ConcurrentHashMap<>();
 
-    /** Queue to hold keys in the LRU cache.
-     */
-    private final Deque<KEY> queue = new ConcurrentLinkedDeque<>();
+    /** Guards the recency list. */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** Recency, least recently used first, plus the reads waiting to be applied. */
+    private final AccessOrderList<KEY, VALUE> order;
 
     /** Limit the amount you can hold in the map. */
     private final int limit;
@@ -62,6 +70,8 @@ public class ConcurrentLruCache<KEY, VALUE> implements Cache<KEY, VALUE> {
     /** Creates an LRU Cache with a given limit. */
     public ConcurrentLruCache( int limit ) {
         this.limit = limit;
+
+        this.order = new AccessOrderList<>( lock, roundUpToPowerOf2( Runtime.getRuntime().availableProcessors() ) );
     }
 
     /**
@@ -71,14 +81,27 @@ public class ConcurrentLruCache<KEY, VALUE> implements Cache<KEY, VALUE> {
      */
     @Override
     public void put( KEY key, VALUE value ) {
-        VALUE oldValue = map.put( key, value );
-        if ( oldValue != null ) {
-            removeThenAddKey( key );
-        } else {
-            addKey( key );
-        }
-        if ( map.size() > limit ) {
-            map.remove( removeLast() );
+        lock.lock();
+        try {
+            order.drainReads();
+
+            Node<KEY, VALUE> node = map.get( key );
+            if ( node != null ) {
+                node.value = value;
+                order.moveToTail( node );
+            } else {
+                node = new Node<>( key, value, 1 );
+                map.put( key, node );
+                order.linkLast( node );
+            }
+
+            Node<KEY, VALUE> eldest;
+            while ( map.size() > limit && ( eldest = order.eldest() ) != null ) {
+                order.unlink( eldest );
+                map.remove( eldest.key, eldest );
+            }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -90,8 +113,12 @@ public class ConcurrentLruCache<KEY, VALUE> implements Cache<KEY, VALUE> {
      */
     @Override
     public VALUE get( KEY key ) {
-        removeThenAddKey( key );
-        return map.get( key );
+        Node<KEY, VALUE> node = map.get( key );
+        if ( node == null ) {
+            return null;
+        }
+        order.recordRead( node );
+        return node.value;
     }
 
 
@@ -102,7 +129,8 @@ public class ConcurrentLruCache<KEY, VALUE> implements Cache<KEY, VALUE> {
      */
     @Override
     public VALUE getSilent( KEY key ) {
-        return map.get( key );
+        Node<KEY, VALUE> node = map.get( key );
+        return node == null ? null : node.value;
     }
 
     /**
@@ -111,8 +139,15 @@ public class ConcurrentLruCache<KEY, VALUE> implements Cache<KEY, VALUE> {
      */
     @Override
     public void remove( KEY key ) {
-        removeFirstOccurrence( key );
-        map.remove( key );
+        lock.lock();
+        try {
+            Node<KEY, VALUE> node = map.remove( key );
+            if ( node != null ) {
+                order.unlink( node );
+            }
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -125,40 +160,6 @@ public class ConcurrentLruCache<KEY, VALUE> implements Cache<KEY, VALUE> {
     }
 
 
-    /** Add a key. */
-    private void addKey( KEY key ) {
-            queue.addFirst(key);
-      }
-
-    /** Remove the last key. */
-    private KEY removeLast() {
-            final KEY removedKey = queue.removeLast();
-            return removedKey;
-     }
-
-    /**
-     * This removes the item from the queue and then re-adds it to increment the
-     * live-ness of the item. It updates the LRU since this key was read.
-     *
-     * @param key key
-     */
-    private void removeThenAddKey( KEY key ) {
-            queue.removeFirstOccurrence( key );
-            queue.addFirst( key );
-
-    }
-
-    /**
-     * Remove the key.
-     * @param key
-     */
-    private void removeFirstOccurrence( KEY key ) {
-            queue.removeFirstOccurrence(key);
-
-    }
-
-
-
     public String toString() {
         return map.toString();
     }
@@ -0,0 +1,298 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.cache;
+
+import org.boon.core.Sys;
+import org.boon.core.timer.TimeKeeper;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cache whose entries expire a fixed time after they were written (TTL),
+ * after they were last read (TTI), or both.
+ *
+ * A read checks the deadline itself, so an expired value is never returned. Memory
+ * is reclaimed by a TimerWheel that is advanced from the TimeKeeper whenever a call
+ * notices the clock moved on. There are no per entry timers and no full scans.
+ *
+ * The default clock is Sys.time(), a CoarseTimeKeeper unless someone swapped it,
+ * so deadlines are good to a few ms. Pass a TimeKeeper to use something else.
+ *
+ * Size bound and eviction policy come from a SimpleConcurrentCache of the given CacheType.
+ *
+ * @param <K> key
+ * @param <V> value
+ */
+public class ExpiringCache<K, V> implements Cache<K, V> {
+
+    private final SimpleConcurrentCache<K, Entry<K, V>> cache;
+    private final TimeKeeper timeKeeper;
+    private final long expireAfterWrite;
+    private final long expireAfterAccess;
+    private final boolean timed;
+
+    /** Guards the wheel only, the cache itself is concurrent. */
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TimerWheel<Entry<K, V>> wheel;
+
+    /** Entries replaced, removed or evicted for size, taken off the wheel next time someone holds the lock. */
+    private final ConcurrentLinkedQueue<Entry<K, V>> retired = new ConcurrentLinkedQueue<>();
+
+    /** Makes read then write of one key atomic, striped by key hash. */
+    private final Object[] keyLocks = new Object[ 64 ];
+
+    {
+        for ( int index = 0; index < keyLocks.length; index++ ) {
+            keyLocks[ index ] = new Object();
+        }
+    }
+
+    /**
+     * @param limit max entries
+     * @param type eviction policy for the size bound
+     * @param expireAfterWrite millis an entry lives after put, 0 or less for none
+     * @param expireAfterAccess millis an entry lives after its last read or put, 0 or less for none
+     */
+    public ExpiringCache( int limit, CacheType type, long expireAfterWrite, long expireAfterAccess ) {
+        this( limit, type, expireAfterWrite, expireAfterAccess, new TimeKeeper() {
+            @Override
+            public long time() {
+                return Sys.time();
+            }
+        } );
+    }
+
+    public ExpiringCache( int limit, CacheType type, long expireAfterWrite, long expireAfterAccess,
+                          TimeKeeper timeKeeper ) {
+        this.cache = new SimpleConcurrentCache<>( limit, type );
+        this.timeKeeper = timeKeeper;
+        this.expireAfterWrite = expireAfterWrite > 0 ? expireAfterWrite : Long.MAX_VALUE;
+        this.expireAfterAccess = expireAfterAccess > 0 ? expireAfterAccess : Long.MAX_VALUE;
+        this.timed = this.expireAfterWrite != Long.MAX_VALUE || this.expireAfterAccess != Long.MAX_VALUE;
+
+        this.wheel = new TimerWheel<>( timeKeeper.time(), new TimerWheel.Expirer<Entry<K, V>>() {
+            @Override
+            public void expire( Entry<K, V> entry ) {
+                removeIfSame( entry );
+            }
+        } );
+
+        /* Called from inside the stripe for TINY_LFU, so only queue it, never take our lock there. */
+        this.cache.evictionListener( new EvictionListener<K, Entry<K, V>>() {
+            @Override
+            public void evicted( K key, Entry<K, V> entry ) {
+                retire( entry );
+            }
+        } );
+    }
+
+    @Override
+    public void put( K key, V value ) {
+        long now = timeKeeper.time();
+        Entry<K, V> entry = new Entry<>( key, value, deadline( now, expireAfterWrite ),
+                deadline( now, expireAfterAccess ) );
+
+        Entry<K, V> old;
+        synchronized ( keyLock( key ) ) {
+            old = cache.getSilent( key );
+            cache.put( key, entry );
+        }
+        if ( !timed ) {
+            return;
+        }
+        if ( old != null ) {
+            retire( old );
+        }
+
+        lock.lock();
+        try {
+            drainRetired();
+            /* It may already have been replaced or evicted, then it must not go on the wheel. */
+            if ( !entry.retired ) {
+                wheel.schedule( entry );
+            }
+            wheel.advance( now );
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public V get( K key ) {
+        long now = timeKeeper.time();
+        cleanUpIfBehind( now );
+
+        Entry<K, V> entry = cache.get( key );
+        if ( entry == null ) {
+            return null;
+        }
+        if ( entry.expiresAt() <= now ) {
+            if ( removeIfSame( entry ) ) {
+                retire( entry );
+            }
+            return null;
+        }
+        if ( expireAfterAccess != Long.MAX_VALUE ) {
+            entry.accessDeadline = deadline( now, expireAfterAccess );
+        }
+        return entry.value;
+    }
+
+    /** For testing, does not count as an access. */
+    @Override
+    public V getSilent( K key ) {
+        Entry<K, V> entry = cache.getSilent( key );
+        if ( entry == null || entry.expiresAt() <= timeKeeper.time() ) {
+            return null;
+        }
+        return entry.value;
+    }
+
+    @Override
+    public void remove( K key ) {
+        Entry<K, V> entry;
+        synchronized ( keyLock( key ) ) {
+            entry = cache.getSilent( key );
+            if ( entry != null ) {
+                cache.remove( key );
+            }
+        }
+        if ( entry != null ) {
+            retire( entry );
+        }
+    }
+
+    /** Includes entries that expired but were not reclaimed yet. */
+    @Override
+    public int size() {
+        return cache.size();
+    }
+
+    /** Reclaim whatever has expired by now. */
+    public void cleanUp() {
+        long now = timeKeeper.time();
+        lock.lock();
+        try {
+            drainRetired();
+            wheel.advance( now );
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** For testing, entries on the wheel. */
+    int scheduled() {
+        lock.lock();
+        try {
+            drainRetired();
+            return wheel.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void cleanUpIfBehind( long now ) {
+        if ( wheel.isBehind( now ) && lock.tryLock() ) {
+            try {
+                drainRetired();
+                wheel.advance( now );
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /** Queue an entry that left the cache to come off the wheel. */
+    private void retire( Entry<K, V> entry ) {
+        if ( timed ) {
+            entry.retired = true;
+            retired.add( entry );
+        }
+    }
+
+    /** Lock held. */
+    private void drainRetired() {
+        Entry<K, V> entry;
+        while ( ( entry = retired.poll() ) != null ) {
+            wheel.unschedule( entry );
+        }
+    }
+
+    /** Drop the entry if it is still the one mapped. */
+    private boolean removeIfSame( Entry<K, V> entry ) {
+        synchronized ( keyLock( entry.key ) ) {
+            if ( cache.getSilent( entry.key ) == entry ) {
+                cache.remove( entry.key );
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private Object keyLock( K key ) {
+        int hash = key.hashCode();
+        return keyLocks[ ( hash ^ ( hash >>> 16 ) ) & ( keyLocks.length - 1 ) ];
+    }
+
+    private static long deadline( long now, long duration ) {
+        return duration == Long.MAX_VALUE ? Long.MAX_VALUE : now + duration;
+    }
+
+    public String toString() {
+        return cache.toString();
+    }
+
+
+    static final class Entry<K, V> extends TimerWheel.Node {
+        final K key;
+        final V value;
+        final long writeDeadline;
+        volatile long accessDeadline;
+
+        /** Left the cache, keep it off the wheel. */
+        volatile boolean retired;
+
+        Entry( K key, V value, long writeDeadline, long accessDeadline ) {
+            this.key = key;
+            this.value = value;
+            this.writeDeadline = writeDeadline;
+            this.accessDeadline = accessDeadline;
+        }
+
+        @Override
+        long expiresAt() {
+            return Math.min( writeDeadline, accessDeadline );
+        }
+
+        public String toString() {
+            return String.valueOf( value );
+        }
+    }
+}
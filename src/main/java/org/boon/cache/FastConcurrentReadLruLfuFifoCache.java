@@ -28,23 +28,27 @@
 
 package org.boon.cache;
 
-import org.boon.collections.SortableConcurrentList;
+import org.boon.collections.SampledEvictionList;
+import org.boon.core.Sys;
 import org.boon.core.timer.TimeKeeper;
-import org.boon.core.timer.TimeKeeperBasic;
 
-import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.boon.Exceptions.die;
 
 
 /**
  * Fast concurrent read cache with many options.
  *
- * Writes are slow (single threaded lock)
+ * Writes lock one stripe of the eviction list.
  * Reads are very fast no lock.
- * Compaction (if you are over the limit) is slow.
+ * Compaction (if you are over the limit) samples entries per stripe
+ * and only one thread compacts at a time.
+ * FAST_SORT and FAST_REMOVE still give the exact sorted eviction order.
  *
  *
  * @param <KEY> key
@@ -59,9 +63,14 @@ public class FastConcurrentReadLruLfuFifoCache<KEY, VALUE> implements Cache<KEY,
     private final ConcurrentHashMap<KEY, CacheEntry<KEY, VALUE>> map = new ConcurrentHashMap<>();
 
     /**
-     * A list that can be sorted easily. It is concurrent.
+     * Picks what to evict. It is concurrent.
      */
-    private final SortableConcurrentList<CacheEntry<KEY, VALUE>> list;
+    private final SampledEvictionList<CacheEntry<KEY, VALUE>> list;
+
+    /**
+     * Only one thread evicts at a time, the rest keep going.
+     */
+    private final AtomicBoolean evicting = new AtomicBoolean();
 
     /**
      * Eviction size.
@@ -83,15 +92,32 @@ public class FastConcurrentReadLruLfuFifoCache<KEY, VALUE> implements Cache<KEY,
      */
     private final TimeKeeper timeKeeper;
 
+    /**
+     * Weighs entries, null means every entry weighs 1 and evictSize is the bound.
+     */
+    private final Weigher<KEY, VALUE> weigher;
+
+    /**
+     * Max total weight when there is a weigher.
+     */
+    private final long maxWeight;
+
+    /**
+     * Total weight when there is a weigher.
+     */
+    private final AtomicLong weight = new AtomicLong();
+
     /**
      * New cache LFU is the default.
      * @param evictSize
      */
     public FastConcurrentReadLruLfuFifoCache( int evictSize ) {
         this.evictSize = ( int ) ( evictSize + ( evictSize * 0.20f ) );
-        list = new SortableConcurrentList<>();
+        list = new SampledEvictionList<>();
         this.type = CacheType.LFU;
-        timeKeeper = new TimeKeeperBasic();
+        timeKeeper = Sys.timer();
+        weigher = null;
+        maxWeight = Long.MAX_VALUE;
 
     }
 
@@ -107,17 +133,35 @@ public class FastConcurrentReadLruLfuFifoCache<KEY, VALUE> implements Cache<KEY,
 
         this.type = type;
 
-        if ( tradeoffs == Tradeoffs.FAST_REMOVE ) {
-            list = new SortableConcurrentList<>( new LinkedList<CacheEntry<KEY, VALUE>>() );
-        } else if ( tradeoffs == Tradeoffs.FAST_SORT ) {
-            list = new SortableConcurrentList<>( new ArrayList<CacheEntry<KEY, VALUE>>() );
+        if ( tradeoffs == Tradeoffs.FAST_REMOVE || tradeoffs == Tradeoffs.FAST_SORT ) {
+            list = new SampledEvictionList<>( 1, 0 );
         } else {
-            list = new SortableConcurrentList<>();
+            list = new SampledEvictionList<>();
         }
 
 
-        timeKeeper = new TimeKeeperBasic();
+        timeKeeper = Sys.timer();
+        weigher = null;
+        maxWeight = Long.MAX_VALUE;
+
+    }
 
+    /**
+     * New cache bounded by total weight instead of entry count.
+     * @param maxWeight max total weight, for example bytes
+     * @param type cache type.
+     * @param weigher weighs entries
+     */
+    public FastConcurrentReadLruLfuFifoCache( long maxWeight, CacheType type, Weigher<KEY, VALUE> weigher ) {
+        if ( weigher == null ) {
+            die( "weigher is required" );
+        }
+        this.evictSize = Integer.MAX_VALUE;
+        this.type = type;
+        list = new SampledEvictionList<>();
+        timeKeeper = Sys.timer();
+        this.weigher = weigher;
+        this.maxWeight = maxWeight;
     }
 
     /**
@@ -128,7 +172,7 @@ public class FastConcurrentReadLruLfuFifoCache<KEY, VALUE> implements Cache<KEY,
      */
     FastConcurrentReadLruLfuFifoCache( boolean test, int evictSize, CacheType type ) {
         this.evictSize = ( int ) ( evictSize + ( evictSize * 0.20f ) );
-        list = new SortableConcurrentList<>();
+        list = new SampledEvictionList<>( 1, 0 );
         this.type = type;
 
         timeKeeper = new TimeKeeper() {
@@ -139,6 +183,8 @@ public class FastConcurrentReadLruLfuFifoCache<KEY, VALUE> implements Cache<KEY,
                 return System.currentTimeMillis() + i++;
             }
         };
+        weigher = null;
+        maxWeight = Long.MAX_VALUE;
 
     }
 
@@ -184,6 +230,7 @@ public class FastConcurrentReadLruLfuFifoCache<KEY, VALUE> implements Cache<KEY,
         CacheEntry<KEY, VALUE> entry = map.remove( key );
         if ( entry != null ) {
             list.remove( entry );
+            removed( entry );
         }
     }
 
@@ -193,18 +240,59 @@ public class FastConcurrentReadLruLfuFifoCache<KEY, VALUE> implements Cache<KEY,
      * @param value the value value
      */
     public void put( KEY key, VALUE value ) {
-        CacheEntry<KEY, VALUE> entry = map.get( key );
+        while ( true ) {
+            CacheEntry<KEY, VALUE> entry = map.get( key );
+
+            if ( entry == null ) {
+                CacheEntry<KEY, VALUE> created = new CacheEntry<>( key, value, order(), type, time() );
+                int createdWeight = weigh( key, value );
+                created.weight = createdWeight;
+                /* Counted before it is visible, an update or removal may adjust it right away. */
+                weight.addAndGet( createdWeight );
+                if ( map.putIfAbsent( key, created ) != null ) {
+                    weight.addAndGet( -createdWeight );
+                    continue;
+                }
+                list.add( created );
+                /* Removed before we linked it, do not leave it in the list. */
+                if ( map.get( key ) != created ) {
+                    list.remove( created );
+                }
+                break;
+            }
 
+            if ( update( entry, key, value ) ) {
+                break;
+            }
+        }
+        evictIfNeeded();
+    }
 
-        if ( entry == null ) {
-            entry = new CacheEntry<>( key, value, order(), type, time() );
-            list.add( entry );
-            map.put( key, entry );
-        } else {
+    /** Replace the value in place, false if the entry left the map meanwhile. */
+    private boolean update( CacheEntry<KEY, VALUE> entry, KEY key, VALUE value ) {
+        int newWeight = weigh( key, value );
+        synchronized ( entry ) {
+            if ( entry.removed ) {
+                return false;
+            }
             entry.readCount.incrementAndGet();
             entry.value = value;
+            weight.addAndGet( newWeight - entry.weight );
+            entry.weight = newWeight;
+            return true;
         }
-        evictIfNeeded();
+    }
+
+    /** Call once for the thread that took the entry out of the map. */
+    private void removed( CacheEntry<KEY, VALUE> entry ) {
+        synchronized ( entry ) {
+            entry.removed = true;
+            weight.addAndGet( -entry.weight );
+        }
+    }
+
+    private int weigh( KEY key, VALUE value ) {
+        return weigher == null ? 1 : weigher.weigh( key, value );
     }
 
     /** Gets the time. */
@@ -224,12 +312,22 @@ public class FastConcurrentReadLruLfuFifoCache<KEY, VALUE> implements Cache<KEY,
 
     /** Evict if we are over the size limit.*/
     private final void evictIfNeeded() {
-        if ( list.size() > evictSize ) {
-
-            final List<CacheEntry<KEY, VALUE>> killList = list.sortAndReturnPurgeList( 0.1f );
-
-            for ( CacheEntry<KEY, VALUE> cacheEntry : killList ) {
-                map.remove( cacheEntry.key );
+        if ( ( list.size() > evictSize || weight.get() > maxWeight ) && evicting.compareAndSet( false, true ) ) {
+            try {
+                do {
+                    final List<CacheEntry<KEY, VALUE>> killList = list.purge( 0.1f );
+                    if ( killList.isEmpty() ) {
+                        break;
+                    }
+
+                    for ( CacheEntry<KEY, VALUE> cacheEntry : killList ) {
+                        if ( map.remove( cacheEntry.key, cacheEntry ) ) {
+                            removed( cacheEntry );
+                        }
+                    }
+                } while ( weight.get() > maxWeight );
+            } finally {
+                evicting.set( false );
             }
         }
 
@@ -240,6 +338,14 @@ public class FastConcurrentReadLruLfuFifoCache<KEY, VALUE> implements Cache<KEY,
     }
 
 
+    /**
+     * Total weight, or the entry count when there is no Weigher.
+     * @return weight
+     */
+    public long weight() {
+        return weigher == null ? list.size() : weight.get();
+    }
+
     /**
      * How many items do we have in the cache?
      * @return size
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.cache;
+
+/**
+ * Count-min sketch of 4 bit counters used by TinyLfuCache to estimate
+ * how often a key was asked for.
+ *
+ * Each long holds sixteen counters and each key touches four of them.
+ * Once the number of increments hits ten times the cache size every counter
+ * is halved, so keys that were hot a long time ago age out.
+ *
+ * Not thread safe.
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch( int maximumSize ) {
+        int size = Math.max( 16, maximumSize );
+        size = Integer.highestOneBit( Math.min( size, 1 << 30 ) - 1 ) << 1;
+        table = new long[ size ];
+        tableMask = size - 1;
+        sampleSize = maximumSize <= 0 ? 10 : ( int ) Math.min( 10L * maximumSize, Integer.MAX_VALUE );
+    }
+
+    /** Estimated frequency of the key, 0 to 15. */
+    int frequency( Object key ) {
+        int hash = spread( key.hashCode() );
+        int start = ( hash & 3 ) << 2;
+        int frequency = 15;
+        for ( int row = 0; row < 4; row++ ) {
+            int index = indexOf( hash, row );
+            int count = ( int ) ( ( table[ index ] >>> ( ( start + row ) << 2 ) ) & 0xfL );
+            frequency = Math.min( frequency, count );
+        }
+        return frequency;
+    }
+
+    /** Count one more access of the key, ages the sketch when the sample is full. */
+    void increment( Object key ) {
+        int hash = spread( key.hashCode() );
+        int start = ( hash & 3 ) << 2;
+
+        boolean added = false;
+        for ( int row = 0; row < 4; row++ ) {
+            added |= incrementAt( indexOf( hash, row ), start + row );
+        }
+
+        if ( added && ++additions == sampleSize ) {
+            reset();
+        }
+    }
+
+    private boolean incrementAt( int index, int counter ) {
+        int offset = counter << 2;
+        long mask = 0xfL << offset;
+        if ( ( table[ index ] & mask ) != mask ) {
+            table[ index ] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    /** Halve every counter. */
+    private void reset() {
+        int odd = 0;
+        for ( int index = 0; index < table.length; index++ ) {
+            odd += Long.bitCount( table[ index ] & ONE_MASK );
+            table[ index ] = ( table[ index ] >>> 1 ) & RESET_MASK;
+        }
+        additions = ( additions >>> 1 ) - ( odd >>> 2 );
+    }
+
+    private int indexOf( int hash, int row ) {
+        long h = ( hash + SEEDS[ row ] ) * SEEDS[ row ];
+        h += h >>> 32;
+        return ( int ) h & tableMask;
+    }
+
+    private static int spread( int hash ) {
+        hash = ( ( hash >>> 16 ) ^ hash ) * 0x45d9f3b;
+        hash = ( ( hash >>> 16 ) ^ hash ) * 0x45d9f3b;
+        return ( hash >>> 16 ) ^ hash;
+    }
+}
@@ -0,0 +1,326 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.cache;
+
+import org.boon.core.Function;
+import org.boon.core.Sys;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cache that loads missing values itself.
+ *
+ * get(key, loader) calls the loader on a miss. If many threads miss the same key at
+ * the same time only one of them runs the loader, the others wait for its result.
+ * Null values are not cached.
+ *
+ * With refreshAfter set, a hit on an entry older than that kicks off a reload in the
+ * background (on a small shared executor by default) and keeps serving the old value
+ * until the new one is in. Ages come from Sys.time(). A refresh counts as the load in
+ * flight for its key, so a miss during it waits for it instead of loading again.
+ *
+ * A load only publishes its value if nobody put or removed the key while it ran, so a
+ * slow loader never overwrites a newer write with an older value.
+ *
+ * Storage is a SimpleConcurrentCache of whatever CacheType you pick.
+ *
+ * @param <K> key
+ * @param <V> value
+ */
+public class LoadingCache<K, V> implements Cache<K, V> {
+
+    private final SimpleConcurrentCache<K, Loaded<V>> cache;
+
+    private volatile CacheStats stats;
+
+    /** Loads in flight, one per key. */
+    private final SingleFlight<K, V> loading = new SingleFlight<>();
+
+    /** Orders writes against loads publishing, striped by key hash. */
+    private final Object[] locks = new Object[ 64 ];
+
+    {
+        for ( int index = 0; index < locks.length; index++ ) {
+            locks[ index ] = new Object();
+        }
+    }
+
+    private volatile long refreshAfter = -1;
+    private volatile Executor refreshExecutor;
+
+    public LoadingCache( final int limit ) {
+        this( limit, CacheType.LRU );
+    }
+
+    public LoadingCache( final int limit, CacheType type ) {
+        this.cache = new SimpleConcurrentCache<>( limit, type );
+    }
+
+    /**
+     * Record hits, misses, evictions and load times.
+     * @param stats where to record
+     * @return this
+     */
+    public LoadingCache<K, V> recordStats( CacheStats stats ) {
+        this.stats = stats;
+        cache.recordStats( stats );
+        return this;
+    }
+
+    public CacheStats stats() {
+        return stats;
+    }
+
+    /**
+     * Reload entries in the background once they are older than millis.
+     * @param millis age of an entry before a hit reloads it
+     * @return this
+     */
+    public LoadingCache<K, V> refreshAfter( long millis ) {
+        return refreshAfter( millis, RefreshExecutorHolder.executor );
+    }
+
+    /**
+     * Reload entries in the background once they are older than millis.
+     * @param millis age of an entry before a hit reloads it
+     * @param executor runs the reloads
+     * @return this
+     */
+    public LoadingCache<K, V> refreshAfter( long millis, Executor executor ) {
+        this.refreshExecutor = executor;
+        this.refreshAfter = millis;
+        return this;
+    }
+
+    /**
+     * Get the value, loading it on a miss. Concurrent misses on a key share one load.
+     * @param key key
+     * @param loader computes the value, may return null
+     * @return value
+     */
+    public V get( final K key, final Function<K, V> loader ) {
+        Loaded<V> loaded = cache.get( key );
+        if ( loaded != null ) {
+            refreshIfNeeded( key, loaded, loader );
+            return loaded.value;
+        }
+
+        return loading.get( key, new Load( key, loader, null ).task );
+    }
+
+    @Override
+    public void put( K key, V value ) {
+        synchronized ( lockFor( key ) ) {
+            cache.put( key, new Loaded<>( value ) );
+            staleLoad( key );
+        }
+    }
+
+    @Override
+    public V get( K key ) {
+        Loaded<V> loaded = cache.get( key );
+        return loaded == null ? null : loaded.value;
+    }
+
+    @Override
+    public V getSilent( K key ) {
+        Loaded<V> loaded = cache.getSilent( key );
+        return loaded == null ? null : loaded.value;
+    }
+
+    @Override
+    public void remove( K key ) {
+        synchronized ( lockFor( key ) ) {
+            cache.remove( key );
+            staleLoad( key );
+        }
+    }
+
+    @Override
+    public int size() {
+        return cache.size();
+    }
+
+    private Object lockFor( K key ) {
+        int hash = key.hashCode();
+        return locks[ ( hash ^ ( hash >>> 16 ) ) & ( locks.length - 1 ) ];
+    }
+
+    /** Called with the key's lock held after a write so a load in flight won't publish. */
+    private void staleLoad( K key ) {
+        FutureTask<V> task = loading.inFlight( key );
+        if ( task != null ) {
+            ( ( Flight ) task ).load.stale = true;
+        }
+    }
+
+    private V load( Load load ) {
+        final K key = load.key;
+        final CacheStats stats = this.stats;
+        final long start = stats == null ? 0 : System.nanoTime();
+
+        V value;
+        try {
+            value = load.loader.apply( key );
+        } catch ( RuntimeException | Error ex ) {
+            if ( stats != null ) {
+                stats.recordLoadFailure( System.nanoTime() - start );
+            }
+            throw ex;
+        }
+        if ( stats != null ) {
+            stats.recordLoad( System.nanoTime() - start );
+        }
+
+        if ( value != null ) {
+            synchronized ( lockFor( key ) ) {
+                /* Only publish over the entry we started from, it may have been written since. */
+                if ( !load.stale && cache.getSilent( key ) == load.from ) {
+                    cache.put( key, new Loaded<>( value ) );
+                }
+            }
+        }
+        return value;
+    }
+
+    private void refreshIfNeeded( final K key, final Loaded<V> loaded, final Function<K, V> loader ) {
+        final long after = refreshAfter;
+        if ( after < 0 || Sys.time() - loaded.time < after ) {
+            return;
+        }
+
+        if ( loading.inFlight( key ) != null ) {
+            return;
+        }
+
+        final FutureTask<V> task = new Load( key, loader, loaded ).task;
+        if ( !loading.begin( key, task ) ) {
+            return;
+        }
+
+        Runnable refresh = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    task.run();
+                } finally {
+                    loading.end( key, task );
+                }
+            }
+        };
+
+        try {
+            refreshExecutor.execute( refresh );
+        } catch ( RuntimeException rejected ) {
+            /* Misses may already be waiting on it, so it has to run somewhere. */
+            refresh.run();
+        }
+    }
+
+    public String toString() {
+        return cache.toString();
+    }
+
+
+    /** Value plus when it was loaded. */
+    static final class Loaded<V> {
+        final V value;
+        final long time = Sys.time();
+
+        Loaded( V value ) {
+            this.value = value;
+        }
+
+        public String toString() {
+            return String.valueOf( value );
+        }
+    }
+
+    /** A load or refresh in flight for one key. */
+    private final class Load implements Callable<V> {
+        final K key;
+        final Function<K, V> loader;
+
+        /** Entry the load replaces, null for a miss. */
+        final Loaded<V> from;
+
+        final Flight task = new Flight( this );
+
+        /** Set once the key is written while loading, guarded by the key's lock. */
+        boolean stale;
+
+        Load( K key, Function<K, V> loader, Loaded<V> from ) {
+            this.key = key;
+            this.loader = loader;
+            this.from = from;
+        }
+
+        @Override
+        public V call() {
+            if ( from == null ) {
+                /* Someone may have finished loading it between our miss and now. */
+                Loaded<V> loaded = cache.getSilent( key );
+                if ( loaded != null ) {
+                    return loaded.value;
+                }
+            }
+            return load( this );
+        }
+    }
+
+    /** What goes in the in flight map, points back to its load so writes can mark it stale. */
+    private final class Flight extends FutureTask<V> {
+        final Load load;
+
+        Flight( Load load ) {
+            super( load );
+            this.load = load;
+        }
+    }
+
+    /** Two daemon threads shared by every LoadingCache that did not pass an executor. */
+    private static class RefreshExecutorHolder {
+        private static final ExecutorService executor = Executors.newFixedThreadPool( 2, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread( Runnable runnable ) {
+                Thread thread = new Thread( runnable, "boon-cache-refresh-" + count.incrementAndGet() );
+                thread.setDaemon( true );
+                return thread;
+            }
+        } );
+    }
+}
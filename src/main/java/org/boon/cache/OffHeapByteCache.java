@@ -0,0 +1,442 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.cache;
+
+import org.boon.json.JsonSerializer;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static org.boon.Exceptions.die;
+
+/**
+ * Byte cache that keeps values out of the Java heap.
+ *
+ * Values are appended, length prefixed, to fixed size direct memory segments (a log).
+ * The heap only holds a key to (segment, offset) index and a key list per segment.
+ * Overwrites and removes just leave dead bytes behind. When every segment is in use,
+ * the segment with the fewest live bytes is compacted in place if at least half of it
+ * is dead. Otherwise the oldest segment is evicted whole (FIFO).
+ *
+ * get returns a heap copy of the value, ready to read. Putting a value bigger than a
+ * segment dies and leaves the old value in place.
+ *
+ * putJson serializes with a JsonSerializer and encodes the UTF-8 straight into the
+ * segment, no byte[] in between.
+ *
+ * Reads share a read lock, writes are exclusive.
+ *
+ * @param <K> key
+ */
+public class OffHeapByteCache<K> implements Cache<K, ByteBuffer> {
+
+    /** Default segment size, 1 MB. */
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 20;
+
+    private static final int HEADER = 4;
+
+    private final ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+
+    /** Key to location, segment number in the high int and offset in the low int. */
+    private final Map<K, Long> index = new HashMap<>();
+
+    private final Segment<K>[] segments;
+    private final int segmentSize;
+    private int allocated;
+
+    /** Full segments, oldest first. */
+    private final ArrayDeque<Segment<K>> sealed = new ArrayDeque<>();
+    private Segment<K> active;
+
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+
+    /**
+     * @param capacity total bytes of direct memory to use
+     */
+    public OffHeapByteCache( long capacity ) {
+        this( capacity, DEFAULT_SEGMENT_SIZE );
+    }
+
+    /**
+     * @param capacity total bytes of direct memory to use, at least one segment
+     * @param segmentSize bytes per segment, also the max value size
+     */
+    @SuppressWarnings( "unchecked" )
+    public OffHeapByteCache( long capacity, int segmentSize ) {
+        if ( segmentSize <= HEADER ) {
+            die( "segment size too small", segmentSize );
+        }
+        if ( capacity < segmentSize ) {
+            die( "capacity must hold at least one segment", capacity, segmentSize );
+        }
+        this.segmentSize = segmentSize;
+        this.segments = new Segment[ ( int ) Math.min( Integer.MAX_VALUE, capacity / segmentSize ) ];
+        this.active = allocate();
+    }
+
+    @Override
+    public void put( K key, ByteBuffer value ) {
+        ByteBuffer source = value.duplicate();
+        int length = source.remaining();
+        if ( length + HEADER > segmentSize ) {
+            die( "value bigger than a segment", key, length, segmentSize );
+        }
+
+        readWriteLock.writeLock().lock();
+        try {
+            removeLocked( key );
+            ensureRoom( length + HEADER );
+            int offset = active.position;
+            ByteBuffer target = active.buffer.duplicate();
+            target.position( offset + HEADER );
+            target.put( source );
+            append( key, offset, length );
+        } finally {
+            readWriteLock.writeLock().unlock();
+        }
+    }
+
+    /** Put raw bytes. */
+    public void put( K key, byte[] value ) {
+        put( key, ByteBuffer.wrap( value ) );
+    }
+
+    /**
+     * Serialize the value as JSON right into a segment.
+     * @param key key
+     * @param serializer serializer to use
+     * @param value object to serialize
+     */
+    public void putJson( K key, JsonSerializer serializer, Object value ) {
+        putChars( key, serializer.serialize( value ) );
+    }
+
+    /**
+     * Store chars as UTF-8, encoded right into a segment.
+     * The chars are encoded into what is left of the active segment, only when that
+     * overflows is the exact size worked out and a new segment taken.
+     * @param key key
+     * @param chars chars
+     */
+    public void putChars( K key, CharSequence chars ) {
+        if ( chars.length() + HEADER > segmentSize ) {
+            die( "value bigger than a segment", key, chars.length(), segmentSize );
+        }
+
+        readWriteLock.writeLock().lock();
+        try {
+            ByteBuffer target = encodeIntoActive( chars );
+            if ( target == null ) {
+                int length = utf8Length( chars );
+                if ( length + HEADER > segmentSize ) {
+                    die( "value bigger than a segment", key, length, segmentSize );
+                }
+                ensureRoom( length + HEADER );
+                target = encodeIntoActive( chars );
+                if ( target == null ) {
+                    die( "encoded value did not fit the room made for it", key, length );
+                }
+            }
+
+            int offset = active.position;
+            removeLocked( key );
+            append( key, offset, target.position() - offset - HEADER );
+        } catch ( CharacterCodingException ex ) {
+            die( "unable to encode value for", key, ex );
+        } finally {
+            readWriteLock.writeLock().unlock();
+        }
+    }
+
+    /** Encode after the active segment's position, null if the chars don't fit. */
+    private ByteBuffer encodeIntoActive( CharSequence chars ) throws CharacterCodingException {
+        ByteBuffer target = active.buffer.duplicate();
+        target.position( active.position + HEADER );
+
+        encoder.reset();
+        CoderResult result = encoder.encode( CharBuffer.wrap( chars ), target, true );
+        if ( result.isUnderflow() ) {
+            result = encoder.flush( target );
+        }
+        if ( result.isOverflow() ) {
+            return null;
+        }
+        if ( result.isError() ) {
+            result.throwException();
+        }
+        return target;
+    }
+
+    /** Bytes the chars take as UTF-8. */
+    private static int utf8Length( CharSequence chars ) {
+        int length = 0;
+        for ( int index = 0; index < chars.length(); index++ ) {
+            char c = chars.charAt( index );
+            if ( c < 0x80 ) {
+                length += 1;
+            } else if ( c < 0x800 ) {
+                length += 2;
+            } else if ( Character.isHighSurrogate( c ) && index + 1 < chars.length()
+                    && Character.isLowSurrogate( chars.charAt( index + 1 ) ) ) {
+                length += 4;
+                index++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    @Override
+    public ByteBuffer get( K key ) {
+        readWriteLock.readLock().lock();
+        try {
+            Long location = index.get( key );
+            if ( location == null ) {
+                return null;
+            }
+            Segment<K> segment = segments[ ( int ) ( location >>> 32 ) ];
+            int offset = ( int ) ( long ) location;
+            int length = segment.buffer.getInt( offset );
+
+            ByteBuffer source = segment.buffer.duplicate();
+            source.limit( offset + HEADER + length ).position( offset + HEADER );
+            ByteBuffer copy = ByteBuffer.allocate( length );
+            copy.put( source );
+            copy.flip();
+            return copy;
+        } finally {
+            readWriteLock.readLock().unlock();
+        }
+    }
+
+    /** Get the value as raw bytes. */
+    public byte[] getBytes( K key ) {
+        ByteBuffer buffer = get( key );
+        return buffer == null ? null : buffer.array();
+    }
+
+    /** Get a value stored by putChars or putJson. */
+    public String getString( K key ) {
+        ByteBuffer buffer = get( key );
+        return buffer == null ? null : StandardCharsets.UTF_8.decode( buffer ).toString();
+    }
+
+    @Override
+    public ByteBuffer getSilent( K key ) {
+        return get( key );
+    }
+
+    @Override
+    public void remove( K key ) {
+        readWriteLock.writeLock().lock();
+        try {
+            removeLocked( key );
+        } finally {
+            readWriteLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        readWriteLock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            readWriteLock.readLock().unlock();
+        }
+    }
+
+    /** Live bytes stored, headers included. */
+    public long liveBytes() {
+        readWriteLock.readLock().lock();
+        try {
+            long live = active.live;
+            for ( Segment<K> segment : sealed ) {
+                live += segment.live;
+            }
+            return live;
+        } finally {
+            readWriteLock.readLock().unlock();
+        }
+    }
+
+    public String toString() {
+        return "OffHeapByteCache{size=" + size() + ", segments=" + allocated + ", segmentSize=" + segmentSize + "}";
+    }
+
+
+    private void removeLocked( K key ) {
+        Long location = index.remove( key );
+        if ( location != null ) {
+            Segment<K> segment = segments[ ( int ) ( location >>> 32 ) ];
+            segment.live -= segment.buffer.getInt( ( int ) ( long ) location ) + HEADER;
+        }
+    }
+
+    /** Write the header and index the record that was just written at offset. */
+    private void append( K key, int offset, int length ) {
+        active.buffer.putInt( offset, length );
+        active.position = offset + HEADER + length;
+        active.live += length + HEADER;
+        active.keys.add( key );
+        index.put( key, location( active.number, offset ) );
+    }
+
+    private void ensureRoom( int bytes ) {
+        if ( active.position + bytes <= segmentSize ) {
+            return;
+        }
+        sealed.addLast( active );
+        active = allocated < segments.length ? allocate() : reclaim( bytes );
+    }
+
+    private Segment<K> allocate() {
+        Segment<K> segment = new Segment<>( allocated, ByteBuffer.allocateDirect( segmentSize ) );
+        segments[ allocated++ ] = segment;
+        return segment;
+    }
+
+    /**
+     * Compact the emptiest segment if it is at least half dead and the new record
+     * fits after compaction, else evict the oldest.
+     */
+    private Segment<K> reclaim( int bytes ) {
+        Segment<K> emptiest = null;
+        for ( Segment<K> segment : sealed ) {
+            if ( emptiest == null || segment.live < emptiest.live ) {
+                emptiest = segment;
+            }
+        }
+
+        if ( emptiest != null && emptiest.live <= segmentSize / 2 && emptiest.live + bytes <= segmentSize ) {
+            sealed.remove( emptiest );
+            compact( emptiest );
+            return emptiest;
+        }
+
+        Segment<K> oldest = sealed.removeFirst();
+        forEachLive( oldest, new LiveRecord<K>() {
+            @Override
+            public void visit( K key, int offset, int length ) {
+                index.remove( key );
+            }
+        } );
+        oldest.reset();
+        return oldest;
+    }
+
+    /** Slide the live records to the front of the segment. */
+    private void compact( final Segment<K> segment ) {
+        final List<K> liveKeys = new ArrayList<>();
+        final byte[] chunk = new byte[ 8_192 ];
+        final int[] writeAt = { 0 };
+
+        forEachLive( segment, new LiveRecord<K>() {
+            @Override
+            public void visit( K key, int offset, int length ) {
+                int to = writeAt[ 0 ];
+                int total = length + HEADER;
+                if ( to != offset ) {
+                    ByteBuffer from = segment.buffer.duplicate();
+                    ByteBuffer into = segment.buffer.duplicate();
+                    from.position( offset );
+                    into.position( to );
+                    /* Moving towards the front, so chunk by chunk never clobbers unread bytes. */
+                    for ( int done = 0; done < total; ) {
+                        int count = Math.min( chunk.length, total - done );
+                        from.get( chunk, 0, count );
+                        into.put( chunk, 0, count );
+                        done += count;
+                    }
+                    index.put( key, location( segment.number, to ) );
+                }
+                liveKeys.add( key );
+                writeAt[ 0 ] = to + total;
+            }
+        } );
+
+        segment.keys.clear();
+        segment.keys.addAll( liveKeys );
+        segment.position = writeAt[ 0 ];
+        segment.live = writeAt[ 0 ];
+    }
+
+    /** Walk the records of a segment in order, calling back for the ones the index still points at. */
+    private void forEachLive( Segment<K> segment, LiveRecord<K> visitor ) {
+        int offset = 0;
+        for ( K key : new ArrayList<>( segment.keys ) ) {
+            int length = segment.buffer.getInt( offset );
+            Long location = index.get( key );
+            if ( location != null && location == location( segment.number, offset ) ) {
+                visitor.visit( key, offset, length );
+            }
+            offset += length + HEADER;
+        }
+    }
+
+    private static long location( int segment, int offset ) {
+        return ( ( long ) segment << 32 ) | ( offset & 0xFFFFFFFFL );
+    }
+
+    private interface LiveRecord<K> {
+        void visit( K key, int offset, int length );
+    }
+
+    private static final class Segment<K> {
+        final int number;
+        final ByteBuffer buffer;
+        /** Keys in the order their records were written. */
+        final List<K> keys = new ArrayList<>();
+        int position;
+        int live;
+
+        Segment( int number, ByteBuffer buffer ) {
+            this.number = number;
+            this.buffer = buffer;
+        }
+
+        void reset() {
+            keys.clear();
+            position = 0;
+            live = 0;
+        }
+    }
+}
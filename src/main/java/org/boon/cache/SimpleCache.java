@@ -29,17 +29,25 @@
 package org.boon.cache;
 
 
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
+import static org.boon.Exceptions.die;
+
 
 /** This supports both LRU and FIFO.
  *  Single threaded access.
+ *  With a Weigher the limit is on total weight instead of entry count.
  */
 public class SimpleCache<K, V> implements Cache<K, V> {
 
     Map<K, V> map = new LinkedHashMap();
 
+    private final Weigher<K, V> weigher;
+    private final long maxWeight;
+    private long weight;
+
 
     private static class InternalCacheLinkedList<K, V> extends LinkedHashMap<K, V> {
         final int limit;
@@ -62,17 +70,56 @@ public class SimpleCache<K, V> implements Cache<K, V> {
         } else {
             map = new InternalCacheLinkedList<>( limit, false );
         }
+        weigher = null;
+        maxWeight = Long.MAX_VALUE;
     }
 
     public SimpleCache( final int limit ) {
 
         map = new InternalCacheLinkedList<>( limit, true );
+        weigher = null;
+        maxWeight = Long.MAX_VALUE;
+
+    }
 
+    /**
+     * Cache bounded by total weight.
+     * @param maxWeight max total weight
+     * @param type LRU or FIFO
+     * @param weigher weighs entries
+     */
+    public SimpleCache( final long maxWeight, CacheType type, Weigher<K, V> weigher ) {
+        if ( weigher == null ) {
+            die( "weigher is required" );
+        }
+        map = new InternalCacheLinkedList<>( Integer.MAX_VALUE, type.equals( CacheType.LRU ) );
+        this.weigher = weigher;
+        this.maxWeight = maxWeight;
     }
 
     @Override
     public void put( K key, V value ) {
-        map.put( key, value );
+        if ( weigher == null ) {
+            map.put( key, value );
+            return;
+        }
+
+        V old = map.put( key, value );
+        weight += weigher.weigh( key, value );
+        if ( old != null ) {
+            weight -= weigher.weigh( key, old );
+        }
+        evictToWeight();
+    }
+
+    /** Drop the eldest entries until we are under the max weight. */
+    private void evictToWeight() {
+        Iterator<Map.Entry<K, V>> iterator = map.entrySet().iterator();
+        while ( weight > maxWeight && iterator.hasNext() ) {
+            Map.Entry<K, V> eldest = iterator.next();
+            weight -= weigher.weigh( eldest.getKey(), eldest.getValue() );
+            iterator.remove();
+        }
     }
 
     @Override
@@ -93,7 +140,18 @@ public class SimpleCache<K, V> implements Cache<K, V> {
 
     @Override
     public void remove( K key ) {
-        map.remove( key );
+        V old = map.remove( key );
+        if ( old != null && weigher != null ) {
+            weight -= weigher.weigh( key, old );
+        }
+    }
+
+    /**
+     * Total weight, or the entry count when there is no Weigher.
+     * @return weight
+     */
+    public long weight() {
+        return weigher == null ? map.size() : weight;
     }
 
     @Override
@@ -29,9 +29,11 @@
 package org.boon.cache;
 
 
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.boon.core.Sys;
 
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.boon.Exceptions.die;
 import static org.boon.primitive.Int.roundUpToPowerOf2;
 
 /**
@@ -45,13 +47,19 @@ import static org.boon.primitive.Int.roundUpToPowerOf2;
  * So if you cache size was 10,000 and you had 8 CPUs, then a reaping would only
  * get one of the least recently used, but maybe not the most least but within the least +-8.
  *
+ * LRU and FIFO stripes serve reads from a ConcurrentHashMap without locking, see BufferedCacheStripe.
+ * The default stripe count is 2 per core, set org.boon.cache.stripes or pass concurrency to change it.
+ *
  * @param <K>
  * @param <V>
  */
 public class SimpleConcurrentCache<K, V> implements Cache<K, V> {
 
     /** Cache regions.*/
-    final SimpleCache<K, V>[] cacheRegions;
+    final Cache<K, V>[] cacheRegions;
+
+    /** Optional stats. */
+    private volatile CacheStats stats;
 
     private static final boolean useFastHash;
 
@@ -60,99 +68,85 @@ public class SimpleConcurrentCache<K, V> implements Cache<K, V> {
 
 
     /**
-     * Cache class
+     * TinyLfuCache with a lock. Reads update the sketch so everything is exclusive.
      * @param <K> key
      * @param <V> value
      */
-    private static class SimpleThreadSafeCache<K, V> extends SimpleCache<K, V> {
-        private final ReadWriteLock readWriteLock;
+    private static class ThreadSafeTinyLfuCache<K, V> extends TinyLfuCache<K, V> {
+        private final ReentrantLock lock;
 
-        SimpleThreadSafeCache( final int limit, CacheType type, boolean fair ) {
-
-            super( limit, type );
-            readWriteLock = new ReentrantReadWriteLock( fair );
+        ThreadSafeTinyLfuCache( final int limit, boolean fair ) {
+            super( limit );
+            lock = new ReentrantLock( fair );
         }
 
-
         @Override
         public void put( K key, V value ) {
-            readWriteLock.writeLock().lock();
+            lock.lock();
             try {
-
                 super.put( key, value );
             } finally {
-                readWriteLock.writeLock().unlock();
+                lock.unlock();
             }
         }
 
-
         @Override
         public V get( K key ) {
-            readWriteLock.writeLock().lock();
-            V value;
-
+            lock.lock();
             try {
-
-                value = super.get( key );
+                return super.get( key );
             } finally {
-                readWriteLock.writeLock().unlock();
+                lock.unlock();
             }
-            return value;
         }
 
         @Override
-        public void remove( K key ) {
-
-            readWriteLock.writeLock().lock();
-
+        public V getSilent( K key ) {
+            lock.lock();
             try {
-
-                super.remove( key );
+                return super.getSilent( key );
             } finally {
-                readWriteLock.writeLock().unlock();
+                lock.unlock();
             }
-
         }
 
-        public V getSilent( K key ) {
-            readWriteLock.writeLock().lock();
-
-            V value;
-
-
+        @Override
+        public void remove( K key ) {
+            lock.lock();
             try {
-                value = super.getSilent( key );
+                super.remove( key );
             } finally {
-                readWriteLock.writeLock().unlock();
+                lock.unlock();
             }
-
-            return value;
-
         }
 
+        @Override
         public int size() {
-            readWriteLock.readLock().lock();
-            int size = -1;
+            lock.lock();
             try {
-                size = super.size();
+                return super.size();
             } finally {
-                readWriteLock.readLock().unlock();
+                lock.unlock();
             }
-            return size;
         }
 
+        @Override
         public String toString() {
-            readWriteLock.readLock().lock();
-            String str;
+            lock.lock();
             try {
-                str = super.toString();
+                return super.toString();
             } finally {
-                readWriteLock.readLock().unlock();
+                lock.unlock();
             }
-            return str;
         }
+    }
 
-
+    /** Creates one stripe. */
+    private static <K, V> Cache<K, V> region( final int limit, CacheType type, boolean fair ) {
+        if ( type == CacheType.TINY_LFU ) {
+            return new ThreadSafeTinyLfuCache<>( limit, fair );
+        }
+        return new BufferedCacheStripe<>( limit, type, fair );
     }
 
 
@@ -180,12 +174,10 @@ public class SimpleConcurrentCache<K, V> implements Cache<K, V> {
      * @param type type of cache
      */
     public SimpleConcurrentCache( final int limit, boolean fair, CacheType type ) {
-        int cores = Runtime.getRuntime().availableProcessors();
-        int stripeSize = cores < 2 ? 4 : cores * 2;
-        stripeSize = roundUpToPowerOf2( stripeSize );
-        cacheRegions = new SimpleCache[ stripeSize ];
+        int stripeSize = roundUpToPowerOf2( defaultStripes() );
+        cacheRegions = new Cache[ stripeSize ];
         for ( int index = 0; index < cacheRegions.length; index++ ) {
-            cacheRegions[ index ] = new SimpleThreadSafeCache<>( limit / cacheRegions.length, type, fair );
+            cacheRegions[ index ] = region( limit / cacheRegions.length, type, fair );
         }
     }
 
@@ -207,9 +199,9 @@ public class SimpleConcurrentCache<K, V> implements Cache<K, V> {
 
 
         final int stripeSize = roundUpToPowerOf2( concurrency );
-        cacheRegions = new SimpleCache[ stripeSize ];
+        cacheRegions = new Cache[ stripeSize ];
         for ( int index = 0; index < cacheRegions.length; index++ ) {
-            cacheRegions[ index ] = new SimpleThreadSafeCache<>( limit / cacheRegions.length, type, fair );
+            cacheRegions[ index ] = region( limit / cacheRegions.length, type, fair );
         }
     }
 
@@ -225,14 +217,89 @@ public class SimpleConcurrentCache<K, V> implements Cache<K, V> {
 
 
         final int stripeSize = roundUpToPowerOf2( concurrency );
-        cacheRegions = new SimpleCache[ stripeSize ];
+        cacheRegions = new Cache[ stripeSize ];
+        for ( int index = 0; index < cacheRegions.length; index++ ) {
+            cacheRegions[ index ] = region( limit / cacheRegions.length, CacheType.LRU, fair );
+        }
+    }
+
+    /**
+     * Bounded by total weight instead of entry count. Each stripe keeps its own
+     * weight and its share of maxWeight, so there is no shared counter.
+     *
+     * @param maxWeight max total weight, for example bytes
+     * @param type LRU or FIFO
+     * @param weigher weighs entries
+     */
+    public SimpleConcurrentCache( final long maxWeight, CacheType type, Weigher<K, V> weigher ) {
+        this( defaultStripes(), maxWeight, false, type, weigher );
+    }
+
+    /**
+     * Bounded by total weight instead of entry count.
+     *
+     * @param concurrency how many stripes
+     * @param maxWeight max total weight, for example bytes
+     * @param fair should we be fair?
+     * @param type LRU or FIFO
+     * @param weigher weighs entries
+     */
+    public SimpleConcurrentCache( final int concurrency, final long maxWeight, boolean fair, CacheType type,
+                                  Weigher<K, V> weigher ) {
+        if ( type == CacheType.TINY_LFU || type == CacheType.LFU ) {
+            die( "weight bounded SimpleConcurrentCache supports LRU and FIFO, not", type );
+        }
+
+        final int stripeSize = roundUpToPowerOf2( concurrency );
+        cacheRegions = new Cache[ stripeSize ];
         for ( int index = 0; index < cacheRegions.length; index++ ) {
-            cacheRegions[ index ] = new SimpleThreadSafeCache<>( limit / cacheRegions.length, CacheType.LRU, fair );
+            cacheRegions[ index ] = new BufferedCacheStripe<>( maxWeight / cacheRegions.length, type, fair, weigher );
         }
     }
 
+    /** Stripe count when none is given, org.boon.cache.stripes or 2 per core. */
+    private static int defaultStripes() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        return Integer.parseInt( Sys.sysProp( "org.boon.cache.stripes", cores < 2 ? 4 : cores * 2 ) );
+    }
+
+    /**
+     * Record hits, misses, puts and, for LRU and FIFO stripes, evictions and lock contention.
+     * @param stats where to record, null to stop
+     * @return this
+     */
+    public SimpleConcurrentCache<K, V> recordStats( CacheStats stats ) {
+        this.stats = stats;
+        for ( Cache<K, V> cache : cacheRegions ) {
+            if ( cache instanceof BufferedCacheStripe ) {
+                ( ( BufferedCacheStripe<K, V> ) cache ).stats = stats;
+            }
+        }
+        return this;
+    }
+
+    public CacheStats stats() {
+        return stats;
+    }
+
+    /**
+     * Get told about entries dropped to make room, see EvictionListener.
+     * @param listener the listener, null to stop
+     * @return this
+     */
+    public SimpleConcurrentCache<K, V> evictionListener( EvictionListener<K, V> listener ) {
+        for ( Cache<K, V> cache : cacheRegions ) {
+            if ( cache instanceof BufferedCacheStripe ) {
+                ( ( BufferedCacheStripe<K, V> ) cache ).listener = listener;
+            } else {
+                ( ( TinyLfuCache<K, V> ) cache ).evictionListener( listener );
+            }
+        }
+        return this;
+    }
+
     /** Get the map for this region. */
-    private SimpleCache<K, V> map( K key ) {
+    private Cache<K, V> map( K key ) {
         return cacheRegions[ stripeIndex( key ) ];
     }
 
@@ -243,7 +310,10 @@ public class SimpleConcurrentCache<K, V> implements Cache<K, V> {
      */
     @Override
     public void put( K key, V value ) {
-
+        CacheStats stats = this.stats;
+        if ( stats != null ) {
+            stats.recordPut();
+        }
         map( key ).put( key, value );
     }
 
@@ -254,7 +324,16 @@ public class SimpleConcurrentCache<K, V> implements Cache<K, V> {
      */
     @Override
     public V get( K key ) {
-        return map( key ).get( key );
+        V value = map( key ).get( key );
+        CacheStats stats = this.stats;
+        if ( stats != null ) {
+            if ( value == null ) {
+                stats.recordMiss();
+            } else {
+                stats.recordHit();
+            }
+        }
+        return value;
     }
 
 
@@ -284,12 +363,25 @@ public class SimpleConcurrentCache<K, V> implements Cache<K, V> {
     @Override
     public int size() {
         int size = 0;
-        for ( SimpleCache<K, V> cache : cacheRegions ) {
+        for ( Cache<K, V> cache : cacheRegions ) {
             size += cache.size();
         }
         return size;
     }
 
+    /**
+     * Total weight across the stripes, or the entry count when there is no Weigher.
+     * Like size this is not exact under concurrent access.
+     * @return weight
+     */
+    public long weight() {
+        long weight = 0;
+        for ( Cache<K, V> cache : cacheRegions ) {
+            weight += cache instanceof BufferedCacheStripe ? ( ( BufferedCacheStripe<K, V> ) cache ).weight() : cache.size();
+        }
+        return weight;
+    }
+
     /**
      * toString
      * @return string
@@ -297,7 +389,7 @@ public class SimpleConcurrentCache<K, V> implements Cache<K, V> {
     public String toString() {
 
         StringBuilder builder = new StringBuilder();
-        for ( SimpleCache<K, V> cache : cacheRegions ) {
+        for ( Cache<K, V> cache : cacheRegions ) {
             builder.append( cache.toString() ).append( '\n' );
         }
 
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+package org.boon.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import static org.boon.Exceptions.handle;
+
+/**
+ * At most one load per key in flight, the others wait for its result.
+ *
+ * get(key, task) runs the task unless one is already in flight for the key, then it
+ * waits for that one instead. A task that runs somewhere else, a background refresh
+ * say, is registered with begin and taken out with end.
+ *
+ * Used by LoadingCache and the near cache index of datarepo.
+ *
+ * @param <K> key
+ * @param <V> value
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, FutureTask<V>> flights = new ConcurrentHashMap<>();
+
+    /**
+     * Run the task, or wait for the one already in flight for this key.
+     * @param key key
+     * @param task what to run if nothing is in flight
+     * @return the result of whichever task ran
+     */
+    public V get( K key, FutureTask<V> task ) {
+        FutureTask<V> inFlight = flights.putIfAbsent( key, task );
+        if ( inFlight == null ) {
+            inFlight = task;
+            try {
+                task.run();
+            } finally {
+                flights.remove( key, task );
+            }
+        }
+        return await( key, inFlight );
+    }
+
+    /**
+     * Register a task the caller runs itself, call end once it is done.
+     * @return false if another task is in flight for the key
+     */
+    public boolean begin( K key, FutureTask<V> task ) {
+        return flights.putIfAbsent( key, task ) == null;
+    }
+
+    public void end( K key, FutureTask<V> task ) {
+        flights.remove( key, task );
+    }
+
+    /** The task in flight for the key, null if none. */
+    public FutureTask<V> inFlight( K key ) {
+        return flights.get( key );
+    }
+
+    /** Wait for the task, unwrapping what it threw. Interrupts are kept for later. */
+    public static <V> V await( Object key, Future<V> task ) {
+        boolean interrupted = false;
+        try {
+            while ( true ) {
+                try {
+                    return task.get();
+                } catch ( InterruptedException e ) {
+                    interrupted = true;
+                } catch ( ExecutionException e ) {
+                    Throwable cause = e.getCause();
+                    if ( cause instanceof RuntimeException ) {
+                        throw ( RuntimeException ) cause;
+                    }
+                    if ( cause instanceof Error ) {
+                        throw ( Error ) cause;
+                    }
+                    handle( cause, "unable to load", key );
+                    return null;
+                }
+            }
+        } finally {
+            if ( interrupted ) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
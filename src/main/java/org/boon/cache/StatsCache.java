@@ -0,0 +1,88 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.cache;
+
+/**
+ * Wraps any Cache and records hits, misses and puts into a CacheStats.
+ * Evictions and contention are only seen by caches that record them
+ * themselves, like SimpleConcurrentCache.
+ *
+ * @param <K> key
+ * @param <V> value
+ */
+public class StatsCache<K, V> implements Cache<K, V> {
+
+    private final Cache<K, V> cache;
+    private final CacheStats stats;
+
+    public StatsCache( Cache<K, V> cache, CacheStats stats ) {
+        this.cache = cache;
+        this.stats = stats;
+    }
+
+    public CacheStats stats() {
+        return stats;
+    }
+
+    @Override
+    public void put( K key, V value ) {
+        stats.recordPut();
+        cache.put( key, value );
+    }
+
+    @Override
+    public V get( K key ) {
+        V value = cache.get( key );
+        if ( value == null ) {
+            stats.recordMiss();
+        } else {
+            stats.recordHit();
+        }
+        return value;
+    }
+
+    @Override
+    public V getSilent( K key ) {
+        return cache.getSilent( key );
+    }
+
+    @Override
+    public void remove( K key ) {
+        cache.remove( key );
+    }
+
+    @Override
+    public int size() {
+        return cache.size();
+    }
+
+    public String toString() {
+        return cache.toString();
+    }
+}
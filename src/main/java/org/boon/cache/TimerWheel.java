@@ -0,0 +1,180 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.cache;
+
+/**
+ * Hierarchical timing wheel for cache expiry.
+ *
+ * Five levels of 64 buckets. A level 0 bucket is 64 ms wide, every level above is
+ * 64 times wider (about 4 s, 4.4 min, 4.7 h and 12 days per bucket). An entry goes in
+ * the finest level whose range covers its deadline. When time passes a bucket, the
+ * entries in it either expire or drop down to a finer level. Scheduling, removal and
+ * advancing are amortized O(1) and nothing scans the whole cache.
+ *
+ * Deadlines may move out (expire after access) without touching the wheel. The entry
+ * is rescheduled when its old bucket comes up.
+ *
+ * Not thread safe, callers lock.
+ */
+final class TimerWheel<N extends TimerWheel.Node> {
+
+    private static final int BUCKETS = 64;
+    private static final int BUCKET_MASK = BUCKETS - 1;
+    private static final int[] SHIFTS = { 6, 12, 18, 24, 30 };
+
+    /** Entry in the wheel. */
+    abstract static class Node {
+        Node prev;
+        Node next;
+
+        /** When this should expire, may be pushed out at any time. */
+        abstract long expiresAt();
+    }
+
+    /** Told about expired nodes. */
+    interface Expirer<N> {
+        void expire( N node );
+    }
+
+    private final Node[][] wheel = new Node[ SHIFTS.length ][ BUCKETS ];
+    private final Expirer<N> expirer;
+    private long time;
+
+    TimerWheel( long now, Expirer<N> expirer ) {
+        this.time = now;
+        this.expirer = expirer;
+        for ( Node[] level : wheel ) {
+            for ( int index = 0; index < BUCKETS; index++ ) {
+                Node sentinel = new Sentinel();
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+                level[ index ] = sentinel;
+            }
+        }
+    }
+
+    /** Has the clock moved on to a new level 0 bucket since the last advance? */
+    boolean isBehind( long now ) {
+        return ( now >>> SHIFTS[ 0 ] ) != ( time >>> SHIFTS[ 0 ] );
+    }
+
+    void schedule( N node ) {
+        Node sentinel = bucketFor( node.expiresAt() );
+        node.prev = sentinel.prev;
+        node.next = sentinel;
+        sentinel.prev.next = node;
+        sentinel.prev = node;
+    }
+
+    void unschedule( N node ) {
+        if ( node.next != null ) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+        }
+    }
+
+    /** Move the clock to now, expiring or rescheduling whatever is due. */
+    void advance( long now ) {
+        long previous = time;
+        if ( now <= previous ) {
+            return;
+        }
+        time = now;
+
+        for ( int level = 0; level < SHIFTS.length; level++ ) {
+            long previousTicks = previous >>> SHIFTS[ level ];
+            long currentTicks = now >>> SHIFTS[ level ];
+            if ( currentTicks == previousTicks ) {
+                break;
+            }
+            long ticks = Math.min( currentTicks - previousTicks, BUCKET_MASK );
+            for ( long tick = currentTicks - ticks; tick <= currentTicks; tick++ ) {
+                expireBucket( wheel[ level ][ ( int ) ( tick & BUCKET_MASK ) ] );
+            }
+        }
+    }
+
+    /** For testing, walks every bucket. */
+    int size() {
+        int size = 0;
+        for ( Node[] level : wheel ) {
+            for ( Node sentinel : level ) {
+                for ( Node node = sentinel.next; node != sentinel; node = node.next ) {
+                    size++;
+                }
+            }
+        }
+        return size;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private void expireBucket( Node sentinel ) {
+        Node node = sentinel.next;
+        sentinel.prev = sentinel;
+        sentinel.next = sentinel;
+
+        while ( node != sentinel ) {
+            Node next = node.next;
+            node.prev = null;
+            node.next = null;
+
+            if ( node.expiresAt() <= time ) {
+                expirer.expire( ( N ) node );
+            } else {
+                schedule( ( N ) node );
+            }
+            node = next;
+        }
+    }
+
+    private Node bucketFor( long expiresAt ) {
+        long delay = expiresAt - time;
+        int last = SHIFTS.length - 1;
+
+        for ( int level = 0; level < last; level++ ) {
+            if ( delay < ( 1L << SHIFTS[ level + 1 ] ) ) {
+                long ticks = Math.max( expiresAt, time ) >>> SHIFTS[ level ];
+                return wheel[ level ][ ( int ) ( ticks & BUCKET_MASK ) ];
+            }
+        }
+
+        /* Past the top level's range, park it in the furthest bucket and look again later. */
+        long ticks = Math.min( expiresAt, time + ( ( long ) BUCKET_MASK << SHIFTS[ last ] ) ) >>> SHIFTS[ last ];
+        return wheel[ last ][ ( int ) ( ticks & BUCKET_MASK ) ];
+    }
+
+    private static final class Sentinel extends Node {
+        @Override
+        long expiresAt() {
+            return Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * W-TinyLFU cache, see CacheType.TINY_LFU.
+ *
+ * New keys go into a small LRU admission window (1% of the limit). Keys pushed out
+ * of the window only get into the main region if the frequency sketch says they are
+ * asked for more often than the key main would have to drop. The main region is a
+ * segmented LRU: keys start in probation and move to protected (80% of main) on a
+ * second hit.
+ *
+ * So one hit wonders and scans do not flush the cache, and since the sketch is aged
+ * old popular keys do not stay forever like they do with plain LFU.
+ *
+ * Single threaded access, like SimpleCache. Use SimpleConcurrentCache with
+ * CacheType.TINY_LFU for a striped thread safe version.
+ *
+ * @param <K> key
+ * @param <V> value
+ */
+public class TinyLfuCache<K, V> implements Cache<K, V> {
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private final Map<K, Node<K, V>> map = new HashMap<>();
+    private final FrequencySketch sketch;
+
+    private final NodeList<K, V> window = new NodeList<>();
+    private final NodeList<K, V> probation = new NodeList<>();
+    private final NodeList<K, V> protectedList = new NodeList<>();
+
+    private final int limit;
+    private final int windowLimit;
+    private final int mainLimit;
+    private final int protectedLimit;
+
+    private EvictionListener<K, V> listener;
+
+    public TinyLfuCache( final int limit ) {
+        this.limit = Math.max( 0, limit );
+        this.windowLimit = Math.min( this.limit, Math.max( 1, this.limit / 100 ) );
+        this.mainLimit = this.limit - windowLimit;
+        this.protectedLimit = ( int ) ( mainLimit * 0.8f );
+        this.sketch = new FrequencySketch( this.limit );
+    }
+
+    /** Tell listener about entries that lose admission or get evicted, null to stop. */
+    public TinyLfuCache<K, V> evictionListener( EvictionListener<K, V> listener ) {
+        this.listener = listener;
+        return this;
+    }
+
+    @Override
+    public void put( K key, V value ) {
+        sketch.increment( key );
+
+        Node<K, V> node = map.get( key );
+        if ( node != null ) {
+            node.value = value;
+            onHit( node );
+            return;
+        }
+
+        node = new Node<>( key, value );
+        map.put( key, node );
+        window.linkLast( node );
+        node.queue = WINDOW;
+        evict();
+    }
+
+    @Override
+    public V get( K key ) {
+        sketch.increment( key );
+
+        Node<K, V> node = map.get( key );
+        if ( node == null ) {
+            return null;
+        }
+        onHit( node );
+        return node.value;
+    }
+
+    /** For testing, does not touch the sketch or the order. */
+    @Override
+    public V getSilent( K key ) {
+        Node<K, V> node = map.get( key );
+        return node == null ? null : node.value;
+    }
+
+    @Override
+    public void remove( K key ) {
+        Node<K, V> node = map.remove( key );
+        if ( node != null ) {
+            listFor( node ).unlink( node );
+        }
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    private void onHit( Node<K, V> node ) {
+        switch ( node.queue ) {
+            case WINDOW:
+                window.moveToLast( node );
+                break;
+            case PROBATION:
+                probation.unlink( node );
+                protectedList.linkLast( node );
+                node.queue = PROTECTED;
+                while ( protectedList.size > protectedLimit ) {
+                    Node<K, V> demoted = protectedList.head;
+                    protectedList.unlink( demoted );
+                    probation.linkLast( demoted );
+                    demoted.queue = PROBATION;
+                }
+                break;
+            default:
+                protectedList.moveToLast( node );
+        }
+    }
+
+    /** Move window overflow into main if it earns its place, drop the loser. */
+    private void evict() {
+        while ( window.size > windowLimit ) {
+            Node<K, V> candidate = window.head;
+            window.unlink( candidate );
+
+            if ( probation.size + protectedList.size < mainLimit ) {
+                probation.linkLast( candidate );
+                candidate.queue = PROBATION;
+                continue;
+            }
+
+            Node<K, V> victim = probation.head != null ? probation.head : protectedList.head;
+
+            if ( victim != null && sketch.frequency( candidate.key ) > sketch.frequency( victim.key ) ) {
+                listFor( victim ).unlink( victim );
+                map.remove( victim.key );
+                evicted( victim );
+                probation.linkLast( candidate );
+                candidate.queue = PROBATION;
+            } else {
+                map.remove( candidate.key );
+                evicted( candidate );
+            }
+        }
+    }
+
+    private void evicted( Node<K, V> node ) {
+        if ( listener != null ) {
+            listener.evicted( node.key, node.value );
+        }
+    }
+
+    private NodeList<K, V> listFor( Node<K, V> node ) {
+        switch ( node.queue ) {
+            case WINDOW:
+                return window;
+            case PROBATION:
+                return probation;
+            default:
+                return protectedList;
+        }
+    }
+
+    public String toString() {
+        return map.toString();
+    }
+
+
+    private static final class Node<K, V> {
+        final K key;
+        V value;
+        int queue;
+        Node<K, V> prev;
+        Node<K, V> next;
+
+        Node( K key, V value ) {
+            this.key = key;
+            this.value = value;
+        }
+
+        public String toString() {
+            return String.valueOf( value );
+        }
+    }
+
+    /** Intrusive LRU list, head is the eldest. */
+    private static final class NodeList<K, V> {
+        Node<K, V> head;
+        Node<K, V> tail;
+        int size;
+
+        void linkLast( Node<K, V> node ) {
+            node.prev = tail;
+            node.next = null;
+            if ( tail == null ) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+            size++;
+        }
+
+        void unlink( Node<K, V> node ) {
+            if ( node.prev == null ) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if ( node.next == null ) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+
+        void moveToLast( Node<K, V> node ) {
+            if ( tail != node ) {
+                unlink( node );
+                linkLast( node );
+            }
+        }
+    }
+}
@@ -33,5 +33,7 @@ package org.boon.cache;
  */
 public enum Tradeoffs {
     FAST_SORT,
-    FAST_REMOVE
+    FAST_REMOVE,
+    /** Sampled eviction over lock stripes, no global sort. */
+    FAST_EVICT
 }
@@ -271,7 +271,7 @@ public class DoubleList extends AbstractList<Double> {
     /** Sums the values with bounds checking. */
     public double sum() {
 
-        return Dbl.sum(values, end);
+        return Dbl.parallelSum(values, end);
     }
 
 
@@ -319,7 +319,7 @@ public class DoubleList extends AbstractList<Double> {
      * @return mean
      */
     public  double mean(  ) {
-        return Dbl.mean(values, end);
+        return Dbl.parallelMean(values, end);
     }
 
 
@@ -328,7 +328,7 @@ public class DoubleList extends AbstractList<Double> {
      * @return standardDeviation
      */
     public  double standardDeviation(  ) {
-        return Dbl.standardDeviation(values, end);
+        return Dbl.parallelStandardDeviation(values, end);
     }
 
 
@@ -337,7 +337,7 @@ public class DoubleList extends AbstractList<Double> {
      * @return variance
      */
     public  double variance(  ) {
-        return Dbl.variance(values, end);
+        return Dbl.parallelVariance(values, end);
     }
 
 
@@ -346,7 +346,7 @@ public class DoubleList extends AbstractList<Double> {
      * @return max
      */
     public  double max(  ) {
-        return Dbl.max(values, end);
+        return Dbl.parallelMax(values, end);
     }
 
 
@@ -355,7 +355,7 @@ public class DoubleList extends AbstractList<Double> {
      * @return min
      */
     public  double min(  ) {
-        return Dbl.min(values, end);
+        return Dbl.parallelMin(values, end);
     }
 
 
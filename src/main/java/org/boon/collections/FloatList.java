@@ -270,7 +270,7 @@ public class FloatList extends AbstractList<Float> {
     /** Sums the values with bounds checking. */
     public float sum() {
 
-        return Flt.sum(values, end);
+        return Flt.parallelSum(values, end);
     }
 
 
@@ -318,7 +318,7 @@ public class FloatList extends AbstractList<Float> {
      * @return mean
      */
     public  float mean(  ) {
-        return Flt.mean(values, end);
+        return Flt.parallelMean(values, end);
     }
 
 
@@ -327,7 +327,7 @@ public class FloatList extends AbstractList<Float> {
      * @return standardDeviation
      */
     public  float standardDeviation(  ) {
-        return Flt.standardDeviation(values, end);
+        return Flt.parallelStandardDeviation(values, end);
     }
 
 
@@ -336,7 +336,7 @@ public class FloatList extends AbstractList<Float> {
      * @return variance
      */
     public  float variance(  ) {
-        return Flt.variance(values, end);
+        return Flt.parallelVariance(values, end);
     }
 
 
@@ -345,7 +345,7 @@ public class FloatList extends AbstractList<Float> {
      * @return max
      */
     public  float max(  ) {
-        return Flt.max(values, end);
+        return Flt.parallelMax(values, end);
     }
 
 
@@ -354,7 +354,7 @@ public class FloatList extends AbstractList<Float> {
      * @return min
      */
     public  float min(  ) {
-        return Flt.min(values, end);
+        return Flt.parallelMin(values, end);
     }
 
 
@@ -0,0 +1,378 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.collections;
+
+import org.boon.StringScanner;
+import org.boon.core.reflection.BeanUtils;
+import org.boon.core.reflection.fields.FieldAccess;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Open addressing hash set of ints.
+ *
+ * <p>
+ *     Keys are stored in a plain int array with linear probing, so adding and looking up
+ *     values does not create Integer wrappers or entry objects.
+ *     Removal uses backward shift deletion so there are no tombstones.
+ *     Use cursor() to walk the values without boxing them.
+ *     Not thread safe.
+ * </p>
+ */
+public class IntHashSet {
+
+
+    /** Creates a primitive set based on an input list and a property path
+     *
+     * @param inputList input list
+     * @param propertyPath property path
+     * @return primitive set
+     */
+    public static IntHashSet toIntSet( Collection<?> inputList, String propertyPath ) {
+        if (inputList.size() == 0 ) {
+            return new IntHashSet();
+        }
+
+        IntHashSet outputSet = new IntHashSet(inputList.size());
+
+        if (propertyPath.contains(".") || propertyPath.contains("[")) {
+
+            String[] properties = StringScanner.splitByDelimiters(propertyPath, ".[]");
+
+            for (Object o : inputList) {
+                outputSet.add(BeanUtils.getPropertyInt(o, properties));
+            }
+
+        } else {
+
+            Map<String, FieldAccess> fields =  BeanUtils.getFieldsFromObject(inputList.iterator().next());
+            FieldAccess fieldAccess = fields.get(propertyPath);
+            for (Object o : inputList) {
+                outputSet.add( fieldAccess.getInt(o) );
+            }
+        }
+
+        return outputSet;
+    }
+
+
+    /** 0 marks a free slot, so the 0 key is tracked on the side. */
+    private int[] keys;
+
+    private boolean hasZero;
+
+    private int size;
+
+    private int mask;
+
+    private int resizeAt;
+
+
+    /** Create a set that can hold about 16 values before it resizes. */
+    public IntHashSet() {
+        this(16);
+    }
+
+
+    /** Create a set that can hold expectedSize values before it resizes. */
+    public IntHashSet(int expectedSize) {
+        allocate(HashSlots.capacityFor(expectedSize));
+    }
+
+
+    /** Create a set from these values. */
+    public IntHashSet(int... values) {
+        this(values.length);
+        addArray(values);
+    }
+
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = HashSlots.resizeAt(capacity);
+    }
+
+
+    /**
+     * Add a value.
+     * @param value value
+     * @return true if the value was not already in the set
+     */
+    public boolean add(int value) {
+        if (value == 0) {
+            if (hasZero) {
+                return false;
+            }
+            hasZero = true;
+            size++;
+            return true;
+        }
+
+        int[] keys = this.keys;
+        int index = HashSlots.hash(value) & mask;
+        int current;
+
+        while ((current = keys[index]) != 0) {
+            if (current == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = value;
+
+        if (++size > resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+
+    /**
+     * Add an array of values.
+     * @param values values
+     */
+    public void addArray(int... values) {
+        for (int value : values) {
+            add(value);
+        }
+    }
+
+
+    /**
+     * Is this value in the set?
+     * @param value value
+     * @return true if it is
+     */
+    public boolean contains(int value) {
+        if (value == 0) {
+            return hasZero;
+        }
+
+        int[] keys = this.keys;
+        int index = HashSlots.hash(value) & mask;
+        int current;
+
+        while ((current = keys[index]) != 0) {
+            if (current == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+
+    /**
+     * Remove a value.
+     * @param value value
+     * @return true if the value was in the set
+     */
+    public boolean remove(int value) {
+        if (value == 0) {
+            if (!hasZero) {
+                return false;
+            }
+            hasZero = false;
+            size--;
+            return true;
+        }
+
+        int[] keys = this.keys;
+        int index = HashSlots.hash(value) & mask;
+        int current;
+
+        while ((current = keys[index]) != 0) {
+            if (current == value) {
+                shiftDown(index);
+                size--;
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+
+    /** Moves the entries after a removed slot back so lookups do not stop early. */
+    private void shiftDown(int gap) {
+        int[] keys = this.keys;
+        int index = (gap + 1) & mask;
+        int current;
+
+        while ((current = keys[index]) != 0) {
+            int ideal = HashSlots.hash(current) & mask;
+            if (((index - ideal) & mask) >= ((index - gap) & mask)) {
+                keys[gap] = current;
+                gap = index;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[gap] = 0;
+    }
+
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        allocate(capacity);
+
+        int[] keys = this.keys;
+        for (int value : oldKeys) {
+            if (value != 0) {
+                int index = HashSlots.hash(value) & mask;
+                while (keys[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = value;
+            }
+        }
+    }
+
+
+    /** Number of values in the set. */
+    public int size() {
+        return size;
+    }
+
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+
+    /** Remove everything but keep the capacity. */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        hasZero = false;
+        size = 0;
+    }
+
+
+    /**
+     * Copy of the values in no particular order.
+     * @return values
+     */
+    public int[] toValueArray() {
+        int[] values = new int[size];
+        int count = 0;
+        if (hasZero) {
+            values[count++] = 0;
+        }
+        for (int value : keys) {
+            if (value != 0) {
+                values[count++] = value;
+            }
+        }
+        return values;
+    }
+
+
+    /**
+     * Walks the values without boxing them.
+     * <pre>
+     *     IntHashSet.Cursor cursor = set.cursor();
+     *     while (cursor.next()) {
+     *         int value = cursor.value();
+     *     }
+     * </pre>
+     * Do not change the set while walking it.
+     * @return cursor
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+
+    public final class Cursor {
+
+        private int index = -1;
+        private boolean zeroPending = hasZero;
+        private int value;
+
+        /** Moves to the next value.
+         * @return false when there are no more values */
+        public boolean next() {
+            if (zeroPending) {
+                zeroPending = false;
+                value = 0;
+                return true;
+            }
+
+            int[] keys = IntHashSet.this.keys;
+            while (++index < keys.length) {
+                if (keys[index] != 0) {
+                    value = keys[index];
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public int value() {
+            return value;
+        }
+    }
+
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        IntHashSet other = (IntHashSet) o;
+
+        if (size != other.size || hasZero != other.hasZero) return false;
+
+        for (int value : keys) {
+            if (value != 0 && !other.contains(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    @Override
+    public int hashCode() {
+        int result = 0;
+        for (int value : keys) {
+            result += value;
+        }
+        return result;
+    }
+
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toValueArray());
+    }
+}
@@ -0,0 +1,380 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.collections;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from int keys to int values.
+ *
+ * <p>
+ *     Keys and values live in two parallel int arrays with linear probing, so
+ *     there are no Integer wrappers or entry objects. Lookups of missing keys return
+ *     the no entry value, 0 unless you pass a different one to the constructor.
+ *     Use cursor() to walk the entries without boxing them.
+ *     Not thread safe.
+ * </p>
+ */
+public class IntIntMap {
+
+
+    /** 0 marks a free slot, so the 0 key is tracked on the side. */
+    private int[] keys;
+
+    private int[] values;
+
+    private boolean hasZeroKey;
+
+    private int zeroValue;
+
+    private int size;
+
+    private int mask;
+
+    private int resizeAt;
+
+    private final int noEntryValue;
+
+
+    /** Create a map that can hold about 16 entries before it resizes. */
+    public IntIntMap() {
+        this(16, 0);
+    }
+
+
+    /** Create a map that can hold expectedSize entries before it resizes. */
+    public IntIntMap(int expectedSize) {
+        this(expectedSize, 0);
+    }
+
+
+    /**
+     * Create a map.
+     * @param expectedSize entries it can hold before it resizes
+     * @param noEntryValue what get returns for keys that are not in the map
+     */
+    public IntIntMap(int expectedSize, int noEntryValue) {
+        this.noEntryValue = noEntryValue;
+        allocate(HashSlots.capacityFor(expectedSize));
+    }
+
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = HashSlots.resizeAt(capacity);
+    }
+
+
+    /** Slot of key or -1. Do not call with 0. */
+    private int slot(int key) {
+        int[] keys = this.keys;
+        int index = HashSlots.hash(key) & mask;
+        int current;
+
+        while ((current = keys[index]) != 0) {
+            if (current == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+
+    /**
+     * Get the value for a key.
+     * @param key key
+     * @return value or the no entry value
+     */
+    public int get(int key) {
+        return get(key, noEntryValue);
+    }
+
+
+    /**
+     * Get the value for a key.
+     * @param key key
+     * @param defaultValue returned if the key is not in the map
+     * @return value or defaultValue
+     */
+    public int get(int key, int defaultValue) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int index = slot(key);
+        return index == -1 ? defaultValue : values[index];
+    }
+
+
+    public boolean containsKey(int key) {
+        return key == 0 ? hasZeroKey : slot(key) != -1;
+    }
+
+
+    /**
+     * Put a value.
+     * @param key key
+     * @param value value
+     * @return old value or the no entry value
+     */
+    public int put(int key, int value) {
+        if (key == 0) {
+            int old = hasZeroKey ? zeroValue : noEntryValue;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return old;
+        }
+
+        int[] keys = this.keys;
+        int index = HashSlots.hash(key) & mask;
+        int current;
+
+        while ((current = keys[index]) != 0) {
+            if (current == key) {
+                int old = values[index];
+                values[index] = value;
+                return old;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+
+        if (++size > resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return noEntryValue;
+    }
+
+
+    /**
+     * Adds delta to the value of key. Missing keys start at the no entry value.
+     * Handy for counting without boxing.
+     * @param key key
+     * @param delta amount to add
+     * @return new value
+     */
+    public int addTo(int key, int delta) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                zeroValue = noEntryValue;
+                size++;
+            }
+            return zeroValue += delta;
+        }
+
+        int[] keys = this.keys;
+        int index = HashSlots.hash(key) & mask;
+        int current;
+
+        while ((current = keys[index]) != 0) {
+            if (current == key) {
+                return values[index] += delta;
+            }
+            index = (index + 1) & mask;
+        }
+
+        int value = noEntryValue + delta;
+        keys[index] = key;
+        values[index] = value;
+
+        if (++size > resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return value;
+    }
+
+
+    /**
+     * Remove a key.
+     * @param key key
+     * @return old value or the no entry value
+     */
+    public int remove(int key) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                return noEntryValue;
+            }
+            hasZeroKey = false;
+            size--;
+            return zeroValue;
+        }
+
+        int index = slot(key);
+        if (index == -1) {
+            return noEntryValue;
+        }
+
+        int old = values[index];
+        shiftDown(index);
+        size--;
+        return old;
+    }
+
+
+    /** Moves the entries after a removed slot back so lookups do not stop early. */
+    private void shiftDown(int gap) {
+        int[] keys = this.keys;
+        int[] values = this.values;
+        int index = (gap + 1) & mask;
+        int current;
+
+        while ((current = keys[index]) != 0) {
+            int ideal = HashSlots.hash(current) & mask;
+            if (((index - ideal) & mask) >= ((index - gap) & mask)) {
+                keys[gap] = current;
+                values[gap] = values[index];
+                gap = index;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[gap] = 0;
+    }
+
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+
+        int[] keys = this.keys;
+        for (int old = 0; old < oldKeys.length; old++) {
+            int key = oldKeys[old];
+            if (key != 0) {
+                int index = HashSlots.hash(key) & mask;
+                while (keys[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                values[index] = oldValues[old];
+            }
+        }
+    }
+
+
+    /** Number of entries. */
+    public int size() {
+        return size;
+    }
+
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+
+    /** Remove everything but keep the capacity. */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        hasZeroKey = false;
+        size = 0;
+    }
+
+
+    /**
+     * Walks the entries without boxing them.
+     * <pre>
+     *     IntIntMap.Cursor cursor = map.cursor();
+     *     while (cursor.next()) {
+     *         int key = cursor.key();
+     *         int value = cursor.value();
+     *     }
+     * </pre>
+     * Do not add or remove keys while walking the map.
+     * @return cursor
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+
+    public final class Cursor {
+
+        private int index = -1;
+        private boolean zeroPending = hasZeroKey;
+        private boolean onZero;
+
+        /** Moves to the next entry.
+         * @return false when there are no more entries */
+        public boolean next() {
+            if (zeroPending) {
+                zeroPending = false;
+                onZero = true;
+                return true;
+            }
+            onZero = false;
+
+            int[] keys = IntIntMap.this.keys;
+            while (++index < keys.length) {
+                if (keys[index] != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public int key() {
+            return onZero ? 0 : keys[index];
+        }
+
+        public int value() {
+            return onZero ? zeroValue : values[index];
+        }
+
+        /** Replace the value of the current entry. */
+        public void setValue(int value) {
+            if (onZero) {
+                zeroValue = value;
+            } else {
+                values[index] = value;
+            }
+        }
+    }
+
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        Cursor cursor = cursor();
+        while (cursor.next()) {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(cursor.key()).append('=').append(cursor.value());
+        }
+        return builder.append('}').toString();
+    }
+}
@@ -225,7 +225,7 @@ public class IntList extends AbstractList<Integer> {
     /** Sums the values with bounds checking. */
     public int sum() {
 
-        return Int.sum(values, end);
+        return Int.parallelSum(values, end);
     }
 
 
@@ -239,6 +239,19 @@ public class IntList extends AbstractList<Integer> {
     }
 
 
+    /**
+     * Distinct values of this list as a primitive hash set.
+     * @return set of the values
+     */
+    public IntHashSet toIntSet() {
+        IntHashSet set = new IntHashSet(end);
+        for (int index = 0; index < end; index++) {
+            set.add(values[index]);
+        }
+        return set;
+    }
+
+
     /**
      * This would be a good opportunity to reintroduce dynamic invoke
      * @param function function
@@ -273,7 +286,7 @@ public class IntList extends AbstractList<Integer> {
      * @return mean
      */
     public  int mean(  ) {
-        return Int.mean(values, end);
+        return Int.parallelMean(values, end);
     }
 
 
@@ -282,7 +295,7 @@ public class IntList extends AbstractList<Integer> {
      * @return standardDeviation
      */
     public  int standardDeviation(  ) {
-        return Int.standardDeviation(values, end);
+        return Int.parallelStandardDeviation(values, end);
     }
 
 
@@ -291,7 +304,7 @@ public class IntList extends AbstractList<Integer> {
      * @return variance
      */
     public  int variance(  ) {
-        return Int.variance(values, end);
+        return Int.parallelVariance(values, end);
     }
 
 
@@ -300,7 +313,7 @@ public class IntList extends AbstractList<Integer> {
      * @return max
      */
     public  int max(  ) {
-        return Int.max(values, end);
+        return Int.parallelMax(values, end);
     }
 
 
@@ -309,7 +322,7 @@ public class IntList extends AbstractList<Integer> {
      * @return min
      */
     public  int min(  ) {
-        return Int.min(values, end);
+        return Int.parallelMin(values, end);
     }
 
 
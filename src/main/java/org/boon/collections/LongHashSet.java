@@ -0,0 +1,378 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.collections;
+
+import org.boon.StringScanner;
+import org.boon.core.reflection.BeanUtils;
+import org.boon.core.reflection.fields.FieldAccess;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Open addressing hash set of longs.
+ *
+ * <p>
+ *     Keys are stored in a plain long array with linear probing, so adding and looking up
+ *     values does not create Long wrappers or entry objects.
+ *     Removal uses backward shift deletion so there are no tombstones.
+ *     Use cursor() to walk the values without boxing them.
+ *     Not thread safe.
+ * </p>
+ */
+public class LongHashSet {
+
+
+    /** Creates a primitive set based on an input list and a property path
+     *
+     * @param inputList input list
+     * @param propertyPath property path
+     * @return primitive set
+     */
+    public static LongHashSet toLongSet( Collection<?> inputList, String propertyPath ) {
+        if (inputList.size() == 0 ) {
+            return new LongHashSet();
+        }
+
+        LongHashSet outputSet = new LongHashSet(inputList.size());
+
+        if (propertyPath.contains(".") || propertyPath.contains("[")) {
+
+            String[] properties = StringScanner.splitByDelimiters(propertyPath, ".[]");
+
+            for (Object o : inputList) {
+                outputSet.add(BeanUtils.getPropertyLong(o, properties));
+            }
+
+        } else {
+
+            Map<String, FieldAccess> fields =  BeanUtils.getFieldsFromObject(inputList.iterator().next());
+            FieldAccess fieldAccess = fields.get(propertyPath);
+            for (Object o : inputList) {
+                outputSet.add( fieldAccess.getLong(o) );
+            }
+        }
+
+        return outputSet;
+    }
+
+
+    /** 0 marks a free slot, so the 0 key is tracked on the side. */
+    private long[] keys;
+
+    private boolean hasZero;
+
+    private int size;
+
+    private int mask;
+
+    private int resizeAt;
+
+
+    /** Create a set that can hold about 16 values before it resizes. */
+    public LongHashSet() {
+        this(16);
+    }
+
+
+    /** Create a set that can hold expectedSize values before it resizes. */
+    public LongHashSet(int expectedSize) {
+        allocate(HashSlots.capacityFor(expectedSize));
+    }
+
+
+    /** Create a set from these values. */
+    public LongHashSet(long... values) {
+        this(values.length);
+        addArray(values);
+    }
+
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = HashSlots.resizeAt(capacity);
+    }
+
+
+    /**
+     * Add a value.
+     * @param value value
+     * @return true if the value was not already in the set
+     */
+    public boolean add(long value) {
+        if (value == 0) {
+            if (hasZero) {
+                return false;
+            }
+            hasZero = true;
+            size++;
+            return true;
+        }
+
+        long[] keys = this.keys;
+        int index = HashSlots.hash(value) & mask;
+        long current;
+
+        while ((current = keys[index]) != 0) {
+            if (current == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = value;
+
+        if (++size > resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+
+    /**
+     * Add an array of values.
+     * @param values values
+     */
+    public void addArray(long... values) {
+        for (long value : values) {
+            add(value);
+        }
+    }
+
+
+    /**
+     * Is this value in the set?
+     * @param value value
+     * @return true if it is
+     */
+    public boolean contains(long value) {
+        if (value == 0) {
+            return hasZero;
+        }
+
+        long[] keys = this.keys;
+        int index = HashSlots.hash(value) & mask;
+        long current;
+
+        while ((current = keys[index]) != 0) {
+            if (current == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+
+    /**
+     * Remove a value.
+     * @param value value
+     * @return true if the value was in the set
+     */
+    public boolean remove(long value) {
+        if (value == 0) {
+            if (!hasZero) {
+                return false;
+            }
+            hasZero = false;
+            size--;
+            return true;
+        }
+
+        long[] keys = this.keys;
+        int index = HashSlots.hash(value) & mask;
+        long current;
+
+        while ((current = keys[index]) != 0) {
+            if (current == value) {
+                shiftDown(index);
+                size--;
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+
+    /** Moves the entries after a removed slot back so lookups do not stop early. */
+    private void shiftDown(int gap) {
+        long[] keys = this.keys;
+        int index = (gap + 1) & mask;
+        long current;
+
+        while ((current = keys[index]) != 0) {
+            int ideal = HashSlots.hash(current) & mask;
+            if (((index - ideal) & mask) >= ((index - gap) & mask)) {
+                keys[gap] = current;
+                gap = index;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[gap] = 0;
+    }
+
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        allocate(capacity);
+
+        long[] keys = this.keys;
+        for (long value : oldKeys) {
+            if (value != 0) {
+                int index = HashSlots.hash(value) & mask;
+                while (keys[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = value;
+            }
+        }
+    }
+
+
+    /** Number of values in the set. */
+    public int size() {
+        return size;
+    }
+
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+
+    /** Remove everything but keep the capacity. */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        hasZero = false;
+        size = 0;
+    }
+
+
+    /**
+     * Copy of the values in no particular order.
+     * @return values
+     */
+    public long[] toValueArray() {
+        long[] values = new long[size];
+        int count = 0;
+        if (hasZero) {
+            values[count++] = 0;
+        }
+        for (long value : keys) {
+            if (value != 0) {
+                values[count++] = value;
+            }
+        }
+        return values;
+    }
+
+
+    /**
+     * Walks the values without boxing them.
+     * <pre>
+     *     LongHashSet.Cursor cursor = set.cursor();
+     *     while (cursor.next()) {
+     *         long value = cursor.value();
+     *     }
+     * </pre>
+     * Do not change the set while walking it.
+     * @return cursor
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+
+    public final class Cursor {
+
+        private int index = -1;
+        private boolean zeroPending = hasZero;
+        private long value;
+
+        /** Moves to the next value.
+         * @return false when there are no more values */
+        public boolean next() {
+            if (zeroPending) {
+                zeroPending = false;
+                value = 0;
+                return true;
+            }
+
+            long[] keys = LongHashSet.this.keys;
+            while (++index < keys.length) {
+                if (keys[index] != 0) {
+                    value = keys[index];
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public long value() {
+            return value;
+        }
+    }
+
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        LongHashSet other = (LongHashSet) o;
+
+        if (size != other.size || hasZero != other.hasZero) return false;
+
+        for (long value : keys) {
+            if (value != 0 && !other.contains(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    @Override
+    public int hashCode() {
+        int result = 0;
+        for (long value : keys) {
+            result += (int) (value ^ (value >>> 32));
+        }
+        return result;
+    }
+
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toValueArray());
+    }
+}
@@ -229,7 +229,7 @@ public class LongList extends AbstractList<Long> {
     /** Sums the values with bounds checking. */
     public long sum() {
 
-        return Lng.sum(values, end);
+        return Lng.parallelSum(values, end);
     }
 
 
@@ -243,6 +243,19 @@ public class LongList extends AbstractList<Long> {
     }
 
 
+    /**
+     * Distinct values of this list as a primitive hash set.
+     * @return set of the values
+     */
+    public LongHashSet toLongSet() {
+        LongHashSet set = new LongHashSet(end);
+        for (int index = 0; index < end; index++) {
+            set.add(values[index]);
+        }
+        return set;
+    }
+
+
     /**
      * This would be a good opportunity to reintroduce dynamic invoke
      * @param function function
@@ -277,7 +290,7 @@ public class LongList extends AbstractList<Long> {
      * @return mean
      */
     public  long mean(  ) {
-        return Lng.mean(values, end);
+        return Lng.parallelMean(values, end);
     }
 
 
@@ -286,7 +299,7 @@ public class LongList extends AbstractList<Long> {
      * @return standardDeviation
      */
     public  long standardDeviation(  ) {
-        return Lng.standardDeviation(values, end);
+        return Lng.parallelStandardDeviation(values, end);
     }
 
 
@@ -295,7 +308,7 @@ public class LongList extends AbstractList<Long> {
      * @return variance
      */
     public  long variance(  ) {
-        return Lng.variance(values, end);
+        return Lng.parallelVariance(values, end);
     }
 
 
@@ -304,7 +317,7 @@ public class LongList extends AbstractList<Long> {
      * @return max
      */
     public  long max(  ) {
-        return Lng.max(values, end);
+        return Lng.parallelMax(values, end);
     }
 
 
@@ -313,7 +326,7 @@ public class LongList extends AbstractList<Long> {
      * @return min
      */
     public  long min(  ) {
-        return Lng.min(values, end);
+        return Lng.parallelMin(values, end);
     }
 
 
@@ -0,0 +1,326 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.collections;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from long keys to objects.
+ *
+ * <p>
+ *     Keys live in a long array and values in a parallel Object array with linear probing,
+ *     so there are no Long wrappers or entry objects.
+ *     get returns null for missing keys. Null values are allowed, use containsKey to tell them apart.
+ *     Use cursor() to walk the entries without boxing the keys.
+ *     Not thread safe.
+ * </p>
+ */
+public class LongObjectMap<V> {
+
+
+    /** 0 marks a free slot, so the 0 key is tracked on the side. */
+    private long[] keys;
+
+    private Object[] values;
+
+    private boolean hasZeroKey;
+
+    private V zeroValue;
+
+    private int size;
+
+    private int mask;
+
+    private int resizeAt;
+
+
+    /** Create a map that can hold about 16 entries before it resizes. */
+    public LongObjectMap() {
+        this(16);
+    }
+
+
+    /** Create a map that can hold expectedSize entries before it resizes. */
+    public LongObjectMap(int expectedSize) {
+        allocate(HashSlots.capacityFor(expectedSize));
+    }
+
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeAt = HashSlots.resizeAt(capacity);
+    }
+
+
+    /** Slot of key or -1. Do not call with 0. */
+    private int slot(long key) {
+        long[] keys = this.keys;
+        int index = HashSlots.hash(key) & mask;
+        long current;
+
+        while ((current = keys[index]) != 0) {
+            if (current == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+
+    /**
+     * Get the value for a key.
+     * @param key key
+     * @return value or null
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : null;
+        }
+        int index = slot(key);
+        return index == -1 ? null : (V) values[index];
+    }
+
+
+    public boolean containsKey(long key) {
+        return key == 0 ? hasZeroKey : slot(key) != -1;
+    }
+
+
+    /**
+     * Put a value.
+     * @param key key
+     * @param value value
+     * @return old value or null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (key == 0) {
+            V old = zeroValue;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return old;
+        }
+
+        long[] keys = this.keys;
+        int index = HashSlots.hash(key) & mask;
+        long current;
+
+        while ((current = keys[index]) != 0) {
+            if (current == key) {
+                V old = (V) values[index];
+                values[index] = value;
+                return old;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+
+        if (++size > resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+
+    /**
+     * Remove a key.
+     * @param key key
+     * @return old value or null
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                return null;
+            }
+            V old = zeroValue;
+            hasZeroKey = false;
+            zeroValue = null;
+            size--;
+            return old;
+        }
+
+        int index = slot(key);
+        if (index == -1) {
+            return null;
+        }
+
+        V old = (V) values[index];
+        shiftDown(index);
+        size--;
+        return old;
+    }
+
+
+    /** Moves the entries after a removed slot back so lookups do not stop early. */
+    private void shiftDown(int gap) {
+        long[] keys = this.keys;
+        Object[] values = this.values;
+        int index = (gap + 1) & mask;
+        long current;
+
+        while ((current = keys[index]) != 0) {
+            int ideal = HashSlots.hash(current) & mask;
+            if (((index - ideal) & mask) >= ((index - gap) & mask)) {
+                keys[gap] = current;
+                values[gap] = values[index];
+                gap = index;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[gap] = 0;
+        values[gap] = null;
+    }
+
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+
+        long[] keys = this.keys;
+        for (int old = 0; old < oldKeys.length; old++) {
+            long key = oldKeys[old];
+            if (key != 0) {
+                int index = HashSlots.hash(key) & mask;
+                while (keys[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                values[index] = oldValues[old];
+            }
+        }
+    }
+
+
+    /** Number of entries. */
+    public int size() {
+        return size;
+    }
+
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+
+    /** Remove everything but keep the capacity. */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(values, null);
+        hasZeroKey = false;
+        zeroValue = null;
+        size = 0;
+    }
+
+
+    /**
+     * Walks the entries without boxing the keys.
+     * <pre>
+     *     LongObjectMap.Cursor cursor = map.cursor();
+     *     while (cursor.next()) {
+     *         long key = cursor.key();
+     *         Foo value = cursor.value();
+     *     }
+     * </pre>
+     * Do not add or remove keys while walking the map.
+     * @return cursor
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+
+    public final class Cursor {
+
+        private int index = -1;
+        private boolean zeroPending = hasZeroKey;
+        private boolean onZero;
+
+        /** Moves to the next entry.
+         * @return false when there are no more entries */
+        public boolean next() {
+            if (zeroPending) {
+                zeroPending = false;
+                onZero = true;
+                return true;
+            }
+            onZero = false;
+
+            long[] keys = LongObjectMap.this.keys;
+            while (++index < keys.length) {
+                if (keys[index] != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public long key() {
+            return onZero ? 0 : keys[index];
+        }
+
+        @SuppressWarnings("unchecked")
+        public V value() {
+            return onZero ? zeroValue : (V) values[index];
+        }
+
+        /** Replace the value of the current entry. */
+        public void setValue(V value) {
+            if (onZero) {
+                zeroValue = value;
+            } else {
+                values[index] = value;
+            }
+        }
+    }
+
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        Cursor cursor = cursor();
+        while (cursor.next()) {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(cursor.key()).append('=').append(cursor.value());
+        }
+        return builder.append('}').toString();
+    }
+}
@@ -0,0 +1,353 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.collections;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.boon.primitive.Int.roundUpToPowerOf2;
+
+/**
+ * Eviction list for caches that does not sort the whole list under one lock.
+ *
+ * Items are spread over lock striped arrays. To pick a victim we look at a few
+ * random items from random stripes, locking one stripe at a time, and drop the
+ * lowest one (by compareTo). Adds and removes only ever touch one stripe.
+ *
+ * A sample size of 0 means sort the stripe instead of sampling. With one stripe
+ * that is exactly what SortableConcurrentList.sortAndReturnPurgeList did.
+ * Items whose order changes while they sit in the list (read counts) should
+ * implement SortKeys so the sort works on a snapshot.
+ *
+ * @param <T> item type, lowest compareTo is evicted first
+ */
+public class SampledEvictionList<T extends Comparable> {
+
+    /**
+     * What compareTo looks at, as longs, most significant first.
+     * Sorting uses a snapshot of these so readers changing an item mid sort
+     * cannot break the sort.
+     */
+    public interface SortKeys {
+
+        int MAX_KEYS = 4;
+
+        /**
+         * @param keys at least MAX_KEYS long
+         * @return how many keys were written
+         */
+        int sortKeys( long[] keys );
+    }
+
+
+    /** Default number of items looked at per eviction. */
+    public static final int DEFAULT_SAMPLE_SIZE = 5;
+
+    private final Stripe<T>[] stripes;
+    private final int mask;
+    private final int sampleSize;
+    private final AtomicInteger size = new AtomicInteger();
+
+    public SampledEvictionList() {
+        this( Runtime.getRuntime().availableProcessors() * 2, DEFAULT_SAMPLE_SIZE );
+    }
+
+    /**
+     * @param stripeCount number of lock stripes, rounded up to a power of 2
+     * @param sampleSize  items sampled per victim, 0 means sort the stripe
+     */
+    @SuppressWarnings( "unchecked" )
+    public SampledEvictionList( int stripeCount, int sampleSize ) {
+        stripeCount = roundUpToPowerOf2( Math.max( 1, stripeCount ) );
+        this.stripes = new Stripe[ stripeCount ];
+        for ( int index = 0; index < stripeCount; index++ ) {
+            stripes[ index ] = new Stripe<>();
+        }
+        this.mask = stripeCount - 1;
+        this.sampleSize = Math.max( 0, sampleSize );
+    }
+
+    public void add( T item ) {
+        Stripe<T> stripe = stripeFor( item );
+        stripe.lock.lock();
+        try {
+            stripe.add( item );
+        } finally {
+            stripe.lock.unlock();
+        }
+        size.incrementAndGet();
+    }
+
+    public boolean remove( Object item ) {
+        Stripe<T> stripe = stripeFor( item );
+        boolean removed;
+        stripe.lock.lock();
+        try {
+            removed = stripe.remove( item );
+        } finally {
+            stripe.lock.unlock();
+        }
+        if ( removed ) {
+            size.decrementAndGet();
+        }
+        return removed;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Removes roughly removePercent of the items, lowest priority first,
+     * and returns what was removed.
+     * Uses the same rounding as SortableConcurrentList.sortAndReturnPurgeList.
+     * @param removePercent 0.1f means a tenth
+     * @return removed items
+     */
+    public List<T> purge( float removePercent ) {
+        int currentSize = size.get();
+        int count = currentSize - ( int ) ( currentSize - ( currentSize * removePercent ) );
+        if ( count <= 0 ) {
+            return Collections.emptyList();
+        }
+
+        List<T> removed = new ArrayList<>( count );
+
+        if ( sampleSize == 0 ) {
+            purgeSorted( count, removed );
+        } else {
+            purgeSampled( count, removed );
+        }
+
+        size.addAndGet( -removed.size() );
+        return removed;
+    }
+
+    /** Sorts each stripe (one at a time) and takes its share off the bottom. */
+    private void purgeSorted( int count, List<T> removed ) {
+        int perStripe = Math.max( 1, count / stripes.length );
+
+        for ( int index = 0; index < stripes.length && removed.size() < count; index++ ) {
+            Stripe<T> stripe = stripes[ index ];
+            stripe.lock.lock();
+            try {
+                int take = Math.min( stripe.size, Math.min( perStripe, count - removed.size() ) );
+                stripe.sortAndRemoveLowest( take, removed );
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    private void purgeSampled( int count, List<T> removed ) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        for ( int victims = 0; victims < count; victims++ ) {
+            T victim = removeSampledLowest( random );
+            if ( victim == null ) {
+                return;
+            }
+            removed.add( victim );
+        }
+    }
+
+    /**
+     * Samples come from random stripes, not from one, so a stripe that is down
+     * to its last (hot) item does not have to give it up.
+     */
+    @SuppressWarnings( "unchecked" )
+    private T removeSampledLowest( ThreadLocalRandom random ) {
+        boolean all = size.get() <= sampleSize;
+
+        for ( int attempt = 0; attempt < 3; attempt++ ) {
+            T lowest = null;
+            int lowestStripe = 0;
+            int lowestIndex = 0;
+
+            int draws = all ? stripes.length : sampleSize;
+            int start = random.nextInt( stripes.length );
+
+            for ( int draw = 0; draw < draws; draw++ ) {
+                int stripeIndex = all ? ( start + draw ) & mask : random.nextInt( stripes.length );
+                Stripe<T> stripe = stripes[ stripeIndex ];
+                stripe.lock.lock();
+                try {
+                    if ( stripe.size == 0 ) {
+                        continue;
+                    }
+                    int from = all ? 0 : random.nextInt( stripe.size );
+                    int to = all ? stripe.size : from + 1;
+                    for ( int index = from; index < to; index++ ) {
+                        T item = ( T ) stripe.items[ index ];
+                        if ( lowest == null || item.compareTo( lowest ) < 0 ) {
+                            lowest = item;
+                            lowestStripe = stripeIndex;
+                            lowestIndex = index;
+                        }
+                    }
+                } finally {
+                    stripe.lock.unlock();
+                }
+            }
+
+            if ( lowest == null ) {
+                if ( all ) {
+                    return null;
+                }
+                /* Every sample hit an empty stripe, look at all of them instead. */
+                all = true;
+                continue;
+            }
+
+            Stripe<T> stripe = stripes[ lowestStripe ];
+            stripe.lock.lock();
+            try {
+                if ( lowestIndex < stripe.size && stripe.items[ lowestIndex ] == lowest ) {
+                    stripe.removeAt( lowestIndex );
+                    return lowest;
+                }
+                if ( stripe.remove( lowest ) ) {
+                    return lowest;
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+
+            all = size.get() <= sampleSize;
+        }
+        return null;
+    }
+
+    private Stripe<T> stripeFor( Object item ) {
+        int hash = item.hashCode();
+        hash ^= ( hash >>> 16 );
+        return stripes[ hash & mask ];
+    }
+
+    @Override
+    public String toString() {
+        return "SampledEvictionList{size=" + size.get() +
+                ", stripes=" + stripes.length +
+                ", sampleSize=" + sampleSize + "}";
+    }
+
+
+    /** One lock and an unordered array. Removal swaps in the last item. */
+    private static final class Stripe<T extends Comparable> {
+        final ReentrantLock lock = new ReentrantLock();
+        Object[] items = new Object[ 16 ];
+        int size;
+
+        void add( T item ) {
+            if ( size == items.length ) {
+                items = Arrays.copyOf( items, size * 2 );
+            }
+            items[ size++ ] = item;
+        }
+
+        boolean remove( Object item ) {
+            for ( int index = 0; index < size; index++ ) {
+                if ( items[ index ] == item || items[ index ].equals( item ) ) {
+                    removeAt( index );
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @SuppressWarnings( "unchecked" )
+        T removeAt( int index ) {
+            T item = ( T ) items[ index ];
+            size--;
+            items[ index ] = items[ size ];
+            items[ size ] = null;
+            return item;
+        }
+
+        @SuppressWarnings( "unchecked" )
+        void sortAndRemoveLowest( int take, List<T> removed ) {
+            if ( take <= 0 ) {
+                return;
+            }
+            if ( items[ 0 ] instanceof SortKeys ) {
+                sortBySnapshot();
+            } else {
+                Arrays.sort( items, 0, size );
+            }
+            for ( int index = 0; index < take; index++ ) {
+                removed.add( ( T ) items[ index ] );
+            }
+            System.arraycopy( items, take, items, 0, size - take );
+            Arrays.fill( items, size - take, size, null );
+            size -= take;
+        }
+
+        /** Copies the keys once, sorts positions by the copy, then reorders the items. */
+        private void sortBySnapshot() {
+            final int width = SortKeys.MAX_KEYS;
+            final long[] keys = new long[ size * width ];
+            final long[] one = new long[ width ];
+
+            Integer[] positions = new Integer[ size ];
+            for ( int index = 0; index < size; index++ ) {
+                Arrays.fill( one, 0L );
+                ( ( SortKeys ) items[ index ] ).sortKeys( one );
+                System.arraycopy( one, 0, keys, index * width, width );
+                positions[ index ] = index;
+            }
+
+            Arrays.sort( positions, new Comparator<Integer>() {
+                @Override
+                public int compare( Integer left, Integer right ) {
+                    int l = left * width;
+                    int r = right * width;
+                    for ( int key = 0; key < width; key++ ) {
+                        int cmp = Long.compare( keys[ l + key ], keys[ r + key ] );
+                        if ( cmp != 0 ) {
+                            return cmp;
+                        }
+                    }
+                    return 0;
+                }
+            } );
+
+            Object[] sorted = new Object[ items.length ];
+            for ( int index = 0; index < size; index++ ) {
+                sorted[ index ] = items[ positions[ index ] ];
+            }
+            items = sorted;
+        }
+    }
+}
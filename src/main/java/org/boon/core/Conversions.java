@@ -356,6 +356,8 @@ public class Conversions {
             if (clz == value.getClass()) {
                 return (T) value;
             }
+            /* Converter for this pair is resolved once, see ConverterRegistry. */
+            return ConverterRegistry.converter((Class<Object>) value.getClass(), clz).convert(value);
         }
 
         return coerce(Type.getType(clz), clz, value);
@@ -398,6 +400,17 @@ public class Conversions {
     }
 
     public static <T> T coerce(Type coerceTo, Class<T> clz, Object value) {
+        if (value != null) {
+            Converter converter = ConverterRegistry.registeredConverter(value.getClass(), clz);
+            if (converter != null) {
+                return (T) converter.convert(value);
+            }
+        }
+        return builtInCoerce(coerceTo, clz, value);
+    }
+
+    /** coerce without looking at registered converters. */
+    static <T> T builtInCoerce(Type coerceTo, Class<T> clz, Object value) {
         if (value == null) {
             if (coerceTo != Type.INSTANCE && !clz.isPrimitive()) {
 
@@ -543,6 +556,11 @@ public class Conversions {
             return (T) value;
         }
 
+        Converter converter = ConverterRegistry.registeredConverter(value.getClass(), clz);
+        if (converter != null) {
+            return (T) converter.convert(value);
+        }
+
         switch (coerceTo) {
             case STRING:
             case CHAR_SEQUENCE:
@@ -0,0 +1,429 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+package org.boon.core;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.boon.Exceptions.requireNonNulls;
+
+/**
+ * Picks the converter for a (source class, target class) pair once and keeps it, so
+ * Conversions.coerce does not have to work out the target type and walk its switch
+ * for every value.
+ *
+ * Converters you register win over the built in conversions. A converter registered
+ * for a super class or interface of the source is used for its subclasses too, and
+ * one registered for a wrapper (Integer) is used for the primitive (int) and the other
+ * way round.
+ *
+ * For int and long targets use toInt / toLong, they do not box. Register a ToInt or
+ * ToLong converter to get the same from your own types.
+ */
+public final class ConverterRegistry {
+
+    /**
+     * Converter to int that does not box, convert is there so it can be used as a plain Converter.
+     */
+    public static abstract class ToInt<S> implements Converter<S, Integer> {
+
+        public abstract int toInt( S value );
+
+        @Override
+        public final Integer convert( S value ) {
+            return toInt( value );
+        }
+    }
+
+    /**
+     * Converter to long that does not box, convert is there so it can be used as a plain Converter.
+     */
+    public static abstract class ToLong<S> implements Converter<S, Long> {
+
+        public abstract long toLong( S value );
+
+        @Override
+        public final Long convert( S value ) {
+            return toLong( value );
+        }
+    }
+
+
+    /** Marks the converters that just run the built in conversion. */
+    private interface BuiltIn {
+    }
+
+
+    private static final Map<TypePair, Converter> registered = new ConcurrentHashMap<>();
+
+    /**
+     * What was picked so far. Swapped for an empty one on every (un)registration, a lookup
+     * racing with that puts into the old one, so nothing stale survives.
+     */
+    private static volatile Resolved resolved = new Resolved();
+
+    private static volatile boolean hasRegistered;
+
+
+    private ConverterRegistry() {
+    }
+
+
+    /**
+     * Registers a converter, it is used from then on by Conversions.coerce and friends.
+     * Registering again for the same pair replaces the old one.
+     */
+    public static <S, T> void register( Class<S> source, Class<T> target, Converter<? super S, ? extends T> converter ) {
+        requireNonNulls( "register: source, target and converter are required, null at index", source, target, converter );
+
+        synchronized ( registered ) {
+            registered.put( new TypePair( source, target ), converter );
+            hasRegistered = true;
+            resolved = new Resolved();
+        }
+    }
+
+
+    public static void unregister( Class<?> source, Class<?> target ) {
+        synchronized ( registered ) {
+            registered.remove( new TypePair( source, target ) );
+            hasRegistered = !registered.isEmpty();
+            resolved = new Resolved();
+        }
+    }
+
+
+    /**
+     * The converter for this pair, a registered one if there is one, else the built in conversion.
+     */
+    public static <S, T> Converter<S, T> converter( Class<S> source, Class<T> target ) {
+        Map<TypePair, Converter> converters = resolved.converters;
+        TypePair pair = new TypePair( source, target );
+        Converter converter = converters.get( pair );
+        if ( converter == null ) {
+            converter = findRegistered( source, target );
+            if ( converter == null ) {
+                converter = builtIn( source, target );
+            }
+            converters.put( pair, converter );
+        }
+        return converter;
+    }
+
+
+    /**
+     * The registered converter for this pair or null. Cheap when nothing was registered.
+     */
+    public static <S, T> Converter<S, T> registeredConverter( Class<S> source, Class<T> target ) {
+        if ( !hasRegistered ) {
+            return null;
+        }
+        Converter converter = converter( source, target );
+        return converter instanceof BuiltIn ? null : converter;
+    }
+
+
+    /** Same as Conversions.toInt but uses a registered converter for the value's class if there is one. */
+    public static int toInt( Object value ) {
+        if ( value instanceof Integer ) {
+            return ( Integer ) value;
+        }
+        if ( !hasRegistered ) {
+            return Conversions.toInt( value );
+        }
+        ToInt converter = intConverter( value.getClass() );
+        return converter.toInt( value );
+    }
+
+
+    /** Same as Conversions.toLong but uses a registered converter for the value's class if there is one. */
+    public static long toLong( Object value ) {
+        if ( value instanceof Long ) {
+            return ( Long ) value;
+        }
+        if ( !hasRegistered ) {
+            return Conversions.toLong( value );
+        }
+        ToLong converter = longConverter( value.getClass() );
+        return converter.toLong( value );
+    }
+
+
+    public static <S> ToInt<S> intConverter( Class<S> source ) {
+        Map<Class<?>, ToInt> intConverters = resolved.intConverters;
+        ToInt converter = intConverters.get( source );
+        if ( converter == null ) {
+            Converter found = findRegistered( source, int.class );
+            if ( found instanceof ToInt ) {
+                converter = ( ToInt ) found;
+            } else if ( found != null ) {
+                final Converter userConverter = found;
+                converter = new ToInt() {
+                    @Override
+                    public int toInt( Object value ) {
+                        return Conversions.toInt( userConverter.convert( value ) );
+                    }
+                };
+            } else if ( Number.class.isAssignableFrom( source ) ) {
+                converter = NUMBER_TO_INT;
+            } else {
+                converter = ANY_TO_INT;
+            }
+            intConverters.put( source, converter );
+        }
+        return converter;
+    }
+
+
+    public static <S> ToLong<S> longConverter( Class<S> source ) {
+        Map<Class<?>, ToLong> longConverters = resolved.longConverters;
+        ToLong converter = longConverters.get( source );
+        if ( converter == null ) {
+            Converter found = findRegistered( source, long.class );
+            if ( found instanceof ToLong ) {
+                converter = ( ToLong ) found;
+            } else if ( found != null ) {
+                final Converter userConverter = found;
+                converter = new ToLong() {
+                    @Override
+                    public long toLong( Object value ) {
+                        return Conversions.toLong( userConverter.convert( value ) );
+                    }
+                };
+            } else if ( Number.class.isAssignableFrom( source ) ) {
+                converter = NUMBER_TO_LONG;
+            } else {
+                converter = ANY_TO_LONG;
+            }
+            longConverters.put( source, converter );
+        }
+        return converter;
+    }
+
+
+    /** Looks for a registered converter on the source, its super classes and interfaces. */
+    private static Converter findRegistered( Class<?> source, Class<?> target ) {
+        if ( !hasRegistered ) {
+            return null;
+        }
+
+        Class<?> otherTarget = target.isPrimitive() ? wrapper( target ) : primitive( target );
+
+        for ( Class<?> type = source; type != null; type = type.getSuperclass() ) {
+            Converter converter = registered( type, target, otherTarget );
+            if ( converter != null ) {
+                return converter;
+            }
+        }
+
+        Set<Class<?>> interfaces = new LinkedHashSet<>();
+        for ( Class<?> type = source; type != null; type = type.getSuperclass() ) {
+            collectInterfaces( type, interfaces );
+        }
+        for ( Class<?> type : interfaces ) {
+            Converter converter = registered( type, target, otherTarget );
+            if ( converter != null ) {
+                return converter;
+            }
+        }
+        return null;
+    }
+
+
+    private static Converter registered( Class<?> source, Class<?> target, Class<?> otherTarget ) {
+        Converter converter = registered.get( new TypePair( source, target ) );
+        if ( converter == null && otherTarget != null ) {
+            converter = registered.get( new TypePair( source, otherTarget ) );
+        }
+        return converter;
+    }
+
+
+    private static void collectInterfaces( Class<?> type, Set<Class<?>> interfaces ) {
+        for ( Class<?> anInterface : type.getInterfaces() ) {
+            if ( interfaces.add( anInterface ) ) {
+                collectInterfaces( anInterface, interfaces );
+            }
+        }
+    }
+
+
+    private static Converter builtIn( Class<?> source, final Class<?> target ) {
+
+        final Type type = Type.getType( target );
+
+        if ( source == target || type == Type.OBJECT ) {
+            return IDENTITY;
+        }
+
+        switch ( type ) {
+            case STRING:
+            case CHAR_SEQUENCE:
+                return TO_STRING;
+            case INT:
+            case INTEGER_WRAPPER:
+                return Number.class.isAssignableFrom( source ) ? NUMBER_TO_INT : ANY_TO_INT;
+            case LONG:
+            case LONG_WRAPPER:
+                return Number.class.isAssignableFrom( source ) ? NUMBER_TO_LONG : ANY_TO_LONG;
+            default:
+                return new BuiltInConverter( type, target );
+        }
+    }
+
+
+    private static Class<?> wrapper( Class<?> type ) {
+        switch ( Type.getType( type ) ) {
+            case INT: return Integer.class;
+            case LONG: return Long.class;
+            case DOUBLE: return Double.class;
+            case FLOAT: return Float.class;
+            case SHORT: return Short.class;
+            case BYTE: return Byte.class;
+            case CHAR: return Character.class;
+            case BOOLEAN: return Boolean.class;
+            default: return null;
+        }
+    }
+
+
+    private static Class<?> primitive( Class<?> type ) {
+        switch ( Type.getType( type ) ) {
+            case INTEGER_WRAPPER: return int.class;
+            case LONG_WRAPPER: return long.class;
+            case DOUBLE_WRAPPER: return double.class;
+            case FLOAT_WRAPPER: return float.class;
+            case SHORT_WRAPPER: return short.class;
+            case BYTE_WRAPPER: return byte.class;
+            case CHAR_WRAPPER: return char.class;
+            case BOOLEAN_WRAPPER: return boolean.class;
+            default: return null;
+        }
+    }
+
+
+    /** The target type was worked out once, this just runs the switch in Conversions. */
+    private static final class BuiltInConverter implements Converter<Object, Object>, BuiltIn {
+        private final Type type;
+        private final Class<?> target;
+
+        BuiltInConverter( Type type, Class<?> target ) {
+            this.type = type;
+            this.target = target;
+        }
+
+        @Override
+        public Object convert( Object value ) {
+            return Conversions.builtInCoerce( type, target, value );
+        }
+    }
+
+
+    private static final class Identity implements Converter<Object, Object>, BuiltIn {
+        @Override
+        public Object convert( Object value ) {
+            return value;
+        }
+    }
+
+    private static final class ToStringConverter implements Converter<Object, Object>, BuiltIn {
+        @Override
+        public Object convert( Object value ) {
+            return value.toString();
+        }
+    }
+
+    private static final class NumberToInt extends ToInt<Number> implements BuiltIn {
+        @Override
+        public int toInt( Number value ) {
+            return value.intValue();
+        }
+    }
+
+    private static final class AnyToInt extends ToInt<Object> implements BuiltIn {
+        @Override
+        public int toInt( Object value ) {
+            return Conversions.toInt( value );
+        }
+    }
+
+    private static final class NumberToLong extends ToLong<Number> implements BuiltIn {
+        @Override
+        public long toLong( Number value ) {
+            return value.longValue();
+        }
+    }
+
+    private static final class AnyToLong extends ToLong<Object> implements BuiltIn {
+        @Override
+        public long toLong( Object value ) {
+            return Conversions.toLong( value );
+        }
+    }
+
+    private static final Converter IDENTITY = new Identity();
+    private static final Converter TO_STRING = new ToStringConverter();
+    private static final ToInt NUMBER_TO_INT = new NumberToInt();
+    private static final ToInt ANY_TO_INT = new AnyToInt();
+    private static final ToLong NUMBER_TO_LONG = new NumberToLong();
+    private static final ToLong ANY_TO_LONG = new AnyToLong();
+
+
+    private static final class Resolved {
+        final Map<TypePair, Converter> converters = new ConcurrentHashMap<>();
+        final Map<Class<?>, ToInt> intConverters = new ConcurrentHashMap<>();
+        final Map<Class<?>, ToLong> longConverters = new ConcurrentHashMap<>();
+    }
+
+
+    private static final class TypePair {
+        private final Class<?> source;
+        private final Class<?> target;
+        private final int hashCode;
+
+        TypePair( Class<?> source, Class<?> target ) {
+            this.source = source;
+            this.target = target;
+            this.hashCode = 31 * source.hashCode() + target.hashCode();
+        }
+
+        @Override
+        public boolean equals( Object o ) {
+            if ( !( o instanceof TypePair ) ) {
+                return false;
+            }
+            TypePair other = ( TypePair ) o;
+            return source == other.source && target == other.target;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.core;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counter for hot paths, a stand in for JDK 8 LongAdder.
+ *
+ * Adds go to one of several cells picked by thread id, each cell on its own
+ * cache line, so threads do not fight over one word. Reading the total sums the
+ * cells and is not an atomic snapshot.
+ */
+public final class StripedCounter {
+
+    /** Longs per 64 byte cache line. */
+    private static final int PAD = 8;
+
+    private final AtomicLongArray cells;
+    private final int mask;
+
+    public StripedCounter() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int stripes = Integer.highestOneBit( Math.max( 1, cores ) * 2 - 1 );
+        cells = new AtomicLongArray( ( stripes + 1 ) * PAD );
+        mask = stripes - 1;
+    }
+
+    public void increment() {
+        add( 1 );
+    }
+
+    public void add( long amount ) {
+        cells.getAndAdd( cell(), amount );
+    }
+
+    public long sum() {
+        long sum = 0;
+        for ( int index = PAD; index < cells.length(); index += PAD ) {
+            sum += cells.get( index );
+        }
+        return sum;
+    }
+
+    public void reset() {
+        for ( int index = PAD; index < cells.length(); index += PAD ) {
+            cells.set( index, 0 );
+        }
+    }
+
+    /** Skips the first line so cell 0 does not share a line with the array header. */
+    private int cell() {
+        int hash = ( int ) Thread.currentThread().getId();
+        hash ^= hash >>> 16;
+        return ( ( hash & mask ) + 1 ) * PAD;
+    }
+
+    public String toString() {
+        return Long.toString( sum() );
+    }
+}
@@ -34,10 +34,11 @@ import org.boon.Str;
 import org.boon.core.reflection.Annotations;
 import org.boon.core.reflection.Reflection;
 import org.boon.core.timer.TimeKeeper;
-import org.boon.core.timer.TimeKeeperBasic;
+import org.boon.core.timer.CoarseTimeKeeper;
 import org.boon.logging.Logging;
 
 import java.math.BigDecimal;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicReference;
 
 
@@ -137,7 +138,7 @@ public class Sys {
     }
 
 
-    final static AtomicReference<TimeKeeper> timer = new AtomicReference<TimeKeeper> ( new TimeKeeperBasic () );
+    final static AtomicReference<TimeKeeper> timer = new AtomicReference<TimeKeeper> ( new CoarseTimeKeeper () );
 
     public static TimeKeeper timer () {
         return timer.get ();
@@ -148,6 +149,17 @@ public class Sys {
     }
 
 
+    /* Created on first use. Worker threads from the default fork join thread factory are daemons. */
+    private static class ForkJoinPoolHolder {
+        private static final ForkJoinPool pool = new ForkJoinPool ( Runtime.getRuntime ().availableProcessors () );
+    }
+
+    /** Fork join pool shared by the parallel sorts and array reductions. */
+    public static ForkJoinPool forkJoinPool () {
+        return ForkJoinPoolHolder.pool;
+    }
+
+
     static {
         boolean _inContainer;
         boolean forceInContainer = Boolean.parseBoolean ( System.getProperty ( "org.boon.forceInContainer", "false" ) );
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.core.reflection;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable index of the annotations on a class, field or method.
+ *
+ * Annotation names are interned to small ints once (full class name, simple name
+ * and, for classes and methods, the uncapitalized name all get one), and each index keeps the ids of its
+ * annotations in an array. Code that asks the same question all the time grabs the id once,
+ * i.e., static final int JSON_IGNORE = AnnotationIndex.id("JsonIgnore"), and asks by id
+ * which is a scan over an array of a few ints instead of a map lookup.
+ */
+public final class AnnotationIndex {
+
+    private static final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+    public static final AnnotationIndex EMPTY = new AnnotationIndex( Collections.<AnnotationData>emptyList(), false );
+
+
+    /** Ids of the names, a few per annotation. */
+    private final int[] keys;
+
+    /** Annotation for the id at the same position. */
+    private final AnnotationData[] values;
+
+    private final List<AnnotationData> annotations;
+
+
+    /**
+     * Id for an annotation name, the same name always gets the same id.
+     */
+    public static int id( String name ) {
+        Integer id = ids.get( name );
+        if ( id == null ) {
+            synchronized ( ids ) {
+                id = ids.get( name );
+                if ( id == null ) {
+                    id = ids.size();
+                    ids.put( name, id );
+                }
+            }
+        }
+        return id;
+    }
+
+
+    /** Id without registering the name, -1 if no annotation was ever indexed with it. */
+    private static int existingId( String name ) {
+        Integer id = ids.get( name );
+        return id == null ? -1 : id;
+    }
+
+
+    /** Index by full class name, simple name and uncapitalized name, i.e., postConstruct. */
+    public static AnnotationIndex index( Collection<AnnotationData> annotations ) {
+        return index( annotations, true );
+    }
+
+
+    /**
+     * @param byName also index by the uncapitalized name, fields have always been looked up
+     *               by class name only
+     */
+    public static AnnotationIndex index( Collection<AnnotationData> annotations, boolean byName ) {
+        if ( annotations == null || annotations.isEmpty() ) {
+            return EMPTY;
+        }
+        return new AnnotationIndex( annotations, byName );
+    }
+
+
+    private AnnotationIndex( Collection<AnnotationData> annotations, boolean byName ) {
+
+        /* Same as putting them all in a map, the last one with a name wins. */
+        Map<Integer, AnnotationData> byId = new LinkedHashMap<>( annotations.size() * 4 );
+        for ( AnnotationData data : annotations ) {
+            byId.put( id( data.getFullClassName() ), data );
+            byId.put( id( data.getSimpleClassName() ), data );
+            if ( byName ) {
+                byId.put( id( data.getName() ), data );
+            }
+        }
+
+        this.keys = new int[ byId.size() ];
+        this.values = new AnnotationData[ byId.size() ];
+
+        int index = 0;
+        for ( Map.Entry<Integer, AnnotationData> entry : byId.entrySet() ) {
+            keys[ index ] = entry.getKey();
+            values[ index ] = entry.getValue();
+            index++;
+        }
+
+        this.annotations = Collections.unmodifiableList( new ArrayList<>( annotations ) );
+    }
+
+
+    public boolean has( int id ) {
+        for ( int key : keys ) {
+            if ( key == id ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    public AnnotationData get( int id ) {
+        final int[] keys = this.keys;
+        for ( int index = 0; index < keys.length; index++ ) {
+            if ( keys[ index ] == id ) {
+                return values[ index ];
+            }
+        }
+        return null;
+    }
+
+
+    public boolean has( String name ) {
+        return keys.length > 0 && has( existingId( name ) );
+    }
+
+
+    public AnnotationData get( String name ) {
+        return keys.length == 0 ? null : get( existingId( name ) );
+    }
+
+
+    /** Values of the annotation or null if it is not there. */
+    public Map<String, Object> values( int id ) {
+        AnnotationData data = get( id );
+        return data == null ? null : data.getValues();
+    }
+
+
+    public Map<String, Object> values( String name ) {
+        AnnotationData data = get( name );
+        return data == null ? null : data.getValues();
+    }
+
+
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+
+    public List<AnnotationData> annotations() {
+        return annotations;
+    }
+}
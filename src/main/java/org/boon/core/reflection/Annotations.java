@@ -78,6 +78,10 @@ public class Annotations {
                 = new ConcurrentHashMap<>(  );
 
 
+        private Map<Class<?>, AnnotationIndex> annotationIndexCacheClass
+                = new ConcurrentHashMap<>(  );
+
+
     }
 
     static {
@@ -206,6 +210,22 @@ public class Annotations {
         return map;
     }
 
+    /**
+     * Class annotations as an immutable index, built once per class.
+     */
+    public static AnnotationIndex getAnnotationIndexForClass( Class<?> clazz  ) {
+
+        final Map<Class<?>, AnnotationIndex> cache = context ().annotationIndexCacheClass;
+
+        AnnotationIndex index = cache.get ( clazz );
+
+        if (index ==  null) {
+            index = AnnotationIndex.index ( getAnnotationDataForClass ( clazz ) );
+            cache.put ( clazz, index );
+        }
+        return index;
+    }
+
     public static List<AnnotationData> getAnnotationDataForClass( Class<?> clazz, Set<String> allowedPackages ) {
 
         final Map<Class<?>,  List<AnnotationData>> cache = context ().annotationDataCacheClass;
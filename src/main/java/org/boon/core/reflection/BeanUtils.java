@@ -29,7 +29,9 @@
 package org.boon.core.reflection;
 
 import org.boon.*;
+import org.boon.cache.SimpleConcurrentCache;
 import org.boon.core.Conversions;
+import org.boon.core.Sys;
 import org.boon.core.Typ;
 import org.boon.core.Type;
 import org.boon.core.reflection.fields.FieldAccess;
@@ -427,10 +429,11 @@ public class BeanUtils {
      */
     public static Object idx( Object object, String path ) {
 
+        if ( object == null ) {
+            return null;
+        }
 
-        String[] properties = propertyPathAsStringArray(path);
-
-        return getPropertyValue( object, properties );
+        return compilePath( object.getClass(), path ).getValue( object );
     }
 
 
@@ -458,10 +461,57 @@ public class BeanUtils {
      */
     public static Object atIndex(Object object, String path) {
 
+        if ( object == null ) {
+            return null;
+        }
+
+        return compilePath( object.getClass(), path ).getValue( object );
+    }
 
-        String[] properties = propertyPathAsStringArray(path);
+    /**
+     * Split and resolve a property path once, see PropertyPath.
+     * Compiled paths are kept in a bounded cache, org.boon.reflection.pathCacheSize
+     * (default 4096), hold on to the result if you use it in a loop.
+     *
+     * @param cls class the path starts from
+     * @param path in dotted notation
+     * @return the compiled path
+     */
+    public static PropertyPath compilePath( Class<?> cls, String path ) {
+        PathKey key = new PathKey( cls, path );
+        PropertyPath propertyPath = compiledPaths.get( key );
+        if ( propertyPath == null ) {
+            propertyPath = new PropertyPath( cls, path, propertyPathAsStringArray( path ) );
+            compiledPaths.put( key, propertyPath );
+        }
+        return propertyPath;
+    }
+
+    private static final SimpleConcurrentCache<PathKey, PropertyPath> compiledPaths =
+            new SimpleConcurrentCache<>( Integer.parseInt( Sys.sysProp( "org.boon.reflection.pathCacheSize", 4096 ) ) );
+
+    private static final class PathKey {
+        private final Class<?> cls;
+        private final String path;
 
-        return getPropertyValue( object, properties );
+        PathKey( Class<?> cls, String path ) {
+            this.cls = cls;
+            this.path = path;
+        }
+
+        @Override
+        public boolean equals( Object o ) {
+            if ( !( o instanceof PathKey ) ) {
+                return false;
+            }
+            PathKey other = ( PathKey ) o;
+            return cls == other.cls && path.equals( other.path );
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * cls.hashCode() + path.hashCode();
+        }
     }
 
     static Map<String, String[]> splitsPathsCache = new ConcurrentHashMap<>();
@@ -78,6 +78,11 @@ public class ClassMeta <T> implements Annotated{
 
     final ConstructorAccess<T> noArgConstructor;
 
+    /** Overloads already picked for a method name and argument classes, filled in by Invoker. */
+    private final Map<MethodSignature, MethodAccess> resolvedOverloads = new ConcurrentHashMap<>();
+
+    private static final int MAX_RESOLVED_OVERLOADS = 256;
+
     final static MethodAccess MANY_METHODS = new MethodAccessImpl(){
         @Override
         public Object invoke( Object object, Object... args ) {
@@ -114,7 +119,7 @@ public class ClassMeta <T> implements Annotated{
             return die(Type[].class, "Unable to invoke method as there are more than one with that same name");
         }
     };
-    private final Map<String, AnnotationData> annotationMap;
+    private final AnnotationIndex annotationIndex;
     private final List<AnnotationData> annotations;
 
 
@@ -226,7 +231,7 @@ public class ClassMeta <T> implements Annotated{
 
 
 
-        annotationMap = Annotations.getAnnotationDataForClassAsMap( cls );
+        annotationIndex = Annotations.getAnnotationIndexForClass( cls );
         annotations = Annotations.getAnnotationDataForClass(cls);
 
     }
@@ -268,6 +273,46 @@ public class ClassMeta <T> implements Annotated{
         return methodsMulti.getAll( name );
     }
 
+
+    MethodAccess resolvedOverload(String name, Class<?>[] argumentTypes) {
+        return resolvedOverloads.get( new MethodSignature( name, argumentTypes ) );
+    }
+
+
+    void resolvedOverload(String name, Class<?>[] argumentTypes, MethodAccess methodAccess) {
+        if ( resolvedOverloads.size() < MAX_RESOLVED_OVERLOADS ) {
+            resolvedOverloads.put( new MethodSignature( name, argumentTypes ), methodAccess );
+        }
+    }
+
+
+    /** Method name plus the runtime classes of the arguments, a null argument is a null class. */
+    private static final class MethodSignature {
+        private final String name;
+        private final Class<?>[] argumentTypes;
+        private final int hashCode;
+
+        MethodSignature( String name, Class<?>[] argumentTypes ) {
+            this.name = name;
+            this.argumentTypes = argumentTypes;
+            this.hashCode = 31 * name.hashCode() + Arrays.hashCode( argumentTypes );
+        }
+
+        @Override
+        public boolean equals( Object o ) {
+            if ( this == o ) return true;
+            if ( !( o instanceof MethodSignature ) ) return false;
+            MethodSignature that = ( MethodSignature ) o;
+            return hashCode == that.hashCode && name.equals( that.name )
+                    && Arrays.equals( argumentTypes, that.argumentTypes );
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
     private List<Class<?>> getBaseClassesSuperFirst(Class<?> cls) {
 
         if (!cls.isInterface()) {
@@ -367,11 +412,15 @@ public class ClassMeta <T> implements Annotated{
     }
 
     public boolean hasAnnotation(String annotationName) {
-        return annotationMap.containsKey(annotationName);
+        return annotationIndex.has(annotationName);
     }
 
     public AnnotationData annotation(String annotationName) {
-        return annotationMap.get(annotationName);
+        return annotationIndex.get(annotationName);
+    }
+
+    public AnnotationIndex annotationIndex() {
+        return annotationIndex;
     }
 
 
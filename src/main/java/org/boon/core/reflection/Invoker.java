@@ -36,10 +36,12 @@ import org.boon.core.Typ;
 import org.boon.core.reflection.fields.FieldAccessMode;
 import org.boon.core.reflection.fields.FieldsAccessor;
 import org.boon.primitive.CharBuf;
+import org.boon.core.value.ValueContainer;
 
 import java.lang.invoke.ConstantCallSite;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -237,16 +239,22 @@ public class Invoker {
                                                  Object object,  List<?> argsList, MethodAccess methodAccess
                                                   ) {
 
-        List<Object> convertedArguments = new ArrayList(argsList);
         Class<?>[] parameterTypes = methodAccess.parameterTypes();
 
-        boolean[] flag = new boolean[1];
-
-        if (convertedArguments.size() != parameterTypes.length) {
+        if (argsList.size() != parameterTypes.length) {
             return die(Object[].class, "The list size does not match the parameter" +
-                    " length of the method. Unable to invoke method", methodAccess.name(), "on object", object, "with arguments", convertedArguments);
+                    " length of the method. Unable to invoke method", methodAccess.name(), "on object", object, "with arguments", argsList);
         }
 
+        /* Already the right types, nothing to coerce. */
+        if (argumentsMatch(parameterTypes, argsList)) {
+            return argsList.toArray(new Object[argsList.size()]);
+        }
+
+        List<Object> convertedArguments = new ArrayList(argsList);
+
+        boolean[] flag = new boolean[1];
+
         FieldsAccessor fieldsAccessor = FieldAccessMode.FIELD.create(true);
 
 
@@ -265,6 +273,105 @@ public class Invoker {
     }
 
 
+    /**
+     * True if every argument can be passed as is, i.e. matchAndConvertArgs would leave it alone.
+     * Collections, maps and value containers always go through the conversion.
+     */
+    private static boolean argumentsMatch(Class<?>[] parameterTypes, List<?> args) {
+
+        for (int index = 0; index < parameterTypes.length; index++) {
+            Object arg = args.get(index);
+
+            if (arg == null) {
+                continue;
+            }
+
+            if (arg instanceof ValueContainer) {
+                return false;
+            }
+
+            Class<?> type = parameterTypes[index];
+
+            switch (org.boon.core.Type.getType(type)) {
+                case INT:
+                    if (!(arg instanceof Integer)) return false;
+                    break;
+                case LONG:
+                    if (!(arg instanceof Long)) return false;
+                    break;
+                case DOUBLE:
+                    if (!(arg instanceof Double)) return false;
+                    break;
+                case FLOAT:
+                    if (!(arg instanceof Float)) return false;
+                    break;
+                case BOOLEAN:
+                    if (!(arg instanceof Boolean)) return false;
+                    break;
+                case SHORT:
+                    if (!(arg instanceof Short)) return false;
+                    break;
+                case BYTE:
+                    if (!(arg instanceof Byte)) return false;
+                    break;
+                case CHAR:
+                    if (!(arg instanceof Character)) return false;
+                    break;
+                case STRING:
+                case INTEGER_WRAPPER:
+                case LONG_WRAPPER:
+                case DOUBLE_WRAPPER:
+                case FLOAT_WRAPPER:
+                case BOOLEAN_WRAPPER:
+                case SHORT_WRAPPER:
+                case BYTE_WRAPPER:
+                case CHAR_WRAPPER:
+                    if (arg.getClass() != type) return false;
+                    break;
+                case INSTANCE:
+                case INTERFACE:
+                case ABSTRACT:
+                    if (!type.isInstance(arg)) return false;
+                    break;
+                default:
+                    return false;
+            }
+        }
+        return true;
+    }
+
+
+    /** No argument whose conversion depends on its contents. */
+    private static boolean classOnlyArguments(List<?> args) {
+        for (Object arg : args) {
+            if (arg instanceof Collection || arg instanceof Map || arg instanceof ValueContainer) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    private static Class<?>[] argumentTypes(List<?> args) {
+        Class<?>[] types = new Class<?>[args.size()];
+        for (int index = 0; index < types.length; index++) {
+            Object arg = args.get(index);
+            types[index] = arg == null ? null : arg.getClass();
+        }
+        return types;
+    }
+
+
+    private static Class<?>[] argumentTypes(Object[] args) {
+        Class<?>[] types = new Class<?>[args.length];
+        for (int index = 0; index < types.length; index++) {
+            Object arg = args[index];
+            types[index] = arg == null ? null : arg.getClass();
+        }
+        return types;
+    }
+
+
     public static Object invokeFromList(boolean respectIgnore, String view, Set<String> ignoreProperties,
                                         Class<?> cls, Object object,
                                         String name, List<?> argsList) {
@@ -396,10 +503,19 @@ public class Invoker {
 
     public static Object invokeOverloaded(Object object, String name, Object... args) {
         ClassMeta classMeta = ClassMeta.classMeta(object.getClass());
+
+        /* respondsTo only looks at the argument classes so the pick can be reused. */
+        Class<?>[] argumentTypes = argumentTypes(args);
+        MethodAccess method = classMeta.resolvedOverload(name, argumentTypes);
+        if (method != null) {
+            return method.invoke(object, args);
+        }
+
         Iterable<MethodAccess> invokers = classMeta.methods(name);
 
         for (MethodAccess m : invokers) {
             if (m.respondsTo(args)) {
+                classMeta.resolvedOverload(name, argumentTypes, m);
                 return m.invoke(object, args);
             }
         }
@@ -422,12 +538,31 @@ public class Invoker {
         ClassMeta classMeta = ClassMeta.classMeta(object.getClass());
         Iterable<MethodAccess> invokers = classMeta.methods(name);
 
-        List<Object> list = new ArrayList(args);
         FieldsAccessor fieldsAccessor = FieldAccessMode.FIELD.create(true);
 
         boolean[] flag = new boolean[1];
 
-        MethodAccess method = lookupOverloadedMethod(respectIgnore, view, ignoreProperties, invokers, list, fieldsAccessor, flag, false);
+        /* Reuse the overload the same argument classes resolved to last time. Lists, maps
+           and value containers convert into beans depending on their contents, so calls
+           with those always do the full search. */
+        boolean cacheable = classOnlyArguments(args);
+        Class<?>[] argumentTypes = cacheable ? argumentTypes(args) : null;
+        MethodAccess method = cacheable ? classMeta.resolvedOverload(name, argumentTypes) : null;
+
+        List<Object> list = new ArrayList(args);
+
+        if (method != null && !argumentsMatch(method.parameterTypes(), list)) {
+            method = null;
+        }
+
+        if (method == null) {
+            method = lookupOverloadedMethod(respectIgnore, view, ignoreProperties, invokers, list, fieldsAccessor, flag, false);
+
+            /* Only remember picks the argument classes alone account for. */
+            if (method != null && cacheable && argumentsMatch(method.parameterTypes(), args)) {
+                classMeta.resolvedOverload(name, argumentTypes, method);
+            }
+        }
 
         if (method == null) {
             method = lookupOverloadedMethod(respectIgnore, view, ignoreProperties, invokers, list, fieldsAccessor, flag, true);
@@ -843,50 +843,24 @@ public class MapObjectConversion {
     public static <T> T fromMap( boolean respectIgnore, String view, FieldsAccessor fieldsAccessor, Map<String, Object> map, Class<T> cls, Set<String> ignoreSet ) {
 
 
-        T toObject = Reflection.newInstance( cls );
-        Map<String, FieldAccess> fields = fieldsAccessor.getFields( toObject.getClass() );
+        MappingPlan plan = MappingPlan.plan( respectIgnore, view, fieldsAccessor, cls, ignoreSet );
+
+        T toObject = ( T ) plan.newInstance();
         Set<Map.Entry<String, Object>> mapKeyValuesEntrySet = map.entrySet();
 
+        int position = 0;
 
         /* Iterate through the map keys/values. */
         for ( Map.Entry<String, Object> mapEntry : mapKeyValuesEntrySet ) {
 
-            /* Get the field name. */
-            String key = mapEntry.getKey();
-
-            if ( ignoreSet != null ) {
-                if ( ignoreSet.contains( key ) ) {
-                    continue;
-                }
-            }
-
-            /* Get the field and if it missing then ignore this map entry. */
-            FieldAccess field = fields.get( key );
+            /* Get the field, the plan already dropped ignored fields and fields not in the view. */
+            FieldAccess field = plan.field( position++, mapEntry.getKey() );
 
 
             if ( field == null ) {
                 continue;
             }
 
-
-
-            /* Check the view if it is active. */
-            if ( view != null ) {
-                if ( !field.isViewActive( view ) ) {
-                    continue;
-                }
-            }
-
-
-            /* Check respects ignore is active.
-             * Then needs to be a chain of responsibilities.
-             * */
-            if ( respectIgnore ) {
-                if ( field.ignore() ) {
-                    continue;
-                }
-            }
-
             /* Get the value from the map. */
             Object value = mapEntry.getValue();
 
@@ -1064,11 +1038,12 @@ public class MapObjectConversion {
                                       final Map<String, Value> valueMap,
                                       final Class<T> cls, Set<String> ignoreSet ) {
 
-        T newInstance = Reflection.newInstance( cls );
+        MappingPlan plan = MappingPlan.plan( respectIgnore, view, fieldsAccessor, cls, ignoreSet );
+
+        T newInstance = ( T ) plan.newInstance();
         ValueMap map = ( ValueMap ) ( Map ) valueMap;
 
 
-        Map<String, FieldAccess> fields = fieldsAccessor.getFields( cls);
         Map.Entry<String, Object>[] entries;
 
         FieldAccess field = null;
@@ -1104,33 +1079,14 @@ public class MapObjectConversion {
 
                 fieldName = entry.getKey();
 
-
-                if ( ignoreSet != null ) {
-                    if ( ignoreSet.contains( fieldName ) ) {
-                        continue;
-                    }
-                }
-
-                field = fields.get( fieldName );
+                /* The plan already dropped ignored fields and fields not in the view. */
+                field = plan.field( index, fieldName );
 
 
                 if ( field == null ) {
                     continue;
                 }
 
-                if ( view != null ) {
-                    if ( !field.isViewActive( view ) ) {
-                        continue;
-                    }
-                }
-
-
-                if ( respectIgnore ) {
-                    if ( field.ignore() ) {
-                        continue;
-                    }
-                }
-
 
                 value = entry.getValue();
 
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+package org.boon.core.reflection;
+
+import org.boon.core.Sys;
+import org.boon.core.reflection.fields.FieldAccess;
+import org.boon.core.reflection.fields.FieldsAccessor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.boon.Exceptions.handle;
+
+/**
+ * What MapObjectConversion.fromMap and fromValueMap need to map a map onto a class,
+ * worked out once per (class, view, ignore set, respect ignore).
+ *
+ * Holds only the fields that survive the ignore/view checks, the key order the last
+ * maps came in (so a map with the usual key order does not hash its keys),
+ * and a method handle for the no arg constructor.
+ *
+ * Plans are kept in a map capped at org.boon.reflection.mappingPlanCacheSize (default 1024).
+ */
+final class MappingPlan {
+
+    private static final int MAX_KEYS_IN_ORDER = 64;
+
+    private static final int MAX_PLANS =
+            Integer.parseInt( Sys.sysProp( "org.boon.reflection.mappingPlanCacheSize", 1024 ) );
+
+    private static final Map<PlanKey, MappingPlan> plans = new ConcurrentHashMap<>();
+
+
+    /** The fields map the plan was built from, used to check the plan still fits the accessor. */
+    private final Map<String, FieldAccess> fields;
+
+    /** Fields left after the ignore set, view and @JsonIgnore checks. */
+    private final Map<String, FieldAccess> active;
+
+    private final Class<?> type;
+
+    /** ()Object, null if there is no usable no arg constructor. */
+    private final MethodHandle constructor;
+
+    /** Key seen at each position of the last maps, slots are immutable so racy writes are fine. */
+    private final Slot[] keyOrder;
+
+
+    static MappingPlan plan( boolean respectIgnore, String view, FieldsAccessor fieldsAccessor,
+                             Class<?> cls, Set<String> ignoreSet ) {
+
+        Map<String, FieldAccess> fields = fieldsAccessor.getFields( cls );
+
+        PlanKey key = new PlanKey( fieldsAccessor.getClass(), cls, respectIgnore, view, ignoreSet );
+        MappingPlan plan = plans.get( key );
+
+        if ( plan == null || !plan.builtFrom( fields ) ) {
+            plan = new MappingPlan( respectIgnore, view, fields, cls, ignoreSet );
+            if ( plans.size() < MAX_PLANS ) {
+                plans.put( key.copy(), plan );
+            }
+        }
+        return plan;
+    }
+
+
+    private MappingPlan( boolean respectIgnore, String view, Map<String, FieldAccess> fields,
+                         Class<?> type, Set<String> ignoreSet ) {
+
+        this.fields = fields;
+        this.type = type;
+        this.active = new HashMap<>( fields.size() * 2 );
+
+        for ( Map.Entry<String, FieldAccess> entry : fields.entrySet() ) {
+            String name = entry.getKey();
+            FieldAccess field = entry.getValue();
+
+            if ( ignoreSet != null && ignoreSet.contains( name ) ) {
+                continue;
+            }
+            if ( view != null && !field.isViewActive( view ) ) {
+                continue;
+            }
+            if ( respectIgnore && field.ignore() ) {
+                continue;
+            }
+            active.put( name, field );
+        }
+
+        this.keyOrder = new Slot[ Math.min( MAX_KEYS_IN_ORDER, Math.max( fields.size(), 1 ) ) ];
+        this.constructor = noArgConstructor( type );
+    }
+
+
+    static MethodHandle noArgConstructor( Class<?> type ) {
+        if ( type.isInterface() || Modifier.isAbstract( type.getModifiers() ) ) {
+            return null;
+        }
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible( true );
+            return MethodHandles.lookup().unreflectConstructor( constructor )
+                    .asType( MethodType.genericMethodType( 0 ) );
+        } catch ( Exception ex ) {
+            /* Reflection.newInstance knows what to do, i.e., unsafe or die. */
+            return null;
+        }
+    }
+
+
+    private boolean builtFrom( Map<String, FieldAccess> fields ) {
+        if ( this.fields == fields ) {
+            return true;
+        }
+
+        /* Accessors made per call hand out a fresh alias map with the same fields. */
+        if ( this.fields.size() != fields.size() ) {
+            return false;
+        }
+        for ( Map.Entry<String, FieldAccess> entry : fields.entrySet() ) {
+            if ( this.fields.get( entry.getKey() ) != entry.getValue() ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    Object newInstance() {
+        if ( constructor == null ) {
+            return Reflection.newInstance( type );
+        }
+        try {
+            return ( Object ) constructor.invokeExact();
+        } catch ( Error ex ) {
+            throw ex;
+        } catch ( Throwable ex ) {
+            /* The constructor itself threw, running it again through reflection would not help. */
+            return handle( Object.class, ex, "unable to create", type );
+        }
+    }
+
+
+    /**
+     * Field for the key at this position of the map, or null if the key should be skipped.
+     */
+    FieldAccess field( int position, String key ) {
+        if ( position < keyOrder.length ) {
+            Slot slot = keyOrder[ position ];
+            if ( slot != null && slot.key.equals( key ) ) {
+                return slot.field;
+            }
+            FieldAccess field = active.get( key );
+            keyOrder[ position ] = new Slot( key, field );
+            return field;
+        }
+        return active.get( key );
+    }
+
+
+    private static final class Slot {
+        final String key;
+        final FieldAccess field;
+
+        Slot( String key, FieldAccess field ) {
+            this.key = key;
+            this.field = field;
+        }
+    }
+
+
+    private static final class PlanKey {
+        private final Class<?> accessorType;
+        private final Class<?> type;
+        private final boolean respectIgnore;
+        private final String view;
+        private final Set<String> ignoreSet;
+        private final int hashCode;
+
+        PlanKey( Class<?> accessorType, Class<?> type, boolean respectIgnore, String view, Set<String> ignoreSet ) {
+            this.accessorType = accessorType;
+            this.type = type;
+            this.respectIgnore = respectIgnore;
+            this.view = view;
+            this.ignoreSet = ignoreSet == null || ignoreSet.isEmpty() ? null : ignoreSet;
+
+            int result = accessorType.hashCode();
+            result = 31 * result + type.hashCode();
+            result = 31 * result + ( respectIgnore ? 1 : 0 );
+            result = 31 * result + ( view != null ? view.hashCode() : 0 );
+            result = 31 * result + ( this.ignoreSet != null ? this.ignoreSet.hashCode() : 0 );
+            this.hashCode = result;
+        }
+
+        /** The caller's ignore set may change later, the cached key keeps its own. */
+        PlanKey copy() {
+            return new PlanKey( accessorType, type, respectIgnore, view,
+                    ignoreSet == null ? null : new HashSet<>( ignoreSet ) );
+        }
+
+        @Override
+        public boolean equals( Object o ) {
+            if ( this == o ) return true;
+            if ( !( o instanceof PlanKey ) ) return false;
+            PlanKey that = ( PlanKey ) o;
+            return hashCode == that.hashCode && type == that.type && accessorType == that.accessorType
+                    && respectIgnore == that.respectIgnore
+                    && ( view != null ? view.equals( that.view ) : that.view == null )
+                    && ( ignoreSet != null ? ignoreSet.equals( that.ignoreSet ) : that.ignoreSet == null );
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
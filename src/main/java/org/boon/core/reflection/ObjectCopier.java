@@ -0,0 +1,556 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.core.reflection;
+
+import org.boon.Exceptions;
+import org.boon.core.Sys;
+import org.boon.core.reflection.fields.FieldAccess;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+
+/**
+ * Deep copies objects without going through maps.
+ *
+ * Each class gets a copier worked out once: its kind (array, collection, map, bean...),
+ * the no arg constructor as a method handle and, for beans, the fields split into
+ * primitives (copied with the typed accessors, no boxing), fields that only hold immutables
+ * (shared) and the rest (copied deep).
+ *
+ * Strings, boxed primitives, enums and the like are shared, primitive arrays are copied
+ * with System.arraycopy and Cloneable classes that have a public clone use it.
+ * Collections and maps are rebuilt as their own class, through its (Comparator) or
+ * no arg constructor or, for the JDK ones, clone and clear. Unmodifiable and synchronized
+ * views come back as the same kind of view over a copy. Anything else, Arrays.asList say,
+ * becomes a plain list, set or map, but only where the field or array can hold one,
+ * otherwise the original is shared.
+ * An object seen twice in one copy is copied once, so cycles and shared references survive.
+ * Past org.boon.copy.maxDepth (default 100) levels references are shared instead of copied.
+ */
+public final class ObjectCopier {
+
+    private static final int MAX_DEPTH = Integer.parseInt( Sys.sysProp( "org.boon.copy.maxDepth", 100 ) );
+
+    private static final Map<Class<?>, ClassCopier> copiers = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<State> states = new ThreadLocal<State>() {
+        @Override
+        protected State initialValue() {
+            return new State();
+        }
+    };
+
+
+    private enum Kind {
+        IMMUTABLE, PRIMITIVE_ARRAY, ARRAY, COLLECTION, MAP, CLONEABLE, BEAN
+    }
+
+
+    /** Collections.unmodifiableXxx and synchronizedXxx. */
+    private enum View {
+        UNMODIFIABLE, SYNCHRONIZED
+    }
+
+
+    /** Per copy state, reused by the thread so a copy does not allocate its bookkeeping. */
+    private static final class State {
+        final IdentityHashMap<Object, Object> copies = new IdentityHashMap<>();
+        int depth;
+        int maxDepth;
+        boolean active;
+
+        void reset() {
+            if ( !copies.isEmpty() ) {
+                copies.clear();
+            }
+            depth = 0;
+            active = false;
+        }
+    }
+
+
+    private ObjectCopier() {
+    }
+
+
+    public static <T> T copy( T item ) {
+        return copy( item, MAX_DEPTH );
+    }
+
+
+    /**
+     * @param maxDepth levels to copy, below that references are shared. 1 is a shallow copy.
+     */
+    public static <T> T copy( T item, int maxDepth ) {
+        if ( item == null ) {
+            return null;
+        }
+
+        ClassCopier copier = copier( item.getClass() );
+        if ( copier.kind == Kind.IMMUTABLE ) {
+            return item;
+        }
+
+        State state = states.get();
+        if ( state.active ) {
+            /* A clone method that copies with us, give it its own state. */
+            state = new State();
+        }
+
+        state.active = true;
+        state.maxDepth = maxDepth;
+        try {
+            return ( T ) copier.copy( item, state );
+        } finally {
+            state.reset();
+        }
+    }
+
+
+    private static ClassCopier copier( Class<?> type ) {
+        ClassCopier copier = copiers.get( type );
+        if ( copier == null ) {
+            copier = new ClassCopier( type );
+            copiers.put( type, copier );
+        }
+        return copier;
+    }
+
+
+    private static Object copyValue( Object value, State state ) {
+        if ( value == null ) {
+            return null;
+        }
+        ClassCopier copier = copier( value.getClass() );
+        if ( copier.kind == Kind.IMMUTABLE || state.depth >= state.maxDepth ) {
+            return value;
+        }
+        return copier.copy( value, state );
+    }
+
+
+    static boolean isImmutable( Class<?> type ) {
+        return type == String.class || type == Integer.class || type == Long.class
+                || type == Boolean.class || type == Double.class || type == Float.class
+                || type == Character.class || type == Short.class || type == Byte.class
+                || type == BigDecimal.class || type == BigInteger.class
+                || type == Class.class || type == UUID.class || type == Locale.class || type == Currency.class
+                || type.isEnum() || ( type.getSuperclass() != null && type.getSuperclass().isEnum() );
+    }
+
+
+    private static final class ClassCopier {
+
+        final Class<?> type;
+        final Kind kind;
+
+        /** ()Object, null when there is none we can use. */
+        final MethodHandle constructor;
+
+        /** (Object)Object, for Cloneable and the JDK collections and maps. */
+        final MethodHandle clone;
+
+        /** (Object)Object taking the comparator, for sorted collections and maps. */
+        final MethodHandle comparatorConstructor;
+
+        /** Set when this is a view made by Collections. */
+        final View view;
+
+        final FieldAccess[] primitives;
+        final FieldAccess[] shared;
+        final FieldAccess[] deep;
+
+
+        ClassCopier( Class<?> type ) {
+            this.type = type;
+
+            MethodHandle cloneMethod = null;
+            MethodHandle comparatorConstructor = null;
+            View view = null;
+            Kind kind;
+
+            if ( isImmutable( type ) ) {
+                kind = Kind.IMMUTABLE;
+            } else if ( type.isArray() ) {
+                kind = type.getComponentType().isPrimitive() ? Kind.PRIMITIVE_ARRAY : Kind.ARRAY;
+            } else if ( Collection.class.isAssignableFrom( type ) || Map.class.isAssignableFrom( type ) ) {
+                kind = Collection.class.isAssignableFrom( type ) ? Kind.COLLECTION : Kind.MAP;
+
+                String name = type.getName();
+                if ( name.startsWith( "java.util.Collections$Unmodifiable" ) ) {
+                    view = View.UNMODIFIABLE;
+                } else if ( name.startsWith( "java.util.Collections$Synchronized" ) ) {
+                    view = View.SYNCHRONIZED;
+                } else {
+                    if ( isSorted( type ) ) {
+                        comparatorConstructor = comparatorConstructor( type );
+                    }
+                    /* Only trust clone to be shallow on the JDK's own. */
+                    if ( name.startsWith( "java." ) && Cloneable.class.isAssignableFrom( type ) ) {
+                        cloneMethod = publicClone( type );
+                    }
+                }
+            } else if ( Cloneable.class.isAssignableFrom( type ) && ( cloneMethod = publicClone( type ) ) != null ) {
+                kind = Kind.CLONEABLE;
+            } else {
+                kind = Kind.BEAN;
+            }
+
+            this.kind = kind;
+            this.clone = cloneMethod;
+            this.comparatorConstructor = comparatorConstructor;
+            this.view = view;
+            this.constructor = kind == Kind.BEAN || ( ( kind == Kind.COLLECTION || kind == Kind.MAP ) && view == null )
+                    ? MappingPlan.noArgConstructor( type ) : null;
+
+            List<FieldAccess> primitives = new ArrayList<>();
+            List<FieldAccess> shared = new ArrayList<>();
+            List<FieldAccess> deep = new ArrayList<>();
+
+            if ( kind == Kind.BEAN ) {
+                for ( FieldAccess field : Reflection.getAllAccessorFields( type ).values() ) {
+                    if ( field.isStatic() || field.isWriteOnly() ) {
+                        continue;
+                    }
+                    if ( field.type().isPrimitive() ) {
+                        primitives.add( field );
+                    } else if ( isImmutable( field.type() ) ) {
+                        shared.add( field );
+                    } else {
+                        deep.add( field );
+                    }
+                }
+            }
+
+            this.primitives = primitives.toArray( new FieldAccess[ primitives.size() ] );
+            this.shared = shared.toArray( new FieldAccess[ shared.size() ] );
+            this.deep = deep.toArray( new FieldAccess[ deep.size() ] );
+        }
+
+
+        private static MethodHandle publicClone( Class<?> type ) {
+            try {
+                Method method = type.getMethod( "clone" );
+                if ( !Modifier.isPublic( method.getDeclaringClass().getModifiers() ) ) {
+                    method.setAccessible( true );
+                }
+                return MethodHandles.lookup().unreflect( method )
+                        .asType( MethodType.genericMethodType( 1 ) );
+            } catch ( Exception ex ) {
+                /* No public clone, copy it field by field. */
+                return null;
+            }
+        }
+
+
+        private static boolean isSorted( Class<?> type ) {
+            return SortedSet.class.isAssignableFrom( type ) || SortedMap.class.isAssignableFrom( type )
+                    || PriorityQueue.class.isAssignableFrom( type ) || PriorityBlockingQueue.class.isAssignableFrom( type );
+        }
+
+
+        private static MethodHandle comparatorConstructor( Class<?> type ) {
+            if ( type.isInterface() || Modifier.isAbstract( type.getModifiers() ) ) {
+                return null;
+            }
+            try {
+                Constructor<?> constructor = type.getDeclaredConstructor( Comparator.class );
+                constructor.setAccessible( true );
+                return MethodHandles.lookup().unreflectConstructor( constructor )
+                        .asType( MethodType.genericMethodType( 1 ) );
+            } catch ( Exception ex ) {
+                /* PriorityQueue before 8 and PriorityBlockingQueue only take it with a capacity. */
+            }
+            try {
+                Constructor<?> constructor = type.getDeclaredConstructor( int.class, Comparator.class );
+                constructor.setAccessible( true );
+                return MethodHandles.insertArguments( MethodHandles.lookup().unreflectConstructor( constructor ), 0, 11 )
+                        .asType( MethodType.genericMethodType( 1 ) );
+            } catch ( Exception ex ) {
+                return null;
+            }
+        }
+
+
+        private static Comparator<Object> comparator( Object value ) {
+            if ( value instanceof SortedSet ) {
+                return ( ( SortedSet<Object> ) value ).comparator();
+            } else if ( value instanceof SortedMap ) {
+                return ( ( SortedMap<Object, Object> ) value ).comparator();
+            } else if ( value instanceof PriorityQueue ) {
+                return ( ( PriorityQueue<Object> ) value ).comparator();
+            } else if ( value instanceof PriorityBlockingQueue ) {
+                return ( ( PriorityBlockingQueue<Object> ) value ).comparator();
+            }
+            return null;
+        }
+
+
+        Object copy( Object value, State state ) {
+            Object copy = state.copies.get( value );
+            if ( copy != null ) {
+                return copy;
+            }
+
+            state.depth++;
+            try {
+                switch ( kind ) {
+                    case PRIMITIVE_ARRAY:
+                        return copyPrimitiveArray( value, state );
+                    case ARRAY:
+                        return copyArray( ( Object[] ) value, state );
+                    case COLLECTION:
+                        return copyCollection( ( Collection<Object> ) value, state );
+                    case MAP:
+                        return copyMap( ( Map<Object, Object> ) value, state );
+                    case CLONEABLE:
+                        return copyByClone( value, state );
+                    default:
+                        return copyBean( value, state );
+                }
+            } finally {
+                state.depth--;
+            }
+        }
+
+
+        private Object copyPrimitiveArray( Object value, State state ) {
+            int length = Array.getLength( value );
+            Object copy = Array.newInstance( type.getComponentType(), length );
+            System.arraycopy( value, 0, copy, 0, length );
+            state.copies.put( value, copy );
+            return copy;
+        }
+
+
+        private Object copyArray( Object[] value, State state ) {
+            Object[] copy = ( Object[] ) Array.newInstance( type.getComponentType(), value.length );
+            state.copies.put( value, copy );
+            Class<?> componentType = type.getComponentType();
+            for ( int index = 0; index < value.length; index++ ) {
+                copy[ index ] = fitting( componentType, copyValue( value[ index ], state ), value[ index ] );
+            }
+            return copy;
+        }
+
+
+        private Object copyCollection( Collection<Object> value, State state ) {
+            Collection<Object> copy = newCollection( value );
+            Object result = view( value, copy );
+            state.copies.put( value, result );
+            for ( Object item : value ) {
+                copy.add( copyValue( item, state ) );
+            }
+            return result;
+        }
+
+
+        private Collection<Object> newCollection( Collection<Object> value ) {
+            Collection<Object> copy = ( Collection<Object> ) sameClass( value );
+            if ( copy != null ) {
+                return copy;
+            }
+
+            /* Views, Arrays.asList and friends, we fill a plain one. */
+            if ( value instanceof SortedSet ) {
+                return new TreeSet<>( comparator( value ) );
+            } else if ( value instanceof List ) {
+                return new ArrayList<>( value.size() );
+            } else if ( value instanceof Set ) {
+                return new LinkedHashSet<>( value.size() );
+            } else if ( value instanceof Queue ) {
+                Comparator<Object> comparator = comparator( value );
+                return comparator != null ? new PriorityQueue<>( Math.max( value.size(), 1 ), comparator )
+                        : new ArrayDeque<>( Math.max( value.size(), 1 ) );
+            }
+            return new ArrayList<>( value.size() );
+        }
+
+
+        private Object copyMap( Map<Object, Object> value, State state ) {
+            Map<Object, Object> copy = ( Map<Object, Object> ) sameClass( value );
+            if ( copy == null ) {
+                copy = value instanceof SortedMap ? new TreeMap<>( comparator( value ) )
+                        : new LinkedHashMap<>( value.size() );
+            }
+
+            Object result = view( value, copy );
+            state.copies.put( value, result );
+            for ( Map.Entry<Object, Object> entry : value.entrySet() ) {
+                copy.put( copyValue( entry.getKey(), state ), copyValue( entry.getValue(), state ) );
+            }
+            return result;
+        }
+
+
+        /** An empty collection or map of the value's own class, null when we have no way to make one. */
+        private Object sameClass( Object value ) {
+            try {
+                if ( comparatorConstructor != null ) {
+                    return ( Object ) comparatorConstructor.invokeExact( ( Object ) comparator( value ) );
+                }
+                if ( constructor != null && ( !isSorted( type ) || comparator( value ) == null ) ) {
+                    return ( Object ) constructor.invokeExact();
+                }
+                if ( clone != null ) {
+                    Object copy = ( Object ) clone.invokeExact( value );
+                    if ( copy instanceof Collection ) {
+                        ( ( Collection ) copy ).clear();
+                    } else {
+                        ( ( Map ) copy ).clear();
+                    }
+                    return copy;
+                }
+            } catch ( Throwable ex ) {
+                /* Fall back to a plain one. */
+            }
+            return null;
+        }
+
+
+        /** Wrap the copy in the same kind of Collections view as the value, if it was one. */
+        private Object view( Object value, Object copy ) {
+            if ( view == null ) {
+                return copy;
+            }
+            boolean unmodifiable = view == View.UNMODIFIABLE;
+
+            if ( copy instanceof Map ) {
+                if ( value instanceof SortedMap ) {
+                    SortedMap<Object, Object> map = ( SortedMap<Object, Object> ) copy;
+                    return unmodifiable ? Collections.unmodifiableSortedMap( map ) : Collections.synchronizedSortedMap( map );
+                }
+                Map<Object, Object> map = ( Map<Object, Object> ) copy;
+                return unmodifiable ? Collections.unmodifiableMap( map ) : Collections.synchronizedMap( map );
+            }
+
+            if ( value instanceof SortedSet ) {
+                SortedSet<Object> set = ( SortedSet<Object> ) copy;
+                return unmodifiable ? Collections.unmodifiableSortedSet( set ) : Collections.synchronizedSortedSet( set );
+            } else if ( value instanceof Set ) {
+                Set<Object> set = ( Set<Object> ) copy;
+                return unmodifiable ? Collections.unmodifiableSet( set ) : Collections.synchronizedSet( set );
+            } else if ( value instanceof List ) {
+                List<Object> list = ( List<Object> ) copy;
+                return unmodifiable ? Collections.unmodifiableList( list ) : Collections.synchronizedList( list );
+            }
+            Collection<Object> collection = ( Collection<Object> ) copy;
+            return unmodifiable ? Collections.unmodifiableCollection( collection ) : Collections.synchronizedCollection( collection );
+        }
+
+
+        /** The copy if the slot can hold it, a plain stand in may not fit, then the original. */
+        private static Object fitting( Class<?> slotType, Object copy, Object original ) {
+            return copy == null || slotType.isInstance( copy ) ? copy : original;
+        }
+
+
+        private Object copyByClone( Object value, State state ) {
+            try {
+                Object copy = ( Object ) clone.invokeExact( value );
+                state.copies.put( value, copy );
+                return copy;
+            } catch ( Throwable ex ) {
+                return Exceptions.handle( Object.class, ex, "Unable to clone", type );
+            }
+        }
+
+
+        private Object copyBean( Object value, State state ) {
+            Object copy = constructor != null ? newInstance() : Reflection.newInstance( type );
+            state.copies.put( value, copy );
+
+            for ( FieldAccess field : primitives ) {
+                copyPrimitive( field, value, copy );
+            }
+            for ( FieldAccess field : shared ) {
+                field.setObject( copy, field.getObject( value ) );
+            }
+            for ( FieldAccess field : deep ) {
+                Object original = field.getObject( value );
+                field.setObject( copy, fitting( field.type(), copyValue( original, state ), original ) );
+            }
+            return copy;
+        }
+
+
+        private Object newInstance() {
+            if ( constructor == null ) {
+                return null;
+            }
+            try {
+                return ( Object ) constructor.invokeExact();
+            } catch ( Throwable ex ) {
+                return kind == Kind.BEAN ? Reflection.newInstance( type ) : null;
+            }
+        }
+
+
+        private static void copyPrimitive( FieldAccess field, Object from, Object to ) {
+            switch ( field.typeEnum() ) {
+                case INT:
+                    field.setInt( to, field.getInt( from ) );
+                    break;
+                case LONG:
+                    field.setLong( to, field.getLong( from ) );
+                    break;
+                case BOOLEAN:
+                    field.setBoolean( to, field.getBoolean( from ) );
+                    break;
+                case DOUBLE:
+                    field.setDouble( to, field.getDouble( from ) );
+                    break;
+                case FLOAT:
+                    field.setFloat( to, field.getFloat( from ) );
+                    break;
+                case SHORT:
+                    field.setShort( to, field.getShort( from ) );
+                    break;
+                case BYTE:
+                    field.setByte( to, field.getByte( from ) );
+                    break;
+                case CHAR:
+                    field.setChar( to, field.getChar( from ) );
+                    break;
+                default:
+                    field.setValue( to, field.getValue( from ) );
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+package org.boon.core.reflection;
+
+import org.boon.core.Conversions;
+import org.boon.core.reflection.fields.FieldAccess;
+
+import java.util.Collection;
+import java.util.Map;
+
+import static org.boon.Exceptions.die;
+import static org.boon.primitive.CharScanner.isDigit;
+
+/**
+ * A property path ("dept.manager.name") split once and resolved against a class,
+ * so reading it does not split the string or look up fields by name every time.
+ *
+ * Reads like BeanUtils.idx: maps are read by key, numbers index lists and
+ * arrays, collections give the list of their items' values. Each step keeps the
+ * field for the last class it saw, so subclasses and mixed collections still
+ * work, they just miss the pre resolved field.
+ *
+ * Safe to share between threads. Get one from BeanUtils.compilePath.
+ */
+public final class PropertyPath {
+
+    private final String path;
+    private final String[] properties;
+    private final int[] indexes;
+
+    /** Immutable, so swapping one in without a lock is fine. */
+    private final Step[] steps;
+
+    PropertyPath( Class<?> rootType, String path, String[] properties ) {
+        this.path = path;
+        this.properties = properties;
+        this.indexes = new int[ properties.length ];
+        this.steps = new Step[ properties.length ];
+
+        Class<?> type = rootType;
+        for ( int index = 0; index < properties.length; index++ ) {
+            String property = properties[ index ];
+            indexes[ index ] = isDigit( property.charAt( 0 ) ) ? Integer.parseInt( property ) : -1;
+
+            if ( type == null || property.equals( "this" ) ) {
+                if ( type != null && Map.class.isAssignableFrom( type ) ) {
+                    type = null;
+                }
+                continue;
+            }
+
+            if ( indexes[ index ] != -1 || type.isArray() || Collection.class.isAssignableFrom( type )
+                    || Map.class.isAssignableFrom( type ) ) {
+                type = null;
+                continue;
+            }
+
+            FieldAccess field = BeanUtils.getField( type, property );
+            steps[ index ] = new Step( type, field );
+            type = field == null ? null : field.type();
+        }
+    }
+
+    public String path() {
+        return path;
+    }
+
+    /**
+     * Value at the end of the path, null if anything on the way is null or missing.
+     * @param root object to start from
+     * @return value
+     */
+    public Object getValue( Object root ) {
+        return walk( root, properties.length );
+    }
+
+    public int getInt( Object root ) {
+        int last = properties.length - 1;
+        Object parent = walk( root, last );
+        FieldAccess field = leafField( parent, last );
+        if ( field != null && field.type() == int.class ) {
+            return field.getInt( parent );
+        }
+
+        Object value = parent == null ? null : step( parent, last );
+        if ( value == null ) {
+            return die( int.class, "no int value at", path );
+        }
+        return Conversions.toInt( value );
+    }
+
+    public long getLong( Object root ) {
+        int last = properties.length - 1;
+        Object parent = walk( root, last );
+        FieldAccess field = leafField( parent, last );
+        if ( field != null && field.type() == long.class ) {
+            return field.getLong( parent );
+        }
+
+        Object value = parent == null ? null : step( parent, last );
+        if ( value == null ) {
+            return die( long.class, "no long value at", path );
+        }
+        return Conversions.toLong( value );
+    }
+
+    private Object walk( Object object, int end ) {
+        for ( int index = 0; index < end && object != null; index++ ) {
+            object = step( object, index );
+        }
+        return object;
+    }
+
+    /** One step, same rules as BeanUtils.getPropertyValue. */
+    private Object step( Object object, int index ) {
+        String property = properties[ index ];
+
+        if ( property.equals( "this" ) ) {
+            if ( object instanceof Map ) {
+                Object aThis = ( ( Map ) object ).get( "this" );
+                return aThis != null ? aThis : object;
+            }
+            return object;
+        }
+
+        if ( object instanceof Map ) {
+            return ( ( Map ) object ).get( property );
+        }
+
+        if ( indexes[ index ] != -1 ) {
+            return BeanUtils.idx( object, indexes[ index ] );
+        }
+
+        if ( object instanceof Collection ) {
+            return Conversions.unifyListOrArray(
+                    BeanUtils.getFieldValuesFromCollection( ( Collection ) object, property ) );
+        }
+
+        FieldAccess field = field( object.getClass(), index );
+        return field == null ? null : field.getValue( object );
+    }
+
+    /** The leaf field when the leaf is a plain property of a bean. */
+    private FieldAccess leafField( Object parent, int index ) {
+        if ( parent == null || parent instanceof Map || parent instanceof Collection
+                || indexes[ index ] != -1 || properties[ index ].equals( "this" ) ) {
+            return null;
+        }
+        return field( parent.getClass(), index );
+    }
+
+    private FieldAccess field( Class<?> cls, int index ) {
+        Step step = steps[ index ];
+        if ( step != null && step.type == cls ) {
+            return step.field;
+        }
+        FieldAccess field = BeanUtils.getField( cls, properties[ index ] );
+        steps[ index ] = new Step( cls, field );
+        return field;
+    }
+
+    public String toString() {
+        return path;
+    }
+
+
+    private static final class Step {
+        final Class<?> type;
+        final FieldAccess field;
+
+        Step( Class<?> type, FieldAccess field ) {
+            this.type = type;
+            this.field = field;
+        }
+    }
+}
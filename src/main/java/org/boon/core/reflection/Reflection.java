@@ -28,6 +28,7 @@
 
 package org.boon.core.reflection;
 
+import org.boon.Classpaths;
 import org.boon.Exceptions;
 import org.boon.Lists;
 import org.boon.core.Function;
@@ -36,15 +37,25 @@ import org.boon.core.Sys;
 import org.boon.core.Typ;
 import org.boon.core.reflection.fields.FieldAccess;
 import org.boon.core.reflection.fields.PropertyField;
+import org.boon.core.reflection.fields.MethodHandleField;
 import org.boon.core.reflection.fields.ReflectField;
 import org.boon.core.reflection.fields.UnsafeField;
 import sun.misc.Unsafe;
 
+import java.io.IOException;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import static org.boon.Boon.sputs;
@@ -79,13 +90,26 @@ public class Reflection {
     private static WeakReference<Context> weakContext = new WeakReference<>( null );
 
 
+    /**
+     * With org.boon.noStatics or in a container the context is normally only weakly held,
+     * so it gets collected and rebuilt under GC pressure. Set org.boon.reflection.strongContext
+     * to hold it strongly instead, each cache is then capped at org.boon.reflection.maxCachedClasses
+     * (default 2000) classes.
+     */
+    private static final boolean strongContext = Boolean.getBoolean( "org.boon.reflection.strongContext" );
+
+
     static {
 
         boolean noStatics = Boolean.getBoolean( "org.boon.noStatics" );
         if ( noStatics || Sys.inContainer() ) {
 
-            _context = null;
-            weakContext = new WeakReference<>( new Context() );
+            if ( strongContext ) {
+                _context = new Context( Integer.parseInt( Sys.sysProp( "org.boon.reflection.maxCachedClasses", 2000 ) ) );
+            } else {
+                _context = null;
+                weakContext = new WeakReference<>( new Context() );
+            }
 
         } else {
             ;
@@ -136,18 +160,186 @@ public class Reflection {
         Unsafe control;
         Map<String, String> _sortableFields = new ConcurrentHashMap<>();
 
-        Map<Class<?>, ClassMeta<?>> _classMetaMap = new ConcurrentHashMap<>( 200 );
+        final Map<Class<?>, ClassMeta<?>> _classMetaMap;
+
+        final Map<Class<?>, Map<String, FieldAccess>> _allAccessorReflectionFieldsCache;
+        final Map<Class<?>, Map<String, FieldAccess>> _allAccessorPropertyFieldsCache;
+        final Map<Class<?>, Map<String, FieldAccess>> _allAccessorUnsafeFieldsCache;
+        final Map<Class<?>, Map<String, FieldAccess>> _allAccessorMethodHandleFieldsCache;
+
+        final Map<Class<?>, Map<String, FieldAccess>> _combinedFieldsFieldsFirst;
+        final Map<Class<?>, Map<String, FieldAccess>> _combinedFieldsFieldsFirstForSerializer;
+
+        final Map<Class<?>, Map<String, FieldAccess>> _combinedFieldsPropertyFirst;
+        final Map<Class<?>, Map<String, FieldAccess>> _combinedFieldsPropertyFirstForSerializer;
+
+        Context() {
+            this( 0 );
+        }
+
+        /**
+         * @param maxClasses classes kept per cache, 0 for no limit
+         */
+        Context( int maxClasses ) {
+            _classMetaMap = classMap( maxClasses );
+            _allAccessorReflectionFieldsCache = classMap( maxClasses );
+            _allAccessorPropertyFieldsCache = classMap( maxClasses );
+            _allAccessorUnsafeFieldsCache = classMap( maxClasses );
+            _allAccessorMethodHandleFieldsCache = classMap( maxClasses );
+            _combinedFieldsFieldsFirst = classMap( maxClasses );
+            _combinedFieldsFieldsFirstForSerializer = classMap( maxClasses );
+            _combinedFieldsPropertyFirst = classMap( maxClasses );
+            _combinedFieldsPropertyFirstForSerializer = classMap( maxClasses );
+        }
+
+        private static <V> Map<Class<?>, V> classMap( int maxClasses ) {
+            return maxClasses > 0 ? new BoundedClassMap<V>( maxClasses ) : new ConcurrentHashMap<Class<?>, V>( 200 );
+        }
+
+    }
+
 
-        Map<Class<?>, Map<String, FieldAccess>> _allAccessorReflectionFieldsCache = new ConcurrentHashMap<>( 200 );
-        Map<Class<?>, Map<String, FieldAccess>> _allAccessorPropertyFieldsCache = new ConcurrentHashMap<>( 200 );
-        Map<Class<?>, Map<String, FieldAccess>> _allAccessorUnsafeFieldsCache = new ConcurrentHashMap<>( 200 );
+    /**
+     * Drops an arbitrary class once full. The metadata is cheap to rebuild for one class,
+     * this only keeps a long running container from holding on to every class it ever saw.
+     */
+    @SuppressWarnings ( "serial" )
+    private static final class BoundedClassMap<V> extends ConcurrentHashMap<Class<?>, V> {
+        private final int maxClasses;
+
+        BoundedClassMap( int maxClasses ) {
+            super( Math.min( maxClasses, 200 ) );
+            this.maxClasses = maxClasses;
+        }
 
-        Map<Class<?>, Map<String, FieldAccess>> _combinedFieldsFieldsFirst = new ConcurrentHashMap<>( 200 );
-        Map<Class<?>, Map<String, FieldAccess>> _combinedFieldsFieldsFirstForSerializer = new ConcurrentHashMap<>( 200 );
+        @Override
+        public V put( Class<?> key, V value ) {
+            if ( size() >= maxClasses && !containsKey( key ) ) {
+                Iterator<Class<?>> iterator = keySet().iterator();
+                if ( iterator.hasNext() ) {
+                    remove( iterator.next() );
+                }
+            }
+            return super.put( key, value );
+        }
+    }
 
-        Map<Class<?>, Map<String, FieldAccess>> _combinedFieldsPropertyFirst = new ConcurrentHashMap<>( 200 );
-        Map<Class<?>, Map<String, FieldAccess>> _combinedFieldsPropertyFirstForSerializer = new ConcurrentHashMap<>( 200 );
 
+    /**
+     * Builds the metadata boon keeps per class (ClassMeta, fields, properties) for these
+     * classes up front, in parallel on Sys.forkJoinPool(), and waits for it.
+     * Call it at boot so the first requests do not pay for the reflection.
+     * A class that fails to load or reflect is logged and skipped.
+     *
+     * @param classes classes to warm up
+     */
+    public static void warmUp( Class<?>... classes ) {
+        warmUp( Lists.list( classes ), null );
+    }
+
+
+    public static void warmUp( Collection<Class<?>> classes ) {
+        warmUp( classes, null );
+    }
+
+
+    /**
+     * Same as warmUp but also runs extra for every class, i.e., to fill a validator's cache.
+     *
+     * @param classes classes to warm up
+     * @param extra run after the class's metadata is built, may be null
+     */
+    public static void warmUp( Collection<Class<?>> classes, final Function<Class<?>, ?> extra ) {
+
+        List<ForkJoinTask<?>> tasks = new ArrayList<>( classes.size() );
+        ForkJoinPool pool = Sys.forkJoinPool();
+
+        for ( final Class<?> cls : classes ) {
+            tasks.add( pool.submit( new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        warmUpClass( cls );
+                        if ( extra != null ) {
+                            extra.apply( cls );
+                        }
+                    } catch ( Throwable ex ) {
+                        log.log( Level.FINE, "Unable to warm up " + cls.getName(), ex );
+                    }
+                }
+            } ) );
+        }
+
+        for ( ForkJoinTask<?> task : tasks ) {
+            task.join();
+        }
+    }
+
+
+    private static void warmUpClass( Class<?> cls ) {
+        if ( cls.isInterface() || cls.isAnnotation() || cls.isPrimitive() ) {
+            return;
+        }
+        ClassMeta.classMeta( cls );
+        getAllAccessorFields( cls, true );
+        getPropertyFieldAccessMapFieldFirst( cls );
+        getPropertyFieldAccessMapFieldFirstForSerializer( cls );
+    }
+
+
+    /**
+     * Warms up every class found on the classpath under these packages (sub packages included).
+     *
+     * @param packages package names like com.example.model
+     * @return the classes that were found
+     */
+    public static List<Class<?>> warmUpPackages( String... packages ) {
+        List<Class<?>> classes = classesInPackages( packages );
+        warmUp( classes, null );
+        return classes;
+    }
+
+
+    /**
+     * Lists the classes on the classpath under these packages, from directories and jars.
+     * Classes that can't be loaded are skipped.
+     *
+     * @param packages package names like com.example.model
+     * @return classes, loaded but not initialized
+     */
+    public static List<Class<?>> classesInPackages( String... packages ) {
+        final ClassLoader loader = Thread.currentThread().getContextClassLoader() != null ?
+                Thread.currentThread().getContextClassLoader() : Reflection.class.getClassLoader();
+
+        final List<Class<?>> classes = new ArrayList<>();
+
+        for ( String packageName : packages ) {
+            final String packagePrefix = packageName.isEmpty() ? "" : packageName + ".";
+
+            for ( final Path root : Classpaths.paths( Reflection.class, packageName.replace( '.', '/' ) ) ) {
+                try {
+                    Files.walkFileTree( root, new SimpleFileVisitor<Path>() {
+                        @Override
+                        public FileVisitResult visitFile( Path file, BasicFileAttributes attrs ) {
+                            String name = root.relativize( file ).toString();
+                            if ( name.endsWith( ".class" ) ) {
+                                String className = packagePrefix + name.substring( 0, name.length() - ".class".length() )
+                                        .replace( file.getFileSystem().getSeparator(), "." );
+                                try {
+                                    classes.add( Class.forName( className, false, loader ) );
+                                } catch ( Throwable ex ) {
+                                    log.log( Level.FINE, "Unable to load " + className, ex );
+                                }
+                            }
+                            return FileVisitResult.CONTINUE;
+                        }
+                    } );
+                } catch ( IOException ex ) {
+                    Exceptions.handle( ex, "Unable to scan package", packageName, "at", root );
+                }
+            }
+        }
+        return classes;
     }
 
 
@@ -558,6 +750,24 @@ public class Reflection {
     }
 
 
+    /**
+     * Same fields as getAllAccessorFields but read and written through MethodHandles.
+     * @param theClass class
+     * @return fields by name
+     */
+    public static Map<String, FieldAccess> getAllMethodHandleFields( Class<? extends Object> theClass ) {
+        Map<String, FieldAccess> map = context()._allAccessorMethodHandleFieldsCache.get( theClass );
+        if ( map == null ) {
+            List<Field> fields = getAllFields( theClass );
+            map = new LinkedHashMap<>( fields.size() );
+            for ( Field field : fields ) {
+                map.put( field.getName(), new MethodHandleField( field ) );
+            }
+            context()._allAccessorMethodHandleFieldsCache.put( theClass, map );
+        }
+        return map;
+    }
+
     public static List<Field> getAllFields( Class<? extends Object> theClass ) {
 
         try {
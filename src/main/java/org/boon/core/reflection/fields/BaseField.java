@@ -32,9 +32,11 @@ import org.boon.Exceptions;
 import org.boon.Sets;
 import org.boon.Str;
 import org.boon.core.Conversions;
+import org.boon.core.ConverterRegistry;
 import org.boon.core.Type;
 import org.boon.core.Value;
 import org.boon.core.reflection.AnnotationData;
+import org.boon.core.reflection.AnnotationIndex;
 import org.boon.core.reflection.Annotations;
 import org.boon.core.value.ValueContainer;
 
@@ -45,7 +47,6 @@ import java.lang.reflect.ParameterizedType;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 import static org.boon.Boon.sputs;
 import static org.boon.Exceptions.die;
@@ -75,12 +76,34 @@ public abstract class BaseField implements FieldAccess {
     protected final Class<?> componentClass;
     protected final String typeName;
     public final Type typeEnum;
-    private  Map<String,  Map<String, Object>> annotationMap = new ConcurrentHashMap<> (  );
-    private  HashSet<String> includedViews;
-    private  HashSet<String> ignoreWithViews;
+    private  AnnotationIndex annotations = AnnotationIndex.EMPTY;
+    private  String[] includedViews;
+    private  String[] ignoreWithViews;
     private final String alias;
     private static Set<String> annotationsThatHaveAliases = Sets.set("JsonProperty","SerializedName", "Named", "id", "In", "Qualifier" );
 
+    /* Ids of the annotations looked at for every field, see AnnotationIndex. */
+    private static final int[] ALIAS_ANNOTATIONS = annotationIds( annotationsThatHaveAliases );
+    private static final int JSON_VIEWS = AnnotationIndex.id( "JsonViews" );
+    private static final int JSON_IGNORE = AnnotationIndex.id( "JsonIgnore" );
+    private static final int JSON_INCLUDE = AnnotationIndex.id( "JsonInclude" );
+    private static final int EXPOSE = AnnotationIndex.id( "Expose" );
+    private static final int INJECT = AnnotationIndex.id( "Inject" );
+    private static final int AUTOWIRED = AnnotationIndex.id( "Autowired" );
+    private static final int IN = AnnotationIndex.id( "In" );
+    private static final int REQUIRED = AnnotationIndex.id( "Required" );
+    private static final int JSON_IGNORE_PROPERTIES = AnnotationIndex.id( "JsonIgnoreProperties" );
+
+
+    private static int[] annotationIds( Collection<String> names ) {
+        int[] ids = new int[ names.size() ];
+        int index = 0;
+        for ( String name : names ) {
+            ids[ index++ ] = AnnotationIndex.id( name );
+        }
+        return ids;
+    }
+
 
 
     private void initAnnotationData(Class clazz ) {
@@ -88,91 +111,75 @@ public abstract class BaseField implements FieldAccess {
         final Collection<AnnotationData> annotationDataForFieldAndProperty =
                 Annotations.getAnnotationDataForFieldAndProperty ( clazz, name, Collections.EMPTY_SET );
 
-        for (AnnotationData data : annotationDataForFieldAndProperty) {
-            annotationMap.put ( data.getSimpleClassName (), data.getValues () );
-            annotationMap.put ( data.getFullClassName (), data.getValues () );
-        }
+        annotations = AnnotationIndex.index( annotationDataForFieldAndProperty, false );
 
-
-        if (hasAnnotation ( "JsonViews" )) {
-            final Map<String, Object> jsonViews = getAnnotationData ( "JsonViews" );
+        final Map<String, Object> jsonViews = annotations.values ( JSON_VIEWS );
+        if (jsonViews != null) {
             final String[] includeWithViews = (String[]) jsonViews.get ( "includeWithViews" );
             final String[] ignoreWithViews = (String[]) jsonViews.get ( "ignoreWithViews" );
 
-
             if (includeWithViews!=null) {
-                this.includedViews = new HashSet<>(  );
-                for (String view : includeWithViews) {
-                    this.includedViews.add( view );
-                }
+                this.includedViews = includeWithViews.clone();
             }
 
-
             if (ignoreWithViews!=null) {
-                this.ignoreWithViews = new HashSet<>(  );
-                for (String view : ignoreWithViews) {
-                    this.ignoreWithViews.add( view );
-                }
+                this.ignoreWithViews = ignoreWithViews.clone();
             }
         }
 
 
-        if (hasAnnotation ( "JsonIgnore" )) {
-            final Map<String, Object> jsonIgnore = getAnnotationData ( "JsonIgnore" );
+        final Map<String, Object> jsonIgnore = annotations.values ( JSON_IGNORE );
+        if (jsonIgnore != null) {
             boolean ignore = (Boolean) jsonIgnore.get ( "value" );
             bits.set( IGNORE, ignore);
         }
 
-        if (hasAnnotation ( "JsonInclude" ))  {
-            final Map<String, Object> jsonIgnore = getAnnotationData ( "JsonInclude" );
-            String include = (String) jsonIgnore.get ( "value" );
+        final Map<String, Object> jsonInclude = annotations.values ( JSON_INCLUDE );
+        if (jsonInclude != null)  {
+            String include = (String) jsonInclude.get ( "value" );
             if ( include.equals ( "ALWAYS" ) ) {
                 bits.set( INCLUDE );
             }
         }
 
-        if (hasAnnotation ( "Expose" ))  {
-            final Map<String, Object> jsonIgnore = getAnnotationData ( "Expose" );
-            boolean serialize = (boolean) jsonIgnore.get ( "serialize" );
+        final Map<String, Object> expose = annotations.values ( EXPOSE );
+        if (expose != null)  {
+            boolean serialize = (boolean) expose.get ( "serialize" );
             bits.set( INCLUDE, serialize );
             bits.set( IGNORE, !serialize);
         }
 
-        if (hasAnnotation ( "Inject" ) || hasAnnotation( "Autowired" ) || hasAnnotation( "In" ))  {
+        if (annotations.has ( INJECT ) || annotations.has( AUTOWIRED ) || annotations.has( IN ))  {
             bits.set( HAS_INJECT );
         }
 
-        if (hasAnnotation( "Autowired" ))  {
-            final Map<String, Object> props = getAnnotationData ( "Autowired" );
+        final Map<String, Object> autowired = annotations.values ( AUTOWIRED );
+        if (autowired != null)  {
 
-            boolean required = (boolean) props.get ( "required" );
+            boolean required = (boolean) autowired.get ( "required" );
             if (required)
             bits.set( REQUIRES_INJECTION );
 
         }
 
-        if (hasAnnotation( "In" ))  {
-            final Map<String, Object> props = getAnnotationData ( "In" );
+        final Map<String, Object> in = annotations.values ( IN );
+        if (in != null)  {
 
-            boolean required = (boolean) props.get ( "required" );
+            boolean required = (boolean) in.get ( "required" );
             if (required)
                 bits.set( REQUIRES_INJECTION );
 
         }
 
-        if (hasAnnotation( "Required" ))  {
+        if (annotations.has( REQUIRED ))  {
             bits.set( REQUIRES_INJECTION );
         }
 
 
 
-
-
         if (parentType!=null) {
-            final Map<String, AnnotationData> classAnnotations =
-                Annotations.getAnnotationDataForClassAsMap( parentType );
-
-            final AnnotationData jsonIgnoreProperties = classAnnotations.get( "JsonIgnoreProperties" );
+            final AnnotationData jsonIgnoreProperties =
+                Annotations.getAnnotationIndexForClass( parentType ).get( JSON_IGNORE_PROPERTIES );
 
             if (jsonIgnoreProperties!=null) {
                 String[] props = (String [])jsonIgnoreProperties.getValues().get( "value" );
@@ -193,7 +200,7 @@ public abstract class BaseField implements FieldAccess {
 
     private String findAlias() {
         String alias = null;
-        for (String aliasAnnotation : annotationsThatHaveAliases) {
+        for (int aliasAnnotation : ALIAS_ANNOTATIONS) {
             alias = getAlias(aliasAnnotation);
             if (! Str.isEmpty(alias)) {
                 bits.set( NAMED );
@@ -205,12 +212,11 @@ public abstract class BaseField implements FieldAccess {
     }
 
 
-    private String getAlias(String annotationName) {
+    private String getAlias(int annotationId) {
 
         String alias = null;
-        if ( hasAnnotation ( annotationName )) {
-
-            Map<String, Object> aliasD = getAnnotationData ( annotationName );
+        Map<String, Object> aliasD = annotations.values ( annotationId );
+        if ( aliasD != null ) {
             alias = (String) aliasD.get ( "value" );
         }
 
@@ -421,10 +427,10 @@ public abstract class BaseField implements FieldAccess {
 
         switch ( typeEnum ) {
             case INT:
-                 this.setInt ( obj, toInt ( value ) );
+                 this.setInt ( obj, ConverterRegistry.toInt ( value ) );
                  return;
             case LONG:
-                 this.setLong ( obj, toLong ( value ) );
+                 this.setLong ( obj, ConverterRegistry.toLong ( value ) );
                  return;
             case BOOLEAN:
                  this.setBoolean ( obj, toBoolean ( value ) );
@@ -451,8 +457,10 @@ public abstract class BaseField implements FieldAccess {
             case STRING:
                 if (value instanceof String)  {
                     this.setObject ( obj, value );
-                } else {
+                } else if (value == null) {
                     this.setObject ( obj, Conversions.toString (value) );
+                } else {
+                    this.setObject ( obj, Conversions.coerce ( String.class, value ) );
                 }
                 return;
             case ENUM:
@@ -636,13 +644,13 @@ public abstract class BaseField implements FieldAccess {
 
     @Override
     public final boolean hasAnnotation ( String annotationName ) {
-        return this.annotationMap.containsKey ( annotationName );
+        return this.annotations.has ( annotationName );
     }
 
     @Override
     public final Map<String, Object> getAnnotationData ( String annotationName ) {
 
-        return this.annotationMap.get ( annotationName );
+        return this.annotations.values ( annotationName );
     }
 
 
@@ -729,24 +737,22 @@ public abstract class BaseField implements FieldAccess {
 
     public final boolean isViewActive (String activeView) {
 
-        if (this.includedViews == null && this.ignoreWithViews == null) {
-            return true;
-        }
         if (this.includedViews!=null) {
-            if (this.includedViews.contains( activeView )) {
-                return true;
-            } else {
-                return false;
-            }
+            return contains( this.includedViews, activeView );
         }
         if (this.ignoreWithViews!=null) {
-            if (this.ignoreWithViews.contains( activeView )) {
-                return false;
-            } else {
+            return !contains( this.ignoreWithViews, activeView );
+        }
+        return true;
+    }
+
+    private static boolean contains( String[] views, String view ) {
+        for (String v : views) {
+            if (v == view || v.equals( view )) {
                 return true;
             }
         }
-        return true;
+        return false;
     }
 
     @Override
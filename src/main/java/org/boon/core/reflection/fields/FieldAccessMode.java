@@ -33,7 +33,9 @@ public enum FieldAccessMode {
     PROPERTY,
     FIELD,
     FIELD_THEN_PROPERTY,
-    PROPERTY_THEN_FIELD;
+    PROPERTY_THEN_FIELD,
+    /** Fields only, like FIELD, but read and written with MethodHandles instead of Unsafe. */
+    METHOD_HANDLE;
 
 
     public FieldsAccessor create ( boolean useAlias ) {
@@ -56,6 +58,9 @@ public enum FieldAccessMode {
             case PROPERTY_THEN_FIELD:
                 fieldsAccessor = new FieldsAccessorsPropertyThenField( useAlias  );
                 break;
+            case METHOD_HANDLE:
+                fieldsAccessor = new FieldFieldsAccessor( useAlias, true );
+                break;
             default:
                 fieldsAccessor = new FieldFieldsAccessor( useAlias );
 
@@ -44,9 +44,20 @@ public class FieldFieldsAccessor implements FieldsAccessor {
 
     private final boolean useAlias;
 
+    private final boolean useMethodHandles;
+
 
     public FieldFieldsAccessor (boolean useAlias) {
+        this( useAlias, false );
+    }
+
+    /**
+     * @param useAlias key fields by alias
+     * @param useMethodHandles use MethodHandleField instead of unsafe or reflection
+     */
+    public FieldFieldsAccessor (boolean useAlias, boolean useMethodHandles) {
         this.useAlias = useAlias;
+        this.useMethodHandles = useMethodHandles;
     }
 
 
@@ -62,7 +73,8 @@ public class FieldFieldsAccessor implements FieldsAccessor {
 
     private final Map<String, FieldAccess> doGetFields ( Class<? extends Object> aClass ) {
 
-        Map<String, FieldAccess> fieldAccessMap = Reflection.getAllAccessorFields ( aClass );
+        Map<String, FieldAccess> fieldAccessMap = useMethodHandles ?
+                Reflection.getAllMethodHandleFields ( aClass ) : Reflection.getAllAccessorFields ( aClass );
 
         if ( useAlias ) {
             Map<String, FieldAccess> fieldAccessMap2 = new LinkedHashMap<> ( fieldAccessMap.size () );
@@ -0,0 +1,373 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+package org.boon.core.reflection.fields;
+
+import org.boon.Exceptions;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+import static org.boon.Exceptions.die;
+
+/**
+ * Field access through getter and setter MethodHandles, see FieldAccessMode.METHOD_HANDLE.
+ *
+ * The handles are adapted once to (Object) -> field type, so reads and writes are
+ * invokeExact calls with no boxing of primitives. It needs no sun.misc.Unsafe and,
+ * for classes on the class path, no --add-opens on newer JDKs.
+ * The handles are held per field object, not in static finals, so the JIT cannot
+ * constant fold them the way it does Unsafe offsets. Pick it for portability, not speed.
+ * Final fields are only writable where the JDK lets a MethodHandle write them.
+ */
+public class MethodHandleField extends BaseField {
+
+    private final Field field;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+
+    public MethodHandleField( Field field ) {
+        super( field );
+        this.field = field;
+
+        MethodHandle getter = null;
+        MethodHandle setter = null;
+        try {
+            field.setAccessible( true );
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            Class<?> erased = type.isPrimitive() ? type : Object.class;
+
+            getter = lookup.unreflectGetter( field );
+            if ( isStatic() ) {
+                getter = MethodHandles.dropArguments( getter, 0, Object.class );
+            }
+            getter = getter.asType( MethodType.methodType( erased, Object.class ) );
+
+            setter = setter( lookup, field, erased );
+        } catch ( Exception ex ) {
+            Exceptions.handle( ex, "unable to create method handles for field", field );
+        }
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+
+    @Override
+    public Object getObject( Object obj ) {
+        if ( type.isPrimitive() ) {
+            return getValue( obj );
+        }
+        try {
+            return ( Object ) getter.invokeExact( obj );
+        } catch ( Throwable e ) {
+            return failed( e, obj );
+        }
+    }
+
+    @Override
+    public boolean getBoolean( Object obj ) {
+        if ( type != boolean.class ) {
+            wrongType( obj );
+        }
+        try {
+            return ( boolean ) getter.invokeExact( obj );
+        } catch ( Throwable e ) {
+            failed( e, obj );
+            return false;
+        }
+    }
+
+    @Override
+    public int getInt( Object obj ) {
+        if ( type != int.class ) {
+            wrongType( obj );
+        }
+        try {
+            return ( int ) getter.invokeExact( obj );
+        } catch ( Throwable e ) {
+            failed( e, obj );
+            return 0;
+        }
+    }
+
+    @Override
+    public short getShort( Object obj ) {
+        if ( type != short.class ) {
+            wrongType( obj );
+        }
+        try {
+            return ( short ) getter.invokeExact( obj );
+        } catch ( Throwable e ) {
+            failed( e, obj );
+            return 0;
+        }
+    }
+
+    @Override
+    public char getChar( Object obj ) {
+        if ( type != char.class ) {
+            wrongType( obj );
+        }
+        try {
+            return ( char ) getter.invokeExact( obj );
+        } catch ( Throwable e ) {
+            failed( e, obj );
+            return 0;
+        }
+    }
+
+    @Override
+    public long getLong( Object obj ) {
+        if ( type != long.class ) {
+            wrongType( obj );
+        }
+        try {
+            return ( long ) getter.invokeExact( obj );
+        } catch ( Throwable e ) {
+            failed( e, obj );
+            return 0;
+        }
+    }
+
+    @Override
+    public double getDouble( Object obj ) {
+        if ( type != double.class ) {
+            wrongType( obj );
+        }
+        try {
+            return ( double ) getter.invokeExact( obj );
+        } catch ( Throwable e ) {
+            failed( e, obj );
+            return 0;
+        }
+    }
+
+    @Override
+    public float getFloat( Object obj ) {
+        if ( type != float.class ) {
+            wrongType( obj );
+        }
+        try {
+            return ( float ) getter.invokeExact( obj );
+        } catch ( Throwable e ) {
+            failed( e, obj );
+            return 0;
+        }
+    }
+
+    @Override
+    public byte getByte( Object obj ) {
+        if ( type != byte.class ) {
+            wrongType( obj );
+        }
+        try {
+            return ( byte ) getter.invokeExact( obj );
+        } catch ( Throwable e ) {
+            failed( e, obj );
+            return 0;
+        }
+    }
+
+
+    public boolean getStaticBoolean() {
+        return getBoolean( null );
+    }
+
+    public int getStaticInt() {
+        return getInt( null );
+    }
+
+    public short getStaticShort() {
+        return getShort( null );
+    }
+
+    public long getStaticLong() {
+        return getLong( null );
+    }
+
+    public double getStaticDouble() {
+        return getDouble( null );
+    }
+
+    public float getStaticFloat() {
+        return getFloat( null );
+    }
+
+    public byte getStaticByte() {
+        return getByte( null );
+    }
+
+    public Object getObject() {
+        return getObject( null );
+    }
+
+    @Override
+    public final Field getField() {
+        return field;
+    }
+
+
+    @Override
+    public void setStaticValue( Object newValue ) {
+        try {
+            field.set( null, newValue );
+        } catch ( IllegalAccessException e ) {
+            Exceptions.handle( e );
+        }
+    }
+
+    @Override
+    public void setBoolean( Object obj, boolean value ) {
+        checkSet( boolean.class, obj );
+        try {
+            setter.invokeExact( obj, value );
+        } catch ( Throwable e ) {
+            failed( e, obj );
+        }
+    }
+
+    @Override
+    public void setInt( Object obj, int value ) {
+        checkSet( int.class, obj );
+        try {
+            setter.invokeExact( obj, value );
+        } catch ( Throwable e ) {
+            failed( e, obj );
+        }
+    }
+
+    @Override
+    public void setShort( Object obj, short value ) {
+        checkSet( short.class, obj );
+        try {
+            setter.invokeExact( obj, value );
+        } catch ( Throwable e ) {
+            failed( e, obj );
+        }
+    }
+
+    @Override
+    public void setChar( Object obj, char value ) {
+        checkSet( char.class, obj );
+        try {
+            setter.invokeExact( obj, value );
+        } catch ( Throwable e ) {
+            failed( e, obj );
+        }
+    }
+
+    @Override
+    public void setLong( Object obj, long value ) {
+        checkSet( long.class, obj );
+        try {
+            setter.invokeExact( obj, value );
+        } catch ( Throwable e ) {
+            failed( e, obj );
+        }
+    }
+
+    @Override
+    public void setDouble( Object obj, double value ) {
+        checkSet( double.class, obj );
+        try {
+            setter.invokeExact( obj, value );
+        } catch ( Throwable e ) {
+            failed( e, obj );
+        }
+    }
+
+    @Override
+    public void setFloat( Object obj, float value ) {
+        checkSet( float.class, obj );
+        try {
+            setter.invokeExact( obj, value );
+        } catch ( Throwable e ) {
+            failed( e, obj );
+        }
+    }
+
+    @Override
+    public void setByte( Object obj, byte value ) {
+        checkSet( byte.class, obj );
+        try {
+            setter.invokeExact( obj, value );
+        } catch ( Throwable e ) {
+            failed( e, obj );
+        }
+    }
+
+    @Override
+    public void setObject( Object obj, Object value ) {
+        checkSet( Object.class, obj );
+        try {
+            setter.invokeExact( obj, value );
+        } catch ( Throwable e ) {
+            failed( e, obj );
+        }
+    }
+
+
+    /** Like reflection, final instance fields can be set where the JDK allows it. */
+    private MethodHandle setter( MethodHandles.Lookup lookup, Field field, Class<?> erased ) {
+        if ( isFinal() && isStatic() ) {
+            return null;
+        }
+        MethodHandle setter;
+        try {
+            setter = lookup.unreflectSetter( field );
+        } catch ( IllegalAccessException finalField ) {
+            return null;
+        }
+        if ( isStatic() ) {
+            setter = MethodHandles.dropArguments( setter, 0, Object.class );
+        }
+        return setter.asType( MethodType.methodType( void.class, Object.class, erased ) );
+    }
+
+    private void checkSet( Class<?> erased, Object obj ) {
+        if ( setter == null ) {
+            die( String.format( "Field %s of %s is final", this.name, this.parentType ) );
+        }
+        if ( type.isPrimitive() ? type != erased : erased != Object.class ) {
+            wrongType( obj );
+        }
+    }
+
+    private Object wrongType( Object obj ) {
+        return die( Object.class, String.format( "Can't call this method on this type %s for field %s", this.type, this.name ) );
+    }
+
+    private Object failed( Throwable e, Object obj ) {
+        if ( e instanceof Exception ) {
+            analyzeError( ( Exception ) e, obj );
+            return null;
+        }
+        return Exceptions.handle( Object.class, e, "field", this.name );
+    }
+}
@@ -29,6 +29,7 @@
 package org.boon.core.reflection.impl;
 
 import org.boon.core.reflection.AnnotationData;
+import org.boon.core.reflection.AnnotationIndex;
 import org.boon.core.reflection.Annotations;
 import org.boon.core.reflection.ConstructorAccess;
 
@@ -36,8 +37,6 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Type;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import static org.boon.Exceptions.handle;
 
@@ -50,12 +49,12 @@ public class ConstructorAccessImpl <T> implements ConstructorAccess {
 
     final Constructor<T> constructor;
     final List<AnnotationData> annotationData;
-    final Map<String, AnnotationData> annotationMap;
+    final AnnotationIndex annotationIndex;
 
     ConstructorAccessImpl() {
         constructor =null;
         annotationData=null;
-        annotationMap=null;
+        annotationIndex=null;
     }
 
     public ConstructorAccessImpl( Constructor<T> method ) {
@@ -63,12 +62,7 @@ public class ConstructorAccessImpl <T> implements ConstructorAccess {
         this.constructor.setAccessible(true);
         this.annotationData = Annotations.getAnnotationDataForMethod(method);
 
-        annotationMap = new ConcurrentHashMap<>(  );
-        for (AnnotationData data : annotationData) {
-            annotationMap.put( data.getName(), data );
-            annotationMap.put( data.getSimpleClassName(), data );
-            annotationMap.put( data.getFullClassName(), data );
-        }
+        annotationIndex = AnnotationIndex.index( annotationData );
 
     }
 
@@ -85,12 +79,12 @@ public class ConstructorAccessImpl <T> implements ConstructorAccess {
 
     @Override
     public boolean hasAnnotation( String annotationName ) {
-        return this.annotationMap.containsKey( annotationName );
+        return this.annotationIndex.has( annotationName );
     }
 
     @Override
     public AnnotationData annotation(String annotationName) {
-        return this.annotationMap.get(annotationName);
+        return this.annotationIndex.get( annotationName );
     }
 
     @Override
@@ -29,6 +29,7 @@
 package org.boon.core.reflection.impl;
 
 import org.boon.core.reflection.AnnotationData;
+import org.boon.core.reflection.AnnotationIndex;
 import org.boon.core.reflection.Annotations;
 import org.boon.core.reflection.MethodAccess;
 
@@ -41,8 +42,6 @@ import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import static org.boon.Exceptions.die;
 import static org.boon.Exceptions.handle;
@@ -54,20 +53,31 @@ public class MethodAccessImpl implements MethodAccess {
 
     final public Method method;
     final List<AnnotationData> annotationData;
-    final Map<String, AnnotationData> annotationMap;
+    final AnnotationIndex annotationIndex;
 
 
 
     final MethodHandles.Lookup lookup = MethodHandles.lookup();
     final MethodHandle methodHandle;
 
+    /** Target plus one Object per parameter returning Object, used for the 0-3 arg fast paths. */
+    final MethodHandle invoker;
+
+    /** Same as invoker but takes the arguments as an Object[]. */
+    final MethodHandle spreader;
+
+    final int arity;
+
     Object instance;
 
     public MethodAccessImpl() {
         method=null;
         annotationData=null;
-        annotationMap=null;
+        annotationIndex=null;
         methodHandle = null;
+        invoker = null;
+        spreader = null;
+        arity = -1;
     }
 
     public MethodAccessImpl( Method method ) {
@@ -89,19 +99,65 @@ public class MethodAccessImpl implements MethodAccess {
 
         methodHandle = m;
 
-        annotationMap = new ConcurrentHashMap<>(  );
-        for (AnnotationData data : annotationData) {
-            annotationMap.put( data.getName(), data );
-            annotationMap.put( data.getSimpleClassName(), data );
-            annotationMap.put( data.getFullClassName(), data );
+        arity = method.getParameterTypes().length;
+
+        MethodHandle generic = null;
+        MethodHandle spread = null;
+
+        if (m != null) {
+            try {
+                generic = m.asFixedArity();
+                if (isStatic()) {
+                    generic = MethodHandles.dropArguments(generic, 0, Object.class);
+                }
+                generic = generic.asType(MethodType.genericMethodType(arity + 1));
+                spread = generic.asSpreader(Object[].class, arity);
+            } catch (Exception ex) {
+                /* Fall back to Method.invoke. */
+                generic = null;
+                spread = null;
+            }
         }
 
+        invoker = generic;
+        spreader = spread;
+
+        annotationIndex = AnnotationIndex.index( annotationData );
+
+    }
+
+
+    /**
+     * Calls through the generic method handle, arities up to three skip the spreader.
+     * Anything that does not fit (wrong number of args, no handle) goes to Method.invoke
+     * so the error reporting stays the same.
+     */
+    private Object call(Object object, Object[] args) throws Throwable {
+        final MethodHandle invoker = this.invoker;
+        final int count = args == null ? 0 : args.length;
+
+        if (invoker == null || count != arity) {
+            return method.invoke( object, args );
+        }
+
+        switch (count) {
+            case 0:
+                return (Object) invoker.invokeExact(object);
+            case 1:
+                return (Object) invoker.invokeExact(object, args[0]);
+            case 2:
+                return (Object) invoker.invokeExact(object, args[0], args[1]);
+            case 3:
+                return (Object) invoker.invokeExact(object, args[0], args[1], args[2]);
+            default:
+                return (Object) spreader.invokeExact(object, args);
+        }
     }
 
 
     public Object invoke(Object object, Object... args) {
         try {
-            return method.invoke( object, args );
+            return call( object, args );
         } catch ( Throwable ex ) {
 
             return handle( Object.class, ex,  "unable to invoke method", method,
@@ -114,7 +170,7 @@ public class MethodAccessImpl implements MethodAccess {
 
     public Object invokeBound(Object... args) {
         try {
-            return method.invoke( instance, args );
+            return call( instance, args );
         } catch ( Throwable ex ) {
 
             return handle( Object.class, ex,  "unable to invoke method", method,
@@ -128,7 +184,7 @@ public class MethodAccessImpl implements MethodAccess {
     public Object invokeStatic(Object... args) {
         try {
 
-            return method.invoke(null, args);
+            return call(null, args);
         } catch ( Throwable ex ) {
             return handle( Object.class, ex,  "unable to invoke method", method,
                     " with arguments", args );
@@ -217,12 +273,12 @@ public class MethodAccessImpl implements MethodAccess {
 
     @Override
     public boolean hasAnnotation( String annotationName ) {
-        return this.annotationMap.containsKey( annotationName );
+        return this.annotationIndex.has( annotationName );
     }
 
     @Override
     public AnnotationData annotation(String annotationName) {
-        return this.annotationMap.get(annotationName);
+        return this.annotationIndex.get( annotationName );
     }
 
     @Override
@@ -367,8 +423,6 @@ public class MethodAccessImpl implements MethodAccess {
 
         if (annotationData != null ? !annotationData.equals(that.annotationData) : that.annotationData != null)
             return false;
-        if (annotationMap != null ? !annotationMap.equals(that.annotationMap) : that.annotationMap != null)
-            return false;
         if (instance != null ? !instance.equals(that.instance) : that.instance != null) return false;
         if (method != null ? !method.equals(that.method) : that.method != null) return false;
 
@@ -379,7 +433,6 @@ public class MethodAccessImpl implements MethodAccess {
     public int hashCode() {
         int result = method != null ? method.hashCode() : 0;
         result = 31 * result + (annotationData != null ? annotationData.hashCode() : 0);
-        result = 31 * result + (annotationMap != null ? annotationMap.hashCode() : 0);
         result = 31 * result + (instance != null ? instance.hashCode() : 0);
         return result;
     }
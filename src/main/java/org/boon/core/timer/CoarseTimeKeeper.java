@@ -0,0 +1,99 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.core.timer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Cheap clock for caches and such, the default Sys.timer.
+ *
+ * One daemon thread writes System.currentTimeMillis into a volatile every
+ * org.boon.timekeeper.resolution ms (default 5). time() is a single volatile read,
+ * no atomics and no locks, and the value sits on its own cache line so readers on
+ * other cores are not disturbed by anything else.
+ *
+ * Time never goes backwards, if the wall clock is set back we hold until it catches up.
+ * The ticker starts on the first call to time().
+ */
+public class CoarseTimeKeeper implements TimeKeeper {
+
+    /** Tick interval in ms. */
+    public static final long RESOLUTION =
+            Math.max( 1, Long.parseLong( System.getProperty( "org.boon.timekeeper.resolution", "5" ) ) );
+
+    @Override
+    public final long time() {
+        return Ticker.TIME.value;
+    }
+
+    /** Same as time() without an instance. */
+    public static long now() {
+        return Ticker.TIME.value;
+    }
+
+
+    /** Fields before the value so it does not share a cache line with the object header or neighbours. */
+    static class LeftPadding {
+        protected long p1, p2, p3, p4, p5, p6, p7;
+    }
+
+    static class Value extends LeftPadding {
+        protected volatile long value;
+    }
+
+    static final class PaddedTime extends Value {
+        protected long p9, p10, p11, p12, p13, p14, p15;
+    }
+
+    private static class Ticker {
+        static final PaddedTime TIME = new PaddedTime();
+
+        static {
+            TIME.value = System.currentTimeMillis();
+
+            Thread thread = new Thread( new Runnable() {
+                @Override
+                public void run() {
+                    final long pause = TimeUnit.MILLISECONDS.toNanos( RESOLUTION );
+                    while ( true ) {
+                        long now = System.currentTimeMillis();
+                        /* Only this thread writes, so a plain compare is enough. */
+                        if ( now > TIME.value ) {
+                            TIME.value = now;
+                        }
+                        LockSupport.parkNanos( pause );
+                    }
+                }
+            }, "boon-coarse-time-keeper" );
+            thread.setDaemon( true );
+            thread.start();
+        }
+    }
+}
@@ -33,8 +33,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 
-/* This timer is used for caches and such
- * It is a default timer.
+/* This timer used to be the default for caches and such, CoarseTimeKeeper is now.
  * It should never be used direct.
  * There should always be a fall back.
  * By default this will reset the time every 100 times it is called to the latest
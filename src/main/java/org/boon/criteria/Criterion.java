@@ -35,6 +35,7 @@ import org.boon.core.Conversions;
 import org.boon.core.Type;
 import org.boon.core.Value;
 import org.boon.core.reflection.BeanUtils;
+import org.boon.core.reflection.PropertyPath;
 import org.boon.core.reflection.fields.FieldAccess;
 import org.boon.criteria.internal.Criteria;
 import org.boon.criteria.internal.Operator;
@@ -77,6 +78,9 @@ public abstract class Criterion<VALUE> extends Criteria {
 
     private boolean path;
 
+    /** Compiled on first use in path mode. */
+    private PropertyPath propertyPath;
+
     public Criterion( String name, Operator operator, VALUE... values ) {
         requireNonNull( name, "name cannot be null" );
         requireNonNull( operator, "operator cannot be null" );
@@ -145,8 +149,15 @@ public abstract class Criterion<VALUE> extends Criteria {
             FieldAccess field1 = this.field();
             return field1.getValue(objectUnderTest);
         } else {
-            return BeanUtils.atIndex(objectUnderTest, name.toString());
+            return objectUnderTest == null ? null : propertyPath().getValue(objectUnderTest);
+        }
+    }
+
+    private PropertyPath propertyPath() {
+        if (propertyPath == null) {
+            propertyPath = BeanUtils.compilePath(objectUnderTest.getClass(), name.toString());
         }
+        return propertyPath;
     }
 
     public int fieldInt(  ) {
@@ -154,7 +165,7 @@ public abstract class Criterion<VALUE> extends Criteria {
             FieldAccess field1 = this.field();
             return field1.getInt(objectUnderTest);
         } else {
-            return BeanUtils.idxInt(objectUnderTest, name.toString());
+            return propertyPath().getInt(objectUnderTest);
 
         }
     }
@@ -179,7 +190,7 @@ public abstract class Criterion<VALUE> extends Criteria {
             FieldAccess field1 = this.field();
             return field1.getLong(objectUnderTest);
         } else {
-            return BeanUtils.idxLong(objectUnderTest, name.toString());
+            return propertyPath().getLong(objectUnderTest);
 
         }
 
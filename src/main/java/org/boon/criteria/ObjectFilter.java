@@ -30,6 +30,8 @@ package org.boon.criteria;
 
 
 import org.boon.Boon;
+import org.boon.collections.IntHashSet;
+import org.boon.collections.LongHashSet;
 import org.boon.core.Conversions;
 import org.boon.core.Predicate;
 import org.boon.core.Typ;
@@ -55,6 +57,10 @@ import static org.boon.Ok.okOrDie;
 public class ObjectFilter {
 
 
+    /** in and notIn lists of ints or longs longer than this are checked with a primitive hash set. */
+    private static final int LINEAR_IN_LIMIT = 8;
+
+
     /**
      * Does the object match this expression.
      * An expression is a collection of criteria.
@@ -500,6 +506,18 @@ public class ObjectFilter {
     }
 
     public static Criterion notInInts( final Object name, final int... compareValues ) {
+
+        /* Past a handful of values a hash lookup beats walking the array. */
+        if ( compareValues.length > LINEAR_IN_LIMIT ) {
+            final IntHashSet set = new IntHashSet( compareValues );
+            return new Criterion ( name.toString(), Operator.NOT_IN, compareValues ) {
+                @Override
+                public boolean resolve(   final Object owner ) {
+                    return !set.contains( fieldInt() );
+                }
+            };
+        }
+
         return new Criterion( name.toString(), Operator.NOT_IN, compareValues ) {
             @Override
             public boolean resolve(   final Object owner ) {
@@ -516,6 +534,18 @@ public class ObjectFilter {
     }
 
     public static Criterion inInts( final Object name, final int... compareValues ) {
+
+        /* Past a handful of values a hash lookup beats walking the array. */
+        if ( compareValues.length > LINEAR_IN_LIMIT ) {
+            final IntHashSet set = new IntHashSet( compareValues );
+            return new Criterion ( name.toString(), Operator.IN, compareValues ) {
+                @Override
+                public boolean resolve(   final Object owner ) {
+                    return set.contains( fieldInt() );
+                }
+            };
+        }
+
         return new Criterion ( name.toString(), Operator.IN, compareValues ) {
             @Override
             public boolean resolve(   final Object owner ) {
@@ -1057,6 +1087,18 @@ public class ObjectFilter {
     }
 
     public static Criterion notInLongs( final Object name, final long... compareValues ) {
+
+        /* Past a handful of values a hash lookup beats walking the array. */
+        if ( compareValues.length > LINEAR_IN_LIMIT ) {
+            final LongHashSet set = new LongHashSet( compareValues );
+            return new Criterion ( name.toString(), Operator.NOT_IN, compareValues ) {
+                @Override
+                public boolean resolve(   final Object owner ) {
+                    return !set.contains( fieldLong() );
+                }
+            };
+        }
+
         return new Criterion ( name.toString(), Operator.NOT_IN, compareValues ) {
             @Override
             public boolean resolve(   final Object owner ) {
@@ -1073,6 +1115,18 @@ public class ObjectFilter {
     }
 
     public static Criterion inLongs( final Object name, final long... compareValues ) {
+
+        /* Past a handful of values a hash lookup beats walking the array. */
+        if ( compareValues.length > LINEAR_IN_LIMIT ) {
+            final LongHashSet set = new LongHashSet( compareValues );
+            return new Criterion ( name.toString(), Operator.IN, compareValues ) {
+                @Override
+                public boolean resolve(   final Object owner ) {
+                    return set.contains( fieldLong() );
+                }
+            };
+        }
+
         return new Criterion ( name.toString(), Operator.IN, compareValues ) {
             @Override
             public boolean resolve(   final Object owner ) {
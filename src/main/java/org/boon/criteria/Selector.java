@@ -31,6 +31,7 @@ package org.boon.criteria;
 
 import org.boon.core.Function;
 import org.boon.core.reflection.BeanUtils;
+import org.boon.core.reflection.PropertyPath;
 import org.boon.core.reflection.fields.FieldAccess;
 import org.boon.template.BoonTemplate;
 
@@ -156,6 +157,9 @@ public abstract class Selector {
 
     protected final boolean path;
 
+    /** Compiled on first use, it is thread safe so a race here is harmless. */
+    private PropertyPath propertyPath;
+
 
     /**
      * Is this a property path?
@@ -208,7 +212,7 @@ public abstract class Selector {
         if (!path && fields!=null) {
             row.put( this.alias, fields.get( this.name ).getValue( item ) );
         } else {
-            row.put( this.alias, BeanUtils.atIndex(item, name)  );
+            row.put( this.alias, pathValue( item ) );
         }
     }
 
@@ -217,8 +221,20 @@ public abstract class Selector {
         if (!path && fields!=null ) {
             return fields.get( this.name ).getValue( item );
         } else {
-            return BeanUtils.atIndex(item, name);
+            return pathValue( item );
+        }
+    }
+
+    protected Object pathValue( Object item ) {
+        if ( item == null ) {
+            return null;
+        }
+        PropertyPath propertyPath = this.propertyPath;
+        if ( propertyPath == null ) {
+            propertyPath = BeanUtils.compilePath( item.getClass(), name );
+            this.propertyPath = propertyPath;
         }
+        return propertyPath.getValue( item );
     }
 
 
@@ -295,7 +311,7 @@ public abstract class Selector {
                 if (!path && fields!=null) {
                     row.put( this.name, transform.apply(fields.get( this.name ).getValue( item )) );
                 } else {
-                    row.put( alias, transform.apply(BeanUtils.atIndex( item, propName ))  );
+                    row.put( alias, transform.apply( pathValue( item ) ) );
                 }
             }
 
@@ -27,6 +27,8 @@
  */
 package org.boon.datarepo;
 
+import org.boon.cache.CacheStats;
+import org.boon.cache.CacheType;
 import org.boon.datarepo.modification.ModificationListener;
 import org.boon.datarepo.spi.RepoComposer;
 import org.boon.datarepo.spi.SearchIndex;
@@ -80,6 +82,8 @@ public interface RepoBuilder {
 
     public RepoBuilder useUnsafe( boolean useUnSafe );
 
+    public RepoBuilder useMethodHandles( boolean useMethodHandles );
+
     public RepoBuilder nullChecks( boolean nullChecks );
 
     public RepoBuilder addLogging( boolean logging );
@@ -88,6 +92,10 @@ public interface RepoBuilder {
 
     public RepoBuilder useCache();
 
+    public RepoBuilder useCache( CacheStats stats );
+
+    public RepoBuilder nearCache( int limit, CacheType type, Function<?, ?> loader );
+
     public RepoBuilder storeKeyInIndexOnly();
 
     RepoBuilder events( ModificationListener... listeners );
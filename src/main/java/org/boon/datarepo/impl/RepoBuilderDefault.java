@@ -30,14 +30,18 @@ package org.boon.datarepo.impl;
 
 import org.boon.Exceptions;
 import org.boon.Str;
+import org.boon.cache.CacheStats;
+import org.boon.cache.CacheType;
 import org.boon.core.Typ;
 import org.boon.core.reflection.BeanUtils;
+import org.boon.core.reflection.Reflection;
 import org.boon.core.reflection.fields.FieldAccess;
 import org.boon.datarepo.*;
 import org.boon.datarepo.impl.decorators.FilterWithSimpleCache;
 import org.boon.datarepo.impl.decorators.ObjectEditorCloneDecorator;
 import org.boon.datarepo.impl.decorators.ObjectEditorEventDecorator;
 import org.boon.datarepo.impl.decorators.ObjectEditorLogNullCheckDecorator;
+import org.boon.datarepo.impl.indexes.NearCacheLookupIndex;
 import org.boon.datarepo.impl.indexes.NestedKeySearchIndex;
 import org.boon.datarepo.impl.indexes.TypeHierarchyIndex;
 import org.boon.datarepo.modification.ModificationListener;
@@ -157,6 +161,11 @@ public class RepoBuilderDefault implements RepoBuilder {
      */
     boolean useUnSafe = false;
 
+    /**
+     * Read and write fields with MethodHandles.
+     */
+    boolean useMethodHandles = false;
+
     /**
      * Checks to see if we should enable runtime null checking and logging
      * This essentially means that we will not allow null keys or values.
@@ -230,6 +239,18 @@ public class RepoBuilderDefault implements RepoBuilder {
      */
     private boolean cache = false;
 
+    /**
+     * Where the query cache records hits and misses, null for no stats.
+     */
+    private CacheStats cacheStats;
+
+    /**
+     * Near cache for the primary key index, see nearCache.
+     */
+    private int nearCacheLimit;
+    private CacheType nearCacheType;
+    private Function nearCacheLoader;
+
     /**
      * Holds a collection of comparators that will be used per property for the Repo.
      */
@@ -328,6 +349,19 @@ public class RepoBuilderDefault implements RepoBuilder {
 
     }
 
+    /**
+     * Reads and writes fields with MethodHandles instead of Unsafe or reflection.
+     * Properties that only have getters and setters still use them.
+     *
+     * @param useMethodHandles use method handles
+     * @return RepoBuilder
+     */
+    @Override
+    public RepoBuilder useMethodHandles( boolean useMethodHandles ) {
+        this.useMethodHandles = useMethodHandles;
+        return this;
+    }
+
     /**
      * Turns on logging and null checking for the Repo.
      *
@@ -381,6 +415,39 @@ public class RepoBuilderDefault implements RepoBuilder {
         return this;
     }
 
+    /**
+     * Same as useCache, and records the query cache's hits, misses and filter times.
+     *
+     * @param stats where to record
+     * @return RepoBuilder
+     */
+    @Override
+    public RepoBuilder useCache( CacheStats stats ) {
+        this.cache = true;
+        this.cacheStats = stats;
+        return this;
+    }
+
+    /**
+     * Only keeps limit items in memory, picked by an org.boon.cache policy.
+     * Repo.get of a key that is not in memory calls the loader and adds what it
+     * returns. Evicted items are dropped from every index, so queries only see
+     * what is in memory.
+     *
+     * @param limit how many items to keep
+     * @param type LRU, FIFO or TINY_LFU
+     * @param loader key in, item or null out
+     * @return RepoBuilder
+     */
+    @Override
+    public RepoBuilder nearCache( int limit, CacheType type, Function<?, ?> loader ) {
+        requireNonNull( type, "near cache type cannot be null" );
+        this.nearCacheLimit = limit;
+        this.nearCacheType = type;
+        this.nearCacheLoader = loader;
+        return this;
+    }
+
     /**
      * Stores only the keys in the index. The data is stored elsewhere.
      * This is not implemented yet.
@@ -694,11 +761,11 @@ public class RepoBuilderDefault implements RepoBuilder {
         /**
          * Load all of the fields that we need.
          */
-        this.fields = BeanUtils.getFieldsFromObject( clazz );
+        this.fields = accessorFields( clazz );
 
         for ( Class<?> cls : classes ) {
             Map<String, FieldAccess> fieldsComponentType
-                    = BeanUtils.getFieldsFromObject( cls );
+                    = accessorFields( cls );
 
             for ( String sKey : fieldsComponentType.keySet() ) {
                 if ( !fields.containsKey( sKey ) ) {
@@ -708,6 +775,16 @@ public class RepoBuilderDefault implements RepoBuilder {
         }
     }
 
+    private Map<String, FieldAccess> accessorFields( Class<?> cls ) {
+        Map<String, FieldAccess> fields = BeanUtils.getFieldsFromObject( cls );
+        if ( !useMethodHandles ) {
+            return fields;
+        }
+        fields = new LinkedHashMap<>( fields );
+        fields.putAll( Reflection.getAllMethodHandleFields( cls ) );
+        return fields;
+    }
+
     /**
      * @param primitiveKey
      * @param itemClazz
@@ -738,7 +815,7 @@ public class RepoBuilderDefault implements RepoBuilder {
         query.init();
 
         if ( this.cache ) {
-            filter = new FilterWithSimpleCache( filter );
+            filter = new FilterWithSimpleCache( filter ).recordStats( cacheStats );
         }
 
         query.setFilter( filter );
@@ -1049,7 +1126,9 @@ public class RepoBuilderDefault implements RepoBuilder {
 
         Exceptions.requireNonNull( primaryKey, "primary key cannot be null" );
 
-        LookupIndex primaryKeyIndex = this.uniqueLookupIndexFactory.apply( type );
+        LookupIndex primaryKeyIndex = this.nearCacheType == null ?
+                this.uniqueLookupIndexFactory.apply( type ) :
+                new NearCacheLookupIndex( type, nearCacheLimit, nearCacheType, nearCacheLoader );
 
 
         if ( !Typ.isMap(itemClass) && !fields.containsKey( primaryKey ) ) {
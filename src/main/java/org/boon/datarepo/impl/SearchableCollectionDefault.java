@@ -41,6 +41,7 @@ import org.boon.datarepo.Filter;
 import org.boon.datarepo.LookupIndex;
 import org.boon.datarepo.ResultSet;
 import org.boon.datarepo.SearchableCollection;
+import org.boon.datarepo.impl.indexes.NearCacheLookupIndex;
 import org.boon.datarepo.impl.indexes.UniqueLookupIndex;
 import org.boon.datarepo.spi.FilterComposer;
 import org.boon.datarepo.spi.SearchIndex;
@@ -580,6 +581,36 @@ public class SearchableCollectionDefault<KEY, ITEM> implements SearchableCollect
         return primaryIndex.all();
     }
 
+    /**
+     * Loaded items go into every index, evicted ones come out of every index.
+     * The primary index goes last so an item the policy refuses on the way in
+     * is already in the others when they drop it.
+     */
+    private void initNearCache( NearCacheLookupIndex<KEY, ITEM> nearCache ) {
+        indexes.remove( nearCache );
+        indexes.add( nearCache );
+
+        nearCache.setListener( new NearCacheLookupIndex.Listener<ITEM>() {
+            @Override
+            public ITEM loaded( ITEM item ) {
+                if ( add( item ) ) {
+                    filter.invalidate();
+                }
+                return item;
+            }
+
+            @Override
+            public void evicted( ITEM item ) {
+                for ( LookupIndex index : indexes ) {
+                    if ( index != primaryIndex ) {
+                        index.delete( item );
+                    }
+                }
+                filter.invalidate();
+            }
+        } );
+    }
+
 
     public void setPrimaryKeyName( String primaryKey ) {
         this.primaryKeyName = primaryKey;
@@ -617,6 +648,9 @@ public class SearchableCollectionDefault<KEY, ITEM> implements SearchableCollect
     @Override
     public void init() {
         this.primaryIndex = ( UniqueLookupIndex<KEY, ITEM> ) this.lookupIndexMap.get( this.primaryKeyName );
+        if ( primaryIndex instanceof NearCacheLookupIndex ) {
+            initNearCache( ( NearCacheLookupIndex<KEY, ITEM> ) primaryIndex );
+        }
         if ( filter instanceof FilterComposer ) {
             FilterComposer fc = ( FilterComposer ) filter;
             fc.setFields( fields );
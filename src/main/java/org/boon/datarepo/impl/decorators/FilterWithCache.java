@@ -29,6 +29,7 @@
 package org.boon.datarepo.impl.decorators;
 
 import org.boon.cache.Cache;
+import org.boon.cache.CacheStats;
 import org.boon.core.Supplier;
 import org.boon.criteria.ObjectFilter;
 import org.boon.criteria.internal.Criteria;
@@ -42,6 +43,9 @@ public class FilterWithCache extends FilterDecoratorBase {
 
     private Cache<Group, ResultSet> cache;
 
+    /* Running the filter on a miss counts as a load. Null unless asked for. */
+    private volatile CacheStats stats;
+
     public FilterWithCache( final Filter delegate, final Supplier<Cache<Group, ResultSet>> cacheFactory ) {
         super( delegate );
         this.cacheFactory = cacheFactory;
@@ -53,21 +57,45 @@ public class FilterWithCache extends FilterDecoratorBase {
         Group and = ObjectFilter.and( expressions );
 
         ResultSet results = cache.get( and );
+        final CacheStats stats = this.stats;
 
 
         if ( results != null ) {
+            if ( stats != null ) {
+                stats.recordHit();
+            }
             cache.put( and, results );
             return results;
         }
 
-
-        results = super.filter( expressions );
+        if ( stats == null ) {
+            results = super.filter( expressions );
+        } else {
+            stats.recordMiss();
+            long start = System.nanoTime();
+            results = super.filter( expressions );
+            stats.recordLoad( System.nanoTime() - start );
+        }
 
         cache.put( and, results );
 
         return results;
     }
 
+    /**
+     * Record hits, misses and filter run times.
+     * @param stats where to record, null to stop
+     * @return this
+     */
+    public FilterWithCache recordStats( CacheStats stats ) {
+        this.stats = stats;
+        return this;
+    }
+
+    public CacheStats stats() {
+        return stats;
+    }
+
     @Override
     public void invalidate() {
 
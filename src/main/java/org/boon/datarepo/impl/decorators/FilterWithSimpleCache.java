@@ -29,6 +29,7 @@
 package org.boon.datarepo.impl.decorators;
 
 import org.boon.cache.Cache;
+import org.boon.cache.CacheStats;
 import org.boon.cache.CacheType;
 import org.boon.cache.SimpleConcurrentCache;
 import org.boon.criteria.ObjectFilter;
@@ -43,24 +44,41 @@ public class FilterWithSimpleCache extends FilterDecoratorBase {
     private Cache<Criteria, ResultSet> fifoCache = new SimpleConcurrentCache<>( 50, false, CacheType.FIFO );
     private Cache<Criteria, ResultSet> lruCache = new SimpleConcurrentCache<>( 1_000, false, CacheType.LRU );
 
+    /* Hits in either cache count as hits, running the filter on a miss counts as a load. Null unless asked for. */
+    private volatile CacheStats stats;
+
 
     @Override
     public ResultSet filter( Criteria... expressions ) {
         Group and = ObjectFilter.and( expressions );
 
         ResultSet results = fifoCache.get( and );
+        final CacheStats stats = this.stats;
 
-
-        if ( results == null ) {
-            results = lruCache.get( and );
-            if ( results != null ) {
-                fifoCache.put( and, results );
-                return results;
+        if ( results != null ) {
+            if ( stats != null ) {
+                stats.recordHit();
             }
+            return results;
         }
 
+        results = lruCache.get( and );
+        if ( results != null ) {
+            if ( stats != null ) {
+                stats.recordHit();
+            }
+            fifoCache.put( and, results );
+            return results;
+        }
 
-        results = super.filter( expressions );
+        if ( stats == null ) {
+            results = super.filter( expressions );
+        } else {
+            stats.recordMiss();
+            long start = System.nanoTime();
+            results = super.filter( expressions );
+            stats.recordLoad( System.nanoTime() - start );
+        }
 
         fifoCache.put( and, results );
         lruCache.put( and, results );
@@ -68,6 +86,20 @@ public class FilterWithSimpleCache extends FilterDecoratorBase {
         return results;
     }
 
+    /**
+     * Record hits, misses and filter run times.
+     * @param stats where to record, null to stop
+     * @return this
+     */
+    public FilterWithSimpleCache recordStats( CacheStats stats ) {
+        this.stats = stats;
+        return this;
+    }
+
+    public CacheStats stats() {
+        return stats;
+    }
+
     @Override
     public void invalidate() {
 
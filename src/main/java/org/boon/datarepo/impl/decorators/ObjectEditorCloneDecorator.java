@@ -30,7 +30,7 @@ package org.boon.datarepo.impl.decorators;
 
 import org.boon.datarepo.ObjectEditor;
 
-import static org.boon.core.reflection.BeanUtils.copy;
+import static org.boon.core.reflection.ObjectCopier.copy;
 
 
 public class ObjectEditorCloneDecorator<KEY, ITEM> extends ObjectEditorDecoratorBase<KEY, ITEM> {
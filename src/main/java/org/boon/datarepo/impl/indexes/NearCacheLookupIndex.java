@@ -0,0 +1,180 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+package org.boon.datarepo.impl.indexes;
+
+import org.boon.cache.CacheType;
+import org.boon.cache.EvictionListener;
+import org.boon.cache.SimpleConcurrentCache;
+import org.boon.cache.SingleFlight;
+import org.boon.core.Function;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+
+import static org.boon.Exceptions.die;
+
+/**
+ * Primary key index that only holds the hot part of the data.
+ *
+ * Residency is decided by an org.boon.cache policy (LRU, FIFO or TINY_LFU).
+ * A get for a key that is not resident asks the loader, and the loaded item
+ * is added back through the collection so the other indexes see it too.
+ * Concurrent gets for the same cold key share one load through SingleFlight, like LoadingCache.
+ * When the policy drops an item the collection is told so it can take it out
+ * of the other indexes, queries only ever see resident items.
+ *
+ * @param <KEY> key
+ * @param <ITEM> item
+ */
+public class NearCacheLookupIndex<KEY, ITEM> extends UniqueLookupIndex<KEY, ITEM> {
+
+    /**
+     * Hooks the owning collection into loads and evictions.
+     * @param <ITEM> item
+     */
+    public interface Listener<ITEM> {
+
+        /** A cold item was loaded, add it everywhere. Returns what get should return. */
+        ITEM loaded( ITEM item );
+
+        /** The policy dropped this item, it is already gone from this index. */
+        void evicted( ITEM item );
+    }
+
+    private final SimpleConcurrentCache<KEY, ITEM> cache;
+    private final Function<KEY, ITEM> loader;
+    private volatile Listener<ITEM> listener;
+
+    /** Loads in flight, one per key. */
+    private final SingleFlight<KEY, ITEM> loading = new SingleFlight<>();
+
+    /**
+     * @param keyType key type
+     * @param limit how many items stay resident
+     * @param type LRU, FIFO or TINY_LFU
+     * @param loader loads cold items, may return null, may be null for a plain bounded index
+     */
+    public NearCacheLookupIndex( Class<?> keyType, int limit, CacheType type, Function<KEY, ITEM> loader ) {
+        super( keyType == null ? Object.class : keyType );
+
+        if ( type == CacheType.LFU ) {
+            die( "near cache supports LRU, FIFO and TINY_LFU, not", type );
+        }
+
+        this.loader = loader;
+
+        /* One stripe so the limit is exact, LRU and FIFO reads are lock free anyway. */
+        this.cache = new SimpleConcurrentCache<>( 1, limit, false, type );
+        this.cache.evictionListener( new EvictionListener<KEY, ITEM>() {
+            @Override
+            public void evicted( KEY key, ITEM item ) {
+                if ( map.remove( key ) == null ) {
+                    return;
+                }
+                Listener<ITEM> listener = NearCacheLookupIndex.this.listener;
+                if ( listener != null ) {
+                    listener.evicted( item );
+                }
+            }
+        } );
+    }
+
+    public void setListener( Listener<ITEM> listener ) {
+        this.listener = listener;
+    }
+
+    @Override
+    public ITEM get( KEY key ) {
+        key = getKey( key );
+        if ( key == null ) {
+            return null;
+        }
+
+        ITEM item = cache.get( key );
+        if ( item != null || loader == null ) {
+            return item;
+        }
+
+        final KEY coldKey = key;
+        FutureTask<ITEM> task = new FutureTask<>( new Callable<ITEM>() {
+            @Override
+            public ITEM call() {
+                /* Someone may have finished loading it between our miss and now. */
+                ITEM item = cache.getSilent( coldKey );
+                return item != null ? item : load( coldKey );
+            }
+        } );
+
+        return loading.get( key, task );
+    }
+
+    private ITEM load( KEY key ) {
+        ITEM item = loader.apply( key );
+        if ( item == null ) {
+            return null;
+        }
+
+        Listener<ITEM> listener = this.listener;
+        if ( listener != null ) {
+            return listener.loaded( item );
+        }
+        add( item );
+        return item;
+    }
+
+    @Override
+    public boolean add( ITEM item ) {
+        if ( !super.add( item ) ) {
+            return false;
+        }
+        cache.put( keyGetter.apply( item ), item );
+        return true;
+    }
+
+    @Override
+    public boolean delete( ITEM item ) {
+        KEY key = getKey( keyGetter.apply( item ) );
+        cache.remove( key );
+        return super.delete( item );
+    }
+
+    @Override
+    public boolean deleteByKey( KEY key ) {
+        cache.remove( getKey( key ) );
+        return super.deleteByKey( key );
+    }
+
+    @Override
+    public void clear() {
+        for ( KEY key : new ArrayList<>( map.keySet() ) ) {
+            cache.remove( key );
+        }
+        super.clear();
+    }
+}
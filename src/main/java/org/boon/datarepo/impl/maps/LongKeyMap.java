@@ -0,0 +1,266 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.datarepo.impl.maps;
+
+import org.boon.collections.LongObjectMap;
+import org.boon.datarepo.spi.TypedMap;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static org.boon.Exceptions.die;
+import static org.boon.core.Conversions.wrapAsObject;
+
+/**
+ * Map for int and long keys backed by a LongObjectMap, so index entries do not need a
+ * boxed key and an entry object apiece.
+ * Unlike JavaUtilMap this is not a concurrent map. Only use it for repos that are not
+ * modified while being read from other threads.
+ */
+public class LongKeyMap<K, V> extends AbstractMap<K, V> implements TypedMap<K, V> {
+
+    private final LongObjectMap<V> map = new LongObjectMap<>();
+
+    /** Keys come back out as Integers instead of Longs. */
+    private final boolean intKeys;
+
+    public LongKeyMap( boolean intKeys ) {
+        this.intKeys = intKeys;
+    }
+
+
+    private static boolean integral( Object key ) {
+        return key instanceof Long || key instanceof Integer || key instanceof Short || key instanceof Byte;
+    }
+
+    private static long toKey( Object key ) {
+        if ( !integral( key ) ) {
+            die( "LongKeyMap only holds integral keys, not", key );
+        }
+        return ( ( Number ) key ).longValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private K fromKey( long key ) {
+        return ( K ) ( intKeys ? ( Object ) ( int ) key : ( Object ) key );
+    }
+
+
+    @Override
+    public V get( Object key ) {
+        return integral( key ) ? map.get( ( ( Number ) key ).longValue() ) : null;
+    }
+
+    @Override
+    public boolean containsKey( Object key ) {
+        return integral( key ) && map.containsKey( ( ( Number ) key ).longValue() );
+    }
+
+    @Override
+    public V put( K key, V value ) {
+        return map.put( toKey( key ), value );
+    }
+
+    @Override
+    public V remove( Object key ) {
+        return integral( key ) ? map.remove( ( ( Number ) key ).longValue() ) : null;
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                final LongObjectMap<V>.Cursor cursor = map.cursor();
+
+                return new Iterator<Entry<K, V>>() {
+                    boolean ready;
+                    boolean more;
+
+                    @Override
+                    public boolean hasNext() {
+                        if ( !ready ) {
+                            more = cursor.next();
+                            ready = true;
+                        }
+                        return more;
+                    }
+
+                    @Override
+                    public Entry<K, V> next() {
+                        if ( !hasNext() ) {
+                            throw new NoSuchElementException();
+                        }
+                        ready = false;
+                        return new SimpleImmutableEntry<>( fromKey( cursor.key() ), cursor.value() );
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException( "remove through the map" );
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return map.size();
+            }
+        };
+    }
+
+
+    @Override
+    public final boolean put( K key, boolean i ) {
+        return ( Boolean ) put( key, ( V ) wrapAsObject( i ) );
+    }
+
+    @Override
+    public final boolean getBoolean( K key ) {
+        return ( Boolean ) get( key );
+    }
+
+    @Override
+    public V put( byte key, V v ) {
+        return map.put( key, v );
+    }
+
+    @Override
+    public final byte put( K key, byte i ) {
+        return ( Byte ) put( key, ( V ) wrapAsObject( i ) );
+    }
+
+    @Override
+    public final byte getByte( K key ) {
+        return ( Byte ) get( key );
+    }
+
+    @Override
+    public V put( short key, V v ) {
+        return map.put( key, v );
+    }
+
+    @Override
+    public final short put( K key, short i ) {
+        return ( Short ) put( key, ( V ) wrapAsObject( i ) );
+    }
+
+    @Override
+    public final short getShort( K key ) {
+        return ( Short ) get( key );
+    }
+
+    @Override
+    public V put( int key, V v ) {
+        return map.put( key, v );
+    }
+
+    @Override
+    public final int put( K key, int i ) {
+        return ( Integer ) put( key, ( V ) wrapAsObject( i ) );
+    }
+
+    @Override
+    public final int getInt( K key ) {
+        return ( Integer ) get( key );
+    }
+
+    @Override
+    public V put( long key, V v ) {
+        return map.put( key, v );
+    }
+
+    @Override
+    public final long put( K key, long i ) {
+        return ( Long ) put( key, ( V ) wrapAsObject( i ) );
+    }
+
+    @Override
+    public final long getLong( K key ) {
+        return ( Long ) get( key );
+    }
+
+    @Override
+    public V put( float key, V v ) {
+        return put( ( K ) wrapAsObject( key ), v );
+    }
+
+    @Override
+    public final float put( K key, float i ) {
+        return ( Float ) put( key, ( V ) wrapAsObject( i ) );
+    }
+
+    @Override
+    public final float getFloat( K key ) {
+        return ( Float ) get( key );
+    }
+
+    @Override
+    public V put( double key, V v ) {
+        return put( ( K ) wrapAsObject( key ), v );
+    }
+
+    @Override
+    public final double put( K key, double i ) {
+        return ( Double ) put( key, ( V ) wrapAsObject( i ) );
+    }
+
+    @Override
+    public final double getDouble( K key ) {
+        return ( Double ) get( key );
+    }
+
+    @Override
+    public final V put( char key, V v ) {
+        return map.put( key, v );
+    }
+
+    @Override
+    public final char put( K key, char i ) {
+        return ( Character ) put( key, ( V ) wrapAsObject( i ) );
+    }
+
+    @Override
+    public final char getChar( K key ) {
+        return ( Character ) get( key );
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.datarepo.impl.maps;
+
+import org.boon.core.Typ;
+
+import java.util.Map;
+
+/**
+ * Map creator that backs lookup indexes on int and long keys with LongKeyMap.
+ * Everything else is created the same way MapCreatorImpl does it.
+ *
+ * <pre>
+ *     SPIFactory.setMapCreatorFactory( new Supplier&lt;MapCreator&gt;() {
+ *         public MapCreator get() {
+ *             return new PrimitiveKeyMapCreator();
+ *         }
+ *     } );
+ * </pre>
+ *
+ * LongKeyMap is not a concurrent map, so only install this for repos that are not
+ * modified while other threads read them.
+ */
+public class PrimitiveKeyMapCreator extends MapCreatorImpl {
+
+    @Override
+    public Map createMap( Class<?> keyType ) {
+        if ( keyType == Typ.lng || keyType == Typ.longWrapper ) {
+            return new LongKeyMap( false );
+        } else if ( keyType == Typ.intgr || keyType == Typ.integer ) {
+            return new LongKeyMap( true );
+        }
+        return super.createMap( keyType );
+    }
+}
@@ -28,6 +28,8 @@
 
 package org.boon.di;
 
+import java.util.Map;
+
 
 public interface Context extends Module {
 
@@ -61,5 +63,8 @@ public interface Context extends Module {
     Context combine( Context newContext );
     Context combineFirst( Context newContext );
 
+    /** Injects and post constructs all singletons up front, returns millis per singleton. */
+    Map<String, Long> eagerInit();
+
 
 }
\ No newline at end of file
@@ -38,9 +38,19 @@ import java.util.Map;
 
 public class DependencyInjection {
 
+    /** When set contexts made here initialize their singletons before they are handed out. */
+    private static final boolean EAGER_INIT = Boolean.getBoolean( "org.boon.di.eagerInit" );
+
 
     public static Context context( final Module... modules ) {
-        return new ContextImpl( modules );
+        return eagerInitIfEnabled( new ContextImpl( modules ) );
+    }
+
+
+    public static Context eagerContext( final Module... modules ) {
+        Context context = new ContextImpl( modules );
+        context.eagerInit();
+        return context;
     }
 
     public static Module classes( Class... classes ) {
@@ -77,6 +87,14 @@ public class DependencyInjection {
     }
 
     public static Context fromMap( Map<?, ?> map ) {
-        return new ContextImpl(new SupplierModule( map ));
+        return eagerInitIfEnabled( new ContextImpl( new SupplierModule( map ) ) );
+    }
+
+
+    private static Context eagerInitIfEnabled( Context context ) {
+        if ( EAGER_INIT ) {
+            context.eagerInit();
+        }
+        return context;
     }
 }
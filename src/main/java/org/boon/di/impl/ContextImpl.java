@@ -33,10 +33,13 @@ import org.boon.Exceptions;
 import org.boon.Logger;
 import org.boon.collections.ConcurrentLinkedHashSet;
 import org.boon.core.Supplier;
+import org.boon.core.Sys;
 import org.boon.core.Typ;
+import org.boon.core.reflection.ClassMeta;
 import org.boon.core.reflection.Fields;
 import org.boon.core.reflection.Invoker;
 import org.boon.core.reflection.MapObjectConversion;
+import org.boon.core.reflection.MethodAccess;
 import org.boon.core.reflection.Reflection;
 import org.boon.core.reflection.fields.FieldAccess;
 import org.boon.di.Context;
@@ -48,6 +51,7 @@ import org.boon.logging.TerminalLogger;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.boon.Boon.*;
@@ -67,6 +71,12 @@ public class ContextImpl implements Context, Module {
 
     private boolean debug;
 
+    /** Which module answered for a type or name, replaced whenever the modules change. */
+    private volatile Resolution resolution = new Resolution();
+
+    /** Fields to inject and post construct per class, see InjectionPlan. */
+    private volatile Map<Class<?>, InjectionPlan> injectionPlans = new ConcurrentHashMap<>();
+
 
     public void initDebug() {
         if (Boon.debugOn()) {
@@ -102,6 +112,7 @@ public class ContextImpl implements Context, Module {
             module.parent(this);
             this.modules.add(module);
         }
+        invalidate();
         return this;
     }
 
@@ -114,6 +125,7 @@ public class ContextImpl implements Context, Module {
             module.parent(this);
             this.modules.addFirst(module);
         }
+        invalidate();
         return this;
     }
 
@@ -195,12 +207,9 @@ public class ContextImpl implements Context, Module {
             if (debug) logger.debug(contextImpl, "get(type)", "IN", type);
 
             Object object = null;
-            for (Module module : modules) {
-
-                if (module.has(type)) {
-                    object = module.get(type);
-                    break;
-                }
+            Module module = moduleFor(type);
+            if (module != null) {
+                object = module.get(type);
             }
 
             resolveProperties(true, object, getProviderInfo(type));
@@ -224,12 +233,9 @@ public class ContextImpl implements Context, Module {
 
 
             T object = null;
-            for (Module module : modules) {
-
-                if (module.has(name)) {
-                    object = module.get(type, name);
-                    break;
-                }
+            Module module = moduleFor(name);
+            if (module != null) {
+                object = module.get(type, name);
             }
 
             resolveProperties(true, object, getProviderInfo(type, name));
@@ -251,12 +257,9 @@ public class ContextImpl implements Context, Module {
         try {
 
             ProviderInfo pi = null;
-            for (Module module : modules) {
-
-                if (module.has(type)) {
-                    pi = module.getProviderInfo(type);
-                    break;
-                }
+            Module module = moduleFor(type);
+            if (module != null) {
+                pi = module.getProviderInfo(type);
             }
 
 
@@ -277,12 +280,9 @@ public class ContextImpl implements Context, Module {
             if (debug) logger.debug(contextImpl, "getProviderInfo(name)", "IN", name);
 
             ProviderInfo pi = null;
-            for (Module module : modules) {
-
-                if (module.has(name)) {
-                    pi = module.getProviderInfo(name);
-                    break;
-                }
+            Module module = moduleFor(name);
+            if (module != null) {
+                pi = module.getProviderInfo(name);
             }
 
 
@@ -303,12 +303,9 @@ public class ContextImpl implements Context, Module {
 
         try {
             ProviderInfo pi = null;
-            for (Module module : modules) {
-
-                if (module.has(name)) {
-                    pi = module.getProviderInfo(type, name);
-                    break;
-                }
+            Module module = moduleFor(name);
+            if (module != null) {
+                pi = module.getProviderInfo(type, name);
             }
 
 
@@ -329,13 +326,10 @@ public class ContextImpl implements Context, Module {
 
         if (debug) logger.debug(contextImpl, "has( type )", "IN", type);
 
-        for (Module module : modules) {
-
-            if (module.has(type)) {
+        if (moduleFor(type) != null) {
 
-                if (debug) logger.debug(contextImpl, "has( type )", "IN", type, "OUT", true);
-                return true;
-            }
+            if (debug) logger.debug(contextImpl, "has( type )", "IN", type, "OUT", true);
+            return true;
         }
 
 
@@ -346,13 +340,10 @@ public class ContextImpl implements Context, Module {
     @Override
     public boolean has(String name) {
 
-        for (Module module : modules) {
-
-            if (module.has(name)) {
+        if (moduleFor(name) != null) {
 
-                if (debug) logger.debug(contextImpl, "has( name )", "IN", name, "OUT", true);
-                return true;
-            }
+            if (debug) logger.debug(contextImpl, "has( name )", "IN", name, "OUT", true);
+            return true;
         }
 
 
@@ -368,12 +359,9 @@ public class ContextImpl implements Context, Module {
 
 
             Supplier<T> supplier = null;
-            for (Module module : modules) {
-
-                if (module.has(name)) {
-                    supplier = module.getSupplier(type, name);
-                    break;
-                }
+            Module module = moduleFor(name);
+            if (module != null) {
+                supplier = module.getSupplier(type, name);
             }
 
             final Supplier<T> s = supplier;
@@ -406,12 +394,9 @@ public class ContextImpl implements Context, Module {
 
 
             Supplier<T> supplier = null;
-            for (Module module : modules) {
-
-                if (module.has(type)) {
-                    supplier = module.getSupplier(type);
-                    break;
-                }
+            Module module = moduleFor(type);
+            if (module != null) {
+                supplier = module.getSupplier(type);
             }
 
             final Supplier<T> s = supplier;
@@ -435,7 +420,7 @@ public class ContextImpl implements Context, Module {
     }
 
 
-    private void resolveProperties(boolean enforce, Object object, ProviderInfo info) {
+    void resolveProperties(boolean enforce, Object object, ProviderInfo info) {
 
         if (debug) logger.debug(contextImpl, "resolveProperties(enforce, object, info )", "IN",
                 enforce, object, info);
@@ -443,10 +428,12 @@ public class ContextImpl implements Context, Module {
 
         if (object != null) {
 
+            InjectionPlan plan = injectionPlan(object.getClass());
+
             /* Since there is no concept of singleton or scope, you need some sort of flag to determine
             if injection has already happened for objects that are like singletons.
              */
-            if (Fields.hasField(object, "__init__")) {
+            if (plan.hasInitFlag) {
                 if (idxBoolean(object, "__init__")) {
 
 
@@ -460,20 +447,19 @@ public class ContextImpl implements Context, Module {
                 return;
             }
 
-            Map<String, FieldAccess> fields = Reflection.getAllAccessorFields(object.getClass(), true);
-            for (FieldAccess field : fields.values()) {
-
-                if ((field.injectable())) {
-
-                    handleInjectionOfField(enforce, object, field);
+            for (InjectionSlot slot : plan.slots) {
+                if (slot.names != null) {
+                    handleInjectionOfBasicField(enforce, object, slot.field, slot.names);
+                } else {
+                    handleInjectionOfField(enforce, object, slot.field);
                 }
-
-
             }
 
 
             if (debug) logger.debug(contextImpl, "Invoking post construct start...", object);
-            Invoker.invokeMethodWithAnnotationNoReturn(object, "postConstruct");
+            if (plan.postConstruct != null) {
+                plan.postConstruct.invoke(object);
+            }
             if (debug) logger.debug(contextImpl, "Invoking post construct done...", object);
 
             if (info != null && info.value() != null && !info.prototype()) {
@@ -512,11 +498,6 @@ public class ContextImpl implements Context, Module {
 
             Object value = null;
 
-            if (field.type().isPrimitive() || Typ.isBasicType(field.type())) {
-                handleInjectionOfBasicField(enforce, object, field);
-                return;
-            }
-
 
             boolean fieldNamed = field.isNamed();
             if (fieldNamed && field.type() != Supplier.class) {
@@ -559,53 +540,24 @@ public class ContextImpl implements Context, Module {
         }
     }
 
-    private void handleInjectionOfBasicField(boolean enforce, Object object, FieldAccess field) {
+    private void handleInjectionOfBasicField(boolean enforce, Object object, FieldAccess field, String[] names) {
 
         try {
 
             if (debug) logger.debug(contextImpl, "handleInjectionOfBasicField(enforce, object, field )", "IN",
                 enforce, object, field);
 
-            String name = null;
-            if (field.isNamed()) {
-                if (debug) logger.debug(contextImpl, "handleInjectionOfBasicField", "FIELD IS NAMED");
-
-                name = field.alias();
-
-                if (debug) logger.debug(contextImpl, "handleInjectionOfBasicField", "FIELD IS NAMED", "name", name);
-            }
-
-            if (name == null) {
-
-                name = field.name();
-                if (debug)
-                    logger.debug(contextImpl, "handleInjectionOfBasicField", "USING FIELD NAME AS NAME", "name", name);
-
-            }
-
-            Object value = this.get(name);
-
-            if (value == null) {
-                if (debug)
-                    logger.debug(contextImpl, "handleInjectionOfBasicField", "NAME NOT FOUND IN CONTEXT", "name", name);
-
-                name = Boon.add(field.declaringParent().getName(), ".", field.alias());
-            }
-
-            value = this.get(name);
+            /* Names were worked out by the injection plan: alias or field name, then
+               class name + alias, then package name + alias. */
+            Object value = null;
+            for (String name : names) {
+                value = this.get(name);
+                if (value != null) {
+                    break;
+                }
 
-            if (value == null) {
                 if (debug)
                     logger.debug(contextImpl, "handleInjectionOfBasicField", "NAME NOT FOUND IN CONTEXT", "name", name);
-
-                name = Boon.add(field.declaringParent().getPackage().getName(), ".", field.alias());
-            }
-
-
-            value = this.get(name);
-
-            if (debug && value == null) {
-                logger.debug(contextImpl, "handleInjectionOfBasicField", "NAME NOT FOUND IN CONTEXT", "name", name);
             }
 
             if (enforce && value == null && field.requiresInjection()) {
@@ -633,6 +585,162 @@ public class ContextImpl implements Context, Module {
 
     }
 
+    /** Module that has this type, the first one wins. */
+    private Module moduleFor(Class<?> type) {
+        if (type == null) {
+            return null;
+        }
+        Resolution resolution = this.resolution;
+        Module found = resolution.byType.get(type);
+        if (found == null) {
+            for (Module module : modules) {
+                if (module.has(type)) {
+                    found = module;
+                    resolution.byType.put(type, module);
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
+
+    /** Module that has this name, the first one wins. */
+    private Module moduleFor(String name) {
+        if (name == null) {
+            return null;
+        }
+        Resolution resolution = this.resolution;
+        Module found = resolution.byName.get(name);
+        if (found == null) {
+            for (Module module : modules) {
+                if (module.has(name)) {
+                    found = module;
+                    resolution.byName.put(name, module);
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
+
+    /**
+     * Forgets the cached lookups, called when modules are added, removed or combined.
+     * A parent context caches what we answered so it forgets too.
+     */
+    private void invalidate() {
+        resolution = new Resolution();
+        injectionPlans = new ConcurrentHashMap<>();
+
+        Context parentContext = parent.get();
+        if (parentContext instanceof ContextImpl && parentContext != this) {
+            ((ContextImpl) parentContext).invalidate();
+        }
+    }
+
+
+    InjectionPlan injectionPlan(Class<?> type) {
+        Map<Class<?>, InjectionPlan> plans = this.injectionPlans;
+        InjectionPlan plan = plans.get(type);
+        if (plan == null) {
+            plan = new InjectionPlan(type);
+            plans.put(type, plan);
+        }
+        return plan;
+    }
+
+
+    private static final class Resolution {
+        final Map<Class<?>, Module> byType = new ConcurrentHashMap<>();
+        final Map<String, Module> byName = new ConcurrentHashMap<>();
+    }
+
+
+    static final class InjectionSlot {
+        final FieldAccess field;
+
+        /** Names to look up for a basic (primitive, String...) field, null for the others. */
+        final String[] names;
+
+        InjectionSlot(FieldAccess field, String[] names) {
+            this.field = field;
+            this.names = names;
+        }
+    }
+
+
+    /**
+     * What resolveProperties needs for a class, worked out once: the @Inject fields,
+     * the names basic fields are looked up by, the __init__ flag and the post construct method.
+     */
+    static final class InjectionPlan {
+        final boolean hasInitFlag;
+        final InjectionSlot[] slots;
+        final MethodAccess postConstruct;
+
+        InjectionPlan(Class<?> type) {
+            hasInitFlag = Fields.classHasField(type, "__init__");
+
+            List<InjectionSlot> list = new ArrayList<>();
+            for (FieldAccess field : Reflection.getAllAccessorFields(type, true).values()) {
+                if (!field.injectable()) {
+                    continue;
+                }
+                if (field.type().isPrimitive() || Typ.isBasicType(field.type())) {
+                    list.add(new InjectionSlot(field, basicFieldNames(field)));
+                } else {
+                    list.add(new InjectionSlot(field, null));
+                }
+            }
+            slots = list.toArray(new InjectionSlot[list.size()]);
+
+            MethodAccess method = null;
+            for (MethodAccess m : ClassMeta.classMeta(type).methods()) {
+                if (m.hasAnnotation("postConstruct") && m.parameterTypes().length == 0 && m.returnType() == void.class) {
+                    method = m;
+                    break;
+                }
+            }
+            postConstruct = method;
+        }
+
+        private static String[] basicFieldNames(FieldAccess field) {
+            String name = field.isNamed() ? field.alias() : null;
+            if (name == null) {
+                name = field.name();
+            }
+
+            Package aPackage = field.declaringParent().getPackage();
+
+            if (aPackage == null) {
+                return new String[]{name, Boon.add(field.declaringParent().getName(), ".", field.alias())};
+            }
+            return new String[]{name,
+                    Boon.add(field.declaringParent().getName(), ".", field.alias()),
+                    Boon.add(aPackage.getName(), ".", field.alias())};
+        }
+    }
+
+
+    @Override
+    public Map<String, Long> eagerInit() {
+        return eagerInit(Integer.parseInt(Sys.sysProp("org.boon.di.eagerInitThreads",
+                Runtime.getRuntime().availableProcessors())));
+    }
+
+
+    /**
+     * Injects and post constructs every singleton now instead of on first get,
+     * using up to threads threads for the ones that do not depend on each other.
+     *
+     * @return millis each singleton took, in the order they finished
+     */
+    public Map<String, Long> eagerInit(int threads) {
+        return new SingletonInitializer(this, threads).run();
+    }
+
+
     public void debug() {
 
         puts(this, "----debug----");
@@ -689,12 +797,9 @@ public class ContextImpl implements Context, Module {
         try {
 
             Object object = null;
-            for (Module module : modules) {
-
-                if (module.has(name)) {
-                    object = module.get(name);
-                    break;
-                }
+            Module module = moduleFor(name);
+            if (module != null) {
+                object = module.get(name);
             }
 
             if (object instanceof Map) {
@@ -738,6 +843,7 @@ public class ContextImpl implements Context, Module {
     public Context add(Module module) {
         module.parent(this);
         this.modules.add(module);
+        invalidate();
         return this;
     }
 
@@ -745,6 +851,7 @@ public class ContextImpl implements Context, Module {
     public Context remove(Module module) {
         module.parent(null);
         this.modules.remove(module);
+        invalidate();
         return this;
     }
 
@@ -752,6 +859,7 @@ public class ContextImpl implements Context, Module {
     public Context addFirst(Module module) {
         module.parent(this);
         this.modules.addFirst(module);
+        invalidate();
         return this;
     }
 
@@ -0,0 +1,331 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.di.impl;
+
+import org.boon.Exceptions;
+import org.boon.Logger;
+import org.boon.core.Supplier;
+import org.boon.core.Typ;
+import org.boon.di.ProviderInfo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.boon.Boon.configurableLogger;
+import static org.boon.Exceptions.die;
+
+/**
+ * Eagerly injects and post constructs the singletons (object providers that are not prototypes) of a context.
+ *
+ * The graph comes from the same metadata injection uses, @Inject / @Named fields and the provider infos.
+ * A singleton depends on the singletons it gets injected, directly or through the class providers
+ * it gets injected. Supplier fields are lazy so they are not edges, which is also how you break a cycle.
+ *
+ * A bean is started once everything it depends on is done, so post constructs run in topological
+ * order while beans that do not depend on each other run at the same time on a fixed size pool.
+ */
+final class SingletonInitializer {
+
+    private final ContextImpl context;
+    private final int threads;
+    private final Logger logger = configurableLogger(SingletonInitializer.class);
+
+    private final Map<Object, Bean> beans = new IdentityHashMap<>();
+
+
+    private static final class Bean {
+        final Object value;
+        final String name;
+        final List<ProviderInfo> infos = new ArrayList<>();
+        final Set<Bean> dependsOn = new HashSet<>();
+        final List<Bean> dependents = new ArrayList<>();
+        final AtomicInteger waitingOn = new AtomicInteger();
+
+        Bean(Object value, String name) {
+            this.value = value;
+            this.name = name;
+        }
+
+        public String toString() {
+            return name;
+        }
+    }
+
+
+    SingletonInitializer(ContextImpl context, int threads) {
+        this.context = context;
+        this.threads = threads < 1 ? 1 : threads;
+    }
+
+
+    /**
+     * @return how long each bean took in milliseconds, in the order they finished
+     */
+    Map<String, Long> run() {
+        collectBeans();
+        linkDependencies();
+        checkForCycles();
+        return initialize();
+    }
+
+
+    private void collectBeans() {
+        for (String name : context.names()) {
+            addBean(context.getProviderInfo(name));
+        }
+        for (Class<?> type : context.types()) {
+            addBean(context.getProviderInfo(type));
+        }
+    }
+
+
+    private void addBean(ProviderInfo info) {
+        if (!isSingleton(info)) {
+            return;
+        }
+
+        Object value = info.value();
+        Bean bean = beans.get(value);
+        if (bean == null) {
+            String name = info.name() != null ? info.name() : value.getClass().getName();
+            bean = new Bean(value, name);
+            beans.put(value, bean);
+        }
+        bean.infos.add(info);
+    }
+
+
+    private static boolean isSingleton(ProviderInfo info) {
+        return info != null && info.value() != null && !info.prototype()
+                && !Typ.isBasicType(info.value().getClass());
+    }
+
+
+    private void linkDependencies() {
+        for (Bean bean : beans.values()) {
+            findDependencies(bean, bean.value.getClass(), new HashSet<Class<?>>());
+            bean.dependsOn.remove(bean);
+            bean.waitingOn.set(bean.dependsOn.size());
+            for (Bean dependency : bean.dependsOn) {
+                dependency.dependents.add(bean);
+            }
+        }
+    }
+
+
+    /** Class providers hand out a fresh instance, so we look through them to the singletons they need. */
+    private void findDependencies(Bean bean, Class<?> type, Set<Class<?>> visited) {
+        if (!visited.add(type)) {
+            return;
+        }
+
+        for (ContextImpl.InjectionSlot slot : context.injectionPlan(type).slots) {
+            if (slot.names != null || slot.field.type() == Supplier.class) {
+                continue;
+            }
+
+            ProviderInfo info = providerFor(slot);
+            if (info == null) {
+                continue;
+            }
+
+            Bean dependency = isSingleton(info) ? beans.get(info.value()) : null;
+            if (dependency != null) {
+                bean.dependsOn.add(dependency);
+            } else if (info.value() == null && info.type() != null) {
+                findDependencies(bean, info.type(), visited);
+            }
+        }
+    }
+
+
+    /** Same lookup order as ContextImpl.handleInjectionOfField. */
+    private ProviderInfo providerFor(ContextImpl.InjectionSlot slot) {
+        ProviderInfo info;
+        if (slot.field.isNamed()) {
+            info = context.getProviderInfo(slot.field.type(), slot.field.named());
+            if (info == null) {
+                info = context.getProviderInfo(slot.field.named());
+            }
+        } else {
+            info = context.getProviderInfo(slot.field.type());
+        }
+        return info;
+    }
+
+
+    private void checkForCycles() {
+        Map<Bean, Boolean> state = new IdentityHashMap<>();
+        for (Bean bean : beans.values()) {
+            visit(bean, state, new ArrayList<Bean>());
+        }
+    }
+
+
+    /** Depth first, state is false while a bean is on the path and true once it is done. */
+    private void visit(Bean bean, Map<Bean, Boolean> state, List<Bean> path) {
+        Boolean done = state.get(bean);
+        if (done == Boolean.TRUE) {
+            return;
+        }
+
+        path.add(bean);
+        if (done == Boolean.FALSE) {
+            List<Bean> cycle = path.subList(path.indexOf(bean), path.size());
+            die("Dependency cycle between singletons", cycle,
+                    "use a Supplier field for one of them to break it");
+        }
+
+        state.put(bean, Boolean.FALSE);
+        for (Bean dependency : bean.dependsOn) {
+            visit(dependency, state, path);
+        }
+        state.put(bean, Boolean.TRUE);
+        path.remove(path.size() - 1);
+    }
+
+
+    private Map<String, Long> initialize() {
+
+        final Map<String, Long> timings = Collections.synchronizedMap(new LinkedHashMap<String, Long>());
+
+        if (beans.isEmpty()) {
+            return timings;
+        }
+
+        final int poolSize = Math.min(threads, beans.size());
+        final ExecutorService executor = Executors.newFixedThreadPool(poolSize,
+                new ThreadFactory() {
+                    final AtomicInteger count = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "boon-di-init-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+
+        final CountDownLatch latch = new CountDownLatch(beans.size());
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final AtomicReference<Bean> failed = new AtomicReference<>();
+
+        long start = System.nanoTime();
+
+        try {
+            for (Bean bean : beans.values()) {
+                if (bean.waitingOn.get() == 0) {
+                    submit(executor, bean, timings, latch, failure, failed);
+                }
+            }
+
+            latch.await();
+
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            Exceptions.handle(ex, "Interrupted while initializing singletons");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (failure.get() != null) {
+            Exceptions.handle(failure.get(), "Unable to initialize singleton", failed.get());
+        }
+
+        logger.info("Initialized", beans.size(), "singletons with", poolSize, "threads in",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), "ms");
+
+        return timings;
+    }
+
+
+    private void submit(final ExecutorService executor, final Bean bean, final Map<String, Long> timings,
+                        final CountDownLatch latch, final AtomicReference<Throwable> failure,
+                        final AtomicReference<Bean> failed) {
+
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+
+                    if (failure.get() != null) {
+                        return;
+                    }
+
+                    try {
+                        long start = System.nanoTime();
+
+                        context.resolveProperties(true, bean.value, bean.infos.get(0));
+                        for (ProviderInfo info : bean.infos) {
+                            info.setPostConstructCalled(true);
+                        }
+
+                        long took = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                        timings.put(bean.name, took);
+                        if (logger.debugOn()) logger.debug("Initialized", bean.name, "in", took, "ms");
+
+                    } catch (Throwable ex) {
+                        if (failure.compareAndSet(null, ex)) {
+                            failed.set(bean);
+                        }
+                        /* Nothing else is coming so let the caller go. */
+                        while (latch.getCount() > 0) {
+                            latch.countDown();
+                        }
+                        return;
+                    }
+
+                    latch.countDown();
+
+                    for (Bean dependent : bean.dependents) {
+                        if (dependent.waitingOn.decrementAndGet() == 0) {
+                            submit(executor, dependent, timings, latch, failure, failed);
+                        }
+                    }
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            /* Shut down after a failure, the caller already knows. */
+        }
+    }
+}
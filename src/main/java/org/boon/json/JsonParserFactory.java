@@ -223,6 +223,19 @@ public class JsonParserFactory {
     }
 
 
+    /**
+     * Fields only, read and written through MethodHandles instead of Unsafe.
+     */
+    public JsonParserFactory useMethodHandles () {
+        this.fieldAccessType  = FieldAccessMode.METHOD_HANDLE;
+        return this;
+    }
+
+    public boolean isUseMethodHandles () {
+        return this.fieldAccessType == FieldAccessMode.METHOD_HANDLE;
+    }
+
+
 
     public JsonParserFactory useAnnotations () {
         this.useAnnotations  = true;
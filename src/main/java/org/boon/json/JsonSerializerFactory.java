@@ -136,6 +136,9 @@ public class JsonSerializerFactory {
                 case PROPERTY_THEN_FIELD:
                     fieldsAccessor = new FieldsAccessorsPropertyThenField( useAnnotations );
                     break;
+                case METHOD_HANDLE:
+                    fieldsAccessor = new FieldFieldsAccessor( useAnnotations, true );
+                    break;
                 default:
                     fieldsAccessor = new FieldFieldsAccessor( useAnnotations );
 
@@ -233,6 +236,19 @@ public class JsonSerializerFactory {
         return this;
     }
 
+
+    /**
+     * Fields only, read and written through MethodHandles instead of Unsafe.
+     */
+    public JsonSerializerFactory useMethodHandles () {
+        this.fieldAccessType  = FieldAccessMode.METHOD_HANDLE;
+        return this;
+    }
+
+    public boolean isUseMethodHandles () {
+        return this.fieldAccessType == FieldAccessMode.METHOD_HANDLE;
+    }
+
     public boolean isIncludeNulls () {
         return includeNulls;
     }
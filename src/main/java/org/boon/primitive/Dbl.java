@@ -30,12 +30,14 @@ package org.boon.primitive;
 
 import org.boon.Exceptions;
 import org.boon.Universal;
+import org.boon.core.Sys;
 import org.boon.core.reflection.Invoker;
 
 import java.lang.invoke.ConstantCallSite;
 import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.concurrent.RecursiveAction;
 
 import static org.boon.Exceptions.die;
 import static org.boon.Exceptions.handle;
@@ -854,10 +856,11 @@ public class Dbl {
      * @return sum
      */
     public static double sum( double[] values, int start, int length ) {
-        double sum = 0;
-        for (int index = start; index < length; index++ ) {
-            sum+= values[index];
-        }
+        return checkSum( plainSum( values, start, length ) );
+    }
+
+
+    private static double checkSum( double sum ) {
 
         if (sum < Float.MIN_VALUE) {
             die ("overflow the sum is too small", sum);
@@ -868,9 +871,19 @@ public class Dbl {
             die ("overflow the sum is too big", sum);
         }
 
-        return (double) sum;
+        return sum;
+    }
 
 
+    /** Sum without the overflow checks. */
+    private static double plainSum( double[] values, int start, int length ) {
+        /* One accumulator on purpose. Splitting the sum across accumulators would let the JIT vectorize it,
+           but it changes the rounding, so floating point sums stay in array order. */
+        double sum = 0;
+        for (int index = start; index < length; index++ ) {
+            sum += values[index];
+        }
+        return sum;
     }
 
 
@@ -884,14 +897,23 @@ public class Dbl {
      * @return max
      */
     public static double max( double[] values, final int start, final int length ) {
-        double max = Float.MIN_VALUE;
-        for (int index = start; index < length; index++ ) {
-            if ( values[index] > max ) {
-                max = values[index];
-            }
+        double max0 = Float.MIN_VALUE;
+        double max1 = Float.MIN_VALUE;
+        double max2 = Float.MIN_VALUE;
+        double max3 = Float.MIN_VALUE;
+        int index = start;
+        for (; index < length - 3; index += 4 ) {
+            max0 = values[index] > max0 ? values[index] : max0;
+            max1 = values[index + 1] > max1 ? values[index + 1] : max1;
+            max2 = values[index + 2] > max2 ? values[index + 2] : max2;
+            max3 = values[index + 3] > max3 ? values[index + 3] : max3;
         }
-
-        return max;
+        for (; index < length; index++ ) {
+            max0 = values[index] > max0 ? values[index] : max0;
+        }
+        double max01 = ( max0 > max1 ? max0 : max1 );
+        double max23 = ( max2 > max3 ? max2 : max3 );
+        return ( max01 > max23 ? max01 : max23 );
     }
 
 
@@ -921,11 +943,23 @@ public class Dbl {
      * @return min
      */
     public static double min( double[] values, final int start, final int length ) {
-        double min = Float.MAX_VALUE;
-        for (int index = start; index < length; index++ ) {
-            if (values[index] < min) min = values[index];
+        double min0 = Float.MAX_VALUE;
+        double min1 = Float.MAX_VALUE;
+        double min2 = Float.MAX_VALUE;
+        double min3 = Float.MAX_VALUE;
+        int index = start;
+        for (; index < length - 3; index += 4 ) {
+            min0 = values[index] < min0 ? values[index] : min0;
+            min1 = values[index + 1] < min1 ? values[index + 1] : min1;
+            min2 = values[index + 2] < min2 ? values[index + 2] : min2;
+            min3 = values[index + 3] < min3 ? values[index + 3] : min3;
+        }
+        for (; index < length; index++ ) {
+            min0 = values[index] < min0 ? values[index] : min0;
         }
-        return min;
+        double min01 = ( min0 < min1 ? min0 : min1 );
+        double min23 = ( min2 < min3 ? min2 : min3 );
+        return ( min01 < min23 ? min01 : min23 );
     }
 
 
@@ -1013,12 +1047,19 @@ public class Dbl {
      */
     public static double varianceDouble(double[] values, final int start, final int length) {
         double mean = mean(values, start, length);
+        return squaredDeviations(values, start, length, mean) / length;
+    }
+
+    /**
+     * Sum of (mean - value)^2. Kept in array order like the sums.
+     */
+    private static double squaredDeviations(double[] values, final int start, final int length, final double mean) {
         double temp = 0;
         for(int index = start; index < length; index++) {
-            double a = values[index];
-            temp += (mean-a)*(mean-a);
+            double a = mean - values[index];
+            temp += a * a;
         }
-        return temp / length;
+        return temp;
     }
 
 
@@ -1093,16 +1134,22 @@ public class Dbl {
      * @return median
      */
     public static double median(double[] values, final int start, final int length) {
-        double[] sorted = new double[length];
-        System.arraycopy(values, start, sorted, 0, length);
-        Arrays.sort(sorted);
+        double[] copy = new double[length];
+        System.arraycopy(values, start, copy, 0, length);
+
+        int middle = length / 2;
+        double upper = select(copy, middle);
 
         if (length % 2 == 0) {
-            int middle = sorted.length / 2;
-            double median = (sorted[middle-1] + sorted[middle]) / 2.0;
+            /* select leaves everything below middle smaller or equal, so the lower middle is their max. */
+            double lower = copy[0];
+            for (int index = 1; index < middle; index++) {
+                if (copy[index] > lower) lower = copy[index];
+            }
+            double median = (lower + upper) / 2.0;
             return  median;
         } else {
-            return sorted[sorted.length / 2];
+            return upper;
         }
     }
 
@@ -1128,6 +1175,284 @@ public class Dbl {
     }
 
 
+    /**
+     * Calculate a percentile using the nearest rank method.
+     * Uses quickselect on a copy, so it is O(n) instead of a sort.
+     * @param values values
+     * @param length length
+     * @param percent percent between 0 and 100
+     * @return the value at that percentile
+     */
+    public static double percentile(double[] values, final int length, final double percent) {
+        if (percent < 0 || percent > 100) {
+            die("percent must be between 0 and 100", percent);
+        }
+        double[] copy = Arrays.copyOf(values, length);
+        int rank = (int) Math.ceil(percent / 100.0 * length);
+        return select(copy, Math.max(rank - 1, 0));
+    }
+
+
+    /**
+     * Calculate a percentile using the nearest rank method.
+     * @param values values
+     * @param percent percent between 0 and 100
+     * @return the value at that percentile
+     */
+    public static double percentile(double[] values, final double percent) {
+        return percentile(values, values.length, percent);
+    }
+
+
+    /**
+     * Quickselect. Reorders the array so that array[k] is the value it would have if
+     * the array were sorted, everything before it is smaller or equal and everything after it
+     * is greater or equal.
+     */
+    private static double select(double[] array, final int k) {
+        int left = 0;
+        int right = array.length - 1;
+
+        while (right > left) {
+            int middle = (left + right) >>> 1;
+
+            /* Median of three pivot. */
+            if (array[middle] < array[left]) swap(array, left, middle);
+            if (array[right] < array[left]) swap(array, left, right);
+            if (array[right] < array[middle]) swap(array, middle, right);
+
+            double pivot = array[middle];
+            int i = left;
+            int j = right;
+
+            while (i <= j) {
+                while (array[i] < pivot) i++;
+                while (array[j] > pivot) j--;
+                if (i <= j) {
+                    swap(array, i, j);
+                    i++;
+                    j--;
+                }
+            }
+
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                break;
+            }
+        }
+        return array[k];
+    }
+
+
+    private static void swap(double[] array, int i, int j) {
+        double temp = array[i];
+        array[i] = array[j];
+        array[j] = temp;
+    }
+
+
+    /**
+     * Arrays at least this long get split across the fork join pool by the parallel methods.
+     * Set org.boon.primitive.parallelThreshold to change it.
+     */
+    private static final int PARALLEL_THRESHOLD =
+            Integer.parseInt(Sys.sysProp("org.boon.primitive.parallelThreshold", 1 << 20));
+
+    /** Size of the pieces the parallel methods work on. */
+    private static final int PARALLEL_CHUNK = 1 << 16;
+
+
+    /**
+     * Sum, max, min and squared deviations over a range, split in half until the pieces are small.
+     */
+    private static final class Reduction extends RecursiveAction {
+
+        static final int SUM = 0;
+        static final int MAX = 1;
+        static final int MIN = 2;
+        static final int SQUARES = 3;
+
+        private final int op;
+        private final double[] values;
+        private final int from;
+        private final int to;
+        private final double mean;
+
+        double result;
+        double squares;
+
+        Reduction(int op, double[] values, int from, int to, double mean) {
+            this.op = op;
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.mean = mean;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_CHUNK) {
+                switch (op) {
+                    case SUM: result = plainSum(values, from, to); break;
+                    case MAX: result = max(values, from, to); break;
+                    case MIN: result = min(values, from, to); break;
+                    default: squares = squaredDeviations(values, from, to, mean);
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            Reduction left = new Reduction(op, values, from, middle, mean);
+            Reduction right = new Reduction(op, values, middle, to, mean);
+            invokeAll(left, right);
+
+            switch (op) {
+                case SUM: result = left.result + right.result; break;
+                case MAX: result = left.result > right.result ? left.result : right.result; break;
+                case MIN: result = left.result < right.result ? left.result : right.result; break;
+                default: squares = left.squares + right.squares;
+            }
+        }
+    }
+
+
+    private static Reduction reduce(int op, double[] values, int length, double mean) {
+        Reduction reduction = new Reduction(op, values, 0, length, mean);
+        Sys.forkJoinPool().invoke(reduction);
+        return reduction;
+    }
+
+    /**
+     * Sum that splits large arrays across cores.
+     * @param values values
+     * @param length length
+     * @return sum
+     */
+    public static double parallelSum( double[] values, int length ) {
+        if (length < PARALLEL_THRESHOLD) {
+            return sum(values, 0, length);
+        }
+        return checkSum(reduce(Reduction.SUM, values, length, 0).result);
+    }
+
+    /**
+     * Sum that splits large arrays across cores.
+     * @param values values
+     * @return sum
+     */
+    public static double parallelSum( double[] values ) {
+        return parallelSum(values, values.length);
+    }
+
+    /**
+     * Max that splits large arrays across cores.
+     * @param values values
+     * @param length length
+     * @return max
+     */
+    public static double parallelMax( double[] values, int length ) {
+        if (length < PARALLEL_THRESHOLD) {
+            return max(values, 0, length);
+        }
+        return reduce(Reduction.MAX, values, length, 0).result;
+    }
+
+    /**
+     * Max that splits large arrays across cores.
+     * @param values values
+     * @return max
+     */
+    public static double parallelMax( double[] values ) {
+        return parallelMax(values, values.length);
+    }
+
+    /**
+     * Min that splits large arrays across cores.
+     * @param values values
+     * @param length length
+     * @return min
+     */
+    public static double parallelMin( double[] values, int length ) {
+        if (length < PARALLEL_THRESHOLD) {
+            return min(values, 0, length);
+        }
+        return reduce(Reduction.MIN, values, length, 0).result;
+    }
+
+    /**
+     * Min that splits large arrays across cores.
+     * @param values values
+     * @return min
+     */
+    public static double parallelMin( double[] values ) {
+        return parallelMin(values, values.length);
+    }
+
+    /**
+     * Average that splits large arrays across cores.
+     * @param values values
+     * @param length length
+     * @return average
+     */
+    public static double parallelMean( double[] values, int length ) {
+        return parallelSum(values, length) / ((double) length);
+    }
+
+    /**
+     * Average that splits large arrays across cores.
+     * @param values values
+     * @return average
+     */
+    public static double parallelMean( double[] values ) {
+        return parallelMean(values, values.length);
+    }
+
+    /**
+     * Variance that splits large arrays across cores.
+     * @param values values
+     * @param length length
+     * @return variance
+     */
+    public static double parallelVariance( double[] values, int length ) {
+        if (length < PARALLEL_THRESHOLD) {
+            return varianceDouble(values, 0, length);
+        }
+        double mean = parallelMean(values, length);
+        return reduce(Reduction.SQUARES, values, length, mean).squares / length;
+    }
+
+    /**
+     * Variance that splits large arrays across cores.
+     * @param values values
+     * @return variance
+     */
+    public static double parallelVariance( double[] values ) {
+        return parallelVariance(values, values.length);
+    }
+
+    /**
+     * Standard deviation that splits large arrays across cores.
+     * @param values values
+     * @param length length
+     * @return standard deviation
+     */
+    public static double parallelStandardDeviation( double[] values, int length ) {
+        return Math.sqrt(parallelVariance(values, length));
+    }
+
+    /**
+     * Standard deviation that splits large arrays across cores.
+     * @param values values
+     * @return standard deviation
+     */
+    public static double parallelStandardDeviation( double[] values ) {
+        return parallelStandardDeviation(values, values.length);
+    }
+
+
 
     /**
      * Checks to see if two arrays are equals
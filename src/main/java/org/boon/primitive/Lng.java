@@ -30,12 +30,14 @@ package org.boon.primitive;
 
 import org.boon.Exceptions;
 import org.boon.Universal;
+import org.boon.core.Sys;
 import org.boon.core.reflection.Invoker;
 
 import java.lang.invoke.ConstantCallSite;
 import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.concurrent.RecursiveAction;
 
 import static org.boon.Exceptions.die;
 import static org.boon.Exceptions.handle;
@@ -890,11 +892,22 @@ public class Lng {
      * @return sum
      */
     public static long sum( long[] values, int start, int length ) {
-        long sum = 0;
-        for (int index = start; index < length; index++ ) {
-            sum+= values[index];
+        /* Four independent accumulators break the add dependency chain so the JIT can unroll and vectorize. */
+        long sum0 = 0;
+        long sum1 = 0;
+        long sum2 = 0;
+        long sum3 = 0;
+        int index = start;
+        for (; index < length - 3; index += 4 ) {
+            sum0 += values[index];
+            sum1 += values[index + 1];
+            sum2 += values[index + 2];
+            sum3 += values[index + 3];
         }
-        return sum;
+        for (; index < length; index++ ) {
+            sum0 += values[index];
+        }
+        return sum0 + sum1 + sum2 + sum3;
     }
 
 
@@ -905,14 +918,23 @@ public class Lng {
      * @return max
      */
     public static long max( long[] values, final int start, final int length ) {
-        long max = Long.MIN_VALUE;
-        for (int index = start; index < length; index++ ) {
-            if ( values[index] > max ) {
-                max = values[index];
-            }
+        long max0 = Long.MIN_VALUE;
+        long max1 = Long.MIN_VALUE;
+        long max2 = Long.MIN_VALUE;
+        long max3 = Long.MIN_VALUE;
+        int index = start;
+        for (; index < length - 3; index += 4 ) {
+            max0 = Math.max( max0, values[index] );
+            max1 = Math.max( max1, values[index + 1] );
+            max2 = Math.max( max2, values[index + 2] );
+            max3 = Math.max( max3, values[index + 3] );
         }
-
-        return max;
+        for (; index < length; index++ ) {
+            max0 = Math.max( max0, values[index] );
+        }
+        long max01 = Math.max( max0, max1 );
+        long max23 = Math.max( max2, max3 );
+        return Math.max( max01, max23 );
     }
 
 
@@ -942,11 +964,23 @@ public class Lng {
      * @return min
      */
     public static long min( long[] values, final int start, final int length ) {
-        long min = Long.MAX_VALUE;
-        for (int index = start; index < length; index++ ) {
-            if (values[index] < min) min = values[index];
+        long min0 = Long.MAX_VALUE;
+        long min1 = Long.MAX_VALUE;
+        long min2 = Long.MAX_VALUE;
+        long min3 = Long.MAX_VALUE;
+        int index = start;
+        for (; index < length - 3; index += 4 ) {
+            min0 = Math.min( min0, values[index] );
+            min1 = Math.min( min1, values[index + 1] );
+            min2 = Math.min( min2, values[index + 2] );
+            min3 = Math.min( min3, values[index + 3] );
+        }
+        for (; index < length; index++ ) {
+            min0 = Math.min( min0, values[index] );
         }
-        return min;
+        long min01 = Math.min( min0, min1 );
+        long min23 = Math.min( min2, min3 );
+        return Math.min( min01, min23 );
     }
 
 
@@ -1038,12 +1072,33 @@ public class Lng {
      */
     public static double varianceDouble(long[] values, final int start, final int length) {
         double mean = meanDouble(values, start, length);
-        double temp = 0;
-        for(int index = start; index < length; index++) {
-            double a = values[index];
-            temp += (mean-a)*(mean-a);
+        return squaredDeviations(values, start, length, mean) / length;
+    }
+
+    /**
+     * Sum of (mean - value)^2, unrolled the same way as the sums.
+     */
+    private static double squaredDeviations(long[] values, final int start, final int length, final double mean) {
+        double temp0 = 0;
+        double temp1 = 0;
+        double temp2 = 0;
+        double temp3 = 0;
+        int index = start;
+        for(; index < length - 3; index += 4) {
+            double a0 = mean - values[index];
+            double a1 = mean - values[index + 1];
+            double a2 = mean - values[index + 2];
+            double a3 = mean - values[index + 3];
+            temp0 += a0 * a0;
+            temp1 += a1 * a1;
+            temp2 += a2 * a2;
+            temp3 += a3 * a3;
+        }
+        for(; index < length; index++) {
+            double a = mean - values[index];
+            temp0 += a * a;
         }
-        return temp / length;
+        return temp0 + temp1 + temp2 + temp3;
     }
 
     /**
@@ -1108,16 +1163,19 @@ public class Lng {
      * @return median
      */
     public static long median(long[] values, final int start, final int length) {
-        long[] sorted = new long[length];
-        System.arraycopy(values, start, sorted, 0, length);
-        Arrays.sort(sorted);
+        long[] copy = new long[length];
+        System.arraycopy(values, start, copy, 0, length);
+
+        int middle = length / 2;
+        long upper = select(copy, middle);
 
         if (length % 2 == 0) {
-            int middle = sorted.length / 2;
-            double median = (sorted[middle-1] + sorted[middle]) / 2.0;
+            /* select leaves everything below middle smaller or equal, so the lower middle is their max. */
+            long lower = max(copy, 0, middle);
+            double median = (lower + (double) upper) / 2.0;
             return Math.round(median);
         } else {
-            return sorted[sorted.length / 2];
+            return upper;
         }
     }
 
@@ -1143,6 +1201,303 @@ public class Lng {
     }
 
 
+    /**
+     * Calculate a percentile using the nearest rank method.
+     * Uses quickselect on a copy, so it is O(n) instead of a sort.
+     * @param values values
+     * @param length length
+     * @param percent percent between 0 and 100
+     * @return the value at that percentile
+     */
+    public static long percentile(long[] values, final int length, final double percent) {
+        if (percent < 0 || percent > 100) {
+            die("percent must be between 0 and 100", percent);
+        }
+        long[] copy = Arrays.copyOf(values, length);
+        int rank = (int) Math.ceil(percent / 100.0 * length);
+        return select(copy, Math.max(rank - 1, 0));
+    }
+
+
+    /**
+     * Calculate a percentile using the nearest rank method.
+     * @param values values
+     * @param percent percent between 0 and 100
+     * @return the value at that percentile
+     */
+    public static long percentile(long[] values, final double percent) {
+        return percentile(values, values.length, percent);
+    }
+
+
+    /**
+     * Quickselect. Reorders the array so that array[k] is the value it would have if
+     * the array were sorted, everything before it is smaller or equal and everything after it
+     * is greater or equal.
+     */
+    private static long select(long[] array, final int k) {
+        int left = 0;
+        int right = array.length - 1;
+
+        while (right > left) {
+            int middle = (left + right) >>> 1;
+
+            /* Median of three pivot. */
+            if (array[middle] < array[left]) swap(array, left, middle);
+            if (array[right] < array[left]) swap(array, left, right);
+            if (array[right] < array[middle]) swap(array, middle, right);
+
+            long pivot = array[middle];
+            int i = left;
+            int j = right;
+
+            while (i <= j) {
+                while (array[i] < pivot) i++;
+                while (array[j] > pivot) j--;
+                if (i <= j) {
+                    swap(array, i, j);
+                    i++;
+                    j--;
+                }
+            }
+
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                break;
+            }
+        }
+        return array[k];
+    }
+
+
+    private static void swap(long[] array, int i, int j) {
+        long temp = array[i];
+        array[i] = array[j];
+        array[j] = temp;
+    }
+
+
+    /**
+     * Arrays at least this long get split across the fork join pool by the parallel methods.
+     * Set org.boon.primitive.parallelThreshold to change it.
+     */
+    private static final int PARALLEL_THRESHOLD =
+            Integer.parseInt(Sys.sysProp("org.boon.primitive.parallelThreshold", 1 << 20));
+
+    /** Size of the pieces the parallel methods work on. */
+    private static final int PARALLEL_CHUNK = 1 << 16;
+
+
+    /**
+     * Sum, max, min and squared deviations over a range, split in half until the pieces are small.
+     */
+    private static final class Reduction extends RecursiveAction {
+
+        static final int SUM = 0;
+        static final int MAX = 1;
+        static final int MIN = 2;
+        static final int SQUARES = 3;
+
+        private final int op;
+        private final long[] values;
+        private final int from;
+        private final int to;
+        private final double mean;
+
+        long result;
+        double squares;
+
+        Reduction(int op, long[] values, int from, int to, double mean) {
+            this.op = op;
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.mean = mean;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_CHUNK) {
+                switch (op) {
+                    case SUM: result = sum(values, from, to); break;
+                    case MAX: result = max(values, from, to); break;
+                    case MIN: result = min(values, from, to); break;
+                    default: squares = squaredDeviations(values, from, to, mean);
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            Reduction left = new Reduction(op, values, from, middle, mean);
+            Reduction right = new Reduction(op, values, middle, to, mean);
+            invokeAll(left, right);
+
+            switch (op) {
+                case SUM: result = left.result + right.result; break;
+                case MAX: result = Math.max(left.result, right.result); break;
+                case MIN: result = Math.min(left.result, right.result); break;
+                default: squares = left.squares + right.squares;
+            }
+        }
+    }
+
+
+    private static Reduction reduce(int op, long[] values, int length, double mean) {
+        Reduction reduction = new Reduction(op, values, 0, length, mean);
+        Sys.forkJoinPool().invoke(reduction);
+        return reduction;
+    }
+
+    /**
+     * Sum that splits large arrays across cores.
+     * @param values values
+     * @param length length
+     * @return sum
+     */
+    public static long parallelSum( long[] values, int length ) {
+        if (length < PARALLEL_THRESHOLD) {
+            return sum(values, 0, length);
+        }
+        return reduce(Reduction.SUM, values, length, 0).result;
+    }
+
+    /**
+     * Sum that splits large arrays across cores.
+     * @param values values
+     * @return sum
+     */
+    public static long parallelSum( long[] values ) {
+        return parallelSum(values, values.length);
+    }
+
+    /**
+     * Max that splits large arrays across cores.
+     * @param values values
+     * @param length length
+     * @return max
+     */
+    public static long parallelMax( long[] values, int length ) {
+        if (length < PARALLEL_THRESHOLD) {
+            return max(values, 0, length);
+        }
+        return reduce(Reduction.MAX, values, length, 0).result;
+    }
+
+    /**
+     * Max that splits large arrays across cores.
+     * @param values values
+     * @return max
+     */
+    public static long parallelMax( long[] values ) {
+        return parallelMax(values, values.length);
+    }
+
+    /**
+     * Min that splits large arrays across cores.
+     * @param values values
+     * @param length length
+     * @return min
+     */
+    public static long parallelMin( long[] values, int length ) {
+        if (length < PARALLEL_THRESHOLD) {
+            return min(values, 0, length);
+        }
+        return reduce(Reduction.MIN, values, length, 0).result;
+    }
+
+    /**
+     * Min that splits large arrays across cores.
+     * @param values values
+     * @return min
+     */
+    public static long parallelMin( long[] values ) {
+        return parallelMin(values, values.length);
+    }
+
+    /**
+     * Average that splits large arrays across cores.
+     * @param values values
+     * @param length length
+     * @return mean
+     */
+    public static long parallelMean( long[] values, int length ) {
+        return Math.round(((double) parallelSum(values, length)) / ((double) length));
+    }
+
+    /**
+     * Average that splits large arrays across cores.
+     * @param values values
+     * @return mean
+     */
+    public static long parallelMean( long[] values ) {
+        return parallelMean(values, values.length);
+    }
+
+    /**
+     * Variance that splits large arrays across cores.
+     * @param values values
+     * @param length length
+     * @return variance
+     */
+    public static double parallelVarianceDouble( long[] values, int length ) {
+        if (length < PARALLEL_THRESHOLD) {
+            return varianceDouble(values, 0, length);
+        }
+        double mean = ((double) parallelSum(values, length)) / ((double) length);
+        return reduce(Reduction.SQUARES, values, length, mean).squares / length;
+    }
+
+    /**
+     * Variance that splits large arrays across cores.
+     * @param values values
+     * @return variance
+     */
+    public static double parallelVarianceDouble( long[] values ) {
+        return parallelVarianceDouble(values, values.length);
+    }
+
+    /**
+     * Variance that splits large arrays across cores.
+     * @param values values
+     * @param length length
+     * @return variance
+     */
+    public static long parallelVariance( long[] values, int length ) {
+        return Math.round(parallelVarianceDouble(values, length));
+    }
+
+    /**
+     * Variance that splits large arrays across cores.
+     * @param values values
+     * @return variance
+     */
+    public static long parallelVariance( long[] values ) {
+        return parallelVariance(values, values.length);
+    }
+
+    /**
+     * Standard deviation that splits large arrays across cores.
+     * @param values values
+     * @param length length
+     * @return standard deviation
+     */
+    public static long parallelStandardDeviation( long[] values, int length ) {
+        return Math.round(Math.sqrt(parallelVarianceDouble(values, length)));
+    }
+
+    /**
+     * Standard deviation that splits large arrays across cores.
+     * @param values values
+     * @return standard deviation
+     */
+    public static long parallelStandardDeviation( long[] values ) {
+        return parallelStandardDeviation(values, values.length);
+    }
+
+
 
     /**
      * Checks to see if two arrays are equals
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.sort;
+
+import org.boon.core.Sys;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork join merge sort used by Sorting and Sort.
+ * Each leaf is sorted with Arrays.sort (which is stable) and the leaves are merged back
+ * in a stable manner, so the result is exactly the same as the single threaded sort.
+ * This means multi-key sorts (Sort.then) and nulls first / nulls last behave the same way.
+ *
+ * The comparators passed to this class must be thread safe. The comparators created by
+ * Sorting, Sort and UniversalComparator are.
+ */
+public class ParallelSort {
+
+
+    /**
+     * Lists and arrays at least this big get sorted in parallel by the regular sort methods.
+     * Set org.boon.sort.parallelThreshold to change it.
+     */
+    public static final int PARALLEL_THRESHOLD =
+            Integer.parseInt( Sys.sysProp( "org.boon.sort.parallelThreshold", 100_000 ) );
+
+
+    /**
+     * Leaves smaller than this do not get split any further.
+     */
+    private static final int MIN_CHUNK =
+            Integer.parseInt( Sys.sysProp( "org.boon.sort.parallelMinChunk", 8_192 ) );
+
+
+    private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+
+    /**
+     * Should this many items be sorted in parallel?
+     * @param size number of items
+     * @return true if the size is over the threshold and we have more than one core.
+     */
+    public static boolean shouldSortInParallel( int size ) {
+        return PARALLELISM > 1 && size >= PARALLEL_THRESHOLD;
+    }
+
+
+    /**
+     * Sort an array. Uses the fork join pool if the array is over the threshold.
+     * @param array the array you want to sort
+     * @param comparator comparator
+     */
+    public static <T> void sort( T[] array, Comparator comparator ) {
+        if ( shouldSortInParallel( array.length ) ) {
+            parallelSort( array, comparator );
+        } else {
+            Arrays.sort( array, comparator );
+        }
+    }
+
+
+    /**
+     * Sort a list. Uses the fork join pool if the list is over the threshold.
+     * @param list the list you want to sort
+     * @param comparator comparator
+     */
+    public static void sort( List list, Comparator comparator ) {
+        if ( shouldSortInParallel( list.size() ) ) {
+            parallelSort( list, comparator );
+        } else {
+            Collections.sort( list, comparator );
+        }
+    }
+
+
+    /**
+     * Sort a list in parallel regardless of its size.
+     * Like Collections.sort, this dumps the list into an array, sorts the array and then
+     * writes the array back into the list.
+     * @param list the list you want to sort
+     * @param comparator comparator
+     */
+    public static void parallelSort( List list, Comparator comparator ) {
+
+        Object[] array = list.toArray();
+        parallelSort( array, comparator );
+
+        ListIterator iterator = list.listIterator();
+        for ( Object item : array ) {
+            iterator.next();
+            iterator.set( item );
+        }
+    }
+
+
+    /**
+     * Sort an array in parallel regardless of its size.
+     * @param array the array you want to sort
+     * @param comparator comparator
+     */
+    public static <T> void parallelSort( T[] array, Comparator comparator ) {
+
+        final int length = array.length;
+
+        if ( length < 2 ) {
+            return;
+        }
+
+        int chunk = Math.max( length / ( PARALLELISM << 2 ), MIN_CHUNK );
+
+        if ( PARALLELISM == 1 || length <= chunk ) {
+            Arrays.sort( array, comparator );
+            return;
+        }
+
+        Object[] buffer = new Object[ length ];
+        Sys.forkJoinPool().invoke( new SortTask( array, buffer, 0, length, chunk, comparator ) );
+    }
+
+
+    /**
+     * Sorts [from, to) of the array using the same range of buffer as scratch space.
+     */
+    @SuppressWarnings("unchecked")
+    private static final class SortTask extends RecursiveAction {
+
+        private final Object[] array;
+        private final Object[] buffer;
+        private final int from;
+        private final int to;
+        private final int chunk;
+        private final Comparator comparator;
+
+        SortTask( Object[] array, Object[] buffer, int from, int to, int chunk, Comparator comparator ) {
+            this.array = array;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+
+            if ( to - from <= chunk ) {
+                Arrays.sort( array, from, to, comparator );
+                return;
+            }
+
+            final int middle = ( from + to ) >>> 1;
+
+            invokeAll( new SortTask( array, buffer, from, middle, chunk, comparator ),
+                    new SortTask( array, buffer, middle, to, chunk, comparator ) );
+
+            /* Already in order, nothing to merge. */
+            if ( comparator.compare( array[ middle - 1 ], array[ middle ] ) <= 0 ) {
+                return;
+            }
+
+            System.arraycopy( array, from, buffer, from, to - from );
+            merge( buffer, from, middle, to, array, comparator );
+        }
+    }
+
+
+    /**
+     * Stable merge of the two sorted runs [from, middle) and [middle, to) of source into destination.
+     * Ties go to the left run.
+     */
+    @SuppressWarnings("unchecked")
+    private static void merge( Object[] source, int from, int middle, int to,
+                               Object[] destination, Comparator comparator ) {
+
+        int left = from;
+        int right = middle;
+        int index = from;
+
+        while ( left < middle && right < to ) {
+            if ( comparator.compare( source[ right ], source[ left ] ) < 0 ) {
+                destination[ index++ ] = source[ right++ ];
+            } else {
+                destination[ index++ ] = source[ left++ ];
+            }
+        }
+
+        if ( left < middle ) {
+            System.arraycopy( source, left, destination, index, middle - left );
+        } else if ( right < to ) {
+            System.arraycopy( source, right, destination, index, to - right );
+        }
+    }
+
+}
@@ -194,7 +194,7 @@ public class Sort {
      * @param fields sort from fields.
      */
     public void sort( List list, Map<String, FieldAccess> fields ) {
-        Collections.sort( list, this.comparator( fields ) );
+        ParallelSort.sort( list, this.comparator( fields ) );
     }
 
 
@@ -210,7 +210,7 @@ public class Sort {
         Object item = list.iterator().next();
 
         Map<String, FieldAccess> fields = BeanUtils.getFieldsFromObject( item );
-        Collections.sort( list, this.comparator( fields ) );
+        ParallelSort.sort( list, this.comparator( fields ) );
     }
 
 
@@ -232,7 +232,7 @@ public class Sort {
 
         Map<String, FieldAccess> fields = BeanUtils.getFieldsFromObject( componentClass );
         T[] array = toArray(componentClass, collection);
-        Arrays.sort( array, this.comparator( fields ) );
+        ParallelSort.sort( array, this.comparator( fields ) );
 
         if (collection instanceof Set){
             return new LinkedHashSet<>( Lists.list(array));
@@ -280,7 +280,40 @@ public class Sort {
         Object item = array[0];
 
         Map<String, FieldAccess> fields = BeanUtils.getFieldsFromObject( item );
-        Arrays.sort( array, this.comparator( fields ) );
+        ParallelSort.sort( array, this.comparator( fields ) );
+    }
+
+
+    /**
+     * Sort in parallel no matter how big the list is.
+     * Lists over ParallelSort.PARALLEL_THRESHOLD are sorted in parallel by sort anyway.
+     * @param list the list you want to sort
+     */
+    public void parallelSort( List list ) {
+        if ( list == null || list.size() == 0 ) {
+            return;
+        }
+
+        Object item = list.iterator().next();
+
+        Map<String, FieldAccess> fields = BeanUtils.getFieldsFromObject( item );
+        ParallelSort.parallelSort( list, this.comparator( fields ) );
+    }
+
+
+    /**
+     * Sort in parallel no matter how big the array is.
+     * @param array the array you want to sort
+     */
+    public <T> void parallelSort( T[] array ) {
+        if ( array == null || array.length == 0 ) {
+            return;
+        }
+
+        Object item = array[0];
+
+        Map<String, FieldAccess> fields = BeanUtils.getFieldsFromObject( item );
+        ParallelSort.parallelSort( array, this.comparator( fields ) );
     }
 
 
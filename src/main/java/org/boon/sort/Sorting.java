@@ -59,6 +59,139 @@ public class Sorting {
 
 
 
+    /** Sorts a list using the fork join pool no matter how big the list is.
+     * The regular sort methods switch to a parallel sort on their own once a list
+     * is bigger than ParallelSort.PARALLEL_THRESHOLD.
+     *
+     * @param list list to sorts
+     * @param sorts what you want to sort the list by
+     */
+    public static void parallelSort(List list, Sort... sorts) {
+        Sort.sorts(sorts).parallelSort(list);
+    }
+
+
+    /** Sorts an array using the fork join pool no matter how big the array is.
+     *
+     * @param array array to sort
+     * @param sorts what you want to sort the array by
+     */
+    public static <T> void parallelSort(T[] array, Sort... sorts) {
+        Sort.sorts(sorts).parallelSort(array);
+    }
+
+
+    /**
+     * Sort a list in parallel.
+     * @param list the list you want to sort
+     * @param sortBy what you want to sort the list by
+     * @param ascending do you want ascending order
+     * @param nullsFirst do you want nulls first
+     */
+    public static void parallelSort( List list, String sortBy, boolean ascending, boolean nullsFirst ) {
+        if ( list == null || list.size() == 0 ) {
+            return;
+        }
+
+        Comparator comparator = comparatorFor( list.get( 0 ), list, sortBy, ascending, nullsFirst );
+
+        if ( comparator != null ) {
+            ParallelSort.parallelSort( list, comparator );
+        }
+    }
+
+
+    /**
+     * Sort an array in parallel.
+     * @param array the array you want to sort
+     * @param sortBy what you want to sort the array by
+     * @param ascending do you want ascending order
+     * @param nullsFirst do you want nulls first
+     */
+    public static <T> void parallelSort( T[] array, String sortBy, boolean ascending, boolean nullsFirst ) {
+        if ( array == null || array.length == 0 ) {
+            return;
+        }
+
+        Comparator comparator = comparatorFor( array[ 0 ], Arrays.asList( array ), sortBy, ascending, nullsFirst );
+
+        if ( comparator != null ) {
+            ParallelSort.parallelSort( array, comparator );
+        }
+    }
+
+
+    /**
+     * Sorts a list in parallel based on the natural ascending order.
+     * This puts null values last.
+     * @param list the list you want to sort.
+     */
+    public static void parallelSort( List list ) {
+        parallelSort( list, "this", true, false );
+    }
+
+
+    /**
+     * Sorts an array in parallel based on the natural ascending order.
+     * This puts null values last.
+     * @param array the array you want to sort.
+     */
+    public static <T> void parallelSort( T[] array ) {
+        parallelSort( array, "this", true, false );
+    }
+
+
+    /**
+     * Sorts a list in parallel ascending by sortBy.
+     * Nulls last.
+     * @param list the list you want to sort
+     * @param sortBy what you want to sort the list by
+     */
+    public static void parallelSort( List list, String sortBy ) {
+        parallelSort( list, sortBy, true, false );
+    }
+
+
+    /**
+     * Sorts an array in parallel ascending by sortBy.
+     * Nulls last.
+     * @param array the array you want to sort
+     * @param sortBy what you want to sort the array by
+     */
+    public static <T> void parallelSort( T[] array, String sortBy ) {
+        parallelSort( array, sortBy, true, false );
+    }
+
+
+    /**
+     * Picks the comparator the same way sort does. Looks up the fields from the first non null item.
+     * Returns null if sortBy is not a field, in which case there is nothing to sort by.
+     */
+    private static Comparator comparatorFor( Object first, Collection items, String sortBy,
+                                             boolean ascending, boolean nullsFirst ) {
+
+        if ( sortBy.equals( "this" ) ) {
+            return thisUniversalComparator( ascending, nullsFirst );
+        }
+
+        Object object = first;
+
+        if ( object == null ) {
+            for ( Object item : items ) {
+                if ( item != null ) {
+                    object = item;
+                    break;
+                }
+            }
+        }
+
+        FieldAccess field = object == null ? null : BeanUtils.getFieldsFromObject( object ).get( sortBy );
+
+        return field == null ? null : universalComparator( field, ascending, nullsFirst );
+    }
+
+
+
     /**
      * Sort a list.
      * @param list the list you want to sort
@@ -73,7 +206,7 @@ public class Sorting {
 
         if (sortBy.equals("this")) {
 
-            Collections.sort(list, thisUniversalComparator(ascending, nullsFirst));
+            ParallelSort.sort(list, thisUniversalComparator(ascending, nullsFirst));
             return;
         }
         Iterator iterator = list.iterator();
@@ -102,7 +235,7 @@ public class Sorting {
 
             if ( field != null ) {
 
-                Collections.sort( list, Sorting.universalComparator(field, ascending, nullsFirst) );
+                ParallelSort.sort( list, Sorting.universalComparator(field, ascending, nullsFirst) );
 
             }
         }
@@ -215,7 +348,7 @@ public class Sorting {
 
         if (sortBy.equals("this")) {
 
-            Arrays.sort(array, thisUniversalComparator(ascending, nullsFirst));
+            ParallelSort.sort(array, thisUniversalComparator(ascending, nullsFirst));
             return;
         }
 
@@ -244,7 +377,7 @@ public class Sorting {
 
             if ( field != null ) {
 
-                Arrays.sort( array, Sorting.universalComparator(field, ascending, nullsFirst) );
+                ParallelSort.sort( array, Sorting.universalComparator(field, ascending, nullsFirst) );
 
             }
         }
@@ -31,7 +31,6 @@ package org.boon.sort;
 import org.boon.Exceptions;
 import org.boon.core.reflection.fields.FieldAccess;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -83,7 +82,7 @@ public class SortingInternal {
              */
             if ( sortBy.equals( "this" )  ) {
 
-                Collections.sort(list, thisUniversalComparator(ascending, nullsFirst));
+                ParallelSort.sort(list, thisUniversalComparator(ascending, nullsFirst));
                 return;
             }
 
@@ -93,7 +92,7 @@ public class SortingInternal {
 
             if ( field != null ) {
 
-                Collections.sort( list, Sorting.universalComparator(field, ascending, nullsFirst) );
+                ParallelSort.sort( list, Sorting.universalComparator(field, ascending, nullsFirst) );
 
             }
 
@@ -28,8 +28,10 @@
 
 package org.boon.validation.readers;
 
+import org.boon.core.Function;
 import org.boon.core.reflection.AnnotationData;
 import org.boon.core.reflection.Annotations;
+import org.boon.core.reflection.Reflection;
 import org.boon.validation.ValidatorMetaData;
 import org.boon.validation.ValidatorMetaDataReader;
 
@@ -137,6 +139,24 @@ public class AnnotationValidatorMetaDataReader implements ValidatorMetaDataReade
 
     }
 
+    /**
+     * Reads the meta-data of every property of these classes up front, in parallel,
+     * along with the rest of the class metadata (see Reflection.warmUp).
+     *
+     * @param classes classes that will be validated
+     */
+    public void warmUp( Collection<Class<?>> classes ) {
+        Reflection.warmUp( classes, new Function<Class<?>, Object>() {
+            @Override
+            public Object apply( Class<?> clazz ) {
+                for ( String propertyName : Reflection.getPropertyFieldAccessMapFieldFirst( clazz ).keySet() ) {
+                    readMetaData( clazz, propertyName );
+                }
+                return null;
+            }
+        } );
+    }
+
     /**
      * Extract BaseValidator Meta Data.
      *
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.benchmark.cache;
+
+import org.boon.cache.Cache;
+import org.boon.cache.CacheType;
+import org.boon.cache.ConcurrentLruCache;
+import org.boon.cache.FastConcurrentReadLruLfuFifoCache;
+import org.boon.cache.SimpleCache;
+import org.boon.cache.SimpleConcurrentCache;
+import org.boon.cache.TinyLfuCache;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.boon.Boon.puts;
+import static org.boon.Exceptions.die;
+
+/**
+ * Hit ratio of the caches on a skewed (Zipf) trace and on the same trace
+ * with big one time scans mixed in.
+ *
+ * Run main for the full size numbers, the test runs a small version.
+ */
+public class CacheHitRatioBenchMark {
+
+
+    @Test
+    public void tinyLfuBeatsLru() {
+        int[] zipf = zipfTrace( 20_000, 0.9, 200_000, 1 );
+        int[] scan = scanTrace( zipf, 5_000, 3_000 );
+
+        double lruZipf = hitRatio( new SimpleCache<Integer, Integer>( 500, CacheType.LRU ), zipf );
+        double tinyZipf = hitRatio( new TinyLfuCache<Integer, Integer>( 500 ), zipf );
+        double lruScan = hitRatio( new SimpleCache<Integer, Integer>( 500, CacheType.LRU ), scan );
+        double tinyScan = hitRatio( new TinyLfuCache<Integer, Integer>( 500 ), scan );
+
+        puts( "zipf lru", lruZipf, "tiny", tinyZipf, "scan lru", lruScan, "tiny", tinyScan );
+
+        boolean ok = tinyZipf > lruZipf || die( "zipf", lruZipf, tinyZipf );
+        ok |= tinyScan > lruScan || die( "scan", lruScan, tinyScan );
+    }
+
+
+    public static void main( String[] args ) {
+        int limit = 10_000;
+
+        int[] zipf = zipfTrace( 1_000_000, 0.9, 5_000_000, 1 );
+        int[] scan = scanTrace( zipf, 50_000, 50_000 );
+
+        for ( Map.Entry<String, double[]> entry : run( limit, zipf, scan ).entrySet() ) {
+            puts( entry.getKey(), "zipf", entry.getValue()[ 0 ], "scan", entry.getValue()[ 1 ] );
+        }
+    }
+
+    static Map<String, double[]> run( int limit, int[] zipf, int[] scan ) {
+        Map<String, double[]> results = new LinkedHashMap<>();
+        for ( String name : new String[]{ "SimpleCache LRU", "SimpleCache FIFO", "ConcurrentLruCache",
+                "FastConcurrentRead LFU", "TinyLfuCache", "SimpleConcurrentCache TINY_LFU" } ) {
+            results.put( name, new double[]{
+                    hitRatio( newCache( name, limit ), zipf ),
+                    hitRatio( newCache( name, limit ), scan ) } );
+        }
+        return results;
+    }
+
+    static Cache<Integer, Integer> newCache( String name, int limit ) {
+        switch ( name ) {
+            case "SimpleCache LRU":
+                return new SimpleCache<>( limit, CacheType.LRU );
+            case "SimpleCache FIFO":
+                return new SimpleCache<>( limit, CacheType.FIFO );
+            case "ConcurrentLruCache":
+                return new ConcurrentLruCache<>( limit );
+            case "FastConcurrentRead LFU":
+                return new FastConcurrentReadLruLfuFifoCache<>( limit );
+            case "TinyLfuCache":
+                return new TinyLfuCache<>( limit );
+            case "SimpleConcurrentCache TINY_LFU":
+                return new SimpleConcurrentCache<>( limit, CacheType.TINY_LFU );
+            default:
+                return die( Cache.class, "unknown cache", name );
+        }
+    }
+
+    static double hitRatio( Cache<Integer, Integer> cache, int[] trace ) {
+        long hits = 0;
+        for ( int key : trace ) {
+            if ( cache.get( key ) != null ) {
+                hits++;
+            } else {
+                cache.put( key, key );
+            }
+        }
+        return ( double ) hits / trace.length;
+    }
+
+    /** Keys 0 until items, key i is asked for with weight 1 / (i + 1) ^ exponent. */
+    static int[] zipfTrace( int items, double exponent, int length, long seed ) {
+        double[] cumulative = new double[ items ];
+        double total = 0;
+        for ( int index = 0; index < items; index++ ) {
+            total += 1.0 / Math.pow( index + 1, exponent );
+            cumulative[ index ] = total;
+        }
+
+        Random random = new Random( seed );
+        int[] trace = new int[ length ];
+        for ( int index = 0; index < length; index++ ) {
+            int slot = Arrays.binarySearch( cumulative, random.nextDouble() * total );
+            trace[ index ] = slot < 0 ? Math.min( -slot - 1, items - 1 ) : slot;
+        }
+        return trace;
+    }
+
+    /** Every interval requests insert a scan of scanLength keys nobody asks for again. */
+    static int[] scanTrace( int[] base, int interval, int scanLength ) {
+        int scans = base.length / interval;
+        int[] trace = new int[ base.length + scans * scanLength ];
+        int next = -1;
+        int position = 0;
+        for ( int index = 0; index < base.length; index++ ) {
+            if ( index > 0 && index % interval == 0 ) {
+                for ( int scan = 0; scan < scanLength; scan++ ) {
+                    trace[ position++ ] = next--;
+                }
+            }
+            trace[ position++ ] = base[ index ];
+        }
+        return Arrays.copyOf( trace, position );
+    }
+}
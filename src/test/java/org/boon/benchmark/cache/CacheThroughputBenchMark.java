@@ -0,0 +1,330 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+package org.boon.benchmark.cache;
+
+import org.boon.cache.Cache;
+import org.boon.cache.CacheType;
+import org.boon.cache.ConcurrentLruCache;
+import org.boon.cache.FastConcurrentReadLruLfuFifoCache;
+import org.boon.cache.FastReaderSingleThreadedCache;
+import org.boon.cache.SimpleCache;
+import org.boon.cache.SimpleConcurrentCache;
+import org.boon.cache.Tradeoffs;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+
+import static org.boon.Boon.puts;
+import static org.boon.Exceptions.die;
+
+/**
+ * Throughput, p99 latency and hit ratio of the caches for read/write mixes
+ * (100/0, 95/5, 50/50), Zipf and uniform keys, at 1 up to 2 x cores threads.
+ *
+ * A read that misses puts the key (cache aside), so a 100/0 mix still fills
+ * the cache. Latency is sampled every 16th operation to keep nanoTime out of
+ * the way. Caches that are not thread safe only run with one thread.
+ *
+ * There is no JMH here, so each run is warmed up once and then measured.
+ * Run main for the full size numbers, the test runs a small version.
+ */
+public class CacheThroughputBenchMark {
+
+    static final int[] READ_PERCENTS = { 100, 95, 50 };
+
+    static final String[] CACHES = {
+            "SimpleCache LRU", "SimpleCache FIFO",
+            "SimpleConcurrentCache LRU", "SimpleConcurrentCache FIFO", "SimpleConcurrentCache TINY_LFU",
+            "ConcurrentLruCache",
+            "FastConcurrentRead LRU", "FastConcurrentRead LFU", "FastConcurrentRead FIFO",
+            "FastConcurrentRead LFU FAST_SORT",
+            "FastReaderSingleThreadedCache" };
+
+    private static final int SAMPLE_MASK = 16 - 1;
+
+
+    @Test
+    public void smallRun() {
+        int[] zipf = CacheHitRatioBenchMark.zipfTrace( 2_000, 0.9, 20_000, 1 );
+
+        for ( String name : CACHES ) {
+            for ( int readPercent : READ_PERCENTS ) {
+                int threads = threadSafe( name ) ? 4 : 1;
+                Result result = run( name, 200, zipf, readPercent, threads, 5_000 );
+                puts( result );
+
+                boolean ok = result.opsPerSecond > 0 || die( result );
+                ok &= result.hitRatio > 0 && result.hitRatio < 1 || die( result );
+                ok &= result.p99Nanos > 0 || die( result );
+            }
+        }
+    }
+
+
+    public static void main( String[] args ) {
+        int limit = 10_000;
+        int items = 100_000;
+        int opsPerThread = 2_000_000;
+        int maxThreads = Runtime.getRuntime().availableProcessors() * 2;
+
+        int[] zipf = CacheHitRatioBenchMark.zipfTrace( items, 0.9, 1_000_000, 1 );
+        int[] uniform = uniformTrace( items, 1_000_000, 1 );
+
+        List<Result> results = new ArrayList<>();
+        for ( String name : CACHES ) {
+            for ( int threads = 1; threads <= maxThreads; threads *= 2 ) {
+                if ( threads > 1 && !threadSafe( name ) ) {
+                    break;
+                }
+                for ( int readPercent : READ_PERCENTS ) {
+                    results.add( run( name, limit, zipf, readPercent, threads, opsPerThread ).keys( "zipf" ) );
+                    results.add( run( name, limit, uniform, readPercent, threads, opsPerThread ).keys( "uniform" ) );
+                }
+            }
+        }
+
+        for ( Result result : results ) {
+            puts( result );
+        }
+    }
+
+    /** Warm up once, then measure on a fresh cache. */
+    static Result run( String name, int limit, int[] trace, int readPercent, int threads, int opsPerThread ) {
+        measure( name, newCache( name, limit ), trace, readPercent, threads, opsPerThread / 4 );
+        return measure( name, newCache( name, limit ), trace, readPercent, threads, opsPerThread );
+    }
+
+    static boolean threadSafe( String name ) {
+        return !name.startsWith( "SimpleCache" ) && !name.equals( "FastReaderSingleThreadedCache" );
+    }
+
+    static Cache<Integer, Integer> newCache( String name, int limit ) {
+        switch ( name ) {
+            case "SimpleCache LRU":
+                return new SimpleCache<>( limit, CacheType.LRU );
+            case "SimpleCache FIFO":
+                return new SimpleCache<>( limit, CacheType.FIFO );
+            case "SimpleConcurrentCache LRU":
+                return new SimpleConcurrentCache<>( limit, CacheType.LRU );
+            case "SimpleConcurrentCache FIFO":
+                return new SimpleConcurrentCache<>( limit, CacheType.FIFO );
+            case "SimpleConcurrentCache TINY_LFU":
+                return new SimpleConcurrentCache<>( limit, CacheType.TINY_LFU );
+            case "ConcurrentLruCache":
+                return new ConcurrentLruCache<>( limit );
+            case "FastConcurrentRead LRU":
+                return new FastConcurrentReadLruLfuFifoCache<>( limit, Tradeoffs.FAST_EVICT, CacheType.LRU );
+            case "FastConcurrentRead LFU":
+                return new FastConcurrentReadLruLfuFifoCache<>( limit, Tradeoffs.FAST_EVICT, CacheType.LFU );
+            case "FastConcurrentRead FIFO":
+                return new FastConcurrentReadLruLfuFifoCache<>( limit, Tradeoffs.FAST_EVICT, CacheType.FIFO );
+            case "FastConcurrentRead LFU FAST_SORT":
+                return new FastConcurrentReadLruLfuFifoCache<>( limit, Tradeoffs.FAST_SORT, CacheType.LFU );
+            case "FastReaderSingleThreadedCache":
+                return new FastReaderSingleThreadedCache<>( limit );
+            default:
+                return die( Cache.class, "unknown cache", name );
+        }
+    }
+
+    static Result measure( String name, final Cache<Integer, Integer> cache, final int[] trace, int readPercent,
+                           int threads, final int opsPerThread ) {
+
+        final CyclicBarrier start = new CyclicBarrier( threads + 1 );
+        final CyclicBarrier end = new CyclicBarrier( threads + 1 );
+        final Worker[] workers = new Worker[ threads ];
+
+        for ( int index = 0; index < threads; index++ ) {
+            workers[ index ] = new Worker( cache, trace, readPercent, opsPerThread, index, start, end );
+            Thread thread = new Thread( workers[ index ], "cache-bench-" + index );
+            thread.setDaemon( true );
+            thread.start();
+        }
+
+        try {
+            start.await();
+            end.await();
+        } catch ( Exception e ) {
+            return die( Result.class, "benchmark interrupted", e );
+        }
+
+        /* Workers keep their own clocks, the main thread may not get scheduled in time. */
+        long startTime = Long.MAX_VALUE;
+        long endTime = Long.MIN_VALUE;
+        long hits = 0;
+        long reads = 0;
+        int sampleCount = 0;
+        for ( Worker worker : workers ) {
+            if ( worker.error != null ) {
+                die( "cache failed under load", name, worker.error );
+            }
+            startTime = Math.min( startTime, worker.startTime );
+            endTime = Math.max( endTime, worker.endTime );
+            hits += worker.hits;
+            reads += worker.reads;
+            sampleCount += worker.sampleCount;
+        }
+
+        long elapsed = endTime - startTime;
+
+        long[] samples = new long[ sampleCount ];
+        int position = 0;
+        for ( Worker worker : workers ) {
+            System.arraycopy( worker.samples, 0, samples, position, worker.sampleCount );
+            position += worker.sampleCount;
+        }
+        Arrays.sort( samples );
+
+        Result result = new Result();
+        result.name = name;
+        result.threads = threads;
+        result.readPercent = readPercent;
+        result.opsPerSecond = ( long ) opsPerThread * threads * 1_000_000_000L / Math.max( 1, elapsed );
+        result.p99Nanos = samples.length == 0 ? 0 : samples[ Math.min( samples.length - 1, ( int ) ( samples.length * 0.99 ) ) ];
+        result.hitRatio = reads == 0 ? 0 : ( double ) hits / reads;
+        return result;
+    }
+
+    /** Keys 0 until items, all equally likely. */
+    static int[] uniformTrace( int items, int length, long seed ) {
+        Random random = new Random( seed );
+        int[] trace = new int[ length ];
+        for ( int index = 0; index < length; index++ ) {
+            trace[ index ] = random.nextInt( items );
+        }
+        return trace;
+    }
+
+
+    static final class Worker implements Runnable {
+        private final Cache<Integer, Integer> cache;
+        private final int[] trace;
+        private final int ops;
+        private final int offset;
+        private final boolean[] writes;
+        private final CyclicBarrier start;
+        private final CyclicBarrier end;
+
+        final long[] samples;
+        int sampleCount;
+        long hits;
+        long reads;
+        long startTime;
+        long endTime;
+        Throwable error;
+
+        Worker( Cache<Integer, Integer> cache, int[] trace, int readPercent, int ops, int id,
+                CyclicBarrier start, CyclicBarrier end ) {
+            this.cache = cache;
+            this.trace = trace;
+            this.ops = ops;
+            this.start = start;
+            this.end = end;
+
+            /* Threads start at different places in the trace so they do not move in lock step. */
+            this.offset = ( int ) ( ( long ) trace.length * id / 7 % trace.length );
+
+            Random random = new Random( id + 1 );
+            this.writes = new boolean[ 1024 ];
+            for ( int index = 0; index < writes.length; index++ ) {
+                writes[ index ] = random.nextInt( 100 ) >= readPercent;
+            }
+            this.samples = new long[ ops / ( SAMPLE_MASK + 1 ) + 1 ];
+        }
+
+        @Override
+        public void run() {
+            try {
+                start.await();
+                startTime = System.nanoTime();
+                try {
+                    loop();
+                } catch ( Throwable e ) {
+                    error = e;
+                }
+                endTime = System.nanoTime();
+                end.await();
+            } catch ( Exception e ) {
+                error = e;
+            }
+        }
+
+        private void loop() {
+            int position = offset;
+            for ( int index = 0; index < ops; index++ ) {
+                Integer key = trace[ position ];
+                if ( ++position == trace.length ) {
+                    position = 0;
+                }
+
+                boolean sample = ( index & SAMPLE_MASK ) == 0;
+                long before = sample ? System.nanoTime() : 0;
+
+                if ( writes[ index & 1023 ] ) {
+                    cache.put( key, key );
+                } else {
+                    reads++;
+                    if ( cache.get( key ) != null ) {
+                        hits++;
+                    } else {
+                        cache.put( key, key );
+                    }
+                }
+
+                if ( sample ) {
+                    samples[ sampleCount++ ] = System.nanoTime() - before;
+                }
+            }
+        }
+    }
+
+
+    static final class Result {
+        String name;
+        String keys = "zipf";
+        int threads;
+        int readPercent;
+        long opsPerSecond;
+        long p99Nanos;
+        double hitRatio;
+
+        Result keys( String keys ) {
+            this.keys = keys;
+            return this;
+        }
+
+        public String toString() {
+            return String.format( "%-34s %-7s threads %2d  read/write %3d/%-3d  %,12d ops/s  p99 %,8d ns  hit ratio %.3f",
+                    name, keys, threads, readPercent, 100 - readPercent, opsPerSecond, p99Nanos, hitRatio );
+        }
+    }
+}
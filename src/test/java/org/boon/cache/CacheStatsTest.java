@@ -0,0 +1,139 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.cache;
+
+import org.boon.MBeans;
+import org.boon.core.Function;
+import org.boon.criteria.ObjectFilter;
+import org.boon.criteria.internal.Criteria;
+import org.boon.datarepo.Repo;
+import org.boon.datarepo.Repos;
+import org.boon.tests.model.Employee;
+import org.junit.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import static org.boon.Exceptions.die;
+
+public class CacheStatsTest {
+
+    @Test
+    public void simpleConcurrentCacheRecords() {
+        CacheStats stats = new CacheStats();
+        SimpleConcurrentCache<Integer, Integer> cache =
+                new SimpleConcurrentCache<Integer, Integer>( 1, 10, false, CacheType.LRU ).recordStats( stats );
+
+        for ( int index = 0; index < 15; index++ ) {
+            cache.put( index, index );
+        }
+        cache.get( 14 );
+        cache.get( 0 );
+
+        boolean ok = stats.getPutCount() == 15 || die( stats );
+        ok |= stats.getEvictionCount() == 5 || die( stats );
+        ok |= stats.getHitCount() == 1 || die( stats );
+        ok |= stats.getMissCount() == 1 || die( stats );
+        ok |= stats.getHitRatio() == 0.5 || die( stats );
+    }
+
+    @Test
+    public void loadingCacheRecordsLoads() {
+        CacheStats stats = new CacheStats();
+        LoadingCache<String, String> cache = new LoadingCache<String, String>( 10 ).recordStats( stats );
+        Function<String, String> loader = new Function<String, String>() {
+            @Override
+            public String apply( String key ) {
+                return key + "!";
+            }
+        };
+
+        cache.get( "a", loader );
+        cache.get( "a", loader );
+
+        boolean ok = stats.getLoadCount() == 1 || die( stats );
+        ok |= stats.getHitCount() == 1 || die( stats );
+        ok |= stats.getMissCount() == 1 || die( stats );
+    }
+
+    @Test
+    public void countsFromManyThreads() throws Exception {
+        final CacheStats stats = new CacheStats();
+        Thread[] threads = new Thread[ 8 ];
+        for ( int t = 0; t < threads.length; t++ ) {
+            threads[ t ] = new Thread( new Runnable() {
+                @Override
+                public void run() {
+                    for ( int index = 0; index < 10_000; index++ ) {
+                        stats.recordHit();
+                    }
+                }
+            } );
+            threads[ t ].start();
+        }
+        for ( Thread thread : threads ) {
+            thread.join();
+        }
+        boolean ok = stats.getHitCount() == 80_000 || die( stats );
+
+        stats.reset();
+        ok |= stats.getHitCount() == 0 || die( stats );
+    }
+
+    @Test
+    public void registersAsMBean() throws Exception {
+        CacheStats stats = new CacheStats().register( "statsTest" );
+        stats.recordHit();
+
+        Map<String, Object> map = MBeans.map( ManagementFactory.getPlatformMBeanServer(),
+                new ObjectName( "org.boon.cache.CacheStats:type=statsTest" ) );
+        boolean ok = Long.valueOf( 1 ).equals( map.get( "HitCount" ) ) || die( map );
+
+        stats.unregister();
+        ok |= !ManagementFactory.getPlatformMBeanServer().isRegistered(
+                new ObjectName( "org.boon.cache.CacheStats:type=statsTest" ) ) || die( "still registered" );
+        stats.unregister();
+    }
+
+    @Test
+    public void repoQueryCacheRecordsWhenAsked() {
+        CacheStats stats = new CacheStats();
+        Repo<String, Employee> repo = Repos.builder().primaryKey( "id" ).searchIndex( "firstName" )
+                .useCache( stats ).build( String.class, Employee.class );
+        repo.add( Employee.employee( "Rick", "Hightower", "1", "05.29.70", 10_000 ) );
+
+        Criteria rick = ObjectFilter.eq( "firstName", "Rick" );
+        repo.query( rick );
+        repo.query( rick );
+
+        boolean ok = stats.getHitCount() + stats.getMissCount() == 2 || die( stats );
+        ok |= stats.getLoadCount() == stats.getMissCount() || die( stats );
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.cache;
+
+import org.boon.core.timer.TimeKeeper;
+import org.junit.Test;
+
+import static org.boon.Exceptions.die;
+
+public class ExpiringCacheTest {
+
+    static class FakeTime implements TimeKeeper {
+        long now = 1_000_000;
+
+        @Override
+        public long time() {
+            return now;
+        }
+    }
+
+    @Test
+    public void expireAfterWrite() {
+        FakeTime clock = new FakeTime();
+        ExpiringCache<String, String> cache = new ExpiringCache<>( 100, CacheType.LRU, 1_000, 0, clock );
+
+        cache.put( "a", "1" );
+        clock.now += 500;
+        boolean ok = "1".equals( cache.get( "a" ) ) || die();
+
+        clock.now += 501;
+        ok |= cache.get( "a" ) == null || die();
+        ok |= cache.size() == 0 || die( cache.size() );
+    }
+
+    @Test
+    public void expireAfterAccess() {
+        FakeTime clock = new FakeTime();
+        ExpiringCache<String, String> cache = new ExpiringCache<>( 100, CacheType.LRU, 0, 1_000, clock );
+
+        cache.put( "a", "1" );
+        for ( int index = 0; index < 10; index++ ) {
+            clock.now += 800;
+            boolean ok = "1".equals( cache.get( "a" ) ) || die( index );
+        }
+
+        clock.now += 1_001;
+        boolean ok = cache.getSilent( "a" ) == null || die();
+    }
+
+    @Test
+    public void wheelReclaimsWithoutReads() {
+        FakeTime clock = new FakeTime();
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>( 100_000, CacheType.LRU, 0, 0, clock );
+        ExpiringCache<Integer, Integer> ttl = new ExpiringCache<>( 100_000, CacheType.LRU, 60_000, 0, clock );
+
+        for ( int index = 0; index < 10_000; index++ ) {
+            ttl.put( index, index );
+            cache.put( index, index );
+            clock.now += 10;
+        }
+
+        /* Half of them are past a minute old now. */
+        clock.now += 10_000;
+        ttl.cleanUp();
+        boolean ok = ttl.size() < 6_000 && ttl.size() > 4_000 || die( ttl.size() );
+
+        clock.now += 3_600_000;
+        ttl.cleanUp();
+        ok |= ttl.size() == 0 || die( ttl.size() );
+
+        /* No expiry configured, nothing goes away. */
+        ok |= cache.size() == 10_000 || die( cache.size() );
+    }
+
+    @Test
+    public void sizeEvictionsLeaveTheWheel() {
+        for ( CacheType type : new CacheType[] { CacheType.LRU, CacheType.TINY_LFU } ) {
+            FakeTime clock = new FakeTime();
+            ExpiringCache<Integer, Integer> cache = new ExpiringCache<>( 64, type, 60_000, 0, clock );
+
+            for ( int index = 0; index < 10_000; index++ ) {
+                cache.put( index, index );
+                cache.put( index % 10, index );
+                if ( index % 7 == 0 ) {
+                    cache.remove( index - 3 );
+                }
+            }
+
+            boolean ok = cache.size() <= 128 || die( type, cache.size() );
+            ok |= cache.scheduled() == cache.size() || die( type, cache.scheduled(), cache.size() );
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.cache;
+
+import org.boon.core.Function;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.boon.Exceptions.die;
+
+public class LoadingCacheTest {
+
+    @Test
+    public void concurrentMissesLoadOnce() throws Exception {
+        final LoadingCache<String, String> cache = new LoadingCache<>( 100 );
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch( 1 );
+
+        final Function<String, String> slowLoader = new Function<String, String>() {
+            @Override
+            public String apply( String key ) {
+                loads.incrementAndGet();
+                try {
+                    Thread.sleep( 100 );
+                } catch ( InterruptedException e ) {
+                    Thread.currentThread().interrupt();
+                }
+                return key.toUpperCase();
+            }
+        };
+
+        Thread[] threads = new Thread[ 8 ];
+        final String[] results = new String[ threads.length ];
+        for ( int index = 0; index < threads.length; index++ ) {
+            final int slot = index;
+            threads[ index ] = new Thread( new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch ( InterruptedException e ) {
+                        return;
+                    }
+                    results[ slot ] = cache.get( "hot", slowLoader );
+                }
+            } );
+            threads[ index ].start();
+        }
+        start.countDown();
+        for ( Thread thread : threads ) {
+            thread.join();
+        }
+
+        boolean ok = loads.get() == 1 || die( "loads", loads.get() );
+        for ( String result : results ) {
+            ok |= "HOT".equals( result ) || die( result );
+        }
+        ok |= cache.size() == 1 || die();
+    }
+
+    @Test
+    public void refreshAhead() {
+        final AtomicInteger version = new AtomicInteger();
+        Executor sameThread = new Executor() {
+            @Override
+            public void execute( Runnable command ) {
+                command.run();
+            }
+        };
+
+        LoadingCache<String, Integer> cache = new LoadingCache<String, Integer>( 100 ).refreshAfter( 0, sameThread );
+        Function<String, Integer> loader = new Function<String, Integer>() {
+            @Override
+            public Integer apply( String key ) {
+                return version.incrementAndGet();
+            }
+        };
+
+        boolean ok = cache.get( "a", loader ) == 1 || die();
+        /* Stale hit serves the old value and reloads. */
+        ok |= cache.get( "a", loader ) == 1 || die();
+        ok |= cache.getSilent( "a" ) == 2 || die();
+    }
+
+    @Test
+    public void failedLoadIsNotCached() {
+        LoadingCache<String, String> cache = new LoadingCache<>( 100 );
+        try {
+            cache.get( "a", new Function<String, String>() {
+                @Override
+                public String apply( String key ) {
+                    throw new IllegalStateException( "boom" );
+                }
+            } );
+            die( "should have thrown" );
+        } catch ( IllegalStateException expected ) {
+        }
+
+        String value = cache.get( "a", new Function<String, String>() {
+            @Override
+            public String apply( String key ) {
+                return "ok";
+            }
+        } );
+        boolean ok = "ok".equals( value ) || die( value );
+    }
+
+    @Test
+    public void writeDuringLoadIsNotOverwritten() throws Exception {
+        final LoadingCache<String, String> cache = new LoadingCache<>( 100 );
+        final CountDownLatch loading = new CountDownLatch( 1 );
+        final CountDownLatch release = new CountDownLatch( 1 );
+
+        Thread loader = new Thread( new Runnable() {
+            @Override
+            public void run() {
+                cache.get( "a", new Function<String, String>() {
+                    @Override
+                    public String apply( String key ) {
+                        loading.countDown();
+                        try {
+                            release.await();
+                        } catch ( InterruptedException e ) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return "old";
+                    }
+                } );
+            }
+        } );
+        loader.start();
+        loading.await();
+
+        cache.put( "a", "new" );
+        release.countDown();
+        loader.join();
+
+        boolean ok = "new".equals( cache.getSilent( "a" ) ) || die( cache.getSilent( "a" ) );
+    }
+
+    @Test
+    public void missDuringRefreshWaitsForIt() throws Exception {
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch refreshing = new CountDownLatch( 1 );
+        final CountDownLatch release = new CountDownLatch( 1 );
+        Executor newThread = new Executor() {
+            @Override
+            public void execute( Runnable command ) {
+                new Thread( command ).start();
+            }
+        };
+
+        final LoadingCache<String, Integer> cache = new LoadingCache<String, Integer>( 100 ).refreshAfter( 0, newThread );
+        cache.put( "a", 0 );
+
+        final Function<String, Integer> loader = new Function<String, Integer>() {
+            @Override
+            public Integer apply( String key ) {
+                int version = loads.incrementAndGet();
+                refreshing.countDown();
+                try {
+                    release.await();
+                } catch ( InterruptedException e ) {
+                    Thread.currentThread().interrupt();
+                }
+                return version;
+            }
+        };
+
+        boolean ok = cache.get( "a", loader ) == 0 || die();
+        refreshing.await();
+
+        /* The entry is gone, so this misses while the refresh is still running. */
+        cache.remove( "a" );
+        final Integer[] result = new Integer[ 1 ];
+        Thread miss = new Thread( new Runnable() {
+            @Override
+            public void run() {
+                result[ 0 ] = cache.get( "a", loader );
+            }
+        } );
+        miss.start();
+        while ( miss.getState() != Thread.State.WAITING ) {
+            Thread.sleep( 1 );
+        }
+        release.countDown();
+        miss.join();
+
+        ok |= loads.get() == 1 || die( "loads", loads.get() );
+        ok |= result[ 0 ] == 1 || die( result[ 0 ] );
+        /* The refresh started from the removed entry, so it does not bring it back. */
+        ok |= cache.getSilent( "a" ) == null || die( cache.getSilent( "a" ) );
+    }
+}
@@ -30,6 +30,8 @@ package org.boon.cache;
 
 import org.junit.Test;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.boon.Exceptions.die;
 
 public class LruConcurrentCacheTest {
@@ -77,4 +79,52 @@ public class LruConcurrentCacheTest {
         if ( !ok ) die();
 
     }
+
+    @Test
+    public void largeCacheManyReaders() throws Exception {
+        final ConcurrentLruCache<Integer, Integer> cache = new ConcurrentLruCache<>( 100_000 );
+
+        for ( int index = 0; index < 100_000; index++ ) {
+            cache.put( index, index );
+        }
+
+        /* die in a worker only ends that thread, so hand failures back to the test thread. */
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] threads = new Thread[ 4 ];
+        for ( int t = 0; t < threads.length; t++ ) {
+            threads[ t ] = new Thread( new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for ( int index = 0; index < 200_000; index++ ) {
+                            Integer value = cache.get( index % 1_000 );
+                            if ( value == null || value != index % 1_000 ) {
+                                die( "missing", index % 1_000 );
+                            }
+                        }
+                    } catch ( Throwable ex ) {
+                        failure.compareAndSet( null, ex );
+                    }
+                }
+            } );
+            threads[ t ].start();
+        }
+        for ( Thread thread : threads ) {
+            thread.join();
+        }
+        boolean ok = failure.get() == null || die( failure.get() );
+
+        /* The hot keys were read recently so new puts push out the cold ones. */
+        for ( int index = 0; index < 1_000; index++ ) {
+            cache.get( index );
+        }
+        for ( int index = 100_000; index < 150_000; index++ ) {
+            cache.put( index, index );
+        }
+
+        ok |= cache.size() == 100_000 || die( "size" + cache.size() );
+        ok |= cache.getSilent( 500 ) == 500 || die();
+        ok |= cache.getSilent( 5_000 ) == null || die();
+        ok |= cache.getSilent( 149_999 ) == 149_999 || die();
+    }
 }
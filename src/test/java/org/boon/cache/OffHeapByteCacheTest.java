@@ -0,0 +1,168 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.cache;
+
+import org.boon.json.JsonSerializer;
+import org.boon.json.JsonSerializerFactory;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.boon.Exceptions.die;
+import static org.boon.Maps.map;
+
+public class OffHeapByteCacheTest {
+
+    static byte[] bytes( int length, int fill ) {
+        byte[] bytes = new byte[ length ];
+        Arrays.fill( bytes, ( byte ) fill );
+        return bytes;
+    }
+
+    @Test
+    public void roundTrip() {
+        OffHeapByteCache<String> cache = new OffHeapByteCache<>( 1 << 16, 1 << 12 );
+
+        cache.put( "a", bytes( 100, 1 ) );
+        cache.put( "b", ByteBuffer.wrap( bytes( 200, 2 ) ) );
+
+        boolean ok = Arrays.equals( bytes( 100, 1 ), cache.getBytes( "a" ) ) || die();
+        ok |= cache.get( "b" ).remaining() == 200 || die();
+
+        cache.put( "a", bytes( 10, 3 ) );
+        ok |= Arrays.equals( bytes( 10, 3 ), cache.getBytes( "a" ) ) || die();
+
+        cache.remove( "b" );
+        ok |= cache.get( "b" ) == null || die();
+        ok |= cache.size() == 1 || die();
+        ok |= cache.liveBytes() == 14 || die( cache.liveBytes() );
+
+        /* Too big for a segment, dies and keeps the old value. */
+        boolean died = false;
+        try {
+            cache.put( "a", bytes( 1 << 13, 4 ) );
+        } catch ( Exception ex ) {
+            died = true;
+        }
+        ok |= died || die();
+        ok |= Arrays.equals( bytes( 10, 3 ), cache.getBytes( "a" ) ) || die();
+    }
+
+    @Test
+    public void capacityBelowOneSegmentIsRejected() {
+        boolean died = false;
+        try {
+            new OffHeapByteCache<String>( 1 << 10, 1 << 12 );
+        } catch ( Exception ex ) {
+            died = true;
+        }
+        boolean ok = died || die();
+
+        OffHeapByteCache<String> cache = new OffHeapByteCache<>( 1 << 12, 1 << 12 );
+        cache.put( "a", bytes( 100, 1 ) );
+        ok |= cache.toString().contains( "segments=1" ) || die( cache );
+    }
+
+    @Test
+    public void asciiCharsPackTheSegment() {
+        OffHeapByteCache<Integer> cache = new OffHeapByteCache<>( 1024, 1024 );
+
+        char[] chars = new char[ 300 ];
+        Arrays.fill( chars, 'x' );
+        String ascii = new String( chars );
+
+        /* Three times 304 bytes fit one 1k segment, reserving three bytes a char would not. */
+        for ( int key = 0; key < 3; key++ ) {
+            cache.putChars( key, ascii );
+        }
+
+        boolean ok = cache.size() == 3 || die( cache.size() );
+        for ( int key = 0; key < 3; key++ ) {
+            ok |= ascii.equals( cache.getString( key ) ) || die( key );
+        }
+    }
+
+    @Test
+    public void multiByteCharsRollToANewSegment() {
+        OffHeapByteCache<Integer> cache = new OffHeapByteCache<>( 4 * 1024, 1024 );
+
+        String value = "Ärger € \uD83D\uDE00 and then some more text";
+        for ( int key = 0; key < 100; key++ ) {
+            cache.putChars( key, value + key );
+        }
+
+        boolean ok = cache.get( 0 ) == null || die();
+        ok |= ( value + 99 ).equals( cache.getString( 99 ) ) || die( cache.getString( 99 ) );
+        ok |= ( value + 90 ).equals( cache.getString( 90 ) ) || die( cache.getString( 90 ) );
+    }
+
+    @Test
+    public void overwritesAreCompactedNotEvicted() {
+        OffHeapByteCache<Integer> cache = new OffHeapByteCache<>( 4 * 1024, 1024 );
+
+        /* 20 keys of 100 bytes fit, rewrite them many times over the 4k arena. */
+        for ( int round = 0; round < 50; round++ ) {
+            for ( int key = 0; key < 20; key++ ) {
+                cache.put( key, bytes( 96, round ) );
+            }
+        }
+
+        boolean ok = cache.size() == 20 || die( cache.size() );
+        for ( int key = 0; key < 20; key++ ) {
+            ok |= Arrays.equals( bytes( 96, 49 ), cache.getBytes( key ) ) || die( key );
+        }
+    }
+
+    @Test
+    public void fullArenaEvictsOldest() {
+        OffHeapByteCache<Integer> cache = new OffHeapByteCache<>( 4 * 1024, 1024 );
+
+        for ( int key = 0; key < 1_000; key++ ) {
+            cache.put( key, bytes( 96, key ) );
+        }
+
+        boolean ok = cache.size() <= 40 || die( cache.size() );
+        ok |= cache.get( 0 ) == null || die();
+        ok |= Arrays.equals( bytes( 96, 999 ), cache.getBytes( 999 ) ) || die();
+    }
+
+    @Test
+    public void json() {
+        JsonSerializer serializer = new JsonSerializerFactory().create();
+        OffHeapByteCache<String> cache = new OffHeapByteCache<>( 1 << 16, 1 << 12 );
+
+        Object value = map( "name", "Ärger €", "age", 42 );
+        cache.putJson( "rick", serializer, value );
+
+        String expected = serializer.serialize( value ).toString();
+        String json = cache.getString( "rick" );
+        boolean ok = expected.equals( json ) || die( json );
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.cache;
+
+import org.boon.Lists;
+import org.boon.collections.SampledEvictionList;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.boon.Exceptions.die;
+
+public class SampledEvictionListTest {
+
+    /** Same hash so they all land in one stripe, rank changes like a read count. */
+    static final class Ranked implements Comparable<Ranked>, SampledEvictionList.SortKeys {
+        final AtomicLong rank;
+
+        Ranked( long rank ) {
+            this.rank = new AtomicLong( rank );
+        }
+
+        @Override
+        public int compareTo( Ranked other ) {
+            return Long.compare( rank.get(), other.rank.get() );
+        }
+
+        @Override
+        public int sortKeys( long[] keys ) {
+            keys[ 0 ] = rank.get();
+            return 1;
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+    }
+
+    @Test
+    public void exactModeMatchesSortedPurge() {
+        SampledEvictionList<Integer> list = new SampledEvictionList<>( 1, 0 );
+        for ( int i : new int[]{ 9, 66, 7, 55, 5, 33, 3, 2, 1, 0 } ) {
+            list.add( i );
+        }
+
+        final List<Integer> purgeList = list.purge( 0.20f );
+        boolean ok = Lists.list( 0, 1 ).equals( purgeList ) || die( purgeList );
+        ok |= list.size() == 8 || die();
+        ok |= list.remove( 66 ) || die();
+        ok |= !list.remove( 66 ) || die();
+        ok |= list.size() == 7 || die();
+    }
+
+    @Test
+    public void sampledEvictsLowItems() {
+        SampledEvictionList<Integer> list = new SampledEvictionList<>( 8, 5 );
+        for ( int i = 0; i < 10_000; i++ ) {
+            list.add( i );
+        }
+
+        final List<Integer> purgeList = list.purge( 0.1f );
+        boolean ok = purgeList.size() == 1_000 || die( purgeList.size() );
+        ok |= list.size() == 9_000 || die();
+
+        long total = 0;
+        for ( Integer i : purgeList ) {
+            total += i;
+        }
+        /* Uniform picks would average 5000, best of 5 samples should be far lower. */
+        ok |= total / purgeList.size() < 3_000 || die( total / purgeList.size() );
+    }
+
+    @Test
+    public void cacheStaysBounded() throws Exception {
+        final FastConcurrentReadLruLfuFifoCache<Integer, Integer> cache =
+                new FastConcurrentReadLruLfuFifoCache<>( 1_000, Tradeoffs.FAST_EVICT, CacheType.LRU );
+
+        Thread[] threads = new Thread[ 4 ];
+        for ( int t = 0; t < threads.length; t++ ) {
+            final int base = t * 100_000;
+            threads[ t ] = new Thread( new Runnable() {
+                @Override
+                public void run() {
+                    for ( int i = 0; i < 20_000; i++ ) {
+                        cache.put( base + i, i );
+                        cache.get( base + i / 2 );
+                    }
+                }
+            } );
+            threads[ t ].start();
+        }
+        for ( Thread thread : threads ) {
+            thread.join();
+        }
+
+        boolean ok = cache.size() <= 1_300 || die( cache.size() );
+        ok |= cache.size() > 0 || die();
+    }
+
+    @Test
+    public void emptySamplesStillFindTheLowest() {
+        int lowestPicked = 0;
+        for ( int trial = 0; trial < 200; trial++ ) {
+            SampledEvictionList<Ranked> list = new SampledEvictionList<>( 64, 1 );
+            list.add( new Ranked( 5 ) );
+            list.add( new Ranked( 7 ) );
+            Ranked lowest = new Ranked( 1 );
+            list.add( lowest );
+
+            List<Ranked> purged = list.purge( 0.34f );
+            if ( purged.get( 0 ) == lowest ) {
+                lowestPicked++;
+            }
+        }
+        /* Most single samples land on an empty stripe and then everything is scanned. */
+        boolean ok = lowestPicked > 180 || die( lowestPicked );
+    }
+
+    @Test
+    public void exactModeSortsASnapshot() throws Exception {
+        final List<Ranked> all = new ArrayList<>();
+        for ( int i = 0; i < 2_000; i++ ) {
+            all.add( new Ranked( i % 50 ) );
+        }
+        final SampledEvictionList<Ranked> list = new SampledEvictionList<>( 1, 0 );
+        final AtomicBoolean done = new AtomicBoolean();
+
+        Thread reader = new Thread( new Runnable() {
+            @Override
+            public void run() {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while ( !done.get() ) {
+                    all.get( random.nextInt( all.size() ) ).rank.addAndGet( random.nextInt( 100 ) - 50 );
+                }
+            }
+        } );
+        reader.start();
+        try {
+            for ( int round = 0; round < 200; round++ ) {
+                for ( Ranked ranked : all ) {
+                    list.add( ranked );
+                }
+                List<Ranked> purged = list.purge( 1.0f );
+                boolean ok = purged.size() == all.size() || die( purged.size() );
+            }
+        } finally {
+            done.set( true );
+            reader.join();
+        }
+    }
+}
@@ -30,6 +30,8 @@ package org.boon.cache;
 
 import org.junit.Test;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.boon.Exceptions.die;
 
 
@@ -114,4 +116,44 @@ public class SimpleConcurrentLRUCache {
 
     }
 
+
+    @Test
+    public void hotKeyReadersAndWriters() throws Exception {
+        final Cache<Integer, Integer> cache = new SimpleConcurrentCache<>( 2, 1_000, false, CacheType.LRU );
+
+        cache.put( -1, -1 );
+
+        /* die in a worker only ends that thread, so hand failures back to the test thread. */
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] threads = new Thread[ 4 ];
+        for ( int t = 0; t < threads.length; t++ ) {
+            final boolean writer = t == 0;
+            threads[ t ] = new Thread( new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for ( int index = 0; index < 50_000; index++ ) {
+                            if ( writer ) {
+                                cache.put( index, index );
+                            }
+                            if ( cache.get( -1 ) == null ) {
+                                die( "hot key evicted at", index );
+                            }
+                        }
+                    } catch ( Throwable ex ) {
+                        failure.compareAndSet( null, ex );
+                    }
+                }
+            } );
+            threads[ t ].start();
+        }
+        for ( Thread thread : threads ) {
+            thread.join();
+        }
+
+        boolean ok = failure.get() == null || die( failure.get() );
+        ok |= cache.size() <= 1_000 || die( cache.size() );
+        ok |= cache.getSilent( 49_999 ) == 49_999 || die();
+    }
+
 }
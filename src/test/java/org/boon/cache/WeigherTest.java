@@ -0,0 +1,133 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.cache;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.boon.Exceptions.die;
+
+public class WeigherTest {
+
+    static final Weigher<Integer, String> LENGTH = new Weigher<Integer, String>() {
+        @Override
+        public int weigh( Integer key, String value ) {
+            return value.length();
+        }
+    };
+
+    static String bytes( int length ) {
+        return new String( new char[ length ] );
+    }
+
+    @Test
+    public void simpleCacheEvictsEldestByWeight() {
+        SimpleCache<Integer, String> cache = new SimpleCache<>( 100L, CacheType.LRU, LENGTH );
+
+        cache.put( 1, bytes( 40 ) );
+        cache.put( 2, bytes( 40 ) );
+        cache.get( 1 );
+        cache.put( 3, bytes( 40 ) );
+
+        boolean ok = cache.weight() == 80 || die( cache.weight() );
+        ok |= cache.getSilent( 2 ) == null || die();
+        ok |= cache.getSilent( 1 ) != null || die();
+
+        /* Replacing a value re-weighs it. */
+        cache.put( 1, bytes( 10 ) );
+        ok |= cache.weight() == 50 || die( cache.weight() );
+
+        cache.remove( 3 );
+        ok |= cache.weight() == 10 || die( cache.weight() );
+    }
+
+    @Test
+    public void stripedCacheStaysUnderMaxWeight() {
+        SimpleConcurrentCache<Integer, String> cache =
+                new SimpleConcurrentCache<>( 4, 10_000L, false, CacheType.FIFO, LENGTH );
+
+        for ( int index = 0; index < 5_000; index++ ) {
+            cache.put( index, bytes( 1 + index % 100 ) );
+        }
+        boolean ok = cache.weight() <= 10_000 || die( cache.weight() );
+        ok |= cache.weight() > 8_000 || die( cache.weight() );
+    }
+
+    @Test
+    public void lfuCacheStaysUnderMaxWeight() {
+        FastConcurrentReadLruLfuFifoCache<Integer, String> cache =
+                new FastConcurrentReadLruLfuFifoCache<>( 10_000L, CacheType.LFU, LENGTH );
+
+        cache.put( -1, bytes( 100 ) );
+        for ( int index = 0; index < 5_000; index++ ) {
+            cache.get( -1 );
+            cache.put( index, bytes( 1 + index % 100 ) );
+        }
+        boolean ok = cache.weight() <= 10_000 || die( cache.weight() );
+        ok |= cache.getSilent( -1 ) != null || die( "hot entry evicted" );
+    }
+
+    @Test
+    public void lfuWeightMatchesEntriesAfterRacingWrites() throws Exception {
+        for ( final long maxWeight : new long[] { 1_000_000L, 2_000L } ) {
+            final FastConcurrentReadLruLfuFifoCache<Integer, String> cache =
+                    new FastConcurrentReadLruLfuFifoCache<>( maxWeight, CacheType.LFU, LENGTH );
+
+            Thread[] threads = new Thread[ 4 ];
+            for ( int index = 0; index < threads.length; index++ ) {
+                final Random random = new Random( index );
+                threads[ index ] = new Thread( new Runnable() {
+                    @Override
+                    public void run() {
+                        for ( int loop = 0; loop < 50_000; loop++ ) {
+                            int key = random.nextInt( 64 );
+                            if ( random.nextInt( 4 ) == 0 ) {
+                                cache.remove( key );
+                            } else {
+                                cache.put( key, bytes( 1 + random.nextInt( 100 ) ) );
+                            }
+                        }
+                    }
+                } );
+                threads[ index ].start();
+            }
+            for ( Thread thread : threads ) {
+                thread.join();
+            }
+
+            long expected = 0;
+            for ( int key = 0; key < 64; key++ ) {
+                String value = cache.getSilent( key );
+                expected += value == null ? 0 : value.length();
+            }
+            boolean ok = cache.weight() == expected || die( maxWeight, cache.weight(), expected );
+        }
+    }
+}
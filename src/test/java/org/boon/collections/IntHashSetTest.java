@@ -0,0 +1,84 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.collections;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.boon.Exceptions.die;
+
+public class IntHashSetTest extends TestCase {
+
+    @Test
+    public void testAgainstHashSet() {
+        IntHashSet set = new IntHashSet();
+        Set<Integer> expected = new HashSet<>();
+        Random random = new Random(1);
+
+        for (int index = 0; index < 100_000; index++) {
+            int value = random.nextInt(5_000) - 2_500;
+            if (random.nextInt(3) == 0) {
+                if (set.remove(value) != expected.remove(value)) die("remove", value);
+            } else {
+                if (set.add(value) != expected.add(value)) die("add", value);
+            }
+        }
+
+        if (set.size() != expected.size()) die("size", set.size(), expected.size());
+
+        for (int value = -2_500; value < 2_500; value++) {
+            if (set.contains(value) != expected.contains(value)) die("contains", value);
+        }
+
+        int count = 0;
+        IntHashSet.Cursor cursor = set.cursor();
+        while (cursor.next()) {
+            if (!expected.contains(cursor.value())) die("cursor", cursor.value());
+            count++;
+        }
+        if (count != expected.size()) die("cursor count", count);
+    }
+
+    @Test
+    public void testZeroAndToIntSet() {
+        IntList list = new IntList();
+        list.addArray(0, 1, 1, 2, 0, 3);
+
+        IntHashSet set = list.toIntSet();
+        if (set.size() != 4) die("size", set);
+        if (!set.contains(0)) die("zero", set);
+
+        set.remove(0);
+        if (set.contains(0) || set.size() != 3) die("zero removed", set);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.collections;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.boon.Exceptions.die;
+
+public class IntIntMapTest extends TestCase {
+
+    @Test
+    public void testAgainstHashMap() {
+        IntIntMap map = new IntIntMap(4, -1);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(2);
+
+        for (int index = 0; index < 100_000; index++) {
+            int key = random.nextInt(3_000) - 100;
+            int value = random.nextInt();
+            if (random.nextInt(4) == 0) {
+                Integer old = expected.remove(key);
+                if (map.remove(key) != (old == null ? -1 : old)) die("remove", key);
+            } else {
+                Integer old = expected.put(key, value);
+                if (map.put(key, value) != (old == null ? -1 : old)) die("put", key);
+            }
+        }
+
+        if (map.size() != expected.size()) die("size", map.size(), expected.size());
+
+        IntIntMap.Cursor cursor = map.cursor();
+        int count = 0;
+        while (cursor.next()) {
+            if (expected.get(cursor.key()) != cursor.value()) die("cursor", cursor.key());
+            count++;
+        }
+        if (count != expected.size()) die("cursor count", count);
+    }
+
+    @Test
+    public void testAddTo() {
+        IntIntMap counts = new IntIntMap();
+        int[] values = {5, 0, 5, 7, 0, 5};
+        for (int value : values) {
+            counts.addTo(value, 1);
+        }
+        if (counts.get(5) != 3 || counts.get(0) != 2 || counts.get(7) != 1 || counts.get(9) != 0) {
+            die("counts", counts);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.collections;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.boon.Exceptions.die;
+
+public class LongObjectMapTest extends TestCase {
+
+    @Test
+    public void testAgainstHashMap() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(3);
+
+        for (int index = 0; index < 100_000; index++) {
+            long key = (random.nextInt(3_000) - 100) * 1_000_000_007L;
+            if (random.nextInt(4) == 0) {
+                String old = expected.remove(key);
+                String removed = map.remove(key);
+                if (old == null ? removed != null : !old.equals(removed)) die("remove", key);
+            } else {
+                String value = "v" + index;
+                String old = expected.put(key, value);
+                String replaced = map.put(key, value);
+                if (old == null ? replaced != null : !old.equals(replaced)) die("put", key);
+            }
+        }
+
+        if (map.size() != expected.size()) die("size", map.size(), expected.size());
+
+        for (Map.Entry<Long, String> entry : expected.entrySet()) {
+            if (!entry.getValue().equals(map.get(entry.getKey()))) die("get", entry.getKey());
+        }
+
+        LongObjectMap<String>.Cursor cursor = map.cursor();
+        int count = 0;
+        while (cursor.next()) {
+            if (!cursor.value().equals(expected.get(cursor.key()))) die("cursor", cursor.key());
+            count++;
+        }
+        if (count != expected.size()) die("cursor count", count);
+    }
+}
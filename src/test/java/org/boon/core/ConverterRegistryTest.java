@@ -0,0 +1,139 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+package org.boon.core;
+
+import org.boon.core.reflection.MapObjectConversion;
+import org.boon.Maps;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.boon.Exceptions.die;
+
+public class ConverterRegistryTest {
+
+    static class Money {
+        final long cents;
+
+        Money(long cents) {
+            this.cents = cents;
+        }
+    }
+
+    static class Euro extends Money {
+        Euro(long cents) {
+            super(cents);
+        }
+    }
+
+    static class Account {
+        long balance;
+        int dollars;
+        String label;
+    }
+
+
+    @After
+    public void tearDown() {
+        ConverterRegistry.unregister(Money.class, long.class);
+        ConverterRegistry.unregister(Money.class, String.class);
+        ConverterRegistry.unregister(Money.class, Integer.class);
+        ConverterRegistry.unregister(String.class, Money.class);
+    }
+
+
+    @Test
+    public void builtInConvertersMatchCoerce() {
+        boolean ok = Conversions.coerce(int.class, "42") == 42 || die();
+        ok = Conversions.coerce(Integer.class, 42L) == 42 || die();
+        ok = Conversions.coerce(long.class, 7) == 7L || die();
+        ok = Conversions.coerce(String.class, 7).equals("7") || die();
+        ok = Conversions.coerce(double.class, "1.5") == 1.5 || die();
+
+        ok = ConverterRegistry.converter(String.class, int.class) ==
+                ConverterRegistry.converter(String.class, int.class) || die();
+        ok = ConverterRegistry.registeredConverter(String.class, int.class) == null || die();
+
+        ok = ConverterRegistry.toInt("12") == 12 || die();
+        ok = ConverterRegistry.toLong(12.7) == 12L || die();
+    }
+
+
+    @Test
+    public void registeredConverterIsUsedForSubclassesAndPrimitives() {
+        ConverterRegistry.register(Money.class, long.class, new ConverterRegistry.ToLong<Money>() {
+            @Override
+            public long toLong(Money value) {
+                return value.cents;
+            }
+        });
+
+        ConverterRegistry.register(Money.class, String.class, new Converter<Money, String>() {
+            @Override
+            public String convert(Money value) {
+                return "$" + value.cents / 100;
+            }
+        });
+
+        ConverterRegistry.register(Money.class, Integer.class, new Converter<Money, Integer>() {
+            @Override
+            public Integer convert(Money value) {
+                return (int) (value.cents / 100);
+            }
+        });
+
+        boolean ok = ConverterRegistry.toLong(new Euro(250)) == 250L || die();
+        ok = Conversions.coerce(Long.class, new Euro(300)) == 300L || die();
+        ok = Conversions.coerce(String.class, new Money(500)).equals("$5") || die();
+        ok = ConverterRegistry.toInt(new Money(900)) == 9 || die();
+
+        Account account = MapObjectConversion.fromMap(
+                Maps.map("balance", (Object) new Money(1000), "dollars", new Euro(2000), "label", new Money(700)),
+                Account.class);
+
+        ok = account.balance == 1000L || die(account.balance);
+        ok = account.dollars == 20 || die(account.dollars);
+        ok = account.label.equals("$7") || die(account.label);
+    }
+
+
+    @Test
+    public void unregisterFallsBackToBuiltIn() {
+        ConverterRegistry.register(String.class, Money.class, new Converter<String, Money>() {
+            @Override
+            public Money convert(String value) {
+                return new Money(Long.parseLong(value) * 100);
+            }
+        });
+
+        boolean ok = Conversions.coerce(Money.class, "3").cents == 300L || die();
+
+        ConverterRegistry.unregister(String.class, Money.class);
+
+        ok = ConverterRegistry.registeredConverter(String.class, Money.class) == null || die();
+    }
+}
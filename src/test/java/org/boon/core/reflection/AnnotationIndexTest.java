@@ -0,0 +1,108 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.core.reflection;
+
+import org.boon.core.reflection.fields.FieldAccess;
+import org.boon.json.annotations.JsonIgnore;
+import org.boon.json.annotations.JsonIgnoreProperties;
+import org.boon.json.annotations.JsonViews;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.boon.Exceptions.die;
+
+public class AnnotationIndexTest {
+
+    boolean ok;
+
+    @JsonIgnoreProperties( "secret" )
+    public static class Account {
+
+        String secret;
+
+        @JsonIgnore
+        String password;
+
+        @JsonViews( includeWithViews = { "admin" }, ignoreWithViews = { } )
+        String notes;
+
+        String name;
+    }
+
+
+    @Test
+    public void idsAreStable() {
+
+        ok = AnnotationIndex.id( "JsonIgnore" ) == AnnotationIndex.id( "JsonIgnore" ) || die();
+        ok = AnnotationIndex.id( "JsonIgnore" ) != AnnotationIndex.id( "JsonViews" ) || die();
+
+    }
+
+
+    @Test
+    public void classIndex() {
+
+        AnnotationIndex index = ClassMeta.classMeta( Account.class ).annotationIndex();
+
+        ok = index.has( "JsonIgnoreProperties" ) || die();
+        ok = index.has( JsonIgnoreProperties.class.getName() ) || die();
+        ok = index.has( "jsonIgnoreProperties" ) || die();
+        ok = index.has( AnnotationIndex.id( "JsonIgnoreProperties" ) ) || die();
+        ok = !index.has( "JsonViews" ) || die();
+        ok = !index.has( "NeverSeenBefore" ) || die();
+
+        ok = index.get( "JsonIgnoreProperties" ) == ClassMeta.classMeta( Account.class ).annotation( "JsonIgnoreProperties" ) || die();
+        ok = index.annotations().size() == 1 || die();
+
+        ok = AnnotationIndex.index( null ) == AnnotationIndex.EMPTY || die();
+        ok = AnnotationIndex.EMPTY.get( "JsonIgnore" ) == null || die();
+
+    }
+
+
+    @Test
+    public void fieldsUseTheIndex() {
+
+        Map<String, FieldAccess> fields = Reflection.getAllAccessorFields( Account.class );
+
+        ok = fields.get( "secret" ).ignore() || die( "ignored by the class annotation" );
+        ok = fields.get( "password" ).ignore() || die();
+        ok = !fields.get( "name" ).ignore() || die();
+
+        ok = fields.get( "password" ).hasAnnotation( "JsonIgnore" ) || die();
+        ok = fields.get( "password" ).getAnnotationData( "JsonIgnore" ).get( "value" ).equals( true ) || die();
+        ok = fields.get( "name" ).getAnnotationData( "JsonIgnore" ) == null || die();
+
+        ok = fields.get( "notes" ).isViewActive( "admin" ) || die();
+        ok = !fields.get( "notes" ).isViewActive( "public" ) || die();
+        ok = fields.get( "name" ).isViewActive( "public" ) || die();
+
+    }
+}
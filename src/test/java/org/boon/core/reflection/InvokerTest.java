@@ -46,6 +46,7 @@ import org.junit.Test;
 import javax.annotation.PostConstruct;
 
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.TimeZone;
 
@@ -473,6 +474,100 @@ public class InvokerTest {
         }
     }
 
-}
 
 
+    public static class Calc {
+
+        int calls;
+
+        private int add(int a, int b) {
+            calls++;
+            return a + b;
+        }
+
+        private String add(String a, String b) {
+            calls++;
+            return a + b;
+        }
+
+        private long sum(long a, long b, long c, long d, long e) {
+            return a + b + c + d + e;
+        }
+
+        private void reset() {
+            calls = 0;
+        }
+
+        private static String twice(String s) {
+            return s + s;
+        }
+
+        private int count(List<?> items) {
+            return items.size();
+        }
+    }
+
+
+    @Test
+    public void testOverloadResolutionIsCachedPerArgumentTypes() {
+        Calc calc = new Calc();
+
+        for (int index = 0; index < 3; index++) {
+            int i = (Integer) Invoker.invokeOverloaded( calc, "add", 1, 2 );
+            String s = (String) Invoker.invokeOverloaded( calc, "add", "a", "b" );
+
+            boolean ok = i == 3 || die(i);
+            ok = s.equals( "ab" ) || die(s);
+
+            i = (Integer) Invoker.invokeOverloadedFromList( calc, "add", Lists.list( 2, 3 ) );
+            s = (String) Invoker.invokeOverloadedFromList( calc, "add", Lists.list( "c", "d" ) );
+
+            ok = i == 5 || die(i);
+            ok = s.equals( "cd" ) || die(s);
+        }
+
+        boolean ok = calc.calls == 12 || die(calc.calls);
+
+        ClassMeta<Calc> meta = ClassMeta.classMeta( Calc.class );
+        MethodAccess ints = meta.resolvedOverload( "add", new Class<?>[]{ Integer.class, Integer.class } );
+        MethodAccess strings = meta.resolvedOverload( "add", new Class<?>[]{ String.class, String.class } );
+        ok = ints != null && ints.parameterTypes()[0] == int.class || die("int add not cached", ints);
+        ok = strings != null && strings.parameterTypes()[0] == String.class || die("String add not cached", strings);
+
+        /* A list argument converts depending on what is in it, so it is never cached. */
+        List<Object> args = new ArrayList<>();
+        args.add( Lists.list( 1, 2 ) );
+        ok = (Integer) Invoker.invokeOverloadedFromList( calc, "count", args ) == 2 || die();
+        ok = meta.resolvedOverload( "count", new Class<?>[]{ ArrayList.class } ) == null || die("list argument cached");
+    }
+
+
+    @Test
+    public void testMethodHandleArities() {
+        Calc calc = new Calc();
+        calc.calls = 5;
+
+        Object result = Invoker.invoke( calc, "reset" );
+        boolean ok = result == null || die(result);
+        ok = calc.calls == 0 || die(calc.calls);
+
+        ok = Invoker.invoke( Calc.class, "twice", "ab" ).equals( "abab" ) || die();
+
+        ok = Invoker.invoke( calc, "sum", 1L, 2L, 3L, 4L, 5L ).equals( 15L ) || die();
+
+        ok = Invoker.invokeFromList( calc, "sum", Lists.list( 1, 2, 3, 4, 5 ) ).equals( 15L ) || die();
+    }
+
+
+    @Test
+    public void testWrongArgumentCount() {
+        boolean failed = false;
+        try {
+            Invoker.invoke( new Calc(), "sum", 1L, 2L );
+        } catch (Exception ex) {
+            failed = true;
+        }
+        boolean ok = failed || die("called sum with two of its five arguments");
+    }
+
+}
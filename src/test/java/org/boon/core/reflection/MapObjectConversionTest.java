@@ -29,10 +29,13 @@
 package org.boon.core.reflection;
 
 import org.boon.Lists;
+import org.boon.Maps;
+import org.boon.json.JsonFactory;
 import org.junit.Test;
 
 import static org.boon.Exceptions.die;
 import static org.boon.core.reflection.MapObjectConversion.fromList;
+import static org.boon.core.reflection.MapObjectConversion.fromMap;
 
 /**
  * Created by Richard on 4/25/14.
@@ -207,4 +210,68 @@ public class MapObjectConversionTest {
         ok = employee.i == 2 || die();
     }
 
+
+
+    public static class Pojo {
+        String name;
+        int age;
+        long id;
+    }
+
+
+    @Test
+    public void fromMapKeyOrderChanges() throws Exception {
+        for ( int index = 0; index < 3; index++ ) {
+            Pojo pojo = fromMap( Maps.map( "name", ( Object ) "Rick", "age", 1, "id", 2L ), Pojo.class );
+            ok = pojo.name.equals( "Rick" ) && pojo.age == 1 && pojo.id == 2L || die();
+
+            pojo = fromMap( Maps.map( "id", ( Object ) 3L, "bogus", "x", "name", "Bob", "age", 4 ), Pojo.class );
+            ok = pojo.name.equals( "Bob" ) && pojo.age == 4 && pojo.id == 3L || die();
+
+            pojo = JsonFactory.fromJson( "{\"age\":5,\"name\":\"Sue\",\"id\":6}", Pojo.class );
+            ok = pojo.name.equals( "Sue" ) && pojo.age == 5 && pojo.id == 6L || die();
+
+            pojo = JsonFactory.fromJson( "{\"name\":\"Tom\",\"id\":7}", Pojo.class );
+            ok = pojo.name.equals( "Tom" ) && pojo.age == 0 && pojo.id == 7L || die();
+        }
+    }
+
+
+    @Test
+    public void fromMapIgnoreSetIsPartOfThePlan() throws Exception {
+        Pojo pojo = fromMap( Maps.map( "name", ( Object ) "Rick", "age", 1 ), Pojo.class, "age" );
+        ok = pojo.name.equals( "Rick" ) && pojo.age == 0 || die();
+
+        pojo = fromMap( Maps.map( "name", ( Object ) "Rick", "age", 1 ), Pojo.class, "name" );
+        ok = pojo.name == null && pojo.age == 1 || die();
+
+        pojo = fromMap( Maps.map( "name", ( Object ) "Rick", "age", 1 ), Pojo.class );
+        ok = pojo.name.equals( "Rick" ) && pojo.age == 1 || die();
+    }
+
+
+    public static class Touchy {
+        static int constructed;
+        String name;
+
+        public Touchy() {
+            constructed++;
+            throw new IllegalStateException( "no" );
+        }
+    }
+
+
+    @Test
+    public void fromMapRunsAThrowingConstructorOnce() throws Exception {
+        Touchy.constructed = 0;
+        boolean failed = false;
+        try {
+            fromMap( Maps.map( "name", ( Object ) "Rick" ), Touchy.class );
+        } catch ( Exception ex ) {
+            failed = true;
+        }
+        ok = failed || die();
+        ok = Touchy.constructed == 1 || die( "constructed", Touchy.constructed );
+    }
+
 }
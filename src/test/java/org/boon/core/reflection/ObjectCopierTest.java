@@ -0,0 +1,225 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.core.reflection;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import static org.boon.Exceptions.die;
+
+public class ObjectCopierTest {
+
+    boolean ok;
+
+    public static enum Color { RED, GREEN }
+
+    public static class Node {
+        int id;
+        double weight;
+        char code;
+        String name;
+        Color color;
+        int[] scores;
+        Date created = new Date( 1000 );
+        Node parent;
+        List<Node> children = new ArrayList<>();
+        Map<String, Node> byName = new TreeMap<>();
+        Object anything;
+    }
+
+
+    private Node tree() {
+        Node root = new Node();
+        root.id = 1;
+        root.weight = 2.5;
+        root.code = 'r';
+        root.name = "root";
+        root.color = Color.GREEN;
+        root.scores = new int[]{ 1, 2, 3 };
+        root.anything = "shared";
+
+        Node child = new Node();
+        child.id = 2;
+        child.name = "child";
+        child.parent = root;
+
+        root.children.add( child );
+        root.byName.put( "child", child );
+        return root;
+    }
+
+
+    @Test
+    public void deepCopy() {
+
+        Node root = tree();
+        Node copy = ObjectCopier.copy( root );
+
+        ok = copy != root || die();
+        ok = copy.id == 1 && copy.weight == 2.5 && copy.code == 'r' || die();
+        ok = copy.name == root.name || die( "strings are shared" );
+        ok = copy.color == Color.GREEN || die();
+        ok = copy.anything == root.anything || die();
+
+        ok = copy.scores != root.scores && Arrays.equals( copy.scores, root.scores ) || die();
+        ok = copy.created != root.created && copy.created.equals( root.created ) || die();
+
+        ok = copy.children != root.children || die();
+        ok = copy.children.size() == 1 || die();
+        ok = copy.children.get( 0 ) != root.children.get( 0 ) || die();
+        ok = copy.byName instanceof TreeMap || die( "expected a TreeMap", copy.byName.getClass() );
+
+        root.scores[ 0 ] = 99;
+        root.children.get( 0 ).name = "changed";
+        ok = copy.scores[ 0 ] == 1 || die();
+        ok = copy.children.get( 0 ).name.equals( "child" ) || die();
+
+    }
+
+
+    @Test
+    public void cyclesAndSharedReferences() {
+
+        Node root = tree();
+        Node copy = ObjectCopier.copy( root );
+
+        Node child = copy.children.get( 0 );
+        ok = child.parent == copy || die( "cycle should point back at the copy" );
+        ok = copy.byName.get( "child" ) == child || die( "one copy per object" );
+
+    }
+
+
+    @Test
+    public void maxDepth() {
+
+        Node root = tree();
+
+        Node shallow = ObjectCopier.copy( root, 1 );
+        ok = shallow != root || die();
+        ok = shallow.children == root.children || die( "one level only copies the top object" );
+        ok = shallow.scores == root.scores || die();
+
+        Node two = ObjectCopier.copy( root, 2 );
+        ok = two.children != root.children || die();
+        ok = two.children.get( 0 ) == root.children.get( 0 ) || die();
+
+    }
+
+
+    @Test
+    public void collections() {
+
+        List<Object> list = new LinkedList<>();
+        list.add( tree() );
+        list.add( Arrays.asList( "a", "b" ) );
+        list.add( Collections.unmodifiableSet( new HashSet<>( Arrays.asList( 1, 2 ) ) ) );
+
+        List<Object> copy = ObjectCopier.copy( list );
+
+        ok = copy instanceof LinkedList || die();
+        ok = copy.get( 0 ) != list.get( 0 ) || die();
+        ok = copy.get( 1 ).equals( list.get( 1 ) ) || die();
+        ok = copy.get( 2 ).equals( list.get( 2 ) ) || die();
+
+    }
+
+    public static class FixedList extends ArrayList<String> {
+        public FixedList( String... items ) {
+            super( Arrays.asList( items ) );
+        }
+    }
+
+
+    public static class Holder {
+        ConcurrentSkipListMap<String, Node> skipList = new ConcurrentSkipListMap<>( Collections.reverseOrder() );
+        SortedSet<String> sorted = new TreeSet<>( String.CASE_INSENSITIVE_ORDER );
+        List<String> readOnly = Collections.unmodifiableList( new ArrayList<>( Arrays.asList( "a", "b" ) ) );
+        Set<Integer> locked = Collections.synchronizedSet( new HashSet<>( Arrays.asList( 1, 2 ) ) );
+        EnumMap<Color, String> colors = new EnumMap<>( Color.class );
+        FixedList fixed = new FixedList( "f" );
+    }
+
+
+    @Test
+    public void collectionsKeepTheirClass() {
+        Holder holder = new Holder();
+        holder.skipList.put( "a", tree() );
+        holder.skipList.put( "b", new Node() );
+        holder.sorted.add( "B" );
+        holder.sorted.add( "a" );
+        holder.colors.put( Color.RED, "red" );
+
+        Holder copy = ObjectCopier.copy( holder );
+
+        ok = copy.skipList instanceof ConcurrentSkipListMap || die( copy.skipList );
+        ok = copy.skipList != holder.skipList || die();
+        ok = copy.skipList.comparator() == holder.skipList.comparator() || die();
+        ok = copy.skipList.firstKey().equals( "b" ) || die( copy.skipList );
+        ok = copy.skipList.get( "a" ) != holder.skipList.get( "a" ) || die();
+        ok = copy.skipList.get( "a" ).name.equals( "root" ) || die();
+
+        ok = copy.sorted instanceof TreeSet || die();
+        ok = copy.sorted.contains( "b" ) || die( copy.sorted );
+
+        ok = copy.readOnly.getClass() == holder.readOnly.getClass() || die( "readOnly", copy.readOnly.getClass() );
+        ok = copy.readOnly.equals( holder.readOnly ) || die( copy.readOnly );
+        try {
+            copy.readOnly.add( "c" );
+            die( "copy of an unmodifiable list is modifiable" );
+        } catch ( UnsupportedOperationException expected ) {
+        }
+
+        ok = copy.locked.getClass() == holder.locked.getClass() || die( "locked", copy.locked.getClass() );
+        ok = copy.locked.equals( holder.locked ) || die( copy.locked );
+
+        ok = copy.colors != holder.colors || die();
+        ok = "red".equals( copy.colors.get( Color.RED ) ) || die( copy.colors );
+    }
+
+
+    @Test
+    public void plainStandInOnlyWhereItFits() {
+        Node node = new Node();
+        node.anything = Arrays.asList( "x", "y" );
+        node.children = Arrays.asList( node );
+
+        Node copy = ObjectCopier.copy( node );
+
+        ok = copy.anything instanceof ArrayList || die( copy.anything );
+        ok = copy.anything.equals( node.anything ) || die();
+        ok = copy.children.get( 0 ) == copy || die();
+
+        /* No way to make a FixedList, and an ArrayList does not fit the field. */
+        Holder holder = new Holder();
+        ok = ObjectCopier.copy( holder ).fixed == holder.fixed || die();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+package org.boon.core.reflection;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.boon.Exceptions.die;
+import static org.boon.Maps.map;
+
+public class PropertyPathTest {
+
+    public static class Person {
+        String name;
+        int age;
+        long id;
+        Dept dept;
+
+        Person( String name, int age, Dept dept ) {
+            this.name = name;
+            this.age = age;
+            this.id = age * 1000L;
+            this.dept = dept;
+        }
+    }
+
+    public static class Manager extends Person {
+        String title = "boss";
+
+        Manager( String name, int age ) {
+            super( name, age, null );
+        }
+    }
+
+    public static class Dept {
+        String name;
+        Person manager;
+        List<Person> people;
+
+        Dept( String name, Person manager, Person... people ) {
+            this.name = name;
+            this.manager = manager;
+            this.people = Arrays.asList( people );
+        }
+    }
+
+    @Test
+    public void beanPath() {
+        Dept dept = new Dept( "eng", new Person( "Rick", 40, null ) );
+        Person person = new Person( "Bob", 30, dept );
+
+        PropertyPath path = BeanUtils.compilePath( Person.class, "dept.manager.name" );
+
+        boolean ok = "Rick".equals( path.getValue( person ) ) || die( path.getValue( person ) );
+        ok &= BeanUtils.compilePath( Person.class, "dept.manager.age" ).getInt( person ) == 40 || die();
+        ok &= BeanUtils.compilePath( Person.class, "dept.manager.id" ).getLong( person ) == 40_000L || die();
+        ok &= BeanUtils.compilePath( Person.class, "dept.manager.age" ).getLong( person ) == 40L || die();
+
+        ok &= path == BeanUtils.compilePath( Person.class, "dept.manager.name" ) || die( "not cached" );
+        ok &= path.getValue( new Person( "Nobody", 1, null ) ) == null || die();
+        ok &= BeanUtils.compilePath( Person.class, "dept.nope" ).getValue( person ) == null || die();
+    }
+
+    @Test
+    public void subclassesStillWork() {
+        PropertyPath path = BeanUtils.compilePath( Dept.class, "manager.title" );
+
+        Dept dept = new Dept( "eng", new Manager( "Rick", 40 ) );
+        boolean ok = "boss".equals( path.getValue( dept ) ) || die( path.getValue( dept ) );
+
+        Dept plain = new Dept( "ops", new Person( "Sue", 20, null ) );
+        ok &= path.getValue( plain ) == null || die();
+        ok &= "boss".equals( path.getValue( dept ) ) || die();
+    }
+
+    @Test
+    public void listsAndMaps() {
+        Dept dept = new Dept( "eng", null, new Person( "A", 1, null ), new Person( "B", 2, null ) );
+
+        boolean ok = "B".equals( BeanUtils.compilePath( Dept.class, "people[1].name" ).getValue( dept ) ) || die();
+        ok &= Arrays.asList( "A", "B" ).equals( BeanUtils.compilePath( Dept.class, "people.name" ).getValue( dept ) ) || die();
+
+        Map<String, Object> map = map( "dept", ( Object ) dept );
+        ok &= "eng".equals( BeanUtils.compilePath( map.getClass(), "dept.name" ).getValue( map ) ) || die();
+
+        ok &= "eng".equals( BeanUtils.idx( map, "dept.name" ) ) || die();
+        ok &= "eng".equals( BeanUtils.atIndex( dept, "this.name" ) ) || die();
+    }
+}
@@ -404,4 +404,40 @@ public class ReflectionTest {
     }
 
 
-}
\ No newline at end of file
+
+    @Test
+    public void warmUpFillsTheContext() {
+        Reflection.warmUp( Dog.class, Cat.class, Runnable.class );
+
+        boolean ok = Reflection.context()._classMetaMap.containsKey( Dog.class ) || die();
+        ok = Reflection.context()._classMetaMap.containsKey( Cat.class ) || die();
+        ok = !Reflection.context()._classMetaMap.containsKey( Runnable.class ) || die();
+        ok = Reflection.context()._combinedFieldsFieldsFirstForSerializer.containsKey( Dog.class ) || die();
+    }
+
+
+    @Test
+    public void warmUpPackages() {
+        List<Class<?>> classes = Reflection.warmUpPackages( "org.boon.core.reflection.fields" );
+
+        boolean ok = classes.contains( org.boon.core.reflection.fields.BaseField.class ) || die( classes );
+        ok = classes.contains( org.boon.core.reflection.fields.UnsafeField.class ) || die( classes );
+        ok = Reflection.context()._classMetaMap.containsKey( org.boon.core.reflection.fields.UnsafeField.class ) || die();
+    }
+
+
+    @Test
+    public void boundedContextDropsClasses() {
+        Reflection.Context context = new Reflection.Context( 2 );
+
+        context._classMetaMap.put( Dog.class, ClassMeta.classMeta( Dog.class ) );
+        context._classMetaMap.put( Cat.class, ClassMeta.classMeta( Cat.class ) );
+        context._classMetaMap.put( Dog.class, ClassMeta.classMeta( Dog.class ) );
+        boolean ok = context._classMetaMap.size() == 2 || die();
+
+        context._classMetaMap.put( Types.class, ClassMeta.classMeta( Types.class ) );
+        ok = context._classMetaMap.size() == 2 || die( context._classMetaMap.size() );
+        ok = context._classMetaMap.containsKey( Types.class ) || die();
+    }
+
+}
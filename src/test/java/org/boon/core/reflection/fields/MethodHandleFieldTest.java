@@ -0,0 +1,129 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+package org.boon.core.reflection.fields;
+
+import org.boon.core.reflection.Reflection;
+import org.boon.json.JsonParserFactory;
+import org.boon.json.JsonSerializerFactory;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.boon.Exceptions.die;
+
+public class MethodHandleFieldTest {
+
+    public static class Thing {
+        private int count = 1;
+        private long big = 2L;
+        private double ratio = 0.5;
+        private boolean on = true;
+        private char letter = 'a';
+        private String name = "thing";
+        private List<String> tags = Arrays.asList( "a", "b" );
+        private final String id = "fixed";
+        static String shared = "static";
+    }
+
+    public static class Holder {
+        static final String CONSTANT = "constant";
+    }
+
+    @Test
+    public void readsAndWrites() {
+        Map<String, FieldAccess> fields = Reflection.getAllMethodHandleFields( Thing.class );
+        Thing thing = new Thing();
+
+        boolean ok = fields.get( "count" ) instanceof MethodHandleField || die( fields.get( "count" ) );
+
+        fields.get( "count" ).setInt( thing, 42 );
+        ok &= thing.count == 42 || die( thing.count );
+        ok &= fields.get( "count" ).getInt( thing ) == 42 || die();
+        ok &= fields.get( "count" ).getValue( thing ).equals( 42 ) || die();
+
+        fields.get( "big" ).setValue( thing, "7" );
+        ok &= fields.get( "big" ).getLong( thing ) == 7L || die( thing.big );
+
+        fields.get( "ratio" ).setDouble( thing, 1.5 );
+        ok &= fields.get( "ratio" ).getDouble( thing ) == 1.5 || die( thing.ratio );
+
+        fields.get( "on" ).setBoolean( thing, false );
+        ok &= !fields.get( "on" ).getBoolean( thing ) || die();
+
+        ok &= fields.get( "letter" ).getChar( thing ) == 'a' || die();
+
+        fields.get( "name" ).setObject( thing, "other" );
+        ok &= "other".equals( fields.get( "name" ).getObject( thing ) ) || die( thing.name );
+
+        ok &= "fixed".equals( fields.get( "id" ).getValue( thing ) ) || die();
+        ok &= "static".equals( fields.get( "shared" ).getObject( null ) ) || die();
+    }
+
+    @Test
+    public void staticFinalFieldsAreReadOnly() {
+        FieldAccess constant = Reflection.getAllMethodHandleFields( Holder.class ).get( "CONSTANT" );
+        boolean ok = "constant".equals( constant.getObject( null ) ) || die();
+
+        boolean failed = false;
+        try {
+            constant.setObject( null, "changed" );
+        } catch ( Exception expected ) {
+            failed = true;
+        }
+        ok &= failed || die( "static final field was set" );
+        ok &= "constant".equals( constant.getObject( null ) ) || die( constant.getObject( null ) );
+    }
+
+    @Test
+    public void wrongTypeDies() {
+        FieldAccess name = Reflection.getAllMethodHandleFields( Thing.class ).get( "name" );
+        boolean failed = false;
+        try {
+            name.getInt( new Thing() );
+        } catch ( Exception expected ) {
+            failed = true;
+        }
+        boolean ok = failed || die( "read an int from a String field" );
+    }
+
+    @Test
+    public void jsonRoundTrip() {
+        Thing thing = new Thing();
+        thing.count = 9;
+        thing.name = "json";
+
+        String json = new JsonSerializerFactory().useMethodHandles().create().serialize( thing ).toString();
+        Thing back = new JsonParserFactory().useMethodHandles().create().parse( Thing.class, json );
+
+        boolean ok = back.count == 9 || die( json );
+        ok &= "json".equals( back.name ) || die( json );
+        ok &= back.tags.equals( Arrays.asList( "a", "b" ) ) || die( json );
+    }
+}
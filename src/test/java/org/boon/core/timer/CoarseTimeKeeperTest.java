@@ -0,0 +1,59 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.core.timer;
+
+import org.boon.core.Sys;
+import org.junit.Test;
+
+import static org.boon.Exceptions.die;
+
+public class CoarseTimeKeeperTest {
+
+    @Test
+    public void tracksWallClockAndNeverGoesBack() throws Exception {
+        TimeKeeper timeKeeper = new CoarseTimeKeeper();
+
+        long first = timeKeeper.time();
+        boolean ok = Math.abs( first - System.currentTimeMillis() ) < 1_000 || die( first );
+
+        long last = first;
+        long end = System.currentTimeMillis() + 100;
+        while ( System.currentTimeMillis() < end ) {
+            long now = timeKeeper.time();
+            ok |= now >= last || die( now, last );
+            last = now;
+        }
+        ok |= last > first || die( "clock did not tick", first, last );
+    }
+
+    @Test
+    public void isTheDefaultTimer() {
+        boolean ok = Sys.timer() instanceof CoarseTimeKeeper || die( Sys.timer() );
+    }
+}
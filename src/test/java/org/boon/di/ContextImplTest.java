@@ -0,0 +1,206 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.di;
+
+import org.boon.di.impl.ContextImpl;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.boon.Exceptions.die;
+import static org.boon.di.DependencyInjection.context;
+import static org.boon.di.DependencyInjection.suppliers;
+import static org.boon.di.ProviderInfo.providerOf;
+
+public class ContextImplTest {
+
+
+    public static class Breakfast {
+        @Inject
+        Bacon bacon;
+
+        @Inject
+        String greeting;
+
+        int postConstructCount;
+
+        @PostConstruct
+        void cook() {
+            postConstructCount++;
+        }
+    }
+
+
+    static final List<String> started = Collections.synchronizedList( new ArrayList<String>() );
+
+
+    public static class Engine {
+        @PostConstruct
+        void start() {
+            started.add( "engine" );
+        }
+    }
+
+    public static class Wheels {
+        @PostConstruct
+        void start() {
+            started.add( "wheels" );
+        }
+    }
+
+    public static class Car {
+        @Inject
+        Engine engine;
+
+        @Inject
+        Wheels wheels;
+
+        @PostConstruct
+        void start() {
+            started.add( "car" );
+        }
+    }
+
+    public static class Driver {
+        @Inject
+        Car car;
+
+        @PostConstruct
+        void start() {
+            started.add( "driver" );
+        }
+    }
+
+    public static class Chicken {
+        @Inject
+        Egg egg;
+    }
+
+    public static class Egg {
+        @Inject
+        Chicken chicken;
+    }
+
+
+    @Test
+    public void lookupsFollowAddAndRemove() {
+
+        Bacon red = new Bacon();
+        Bacon crispy = new Bacon();
+
+        Module first = suppliers( providerOf( "bacon", red ) );
+        Module second = suppliers( providerOf( "bacon", crispy ) );
+
+        Context context = context( first );
+
+        boolean ok = context.get( "bacon" ) == red || die();
+        ok = context.get( "bacon" ) == red || die( "cached lookup should still answer red" );
+
+        context.addFirst( second );
+        ok = context.get( "bacon" ) == crispy || die( "new module added first should win" );
+
+        context.remove( second );
+        ok = context.get( "bacon" ) == red || die();
+
+        context.remove( first );
+        ok = !context.has( "bacon" ) || die( "removed module is still answering" );
+        ok = context.get( "bacon" ) == null || die();
+
+    }
+
+
+    @Test
+    public void injectionPlan() {
+
+        Bacon bacon = new Bacon();
+
+        Context context = context( suppliers( providerOf( bacon ),
+                providerOf( "greeting", "good morning" ) ) );
+
+        for ( int index = 0; index < 3; index++ ) {
+            Breakfast breakfast = new Breakfast();
+            context.resolveProperties( breakfast );
+
+            boolean ok = breakfast.bacon == bacon || die();
+            ok = "good morning".equals( breakfast.greeting ) || die( breakfast.greeting );
+            ok = breakfast.postConstructCount == 1 || die( breakfast.postConstructCount );
+        }
+
+    }
+
+
+    @Test
+    public void eagerInitRunsPostConstructInDependencyOrder() {
+
+        started.clear();
+
+        Driver driver = new Driver();
+        Car car = new Car();
+
+        Context context = context( suppliers( providerOf( "driver", driver ), providerOf( "car", car ),
+                providerOf( "engine", new Engine() ), providerOf( "wheels", new Wheels() ) ) );
+
+        Map<String, Long> timings = ( ( ContextImpl ) context ).eagerInit( 4 );
+
+        boolean ok = timings.size() == 4 || die( timings );
+        ok = timings.containsKey( "driver" ) && timings.containsKey( "engine" ) || die( timings );
+
+        ok = started.size() == 4 || die( started );
+        ok = started.indexOf( "engine" ) < started.indexOf( "car" ) || die( started );
+        ok = started.indexOf( "wheels" ) < started.indexOf( "car" ) || die( started );
+        ok = started.get( 3 ).equals( "driver" ) || die( started );
+
+        ok = driver.car == car || die();
+        ok = car.engine != null && car.wheels != null || die();
+
+        /* Already done, a get does not post construct again. */
+        ok = context.get( Driver.class ) == driver || die();
+        ok = context.get( "car" ) == car || die();
+        ok = started.size() == 4 || die( started );
+
+    }
+
+
+    @Test
+    public void eagerInitFindsCycles() {
+
+        Context context = context( suppliers( providerOf( "chicken", new Chicken() ), providerOf( "egg", new Egg() ) ) );
+
+        try {
+            context.eagerInit();
+            die( "cycle was not found" );
+        } catch ( Exception ex ) {
+            boolean ok = ex.getMessage().contains( "cycle" ) || die( ex.getMessage() );
+        }
+
+    }
+}
@@ -31,6 +31,7 @@ package org.boon.primitive;
 import org.junit.Test;
 
 import static org.boon.Boon.puts;
+import static org.boon.Exceptions.die;
 
 /**
  * Created by Richard on 3/16/14.
@@ -47,4 +48,37 @@ public class DblTest {
 
 
     }
+
+
+    @Test
+    public void testMedianAndParallel() {
+        java.util.Random random = new java.util.Random(13);
+        double[] values = new double[(1 << 20) + 7];
+        for (int index = 0; index < values.length; index++) {
+            values[index] = random.nextDouble() * 1000;
+        }
+
+        double[] sorted = values.clone();
+        java.util.Arrays.sort(sorted);
+
+        if (Dbl.median(values) != sorted[values.length / 2]) {
+            die("median", Dbl.median(values), sorted[values.length / 2]);
+        }
+
+        if (Dbl.percentile(values, 99) != sorted[(int) Math.ceil(0.99 * values.length) - 1]) {
+            die("percentile");
+        }
+
+        if (Math.abs(Dbl.parallelSum(values) - Dbl.sum(values)) > 1e-6 * Dbl.sum(values)) {
+            die("sum", Dbl.parallelSum(values), Dbl.sum(values));
+        }
+
+        if (Dbl.parallelMax(values) != Dbl.max(values) || Dbl.parallelMin(values) != Dbl.min(values)) {
+            die("max min");
+        }
+
+        if (Math.abs(Dbl.parallelVariance(values) - Dbl.variance(values)) > 1e-6 * Dbl.variance(values)) {
+            die("variance", Dbl.parallelVariance(values), Dbl.variance(values));
+        }
+    }
 }
@@ -82,4 +82,46 @@ public class IntTest {
 
 
     }
+
+
+    @Test
+    public void testMedianAndPercentile() {
+        java.util.Random random = new java.util.Random(11);
+
+        for (int size = 1; size < 200; size++) {
+            int[] values = new int[size];
+            for (int index = 0; index < size; index++) {
+                values[index] = random.nextInt(50) - 25;
+            }
+
+            int[] sorted = values.clone();
+            java.util.Arrays.sort(sorted);
+
+            int expected = size % 2 == 0
+                    ? (int) Math.round((sorted[size / 2 - 1] + sorted[size / 2]) / 2.0)
+                    : sorted[size / 2];
+
+            Int.equalsOrDie(expected, Int.median(values));
+            Int.equalsOrDie(sorted[(int) Math.ceil(0.9 * size) - 1], Int.percentile(values, 90));
+            Int.equalsOrDie(sorted[0], Int.percentile(values, 0));
+            Int.equalsOrDie(sorted[size - 1], Int.percentile(values, 100));
+        }
+    }
+
+    @Test
+    public void testParallelMatchesSequential() {
+        java.util.Random random = new java.util.Random(12);
+        int[] values = new int[(1 << 20) + 13];
+        for (int index = 0; index < values.length; index++) {
+            values[index] = random.nextInt(2000) - 1000;
+        }
+
+        okOrDie("big sum", Int.parallelBigSum(values) == Int.bigSum(values));
+        Int.equalsOrDie(Int.sum(values), Int.parallelSum(values));
+        Int.equalsOrDie(Int.max(values), Int.parallelMax(values));
+        Int.equalsOrDie(Int.min(values), Int.parallelMin(values));
+        Int.equalsOrDie(Int.mean(values), Int.parallelMean(values));
+        Int.equalsOrDie(Int.variance(values), Int.parallelVariance(values));
+        Int.equalsOrDie(Int.standardDeviation(values), Int.parallelStandardDeviation(values));
+    }
 }
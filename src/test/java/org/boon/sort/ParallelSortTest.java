@@ -0,0 +1,131 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+
+package org.boon.sort;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.boon.Exceptions.die;
+import static org.boon.sort.Sort.sortBy;
+
+public class ParallelSortTest {
+
+    public static class Employee {
+        String lastName;
+        String firstName;
+        int age;
+
+        public Employee( String lastName, String firstName, int age ) {
+            this.lastName = lastName;
+            this.firstName = firstName;
+            this.age = age;
+        }
+
+        @Override
+        public String toString() {
+            return lastName + ", " + firstName + " " + age;
+        }
+    }
+
+    private List<Employee> employees( int count ) {
+        Random random = new Random( 42 );
+        List<Employee> list = new ArrayList<>( count );
+        for ( int index = 0; index < count; index++ ) {
+            String lastName = random.nextInt( 10 ) == 0 ? null : "last" + random.nextInt( 50 );
+            list.add( new Employee( lastName, "first" + random.nextInt( 100 ), random.nextInt( 80 ) ) );
+        }
+        return list;
+    }
+
+    @Test
+    public void sameOrderAsSingleThreadedMultiKey() {
+
+        List<Employee> expected = employees( 50_000 );
+        List<Employee> actual = new ArrayList<>( expected );
+
+        Collections.sort( expected, Sort.sorts( sortBy( "lastName" ), sortBy( "firstName" ), Sort.desc( "age" ) )
+                .comparator( org.boon.core.reflection.BeanUtils.getFieldsFromObject( expected.get( 0 ) ) ) );
+
+        Sorting.parallelSort( actual, sortBy( "lastName" ), sortBy( "firstName" ), Sort.desc( "age" ) );
+
+        for ( int index = 0; index < expected.size(); index++ ) {
+            if ( expected.get( index ) != actual.get( index ) ) {
+                die( "order differs at", index, expected.get( index ), actual.get( index ) );
+            }
+        }
+    }
+
+    @Test
+    public void nullsFirstAndLast() {
+
+        List<Employee> list = employees( 40_000 );
+        Employee[] array = list.toArray( new Employee[ list.size() ] );
+        Employee[] expected = array.clone();
+
+        Sorting.parallelSort( list, "lastName", true, true );
+        Sorting.parallelSort( array, "lastName", false, false );
+        Sorting.sort( expected, "lastName", false, false );
+
+        if ( list.get( 0 ).lastName != null ) {
+            die( "nulls should be first", list.get( 0 ) );
+        }
+
+        if ( list.get( list.size() - 1 ).lastName == null ) {
+            die( "nulls should not be last", list.get( list.size() - 1 ) );
+        }
+
+        for ( int index = 0; index < expected.length; index++ ) {
+            if ( expected[ index ] != array[ index ] ) {
+                die( "descending order differs at", index, expected[ index ], array[ index ] );
+            }
+        }
+    }
+
+    @Test
+    public void naturalOrderStrings() {
+
+        Random random = new Random( 7 );
+        List<String> list = new ArrayList<>();
+        for ( int index = 0; index < 30_000; index++ ) {
+            list.add( "item" + random.nextInt( 1_000_000 ) );
+        }
+
+        List<String> expected = new ArrayList<>( list );
+        Sorting.sort( expected );
+        Sorting.parallelSort( list );
+
+        if ( !expected.equals( list ) ) {
+            die( "natural order differs" );
+        }
+    }
+}
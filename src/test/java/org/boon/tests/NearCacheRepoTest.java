@@ -0,0 +1,168 @@
+/*
+ * Copyright 2013-2014 Richard M. Hightower
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * __________                              _____          __   .__
+ * \______   \ ____   ____   ____   /\    /     \ _____  |  | _|__| ____    ____
+ *  |    |  _//  _ \ /  _ \ /    \  \/   /  \ /  \\__  \ |  |/ /  |/    \  / ___\
+ *  |    |   (  <_> |  <_> )   |  \ /\  /    Y    \/ __ \|    <|  |   |  \/ /_/  >
+ *  |______  /\____/ \____/|___|  / \/  \____|__  (____  /__|_ \__|___|  /\___  /
+ *         \/                   \/              \/     \/     \/       \//_____/
+ *      ____.                     ___________   _____    ______________.___.
+ *     |    |____ ___  _______    \_   _____/  /  _  \  /   _____/\__  |   |
+ *     |    \__  \\  \/ /\__  \    |    __)_  /  /_\  \ \_____  \  /   |   |
+ * /\__|    |/ __ \\   /  / __ \_  |        \/    |    \/        \ \____   |
+ * \________(____  /\_/  (____  / /_______  /\____|__  /_______  / / ______|
+ *               \/           \/          \/         \/        \/  \/
+ */
+package org.boon.tests;
+
+import org.boon.cache.CacheType;
+import org.boon.core.Function;
+import org.boon.criteria.ObjectFilter;
+import org.boon.datarepo.Repo;
+import org.boon.datarepo.Repos;
+import org.boon.tests.model.Employee;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.boon.Exceptions.die;
+import static org.boon.tests.model.Employee.employee;
+
+public class NearCacheRepoTest {
+
+    Map<String, Employee> store;
+    AtomicInteger loads;
+    Repo<String, Employee> repo;
+
+    @Before
+    public void setup() {
+        store = new HashMap<>();
+        loads = new AtomicInteger();
+        for ( int index = 0; index < 10; index++ ) {
+            Employee employee = employee( "first" + index, "Smith", "id" + index, "05.29.70", 10_000 );
+            store.put( employee.getId(), employee );
+        }
+
+        repo = Repos.builder().primaryKey( "id" ).searchIndex( "firstName" ).lookupIndex( "lastName" )
+                .nearCache( 3, CacheType.LRU, new Function<String, Employee>() {
+                    @Override
+                    public Employee apply( String id ) {
+                        loads.incrementAndGet();
+                        return store.get( id );
+                    }
+                } ).build( String.class, Employee.class );
+    }
+
+    @Test
+    public void coldKeysAreLoaded() {
+        Employee employee = repo.get( "id1" );
+
+        boolean ok = employee != null && employee.getFirstName().equals( "first1" ) || die( employee );
+        ok &= loads.get() == 1 || die( loads );
+
+        repo.get( "id1" );
+        ok &= loads.get() == 1 || die( "hot key went to the loader", loads );
+
+        ok &= repo.query( ObjectFilter.eq( "firstName", "first1" ) ).size() == 1 || die( "not in secondary index" );
+
+        ok &= repo.get( "nope" ) == null || die();
+        ok &= repo.size() == 1 || die( repo.size() );
+    }
+
+    @Test
+    public void evictedItemsLeaveEveryIndex() {
+        for ( int index = 0; index < 10; index++ ) {
+            repo.get( "id" + index );
+        }
+
+        boolean ok = repo.size() == 3 || die( repo.size() );
+        ok &= repo.query( ObjectFilter.eq( "lastName", "Smith" ) ).size() == 3 || die( "lastName" );
+        ok &= repo.query( ObjectFilter.eq( "firstName", "first0" ) ).size() == 0 || die( "first0 still indexed" );
+        ok &= repo.query( ObjectFilter.eq( "firstName", "first9" ) ).size() == 1 || die( "first9 missing" );
+
+        /* Faults back in. */
+        ok &= repo.get( "id0" ) != null || die();
+        ok &= loads.get() == 11 || die( loads );
+        ok &= repo.query( ObjectFilter.eq( "firstName", "first0" ) ).size() == 1 || die( "first0 not back" );
+        ok &= repo.size() == 3 || die( repo.size() );
+    }
+
+    @Test
+    public void addedItemsAreBounded() {
+        for ( Employee employee : store.values() ) {
+            repo.add( employee );
+        }
+
+        boolean ok = repo.size() == 3 || die( repo.size() );
+        ok &= repo.query( ObjectFilter.eq( "lastName", "Smith" ) ).size() == 3 || die( "lastName" );
+        ok &= loads.get() == 0 || die( loads );
+
+        repo.delete( repo.all().get( 0 ) );
+        ok &= repo.size() == 2 || die( repo.size() );
+        ok &= repo.query( ObjectFilter.eq( "lastName", "Smith" ) ).size() == 2 || die( "lastName after delete" );
+    }
+
+    @Test
+    public void concurrentColdGetsLoadOnce() throws Exception {
+        final AtomicInteger slowLoads = new AtomicInteger();
+        final Repo<String, Employee> slowRepo = Repos.builder().primaryKey( "id" ).searchIndex( "firstName" )
+                .nearCache( 3, CacheType.LRU, new Function<String, Employee>() {
+                    @Override
+                    public Employee apply( String id ) {
+                        slowLoads.incrementAndGet();
+                        try {
+                            Thread.sleep( 100 );
+                        } catch ( InterruptedException e ) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return store.get( id );
+                    }
+                } ).build( String.class, Employee.class );
+
+        final CountDownLatch start = new CountDownLatch( 1 );
+        Thread[] threads = new Thread[ 8 ];
+        final Employee[] results = new Employee[ threads.length ];
+        for ( int index = 0; index < threads.length; index++ ) {
+            final int slot = index;
+            threads[ index ] = new Thread( new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch ( InterruptedException e ) {
+                        return;
+                    }
+                    results[ slot ] = slowRepo.get( "id1" );
+                }
+            } );
+            threads[ index ].start();
+        }
+        start.countDown();
+        for ( Thread thread : threads ) {
+            thread.join();
+        }
+
+        boolean ok = slowLoads.get() == 1 || die( "loads", slowLoads.get() );
+        for ( Employee result : results ) {
+            ok &= result != null && result.getId().equals( "id1" ) || die( result );
+        }
+        ok &= slowRepo.size() == 1 || die( slowRepo.size() );
+        ok &= slowRepo.query( ObjectFilter.eq( "firstName", "first1" ) ).size() == 1 || die( "indexed twice" );
+    }
+}
@@ -114,6 +114,15 @@ public class RepoBuilderTest {
     }
 
 
+    @Test
+    public void testWithMethodHandles() throws Exception {
+
+        test.repo = TestHelper.createFromBuilderUsingMethodHandles();
+        runAll();
+
+    }
+
+
     @Test
     public void testWithEvents() throws Exception {
 
@@ -237,6 +237,24 @@ public class TestHelper {
         return repo;
     }
 
+    static Repo<String, Employee> createFromBuilderUsingMethodHandles() {
+
+        RepoBuilder repoBuilder = Repos.builder();
+
+        repoBuilder.primaryKey( "id" )
+                .searchIndex( "firstName" ).searchIndex( "lastName" )
+                .searchIndex( "salary" ).uniqueSearchIndex( "empNum" )
+                .useMethodHandles( true );
+
+        Repo<String, Employee> repo
+                = repoBuilder.build( String.class, Employee.class, SalesEmployee.class );
+
+        for ( Employee employee : employees ) {
+            repo.add( employee );
+        }
+        return repo;
+    }
+
     static Repo<String, Employee> createFromBuilderEvents() {
 
         /* Create a repo, and decide what to index. */